@@ -0,0 +1,105 @@
+package edu.ucdenver.ccp.datasource.identifiers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.goa.gaf.GoaFileIdResolver;
+
+/**
+ * Measures id resolution through the prefix rules of {@link DataSourceIdResolver} and through a
+ * file-specific {@link IdResolver}, for ids that resolve and for ids that are rejected by their
+ * identifier class.
+ *
+ * @author Center for Computational Pharmacology; ccpsupport@ucdenver.edu
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdResolverBenchmark {
+
+	private static final String[] VALID_IDS = { "MGI:97490", "Ensembl:ENSG00000139618", "refseq:NM_000059.3",
+			"UniProtKB/Swiss-Prot:P51587", "RGD:2219", "ZFIN:ZDB-GENE-040426-1432", "FLYBASE:FBgn0000490",
+			"WormBase:WBGene00000001" };
+
+	private static final String[] INVALID_IDS = { "refseq:not_a_refseq_id", "RGD:abc" };
+
+	private static final String[] GOA_IDS = { "MGI:MGI:97490", "PMID:12345678", "RGD:2219", "ZFIN:ZDB-GENE-040426-1432" };
+
+	private final IdResolver goaResolver = new GoaFileIdResolver();
+
+	@Benchmark
+	public void resolveValidIds(Blackhole blackhole) {
+		for (String id : VALID_IDS) {
+			blackhole.consume(DataSourceIdResolver.resolveId(id));
+		}
+	}
+
+	@Benchmark
+	public void resolveInvalidIds(Blackhole blackhole) {
+		for (String id : INVALID_IDS) {
+			blackhole.consume(DataSourceIdResolver.resolveId(id));
+		}
+	}
+
+	@Benchmark
+	public void tryResolveDataSourceIds(Blackhole blackhole) {
+		blackhole.consume(DataSourceIdResolver.tryResolveId(DataSource.NCBI_GENE, "5925"));
+		blackhole.consume(DataSourceIdResolver.tryResolveId(DataSource.UNIPROT, "P51587"));
+		blackhole.consume(DataSourceIdResolver.tryResolveId(DataSource.UNIPROT, "not a uniprot id"));
+	}
+
+	@Benchmark
+	public void tryResolveGoaIds(Blackhole blackhole) {
+		for (String id : GOA_IDS) {
+			blackhole.consume(goaResolver.tryResolveId(id));
+		}
+	}
+
+}
@@ -0,0 +1,155 @@
+package edu.ucdenver.ccp.datasource.identifiers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiGeneId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.RefSeqID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtID;
+
+/**
+ * Measures identifier construction: calling the identifier constructors directly, going through
+ * {@link IdentifierPool#intern(Class, String)} and {@link IdentifierPool#tryIntern(Class, String)}
+ * with the pool disabled and enabled, and rejecting an invalid id with and without an exception.
+ * <p>
+ * The ids cycle through a fixed set of distinct strings so that, with the pool enabled, most calls
+ * are pool hits, as they are when a large file repeats the same ids.
+ *
+ * @author Center for Computational Pharmacology; ccpsupport@ucdenver.edu
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdentifierBenchmark {
+
+	private static final int DISTINCT_ID_COUNT = 1024;
+
+	@Param({ "false", "true" })
+	public boolean pooled;
+
+	private String[] geneIds;
+	private String[] taxonIds;
+	private String[] uniprotIds;
+	private String[] refseqIds;
+	private int index = 0;
+
+	@Setup
+	public void setUp() {
+		IdentifierPool.clear();
+		IdentifierPool.setEnabled(pooled);
+		geneIds = new String[DISTINCT_ID_COUNT];
+		taxonIds = new String[DISTINCT_ID_COUNT];
+		uniprotIds = new String[DISTINCT_ID_COUNT];
+		refseqIds = new String[DISTINCT_ID_COUNT];
+		for (int i = 0; i < DISTINCT_ID_COUNT; i++) {
+			geneIds[i] = Integer.toString(100000 + i);
+			taxonIds[i] = Integer.toString(9000 + i);
+			uniprotIds[i] = String.format("P%05d", i);
+			refseqIds[i] = String.format("NM_%06d.1", i);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		IdentifierPool.setEnabled(false);
+		IdentifierPool.clear();
+	}
+
+	private int nextIndex() {
+		index = (index + 1) & (DISTINCT_ID_COUNT - 1);
+		return index;
+	}
+
+	@Benchmark
+	public void constructIds(Blackhole blackhole) {
+		int i = nextIndex();
+		blackhole.consume(new NcbiGeneId(geneIds[i]));
+		blackhole.consume(new NcbiTaxonomyID(taxonIds[i]));
+		blackhole.consume(new UniProtID(uniprotIds[i]));
+		blackhole.consume(new RefSeqID(refseqIds[i]));
+	}
+
+	@Benchmark
+	public void internIds(Blackhole blackhole) {
+		int i = nextIndex();
+		blackhole.consume(IdentifierPool.intern(NcbiGeneId.class, geneIds[i]));
+		blackhole.consume(IdentifierPool.intern(NcbiTaxonomyID.class, taxonIds[i]));
+		blackhole.consume(IdentifierPool.intern(UniProtID.class, uniprotIds[i]));
+		blackhole.consume(IdentifierPool.intern(RefSeqID.class, refseqIds[i]));
+	}
+
+	@Benchmark
+	public void tryInternIds(Blackhole blackhole) {
+		int i = nextIndex();
+		blackhole.consume(IdentifierPool.tryIntern(NcbiGeneId.class, geneIds[i]));
+		blackhole.consume(IdentifierPool.tryIntern(NcbiTaxonomyID.class, taxonIds[i]));
+		blackhole.consume(IdentifierPool.tryIntern(UniProtID.class, uniprotIds[i]));
+		blackhole.consume(IdentifierPool.tryIntern(RefSeqID.class, refseqIds[i]));
+	}
+
+	@Benchmark
+	public Object rejectInvalidIdWithException() {
+		try {
+			return new UniProtID("not a uniprot id");
+		} catch (IllegalArgumentException e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object rejectInvalidIdWithResult() {
+		return IdentifierPool.tryIntern(UniProtID.class, "not a uniprot id");
+	}
+
+}
@@ -0,0 +1,133 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A {@link RawLinePredicate} that accepts lines whose value in a given delimited column is one of
+ * a set of expected values, e.g. to restrict a GAF file to particular evidence codes. The column is
+ * located by scanning for delimiter characters; the line is not split.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class ColumnValuePredicate implements RawLinePredicate {
+
+	private final char delimiter;
+	private final int columnIndex;
+	private final Set<String> acceptedValues;
+	private final boolean acceptMissingColumn;
+
+	/**
+	 * @param delimiter
+	 *            the column delimiter
+	 * @param columnIndex
+	 *            the 0-based index of the column to examine
+	 * @param acceptedValues
+	 *            the column values for which a line is accepted
+	 * @param acceptMissingColumn
+	 *            the value returned for lines that have fewer than columnIndex + 1 columns
+	 */
+	public ColumnValuePredicate(char delimiter, int columnIndex, Collection<String> acceptedValues,
+			boolean acceptMissingColumn) {
+		if (columnIndex < 0) {
+			throw new IllegalArgumentException("Column index must be >= 0: " + columnIndex);
+		}
+		this.delimiter = delimiter;
+		this.columnIndex = columnIndex;
+		this.acceptedValues = new HashSet<String>(acceptedValues);
+		this.acceptMissingColumn = acceptMissingColumn;
+	}
+
+	@Override
+	public boolean accept(String lineText) {
+		int start = columnStart(lineText, delimiter, columnIndex);
+		if (start < 0) {
+			return acceptMissingColumn;
+		}
+		int end = columnEnd(lineText, delimiter, start);
+		for (String value : acceptedValues) {
+			if (value.length() == end - start && lineText.startsWith(value, start)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public String getDescription() {
+		return "ColumnValuePredicate[delimiter=" + (int) delimiter + ", column=" + columnIndex + ", values="
+				+ new TreeSet<String>(acceptedValues) + ", acceptMissingColumn=" + acceptMissingColumn + "]";
+	}
+
+	@Override
+	public String toString() {
+		return getDescription();
+	}
+
+	/**
+	 * @param text
+	 * @param delimiter
+	 * @param columnIndex
+	 * @return the index of the first character of the specified column, or -1 if the text contains
+	 *         fewer than columnIndex + 1 columns
+	 */
+	public static int columnStart(String text, char delimiter, int columnIndex) {
+		int start = 0;
+		for (int i = 0; i < columnIndex; i++) {
+			int delimiterIndex = text.indexOf(delimiter, start);
+			if (delimiterIndex < 0) {
+				return -1;
+			}
+			start = delimiterIndex + 1;
+		}
+		return start;
+	}
+
+	/**
+	 * @param text
+	 * @param delimiter
+	 * @param columnStart
+	 * @return the index following the last character of the column that starts at columnStart
+	 */
+	public static int columnEnd(String text, char delimiter, int columnStart) {
+		int end = text.indexOf(delimiter, columnStart);
+		return (end < 0) ? text.length() : end;
+	}
+
+}
@@ -0,0 +1,383 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A view of the columns of a single delimited line of text. The positions of the delimiter
+ * characters are indexed in a single pass over the line when the view is created (or reset) so
+ * that individual columns can be examined without splitting the line, i.e. without a regular
+ * expression and without creating a String for each column.
+ * <p>
+ * Unlike {@link String#split(String)}, trailing empty columns are retained, so a line ending with a
+ * delimiter has one more column than the number of non-empty values it contains.
+ * <p>
+ * A view is not thread-safe; it can, however, be reused for subsequent lines via
+ * {@link #reset(String)}.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class DelimitedLineView {
+
+	private static final int DEFAULT_EXPECTED_COLUMN_COUNT = 16;
+
+	private final char delimiter;
+	private String text;
+	/**
+	 * delimiterPositions[i] is the index of the delimiter that ends column i
+	 */
+	private int[] delimiterPositions;
+	private int delimiterCount;
+
+	/**
+	 * Creates an empty view; {@link #reset(String)} must be called before columns can be accessed
+	 * 
+	 * @param delimiter
+	 *            the column delimiter
+	 */
+	public DelimitedLineView(char delimiter) {
+		this.delimiter = delimiter;
+		this.delimiterPositions = new int[DEFAULT_EXPECTED_COLUMN_COUNT];
+	}
+
+	/**
+	 * @param text
+	 *            the line of text to view
+	 * @param delimiter
+	 *            the column delimiter
+	 */
+	public DelimitedLineView(String text, char delimiter) {
+		this(delimiter);
+		reset(text);
+	}
+
+	/**
+	 * Re-indexes this view for a new line of text
+	 * 
+	 * @param text
+	 * @return this view
+	 */
+	public DelimitedLineView reset(String text) {
+		this.text = text;
+		int count = 0;
+		int length = text.length();
+		for (int i = 0; i < length; i++) {
+			if (text.charAt(i) == delimiter) {
+				if (count == delimiterPositions.length) {
+					delimiterPositions = Arrays.copyOf(delimiterPositions, count * 2);
+				}
+				delimiterPositions[count++] = i;
+			}
+		}
+		this.delimiterCount = count;
+		return this;
+	}
+
+	/**
+	 * @return the text being viewed
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * @return the number of columns in the line, including empty trailing columns. An empty line
+	 *         has a single (empty) column.
+	 */
+	public int columnCount() {
+		return delimiterCount + 1;
+	}
+
+	/**
+	 * @return the number of columns that {@link String#split(String)} would return for the line,
+	 *         i.e. trailing empty columns are not counted (unless the line contains no delimiter,
+	 *         in which case the single column is counted even if it is empty). Column-count checks
+	 *         that were written against {@link String#split(String)} should use this method so
+	 *         that the lines they accept do not change.
+	 */
+	public int splitColumnCount() {
+		if (delimiterCount == 0) {
+			return 1;
+		}
+		int count = columnCount();
+		while (count > 0 && isColumnEmpty(count - 1)) {
+			count--;
+		}
+		return count;
+	}
+
+	/**
+	 * @param columnIndex
+	 * @return the index in the line text of the first character of the specified column
+	 * @throws IndexOutOfBoundsException
+	 *             if the line does not have the specified column
+	 */
+	public int columnStart(int columnIndex) {
+		checkColumnIndex(columnIndex);
+		return (columnIndex == 0) ? 0 : delimiterPositions[columnIndex - 1] + 1;
+	}
+
+	/**
+	 * @param columnIndex
+	 * @return the index in the line text following the last character of the specified column
+	 * @throws IndexOutOfBoundsException
+	 *             if the line does not have the specified column
+	 */
+	public int columnEnd(int columnIndex) {
+		checkColumnIndex(columnIndex);
+		return (columnIndex == delimiterCount) ? text.length() : delimiterPositions[columnIndex];
+	}
+
+	/**
+	 * @param columnIndex
+	 * @return the length of the specified column
+	 */
+	public int columnLength(int columnIndex) {
+		return columnEnd(columnIndex) - columnStart(columnIndex);
+	}
+
+	/**
+	 * @param columnIndex
+	 * @return a read-only view of the characters of the specified column; the characters are not
+	 *         copied
+	 */
+	public CharSequence column(int columnIndex) {
+		return CharBuffer.wrap(text, columnStart(columnIndex), columnEnd(columnIndex));
+	}
+
+	/**
+	 * @param columnIndex
+	 * @return the specified column as a String
+	 */
+	public String columnString(int columnIndex) {
+		return text.substring(columnStart(columnIndex), columnEnd(columnIndex));
+	}
+
+	/**
+	 * @param columnIndex
+	 * @return true if the specified column is empty
+	 */
+	public boolean isColumnEmpty(int columnIndex) {
+		return columnLength(columnIndex) == 0;
+	}
+
+	/**
+	 * @param columnIndex
+	 * @return true if the specified column is empty or contains only whitespace, i.e. if
+	 *         {@link String#trim()} of the column would be empty
+	 */
+	public boolean isColumnBlank(int columnIndex) {
+		int end = columnEnd(columnIndex);
+		for (int i = columnStart(columnIndex); i < end; i++) {
+			if (text.charAt(i) > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param columnIndex
+	 * @param value
+	 * @return true if the content of the specified column equals the input value
+	 */
+	public boolean columnEquals(int columnIndex, String value) {
+		int start = columnStart(columnIndex);
+		return value.length() == columnEnd(columnIndex) - start && text.startsWith(value, start);
+	}
+
+	/**
+	 * Parses the specified column as a signed decimal integer without creating an intermediate
+	 * String. Accepts the same input as {@link Integer#parseInt(String)}.
+	 * 
+	 * @param columnIndex
+	 * @return the integer value of the specified column
+	 * @throws NumberFormatException
+	 *             if the column does not contain a parsable integer
+	 */
+	public int columnInt(int columnIndex) {
+		int start = columnStart(columnIndex);
+		int end = columnEnd(columnIndex);
+		if (start == end) {
+			throw numberFormatException(columnIndex);
+		}
+		int i = start;
+		boolean negative = false;
+		char first = text.charAt(i);
+		if (first == '-' || first == '+') {
+			negative = (first == '-');
+			if (++i == end) {
+				throw numberFormatException(columnIndex);
+			}
+		}
+		/* accumulate negatively, as Integer.parseInt() does, so that MIN_VALUE can be represented */
+		int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+		int multiplicationLimit = limit / 10;
+		int result = 0;
+		for (; i < end; i++) {
+			int digit = Character.digit(text.charAt(i), 10);
+			if (digit < 0 || result < multiplicationLimit) {
+				throw numberFormatException(columnIndex);
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				throw numberFormatException(columnIndex);
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	/**
+	 * Iterates over the values of a multi-valued column, e.g. the pipe-delimited synonyms column
+	 * of the NCBI gene_info file. Empty values are skipped, so an empty column yields no values.
+	 * 
+	 * @param columnIndex
+	 * @param subDelimiter
+	 *            the delimiter separating values within the column
+	 * @return the values of the specified column
+	 */
+	public Iterable<String> columnValues(int columnIndex, char subDelimiter) {
+		return new SubDelimitedValues(text, columnStart(columnIndex), columnEnd(columnIndex),
+				String.valueOf(subDelimiter));
+	}
+
+	/**
+	 * Iterates over the values of a multi-valued column in which any one of several characters
+	 * separate the values, e.g. "|" and "," in GAF with/from column. Empty values are skipped.
+	 * 
+	 * @param columnIndex
+	 * @param subDelimiters
+	 *            each character in this String is treated as a value delimiter
+	 * @return the values of the specified column
+	 */
+	public Iterable<String> columnValues(int columnIndex, String subDelimiters) {
+		return new SubDelimitedValues(text, columnStart(columnIndex), columnEnd(columnIndex), subDelimiters);
+	}
+
+	/**
+	 * Iterates over the delimited values of a String without using a regular expression. Empty
+	 * values are skipped.
+	 * 
+	 * @param text
+	 * @param delimiters
+	 *            each character in this String is treated as a value delimiter
+	 * @return the non-empty values in the input text
+	 */
+	public static Iterable<String> values(String text, String delimiters) {
+		return new SubDelimitedValues(text, 0, text.length(), delimiters);
+	}
+
+	private void checkColumnIndex(int columnIndex) {
+		if (columnIndex < 0 || columnIndex > delimiterCount) {
+			throw new IndexOutOfBoundsException("Column index " + columnIndex + " is out of range. Line has "
+					+ columnCount() + " columns: " + text);
+		}
+	}
+
+	private NumberFormatException numberFormatException(int columnIndex) {
+		return new NumberFormatException("Column " + columnIndex + " is not an integer: \""
+				+ text.substring(columnStart(columnIndex), columnEnd(columnIndex)) + "\"");
+	}
+
+	/**
+	 * The non-empty values of a region of text separated by one or more delimiter characters
+	 */
+	private static class SubDelimitedValues implements Iterable<String> {
+
+		private final String text;
+		private final int start;
+		private final int end;
+		private final String delimiters;
+
+		public SubDelimitedValues(String text, int start, int end, String delimiters) {
+			this.text = text;
+			this.start = start;
+			this.end = end;
+			this.delimiters = delimiters;
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			return new Iterator<String>() {
+
+				/**
+				 * the start of the next non-empty value, or end if there are no more values
+				 */
+				private int position = skipDelimiters(start);
+
+				@Override
+				public boolean hasNext() {
+					return position < end;
+				}
+
+				@Override
+				public String next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					int valueEnd = position;
+					while (valueEnd < end && !isDelimiter(text.charAt(valueEnd))) {
+						valueEnd++;
+					}
+					String value = text.substring(position, valueEnd);
+					position = skipDelimiters(valueEnd);
+					return value;
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException("Values cannot be removed.");
+				}
+			};
+		}
+
+		private int skipDelimiters(int index) {
+			while (index < end && isDelimiter(text.charAt(index))) {
+				index++;
+			}
+			return index;
+		}
+
+		private boolean isDelimiter(char c) {
+			return delimiters.indexOf(c) >= 0;
+		}
+	}
+
+}
@@ -34,6 +34,7 @@ package edu.ucdenver.ccp.datasource.fileparsers;
  */
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -108,4 +109,16 @@ public abstract class FileRecordReader<T extends FileRecord> extends RecordReade
 
 	
 
+	/**
+	 * Opens a gzipped file for reading. The file is decompressed ahead of the reader on a
+	 * background thread (see {@link ParallelGzipInputStream}).
+	 * 
+	 * @param gzippedFile
+	 * @return an {@link InputStream} over the decompressed content of the file
+	 * @throws IOException
+	 */
+	public static InputStream openGzippedFile(File gzippedFile) throws IOException {
+		return new ParallelGzipInputStream(new FileInputStream(gzippedFile));
+	}
+
 }
@@ -0,0 +1,87 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+/**
+ * A byte range of a data file containing whole records, as computed by {@link FileSplitter}
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class FileSplit {
+
+	private final long startOffset;
+	private final long endOffset;
+	private final long lineNumber;
+
+	/**
+	 * @param startOffset
+	 *            the byte offset of the first line of the first record in the split
+	 * @param endOffset
+	 *            the byte offset of the first line of the first record following the split, or the
+	 *            file size
+	 * @param lineNumber
+	 *            the line number of the line at the start offset
+	 */
+	public FileSplit(long startOffset, long endOffset, long lineNumber) {
+		this.startOffset = startOffset;
+		this.endOffset = endOffset;
+		this.lineNumber = lineNumber;
+	}
+
+	public long getStartOffset() {
+		return startOffset;
+	}
+
+	public long getEndOffset() {
+		return endOffset;
+	}
+
+	public long getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * @return the number of bytes in the split
+	 */
+	public long getLength() {
+		return endOffset - startOffset;
+	}
+
+	@Override
+	public String toString() {
+		return "FileSplit [" + startOffset + ", " + endOffset + ")";
+	}
+
+}
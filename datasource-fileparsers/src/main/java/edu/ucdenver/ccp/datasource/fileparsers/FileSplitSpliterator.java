@@ -0,0 +1,158 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Spliterator} over the records of a sequence of {@link FileSplit}s. {@link #trySplit()}
+ * hands off half of the splits that have not been started, so each split is parsed by its own
+ * reader; once a single split remains, batches of its records are handed off as by
+ * {@link RecordSpliterator}. The reader of a split is opened when the split is started and closed
+ * when it is exhausted. Readers left open by early termination are tracked in a queue shared by
+ * all spliterators of the stream so that they can be closed when the stream is closed.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+class FileSplitSpliterator<T extends FileRecord> implements Spliterator<T> {
+
+	private final RecordReaderFactory<? extends LineFileRecordReader<T>> readerFactory;
+	private final List<FileSplit> splits;
+	private final Queue<LineFileRecordReader<T>> openReaders;
+	private int nextSplitIndex;
+	private final int endSplitIndex;
+	private LineFileRecordReader<T> reader;
+	private RecordSpliterator<T> readerSpliterator;
+
+	FileSplitSpliterator(RecordReaderFactory<? extends LineFileRecordReader<T>> readerFactory,
+			List<FileSplit> splits, Queue<LineFileRecordReader<T>> openReaders, int startSplitIndex,
+			int endSplitIndex) {
+		this.readerFactory = readerFactory;
+		this.splits = splits;
+		this.openReaders = openReaders;
+		this.nextSplitIndex = startSplitIndex;
+		this.endSplitIndex = endSplitIndex;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		do {
+			if (readerSpliterator != null && readerSpliterator.tryAdvance(action)) {
+				return true;
+			}
+		} while (nextReader());
+		return false;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		do {
+			if (readerSpliterator != null) {
+				readerSpliterator.forEachRemaining(action);
+			}
+		} while (nextReader());
+	}
+
+	/**
+	 * Closes the current reader, if any, and opens the reader of the next split
+	 * 
+	 * @return false if there are no splits remaining
+	 */
+	private boolean nextReader() {
+		try {
+			if (reader != null) {
+				openReaders.remove(reader);
+				reader.close();
+				reader = null;
+				readerSpliterator = null;
+			}
+			if (nextSplitIndex == endSplitIndex) {
+				return false;
+			}
+			reader = FileSplitter.openSplit(readerFactory, splits.get(nextSplitIndex++));
+			openReaders.add(reader);
+			readerSpliterator = new RecordSpliterator<T>(reader);
+			return true;
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		int remainingSplits = endSplitIndex - nextSplitIndex;
+		if (reader != null && remainingSplits > 0) {
+			/*
+			 * the started split precedes the unstarted ones, so it goes to the prefix along with
+			 * the first half of the unstarted splits
+			 */
+			int midSplitIndex = nextSplitIndex + remainingSplits / 2;
+			FileSplitSpliterator<T> prefix = new FileSplitSpliterator<T>(readerFactory, splits, openReaders,
+					nextSplitIndex, midSplitIndex);
+			prefix.reader = reader;
+			prefix.readerSpliterator = readerSpliterator;
+			reader = null;
+			readerSpliterator = null;
+			nextSplitIndex = midSplitIndex;
+			return prefix;
+		}
+		if (reader == null && remainingSplits > 1) {
+			int midSplitIndex = nextSplitIndex + remainingSplits / 2;
+			FileSplitSpliterator<T> prefix = new FileSplitSpliterator<T>(readerFactory, splits, openReaders,
+					nextSplitIndex, midSplitIndex);
+			nextSplitIndex = midSplitIndex;
+			return prefix;
+		}
+		if (reader == null && !nextReader()) {
+			return null;
+		}
+		return readerSpliterator.trySplit();
+	}
+
+	@Override
+	public long estimateSize() {
+		return Long.MAX_VALUE;
+	}
+
+	@Override
+	public int characteristics() {
+		return Spliterator.ORDERED;
+	}
+
+}
@@ -0,0 +1,258 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import edu.ucdenver.ccp.common.file.CharacterEncoding;
+import edu.ucdenver.ccp.common.file.reader.Line;
+
+/**
+ * Divides an uncompressed data file into byte ranges ({@link FileSplit}s) that can be parsed
+ * concurrently, each by its own {@link LineFileRecordReader}. The ranges are snapped to the record
+ * boundaries of the reader's format (see {@link LineFileRecordReader#getRecordBoundary()}), so
+ * concatenating the records returned by the readers of all splits, in order, yields the records
+ * returned by a single reader of the entire file.
+ * <p>
+ * Line numbers are only known for the first split; the line numbers of lines in the other splits
+ * are counted from the start of the split.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class FileSplitter {
+
+	private FileSplitter() {
+		// static methods only
+	}
+
+	/**
+	 * @param dataFile
+	 *            an uncompressed file
+	 * @param readerFactory
+	 *            creates readers of the data file
+	 * @param splitCount
+	 *            the number of splits to compute
+	 * @return splitCount consecutive splits covering the records of the data file. Splits may be
+	 *         empty if the file contains few (or large) records.
+	 * @throws IOException
+	 * @throws UnsupportedOperationException
+	 *             if the reader's format does not define record boundaries or if the data file is
+	 *             compressed
+	 */
+	public static <R extends LineFileRecordReader<?>> List<FileSplit> split(File dataFile,
+			RecordReaderFactory<R> readerFactory, int splitCount) throws IOException {
+		if (splitCount < 1) {
+			throw new IllegalArgumentException("The split count must be at least 1: " + splitCount);
+		}
+		long fileSize = dataFile.length();
+		long dataStart = fileSize;
+		long firstLineNumber = 0;
+		RecordBoundary boundary;
+		/* the first record follows any header lines consumed when the reader is initialized */
+		R reader = readerFactory.newReader();
+		try {
+			boundary = reader.getRecordBoundary();
+			if (boundary == null) {
+				throw new UnsupportedOperationException(reader.getClass().getName()
+						+ " does not support splitting its data file.");
+			}
+			if (!reader.isRepositionable()) {
+				throw new UnsupportedOperationException("Only uncompressed files can be split. "
+						+ reader.getClass().getName() + " is reading a compressed file or stream.");
+			}
+			/*
+			 * null records carry no byte offset, so the data is taken to start at the first
+			 * non-null record
+			 */
+			FileRecord firstRecord = null;
+			while (firstRecord == null && reader.hasNext()) {
+				firstRecord = reader.next();
+			}
+			if (firstRecord != null) {
+				dataStart = firstRecord.getByteOffset();
+				if (firstRecord instanceof SingleLineFileRecord) {
+					firstLineNumber = ((SingleLineFileRecord) firstRecord).getLineNumber();
+				}
+			}
+		} finally {
+			reader.close();
+		}
+
+		List<FileSplit> splits = new ArrayList<FileSplit>(splitCount);
+		MappedFileLineReader lineReader = new MappedFileLineReader(dataFile, CharacterEncoding.ISO_8859_1, null);
+		try {
+			long startOffset = dataStart;
+			long lineNumber = firstLineNumber;
+			for (int i = 1; i <= splitCount; i++) {
+				long endOffset = fileSize;
+				if (i < splitCount) {
+					long offset = dataStart + (long) ((fileSize - dataStart) * ((double) i / splitCount));
+					endOffset = (offset <= startOffset) ? startOffset : nextRecordBoundary(lineReader, offset, boundary,
+							fileSize);
+				}
+				splits.add(new FileSplit(startOffset, endOffset, lineNumber));
+				startOffset = endOffset;
+				lineNumber = 0;
+			}
+		} finally {
+			lineReader.close();
+		}
+		return splits;
+	}
+
+	/**
+	 * @return the offset of the first record starting at or after the specified offset, or the
+	 *         file size if there is no such record
+	 */
+	private static long nextRecordBoundary(MappedFileLineReader lineReader, long offset, RecordBoundary boundary,
+			long fileSize) throws IOException {
+		if (offset >= fileSize) {
+			return fileSize;
+		}
+		/*
+		 * reading from the byte preceding the offset consumes the remainder of the line containing
+		 * it, so the next line read is the first line starting at or after the offset. The
+		 * remainder itself may be a partial line, so its text is not used to detect a boundary.
+		 */
+		lineReader.seek(offset - 1, 0);
+		lineReader.readLine();
+		String previousLineText = null;
+		Line line;
+		while ((line = lineReader.readLine()) != null) {
+			if (boundary.isRecordStart(previousLineText, line.getText())) {
+				return line.getByteOffset();
+			}
+			previousLineText = line.getText();
+		}
+		return fileSize;
+	}
+
+	/**
+	 * @param readerFactory
+	 * @param split
+	 * @return a new reader returning the records of the split
+	 * @throws IOException
+	 */
+	public static <R extends LineFileRecordReader<?>> R openSplit(RecordReaderFactory<R> readerFactory, FileSplit split)
+			throws IOException {
+		R reader = readerFactory.newReader();
+		try {
+			reader.seek(split.getStartOffset(), split.getLineNumber(), split.getEndOffset());
+			return reader;
+		} catch (IOException e) {
+			reader.close();
+			throw e;
+		} catch (RuntimeException e) {
+			reader.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @param dataFile
+	 * @param readerFactory
+	 * @param splitCount
+	 * @return a reader for each of the splits computed by
+	 *         {@link #split(File, RecordReaderFactory, int)}, in file order
+	 * @throws IOException
+	 */
+	public static <R extends LineFileRecordReader<?>> List<R> openSplits(File dataFile,
+			RecordReaderFactory<R> readerFactory, int splitCount) throws IOException {
+		List<R> readers = new ArrayList<R>(splitCount);
+		try {
+			for (FileSplit split : split(dataFile, readerFactory, splitCount)) {
+				readers.add(openSplit(readerFactory, split));
+			}
+		} catch (IOException e) {
+			for (R reader : readers) {
+				reader.close();
+			}
+			throw e;
+		}
+		return readers;
+	}
+
+	/**
+	 * Returns a stream of the records of the data file that is backed by the splits computed by
+	 * {@link #split(File, RecordReaderFactory, int)}. When the stream is parallel, the splits are
+	 * parsed concurrently, each by its own reader; the stream is ordered, so the encounter order of
+	 * the records is their file order. Closing the stream closes any readers left open, e.g. by a
+	 * short-circuiting operation, so the stream should be used in a try-with-resources statement.
+	 * 
+	 * @param dataFile
+	 *            an uncompressed file
+	 * @param readerFactory
+	 *            creates readers of the data file
+	 * @param splitCount
+	 *            the number of splits to compute
+	 * @return a sequential stream of the records of the data file
+	 * @throws IOException
+	 * @throws UnsupportedOperationException
+	 *             if the reader's format does not define record boundaries or if the data file is
+	 *             compressed
+	 */
+	public static <T extends FileRecord> Stream<T> stream(File dataFile,
+			RecordReaderFactory<? extends LineFileRecordReader<T>> readerFactory, int splitCount) throws IOException {
+		List<FileSplit> splits = split(dataFile, readerFactory, splitCount);
+		final Queue<LineFileRecordReader<T>> openReaders = new ConcurrentLinkedQueue<LineFileRecordReader<T>>();
+		FileSplitSpliterator<T> spliterator = new FileSplitSpliterator<T>(readerFactory, splits, openReaders, 0,
+				splits.size());
+		return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+			@Override
+			public void run() {
+				IOException exception = null;
+				LineFileRecordReader<T> reader;
+				while ((reader = openReaders.poll()) != null) {
+					try {
+						reader.close();
+					} catch (IOException e) {
+						exception = e;
+					}
+				}
+				if (exception != null) {
+					throw new RuntimeException(exception);
+				}
+			}
+		});
+	}
+
+}
@@ -0,0 +1,135 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decorates a {@link RecordReader} to build a {@link RecordOffsetIndex} of the records it returns.
+ * The index is written to the index file once the underlying reader has been exhausted; it is not
+ * written if the reader is closed before all records have been read.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ * @param <T>
+ */
+public class IndexingRecordReader<T extends FileRecord> extends RecordReader<T> {
+
+	private final RecordReader<T> reader;
+	private final File dataFile;
+	private final File indexFile;
+	private final String readerDescription;
+
+	private int recordCount = 0;
+	private long[] byteOffsets = new long[1024];
+	private long[] lineNumbers = new long[1024];
+	private final Map<String, Integer> keyToOrdinalMap = new HashMap<String, Integer>();
+	private List<Field> keyFields;
+	private RecordOffsetIndex index;
+
+	/**
+	 * @param reader
+	 *            the reader whose records are indexed; must be positioned at the first record
+	 * @param dataFile
+	 *            the file being read
+	 * @param indexFile
+	 *            the file to which the index will be written
+	 */
+	public IndexingRecordReader(RecordReader<T> reader, File dataFile, File indexFile) {
+		this.reader = reader;
+		this.dataFile = dataFile;
+		this.indexFile = indexFile;
+		this.readerDescription = RecordOffsetIndex.describeReader(reader);
+	}
+
+	@Override
+	public boolean hasNext() {
+		boolean hasNext = reader.hasNext();
+		if (!hasNext && index == null) {
+			try {
+				index = new RecordOffsetIndex(dataFile, readerDescription, recordCount, byteOffsets, lineNumbers, keyToOrdinalMap);
+				index.write(indexFile);
+			} catch (IOException e) {
+				throw new RuntimeException("Error while writing index file: " + indexFile.getAbsolutePath(), e);
+			}
+		}
+		return hasNext;
+	}
+
+	@Override
+	public T next() {
+		T record = reader.next();
+		if (recordCount == byteOffsets.length) {
+			byteOffsets = Arrays.copyOf(byteOffsets, recordCount * 2);
+			lineNumbers = Arrays.copyOf(lineNumbers, recordCount * 2);
+		}
+		byteOffsets[recordCount] = record.getByteOffset();
+		lineNumbers[recordCount] = (record instanceof SingleLineFileRecord) ? ((SingleLineFileRecord) record)
+				.getLineNumber() : 0;
+		if (keyFields == null) {
+			keyFields = RecordOffsetIndex.getKeyFields(record.getClass());
+		}
+		String key = RecordOffsetIndex.getRecordKey(record, keyFields);
+		if (key != null && !keyToOrdinalMap.containsKey(key)) {
+			keyToOrdinalMap.put(key, recordCount);
+		}
+		recordCount++;
+		return record;
+	}
+
+	/**
+	 * @return the index of the records returned by this reader, or null if the underlying reader
+	 *         has not yet been exhausted
+	 */
+	public RecordOffsetIndex getIndex() {
+		return index;
+	}
+
+	@Override
+	public String getDataSpecificKey() {
+		return reader.getDataSpecificKey();
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
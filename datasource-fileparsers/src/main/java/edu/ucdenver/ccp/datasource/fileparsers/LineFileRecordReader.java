@@ -54,6 +54,10 @@ public abstract class LineFileRecordReader<T extends FileRecord> extends FileRec
 	private static Logger logger = Logger.getLogger(LineFileRecordReader.class);
 
 	private StreamLineReader reader;
+	/**
+	 * used in place of the {@link StreamLineReader} for uncompressed files
+	 */
+	private MappedFileLineReader mappedReader;
 	protected Line line;
 	
 	
@@ -74,7 +78,9 @@ public abstract class LineFileRecordReader<T extends FileRecord> extends FileRec
 
 	/**
 	 * This constructor takes as input a reference to the file to parse including its character
-	 * encoding and line prefix that indicates a line to ignore.
+	 * encoding and line prefix that indicates a line to ignore. Uncompressed files in US-ASCII,
+	 * ISO-8859-1 or UTF-8 are read using a {@link MappedFileLineReader}; gzipped files are
+	 * decompressed using a {@link ParallelGzipInputStream}.
 	 * 
 	 * @param dataFile
 	 * @param encoding
@@ -83,7 +89,13 @@ public abstract class LineFileRecordReader<T extends FileRecord> extends FileRec
 	 */
 	public LineFileRecordReader(File dataFile, CharacterEncoding encoding, String skipLinePrefix) throws IOException {
 		super(dataFile, encoding, skipLinePrefix);
-		setReader(new StreamLineReader(dataFile, encoding, skipLinePrefix));
+		if (MappedFileLineReader.supports(dataFile, encoding)) {
+			mappedReader = new MappedFileLineReader(dataFile, encoding, skipLinePrefix);
+		} else if (MappedFileLineReader.isGzipped(dataFile)) {
+			setReader(new StreamLineReader(openGzippedFile(dataFile), encoding, skipLinePrefix));
+		} else {
+			setReader(new StreamLineReader(dataFile, encoding, skipLinePrefix));
+		}
 		initialize();
 	}
 
@@ -135,15 +147,110 @@ public abstract class LineFileRecordReader<T extends FileRecord> extends FileRec
 	 *         even one byte is read.
 	 */
 	protected Line readLine() throws IOException {
+		if (mappedReader != null) {
+			return mappedReader.readLine();
+		}
 		return reader.readLine();
 	}
 	
+	/**
+	 * Repositions this reader so that the next record returned is the record starting at the
+	 * specified byte offset. Only readers of uncompressed files (see {@link MappedFileLineReader})
+	 * can be repositioned.
+	 * 
+	 * @param byteOffset
+	 *            the byte offset of the first line of a record
+	 * @param lineNumber
+	 *            the line number of the line at the byte offset
+	 * @throws IOException
+	 * @throws UnsupportedOperationException
+	 *             if this reader does not support repositioning
+	 */
+	protected void seek(long byteOffset, long lineNumber) throws IOException {
+		checkRepositionable();
+		mappedReader.seek(byteOffset, lineNumber);
+		resetAfterSeek();
+	}
+
+	/**
+	 * Restricts this reader to the records in the byte range [byteOffset, endOffset) and
+	 * repositions it at the start of the range. Both offsets must be record boundaries (see
+	 * {@link #getRecordBoundary()}), e.g. as computed by {@link FileSplitter}.
+	 * 
+	 * @param byteOffset
+	 *            the byte offset of the first line of a record
+	 * @param lineNumber
+	 *            the line number of the line at the byte offset
+	 * @param endOffset
+	 *            the byte offset of the first line of the record following the range, or the file
+	 *            size
+	 * @throws IOException
+	 * @throws UnsupportedOperationException
+	 *             if this reader does not support repositioning
+	 */
+	protected void seek(long byteOffset, long lineNumber, long endOffset) throws IOException {
+		checkRepositionable();
+		mappedReader.setEndOffset(endOffset);
+		mappedReader.seek(byteOffset, lineNumber);
+		resetAfterSeek();
+	}
+
+	/**
+	 * @return true if this reader can be repositioned, i.e. if it is reading an uncompressed file
+	 */
+	boolean isRepositionable() {
+		return mappedReader != null;
+	}
+
+	private void checkRepositionable() {
+		if (!isRepositionable()) {
+			throw new UnsupportedOperationException("Only readers of uncompressed files can be repositioned. "
+					+ getClass().getName() + " is reading a compressed file or stream.");
+		}
+	}
+
+	/**
+	 * @return the rule identifying the first line of each record, used to split the file into
+	 *         ranges that can be read concurrently (see {@link FileSplitter}), or null if the file
+	 *         cannot be split. By default every line is a record.
+	 */
+	protected RecordBoundary getRecordBoundary() {
+		return RecordBoundary.EVERY_LINE;
+	}
+
+	/**
+	 * Describes the configuration options that determine which records this reader returns, e.g.
+	 * the taxa of interest of a taxon-aware reader. Readers that are configured to return
+	 * different records must return different descriptions, as the description distinguishes the
+	 * {@link RecordOffsetIndex} files built using differently configured readers. By default the
+	 * {@link #getDataSpecificKey()} is returned.
+	 * 
+	 * @return a description of the configuration of this reader; may be empty
+	 */
+	protected String getRecordSelectionDescription() {
+		return getDataSpecificKey();
+	}
+
+	/**
+	 * Called once this reader has been repositioned by {@link #seek(long, long)} to re-initialize
+	 * any look-ahead state. By default, {@link #line} is set to the next line.
+	 * 
+	 * @throws IOException
+	 */
+	protected void resetAfterSeek() throws IOException {
+		line = readLine();
+	}
+
 	protected void advanceReader() throws IOException {
 		line = readLine();
 	}
 
 	
-	protected void setReader(StreamLineReader reader) {
+	protected void setReader(StreamLineReader reader) throws IOException {
+		if (mappedReader != null) {
+			mappedReader.close();
+			mappedReader = null;
+		}
 		this.reader = reader;
 	}
 	
@@ -235,6 +342,9 @@ public abstract class LineFileRecordReader<T extends FileRecord> extends FileRec
 		if (reader != null) {
 			reader.close();
 		}
+		if (mappedReader != null) {
+			mappedReader.close();
+		}
 	}
 
 }
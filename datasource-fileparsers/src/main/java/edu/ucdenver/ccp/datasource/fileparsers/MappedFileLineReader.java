@@ -0,0 +1,329 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+
+import edu.ucdenver.ccp.common.file.CharacterEncoding;
+import edu.ucdenver.ccp.common.file.reader.Line;
+import edu.ucdenver.ccp.common.file.reader.Line.LineTerminator;
+
+/**
+ * Reads lines from an uncompressed file by memory-mapping the file and scanning for line
+ * terminators at the byte level. The file is mapped in windows so that files larger than 2GB can
+ * be read. Lines consisting entirely of 7-bit characters are converted to Strings directly from
+ * their bytes; the character set decoder is only used for lines containing a byte with the high
+ * bit set (and then only for that line).
+ * <p>
+ * Produces the same {@link Line}s (text, terminator, offsets and line numbers) as
+ * {@link edu.ucdenver.ccp.common.file.reader.StreamLineReader} for the character encodings
+ * returned by {@link #supports(File, CharacterEncoding)}.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class MappedFileLineReader implements Closeable {
+
+	static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+	private static final Charset ISO_8859_1 = Charset.forName(CharacterEncoding.ISO_8859_1.getCharacterSetName());
+
+	private static final byte LF = '\n';
+	private static final byte CR = '\r';
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final long fileSize;
+	private final Charset charset;
+	private final String skipLinePrefix;
+	private final int windowSize;
+
+	private MappedByteBuffer window;
+	/**
+	 * the file offset of the first byte of the current window
+	 */
+	private long windowStart;
+	/**
+	 * the file offset of the next line to read
+	 */
+	private long byteOffset = 0;
+	private long characterOffset = 0;
+	private long codePointOffset = 0;
+	private long lineNumber = 0;
+	/**
+	 * lines starting at or beyond this offset are not read
+	 */
+	private long endOffset;
+	private byte[] lineBytes = new byte[1024];
+
+	/**
+	 * @param dataFile
+	 *            an uncompressed file
+	 * @param encoding
+	 *            the character encoding of the file
+	 * @param skipLinePrefix
+	 *            lines starting with this prefix are not returned by {@link #readLine()}; may be
+	 *            null
+	 * @throws IOException
+	 */
+	public MappedFileLineReader(File dataFile, CharacterEncoding encoding, String skipLinePrefix) throws IOException {
+		this(dataFile, encoding, skipLinePrefix, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * @param windowSize
+	 *            the number of bytes mapped at a time. Lines longer than the window size cause the
+	 *            window to grow as needed.
+	 */
+	MappedFileLineReader(File dataFile, CharacterEncoding encoding, String skipLinePrefix, int windowSize)
+			throws IOException {
+		if (windowSize < 2) {
+			throw new IllegalArgumentException("Window size must be at least 2 bytes: " + windowSize);
+		}
+		this.charset = Charset.forName(encoding.getCharacterSetName());
+		this.skipLinePrefix = skipLinePrefix;
+		this.windowSize = windowSize;
+		this.file = new RandomAccessFile(dataFile, "r");
+		this.channel = file.getChannel();
+		this.fileSize = channel.size();
+		this.endOffset = fileSize;
+		map(0, windowSize);
+	}
+
+	/**
+	 * @param dataFile
+	 * @param encoding
+	 * @return true if the file can be read using a {@link MappedFileLineReader}, i.e. if it is a
+	 *         regular file that is not gzipped and the encoding is US-ASCII, ISO-8859-1 or UTF-8
+	 * @throws IOException
+	 */
+	public static boolean supports(File dataFile, CharacterEncoding encoding) throws IOException {
+		if (encoding != CharacterEncoding.US_ASCII && encoding != CharacterEncoding.ISO_8859_1
+				&& encoding != CharacterEncoding.UTF_8) {
+			return false;
+		}
+		if (!dataFile.isFile()) {
+			return false;
+		}
+		return !isGzipped(dataFile);
+	}
+
+	/**
+	 * @param dataFile
+	 * @return true if the file starts with the gzip magic number
+	 * @throws IOException
+	 */
+	static boolean isGzipped(File dataFile) throws IOException {
+		InputStream is = new FileInputStream(dataFile);
+		try {
+			return is.read() == 0x1f && is.read() == 0x8b;
+		} finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * @return the next line in the file that does not start with the skip-line prefix, or null if
+	 *         the end of the file has been reached
+	 * @throws IOException
+	 */
+	public Line readLine() throws IOException {
+		Line line = readNextLine();
+		while (line != null && skipLinePrefix != null && line.getText().startsWith(skipLinePrefix)) {
+			line = readNextLine();
+		}
+		return line;
+	}
+
+	/**
+	 * Repositions this reader so that the next line read starts at the specified byte offset. The
+	 * character and code point offsets of subsequent lines are counted from the byte offset, i.e.
+	 * they are exact only if the text preceding the byte offset consists of single-byte characters.
+	 * 
+	 * @param byteOffset
+	 *            the offset of the start of a line
+	 * @param lineNumber
+	 *            the line number of the line starting at the byte offset
+	 */
+	public void seek(long byteOffset, long lineNumber) {
+		if (byteOffset < 0 || byteOffset > fileSize) {
+			throw new IllegalArgumentException("Byte offset " + byteOffset + " is outside of the file (size: "
+					+ fileSize + ").");
+		}
+		this.byteOffset = byteOffset;
+		this.characterOffset = byteOffset;
+		this.codePointOffset = byteOffset;
+		this.lineNumber = lineNumber;
+	}
+
+	/**
+	 * Restricts this reader to the lines starting before the specified byte offset, i.e.
+	 * {@link #readLine()} returns null once a line starting at or beyond the end offset is reached.
+	 * 
+	 * @param endOffset
+	 *            the offset of the start of a line, or the file size
+	 */
+	public void setEndOffset(long endOffset) {
+		if (endOffset < 0 || endOffset > fileSize) {
+			throw new IllegalArgumentException("End offset " + endOffset + " is outside of the file (size: "
+					+ fileSize + ").");
+		}
+		this.endOffset = endOffset;
+	}
+
+	private Line readNextLine() throws IOException {
+		if (byteOffset >= endOffset) {
+			return null;
+		}
+		if (byteOffset < windowStart || byteOffset >= windowStart + window.limit()) {
+			map(byteOffset, windowSize);
+		}
+		int lineStart = (int) (byteOffset - windowStart);
+		int limit = window.limit();
+		int index = lineStart;
+		int highBits = 0;
+		while (true) {
+			if (index == limit) {
+				if (windowStart + limit >= fileSize) {
+					break;
+				}
+				/*
+				 * the line continues past the end of the window; re-map the window to start at the
+				 * beginning of the line, growing it if the line is long relative to the window
+				 */
+				int scanned = index - lineStart;
+				map(byteOffset, Math.max(windowSize, 2L * scanned));
+				lineStart = 0;
+				index = scanned;
+				limit = window.limit();
+				if (index == limit && windowStart + limit < fileSize) {
+					throw new IOException("Line starting at byte offset " + byteOffset
+							+ " exceeds the maximum line length.");
+				}
+				continue;
+			}
+			byte b = window.get(index);
+			if (b == LF || b == CR) {
+				break;
+			}
+			highBits |= b;
+			index++;
+		}
+		int length = index - lineStart;
+
+		LineTerminator terminator;
+		int terminatorLength;
+		if (index == limit) {
+			terminator = LineTerminator.EOF;
+			terminatorLength = 0;
+		} else if (window.get(index) == LF) {
+			terminator = LineTerminator.LF;
+			terminatorLength = 1;
+		} else {
+			if (index + 1 == limit && windowStart + limit < fileSize) {
+				/* make sure the byte following the carriage return is mapped */
+				map(byteOffset, Math.max(windowSize, length + 2L));
+				lineStart = 0;
+				index = length;
+				limit = window.limit();
+			}
+			if (index + 1 < limit && window.get(index + 1) == LF) {
+				terminator = LineTerminator.CRLF;
+				terminatorLength = 2;
+			} else {
+				terminator = LineTerminator.CR;
+				terminatorLength = 1;
+			}
+		}
+
+		String text = decode(lineStart, length, highBits < 0);
+		Line line = new Line(text, terminator, characterOffset, codePointOffset, lineNumber, byteOffset);
+
+		byteOffset += length + terminatorLength;
+		characterOffset += text.length() + terminatorLength;
+		codePointOffset += ((highBits < 0) ? text.codePointCount(0, text.length()) : length) + terminatorLength;
+		lineNumber++;
+		return line;
+	}
+
+	/**
+	 * @param start
+	 *            index in the current window of the first byte of the line
+	 * @param length
+	 *            number of bytes in the line (excluding the terminator)
+	 * @param hasHighBit
+	 *            true if at least one byte in the line has its high bit set
+	 * @return the decoded line text
+	 */
+	private String decode(int start, int length, boolean hasHighBit) {
+		if (lineBytes.length < length) {
+			lineBytes = new byte[Math.max(length, lineBytes.length * 2)];
+		}
+		window.position(start);
+		window.get(lineBytes, 0, length);
+		/* 7-bit bytes map directly to chars in all supported encodings */
+		return new String(lineBytes, 0, length, hasHighBit ? charset : ISO_8859_1);
+	}
+
+	/**
+	 * Maps a window of the file
+	 * 
+	 * @param start
+	 *            file offset of the start of the window
+	 * @param size
+	 *            requested size of the window; truncated at the end of the file and at 2GB
+	 * @throws IOException
+	 */
+	private void map(long start, long size) throws IOException {
+		long mappedSize = Math.min(Math.min(size, fileSize - start), Integer.MAX_VALUE);
+		window = channel.map(MapMode.READ_ONLY, start, mappedSize);
+		windowStart = start;
+	}
+
+	@Override
+	public void close() throws IOException {
+		window = null;
+		file.close();
+	}
+
+}
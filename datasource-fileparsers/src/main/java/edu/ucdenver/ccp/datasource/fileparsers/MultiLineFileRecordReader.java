@@ -94,10 +94,51 @@ public abstract class MultiLineFileRecordReader<T extends FileRecord> extends Li
 		return record;
 	}
 
+	/**
+	 * Overriding to parse records directly from the compiled buffers in a single loop
+	 */
+	@Override
+	public int nextBatch(List<? super T> sink, int max) {
+		int count = 0;
+		try {
+			while (count < max && buffer != null) {
+				sink.add(parseRecordFromMultipleLines(buffer));
+				count++;
+				buffer = compileMultiLineBuffer();
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return count;
+	}
+
+	/**
+	 * Overriding to re-compile the buffer of the record at the new position
+	 */
+	@Override
+	protected void resetAfterSeek() throws IOException {
+		line = readLine();
+		buffer = compileMultiLineBuffer();
+	}
+
+	/**
+	 * Overriding as the record boundaries of multi-line formats differ; subclasses must override
+	 * this method to allow the file to be split
+	 */
+	@Override
+	protected RecordBoundary getRecordBoundary() {
+		return null;
+	}
+
 	protected abstract MultiLineBuffer compileMultiLineBuffer() throws IOException;
 
 	protected abstract T parseRecordFromMultipleLines(MultiLineBuffer multiLineBuffer);
 
+	/**
+	 * Buffers the lines of a single record. Parsers should access the lines directly, using
+	 * {@link #getLineText(int)}, {@link #cursor()} or {@link #getRuns(int)}, rather than
+	 * re-reading the concatenated text returned by {@link #toString()}.
+	 */
 	public static class MultiLineBuffer {
 		private List<Line> lines;
 
@@ -115,14 +156,210 @@ public abstract class MultiLineFileRecordReader<T extends FileRecord> extends Li
 			throw new IllegalStateException("Cannot request byte offset from an empty MultiLineBuffer!");
 		}
 
+		/**
+		 * @return the number of buffered lines
+		 */
+		public int size() {
+			return lines.size();
+		}
+
+		/**
+		 * @param index
+		 * @return the buffered line at the specified index
+		 */
+		public Line getLine(int index) {
+			return lines.get(index);
+		}
+
+		/**
+		 * @param index
+		 * @return the text of the buffered line at the specified index
+		 */
+		public String getLineText(int index) {
+			return lines.get(index).getText();
+		}
+
+		/**
+		 * @return a new cursor positioned before the first buffered line
+		 */
+		public LineCursor cursor() {
+			return new LineCursor(this);
+		}
+
+		/**
+		 * Groups the buffered lines into runs of consecutive lines that share a line-type prefix,
+		 * e.g. the two-character line codes of the UniProt and EMBL flat file formats
+		 * 
+		 * @param prefixLength
+		 *            the number of leading characters that make up the prefix of a line. Lines
+		 *            shorter than the prefix length are grouped by their entire text.
+		 * @return the runs of lines, in buffer order
+		 */
+		public List<LineRun> getRuns(int prefixLength) {
+			List<LineRun> runs = new ArrayList<LineRun>();
+			int runStart = 0;
+			String runPrefix = null;
+			for (int i = 0; i < lines.size(); i++) {
+				String text = lines.get(i).getText();
+				int length = Math.min(prefixLength, text.length());
+				if (runPrefix == null || runPrefix.length() != length || !text.regionMatches(0, runPrefix, 0, length)) {
+					if (runPrefix != null) {
+						runs.add(new LineRun(this, runPrefix, runStart, i));
+					}
+					runStart = i;
+					runPrefix = text.substring(0, length);
+				}
+			}
+			if (runPrefix != null) {
+				runs.add(new LineRun(this, runPrefix, runStart, lines.size()));
+			}
+			return runs;
+		}
+
 		@Override
 		public String toString() {
 			StringBuilder sb = new StringBuilder();
 			for (Line line : lines) {
-				sb.append(line.getText() + StringConstants.NEW_LINE);
+				sb.append(line.getText()).append(StringConstants.NEW_LINE);
 			}
 			return sb.toString();
 		}
 	}
 
+	/**
+	 * Sequential access to the lines of a {@link MultiLineBuffer}. Replaces reading the buffered
+	 * lines through a {@link java.io.BufferedReader}, including its mark/reset look-ahead, without
+	 * copying the line text.
+	 */
+	public static class LineCursor {
+		private final MultiLineBuffer buffer;
+		private int index = 0;
+		private int mark = -1;
+
+		private LineCursor(MultiLineBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		/**
+		 * @return true if there are lines remaining
+		 */
+		public boolean hasNext() {
+			return index < buffer.size();
+		}
+
+		/**
+		 * @return the text of the next line, or null if there are no lines remaining
+		 */
+		public String readLine() {
+			return hasNext() ? buffer.getLineText(index++) : null;
+		}
+
+		/**
+		 * @return the text of the next line without advancing the cursor, or null if there are no
+		 *         lines remaining
+		 */
+		public String peekLine() {
+			return hasNext() ? buffer.getLineText(index) : null;
+		}
+
+		/**
+		 * Marks the current position; a subsequent call to {@link #reset()} returns the cursor to
+		 * this position
+		 */
+		public void mark() {
+			mark = index;
+		}
+
+		/**
+		 * Returns the cursor to the most recently marked position
+		 * 
+		 * @throws IllegalStateException
+		 *             if the cursor has not been marked
+		 */
+		public void reset() {
+			if (mark < 0) {
+				throw new IllegalStateException("Cursor not marked.");
+			}
+			index = mark;
+		}
+
+		/**
+		 * @return the buffer index of the next line
+		 */
+		public int getIndex() {
+			return index;
+		}
+	}
+
+	/**
+	 * A run of consecutive lines in a {@link MultiLineBuffer} sharing the same prefix, see
+	 * {@link MultiLineBuffer#getRuns(int)}
+	 */
+	public static class LineRun {
+		private final MultiLineBuffer buffer;
+		private final String prefix;
+		private final int startIndex;
+		private final int endIndex;
+
+		private LineRun(MultiLineBuffer buffer, String prefix, int startIndex, int endIndex) {
+			this.buffer = buffer;
+			this.prefix = prefix;
+			this.startIndex = startIndex;
+			this.endIndex = endIndex;
+		}
+
+		/**
+		 * @return the prefix shared by the lines of this run
+		 */
+		public String getPrefix() {
+			return prefix;
+		}
+
+		/**
+		 * @return the buffer index of the first line of this run
+		 */
+		public int getStartIndex() {
+			return startIndex;
+		}
+
+		/**
+		 * @return the number of lines in this run
+		 */
+		public int size() {
+			return endIndex - startIndex;
+		}
+
+		/**
+		 * @param index
+		 *            the index of the line within this run
+		 * @return the line
+		 */
+		public Line getLine(int index) {
+			checkIndex(index);
+			return buffer.getLine(startIndex + index);
+		}
+
+		/**
+		 * @param index
+		 *            the index of the line within this run
+		 * @return the text of the line
+		 */
+		public String getLineText(int index) {
+			checkIndex(index);
+			return buffer.getLineText(startIndex + index);
+		}
+
+		private void checkIndex(int index) {
+			if (index < 0 || index >= size()) {
+				throw new IndexOutOfBoundsException("Index " + index + " is outside of the run (size: " + size()
+						+ ").");
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "LineRun [prefix=" + prefix + ", lines " + startIndex + "-" + (endIndex - 1) + "]";
+		}
+	}
+
 }
@@ -0,0 +1,560 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * An {@link InputStream} that returns the same bytes as a {@link GZIPInputStream} but inflates the
+ * compressed input ahead of the reader on a background thread, so that decompression overlaps
+ * with parsing. Inflated data is handed to the reading thread in large blocks through a bounded
+ * queue.
+ * <p>
+ * Gzip members that declare their compressed size, i.e. the blocks of a BGZF file, are inflated
+ * concurrently by a small pool of threads. The boundaries of other gzip members are only known
+ * once they have been inflated, so those are inflated sequentially on the background thread.
+ * <p>
+ * Errors encountered while inflating (e.g. a truncated file) are thrown by the read methods once
+ * all data preceding the error has been returned.
+ * <p>
+ * All threads are daemon threads. The thread pool is only created once a BGZF block is
+ * encountered, and it is shut down as soon as the last block has been submitted or an error has
+ * occurred, so reaching the end of the input releases all threads even if {@link #close()} is
+ * never called. Idle pool threads also time out, so a stream that is abandoned part-way through
+ * retains at most its read-ahead thread, which is blocked waiting for the reader.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class ParallelGzipInputStream extends InputStream {
+
+	private static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+	private static final int DEFAULT_QUEUE_CAPACITY = 16;
+	private static final long INFLATER_KEEP_ALIVE_SECONDS = 10;
+
+	private static final int GZIP_MAGIC_1 = 0x1f;
+	private static final int GZIP_MAGIC_2 = 0x8b;
+	private static final int DEFLATE = 8;
+	private static final int FEXTRA = 0x04;
+	/**
+	 * the length of the fixed portion of a BGZF block header, including the XLEN field
+	 */
+	private static final int BGZF_FIXED_HEADER_LENGTH = 12;
+	private static final int TRAILER_LENGTH = 8;
+
+	/**
+	 * marks the end of the inflated data
+	 */
+	private static final Block END_OF_STREAM = new DataBlock(new byte[0]);
+
+	private final InputStream compressedStream;
+	private final int blockSize;
+	private final BlockingQueue<Block> blocks;
+	private final int threadCount;
+	private final ThreadFactory threadFactory;
+	private final Thread readAheadThread;
+
+	/**
+	 * Created by the read-ahead thread when the first BGZF block is encountered
+	 */
+	private volatile ExecutorService inflaters;
+
+	private byte[] currentBlock = new byte[0];
+	private int currentBlockPosition = 0;
+	private boolean endOfStream = false;
+	private volatile boolean closed = false;
+
+	/**
+	 * @param compressedStream
+	 *            gzip-compressed input
+	 */
+	public ParallelGzipInputStream(InputStream compressedStream) {
+		this(compressedStream, Math.min(4, Runtime.getRuntime().availableProcessors()), DEFAULT_BLOCK_SIZE,
+				DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * @param compressedStream
+	 *            gzip-compressed input
+	 * @param threadCount
+	 *            the number of threads used to inflate BGZF blocks concurrently
+	 * @param blockSize
+	 *            the number of inflated bytes handed to the reader at a time when inflating
+	 *            sequentially
+	 * @param queueCapacity
+	 *            the maximum number of blocks that are inflated (or being inflated) ahead of the
+	 *            reader
+	 */
+	public ParallelGzipInputStream(InputStream compressedStream, int threadCount, int blockSize, int queueCapacity) {
+		if (threadCount < 1 || blockSize < 1 || queueCapacity < 1) {
+			throw new IllegalArgumentException(String.format(
+					"Thread count (%d), block size (%d) and queue capacity (%d) must be positive.", threadCount,
+					blockSize, queueCapacity));
+		}
+		this.compressedStream = compressedStream;
+		this.blockSize = blockSize;
+		this.blocks = new ArrayBlockingQueue<Block>(queueCapacity);
+		this.threadCount = threadCount;
+		this.threadFactory = new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "gzip-inflater");
+				t.setDaemon(true);
+				return t;
+			}
+		};
+		this.readAheadThread = threadFactory.newThread(new ReadAhead());
+		this.readAheadThread.setName("gzip-read-ahead");
+		this.readAheadThread.start();
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!fillCurrentBlock()) {
+			return -1;
+		}
+		return currentBlock[currentBlockPosition++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (len == 0) {
+			return 0;
+		}
+		if (!fillCurrentBlock()) {
+			return -1;
+		}
+		int count = Math.min(len, currentBlock.length - currentBlockPosition);
+		System.arraycopy(currentBlock, currentBlockPosition, b, off, count);
+		currentBlockPosition += count;
+		return count;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return currentBlock.length - currentBlockPosition;
+	}
+
+	/**
+	 * Makes sure there are unread bytes in the current block
+	 * 
+	 * @return false if the end of the stream has been reached
+	 * @throws IOException
+	 *             if an error occurred while inflating
+	 */
+	private boolean fillCurrentBlock() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		while (currentBlockPosition == currentBlock.length) {
+			if (endOfStream) {
+				return false;
+			}
+			try {
+				Block block = blocks.take();
+				if (block == END_OF_STREAM) {
+					endOfStream = true;
+					return false;
+				}
+				currentBlock = block.get();
+				currentBlockPosition = 0;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while waiting for inflated data.", e);
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			readAheadThread.interrupt();
+			ExecutorService pool = inflaters;
+			if (pool != null) {
+				pool.shutdownNow();
+			}
+			blocks.clear();
+			compressedStream.close();
+		}
+	}
+
+	/**
+	 * @return true once the read-ahead thread has finished and the inflater threads, if any were
+	 *         created, have terminated
+	 */
+	boolean isReleased() {
+		ExecutorService pool = inflaters;
+		return !readAheadThread.isAlive() && (pool == null || pool.isTerminated());
+	}
+
+	/**
+	 * A block of inflated data
+	 */
+	private interface Block {
+		byte[] get() throws IOException, InterruptedException;
+	}
+
+	private static class DataBlock implements Block {
+		private final byte[] data;
+
+		public DataBlock(byte[] data) {
+			this.data = data;
+		}
+
+		@Override
+		public byte[] get() {
+			return data;
+		}
+	}
+
+	private static class FailedBlock implements Block {
+		private final IOException exception;
+
+		public FailedBlock(IOException exception) {
+			this.exception = exception;
+		}
+
+		@Override
+		public byte[] get() throws IOException {
+			throw exception;
+		}
+	}
+
+	/**
+	 * A BGZF block that is being inflated by the thread pool
+	 */
+	private static class InflatingBlock implements Block {
+		private final Future<byte[]> future;
+
+		public InflatingBlock(Future<byte[]> future) {
+			this.future = future;
+		}
+
+		@Override
+		public byte[] get() throws IOException, InterruptedException {
+			try {
+				return future.get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException) e.getCause();
+				}
+				throw new IOException(e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Reads the compressed input, submitting BGZF blocks to the thread pool and inflating any other
+	 * gzip members sequentially
+	 */
+	private class ReadAhead implements Runnable {
+
+		@Override
+		public void run() {
+			try {
+				try {
+					readMembers();
+				} catch (PartialReadException e) {
+					put(new FailedBlock(e.exception));
+				} catch (IOException e) {
+					put(new FailedBlock(e));
+				} catch (RuntimeException e) {
+					put(new FailedBlock(new IOException(e)));
+				}
+				put(END_OF_STREAM);
+			} catch (InterruptedException e) {
+				// the stream has been closed
+			} finally {
+				/*
+				 * no further blocks will be submitted; blocks that are already queued are still
+				 * inflated and the pool threads exit once they are done
+				 */
+				ExecutorService pool = inflaters;
+				if (pool != null) {
+					pool.shutdown();
+				}
+			}
+		}
+
+		private ExecutorService getInflaters() {
+			if (inflaters == null) {
+				ThreadPoolExecutor pool = new ThreadPoolExecutor(threadCount, threadCount,
+						INFLATER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+						threadFactory);
+				pool.allowCoreThreadTimeOut(true);
+				inflaters = pool;
+			}
+			return inflaters;
+		}
+
+		private void put(Block block) throws InterruptedException {
+			if (!closed) {
+				blocks.put(block);
+			}
+		}
+
+		private void readMembers() throws IOException, InterruptedException {
+			boolean firstMember = true;
+			while (!closed) {
+				byte[] header = new byte[BGZF_FIXED_HEADER_LENGTH];
+				int headerLength = readFully(compressedStream, header, 0, header.length);
+				if (headerLength == 0 && !firstMember) {
+					return;
+				}
+				if (!firstMember && (headerLength < 2 || (header[0] & 0xff) != GZIP_MAGIC_1
+						|| (header[1] & 0xff) != GZIP_MAGIC_2)) {
+					/* GZIPInputStream ignores trailing data that is not a gzip member */
+					return;
+				}
+				if (headerLength < header.length || !isBgzfHeader(header)) {
+					inflateSequentially(Arrays.copyOf(header, headerLength));
+					return;
+				}
+				int extraLength = readUnsignedShort(header, 10);
+				byte[] extra = new byte[extraLength];
+				if (readFully(compressedStream, extra, 0, extraLength) < extraLength) {
+					throw new EOFException("Unexpected end of ZLIB input stream");
+				}
+				int blockLength = getBgzfBlockLength(extra);
+				if (blockLength < 0) {
+					byte[] read = Arrays.copyOf(header, header.length + extraLength);
+					System.arraycopy(extra, 0, read, header.length, extraLength);
+					inflateSequentially(read);
+					return;
+				}
+				int headerAndExtraLength = header.length + extraLength;
+				if (blockLength < headerAndExtraLength + TRAILER_LENGTH) {
+					throw new ZipException("Invalid BGZF block size: " + blockLength);
+				}
+				byte[] block = new byte[blockLength];
+				System.arraycopy(header, 0, block, 0, header.length);
+				System.arraycopy(extra, 0, block, header.length, extraLength);
+				int remaining = blockLength - headerAndExtraLength;
+				if (readFully(compressedStream, block, headerAndExtraLength, remaining) < remaining) {
+					throw new EOFException("Unexpected end of ZLIB input stream");
+				}
+				put(new InflatingBlock(getInflaters().submit(new BgzfBlockInflater(block, headerAndExtraLength))));
+				firstMember = false;
+			}
+		}
+
+		/**
+		 * Inflates the remainder of the input using a {@link GZIPInputStream}
+		 * 
+		 * @param alreadyRead
+		 *            compressed bytes that have already been consumed from the input
+		 */
+		private void inflateSequentially(byte[] alreadyRead) throws IOException, InterruptedException {
+			InputStream gzipStream = new GZIPInputStream(new SequenceInputStream(
+					new ByteArrayInputStream(alreadyRead), compressedStream), 64 * 1024);
+			while (!closed) {
+				byte[] block = new byte[blockSize];
+				int count;
+				try {
+					count = readFully(gzipStream, block, 0, blockSize);
+				} catch (PartialReadException e) {
+					if (e.count > 0) {
+						put(new DataBlock(Arrays.copyOf(block, e.count)));
+					}
+					throw e.exception;
+				}
+				if (count > 0) {
+					put(new DataBlock((count == blockSize) ? block : Arrays.copyOf(block, count)));
+				}
+				if (count < blockSize) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Inflates a single BGZF block and verifies its CRC and size
+	 */
+	private static class BgzfBlockInflater implements Callable<byte[]> {
+		private final byte[] block;
+		private final int headerLength;
+
+		public BgzfBlockInflater(byte[] block, int headerLength) {
+			this.block = block;
+			this.headerLength = headerLength;
+		}
+
+		@Override
+		public byte[] call() throws IOException {
+			int trailerStart = block.length - TRAILER_LENGTH;
+			long expectedCrc = readUnsignedInt(block, trailerStart);
+			long expectedSize = readUnsignedInt(block, trailerStart + 4);
+			if (expectedSize > Integer.MAX_VALUE) {
+				throw new ZipException("Corrupt GZIP trailer");
+			}
+			byte[] inflated = new byte[(int) expectedSize];
+			Inflater inflater = new Inflater(true);
+			try {
+				inflater.setInput(block, headerLength, trailerStart - headerLength);
+				int count = 0;
+				byte[] overflow = new byte[1];
+				while (!inflater.finished()) {
+					int n;
+					if (count < inflated.length) {
+						n = inflater.inflate(inflated, count, inflated.length - count);
+						count += n;
+					} else {
+						/*
+						 * all of the expected bytes have been inflated; only the end of the deflate
+						 * stream should remain
+						 */
+						n = inflater.inflate(overflow, 0, overflow.length);
+						if (n > 0) {
+							throw new ZipException("Corrupt GZIP trailer");
+						}
+					}
+					if (n == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+						throw new ZipException("Corrupt GZIP trailer");
+					}
+				}
+				CRC32 crc = new CRC32();
+				crc.update(inflated, 0, count);
+				if (count != inflated.length || crc.getValue() != expectedCrc) {
+					throw new ZipException("Corrupt GZIP trailer");
+				}
+				return inflated;
+			} catch (DataFormatException e) {
+				String message = e.getMessage();
+				throw new ZipException((message != null) ? message : "Invalid ZLIB data format");
+			} finally {
+				inflater.end();
+			}
+		}
+	}
+
+	/**
+	 * @return true if the header is that of a gzip member whose only optional field is the extra
+	 *         field, as is the case for BGZF blocks
+	 */
+	private static boolean isBgzfHeader(byte[] header) {
+		return (header[0] & 0xff) == GZIP_MAGIC_1 && (header[1] & 0xff) == GZIP_MAGIC_2
+				&& (header[2] & 0xff) == DEFLATE && (header[3] & 0xff) == FEXTRA;
+	}
+
+	/**
+	 * @param extra
+	 *            the extra field of a gzip member header
+	 * @return the total length of the BGZF block as given by the BC subfield, or -1 if there is no
+	 *         BC subfield
+	 */
+	private static int getBgzfBlockLength(byte[] extra) {
+		int i = 0;
+		while (i + 4 <= extra.length) {
+			int subfieldLength = readUnsignedShort(extra, i + 2);
+			if (extra[i] == 'B' && extra[i + 1] == 'C' && subfieldLength == 2 && i + 6 <= extra.length) {
+				return readUnsignedShort(extra, i + 4) + 1;
+			}
+			i += 4 + subfieldLength;
+		}
+		return -1;
+	}
+
+	private static int readUnsignedShort(byte[] b, int offset) {
+		return (b[offset] & 0xff) | ((b[offset + 1] & 0xff) << 8);
+	}
+
+	private static long readUnsignedInt(byte[] b, int offset) {
+		return ((long) readUnsignedShort(b, offset + 2) << 16) | readUnsignedShort(b, offset);
+	}
+
+	/**
+	 * Reads until len bytes have been read or the end of the stream is reached
+	 * 
+	 * @return the number of bytes read
+	 * @throws PartialReadException
+	 *             if an IOException occurs, recording the number of bytes read before the error
+	 */
+	private static int readFully(InputStream is, byte[] b, int off, int len) throws PartialReadException {
+		int count = 0;
+		try {
+			while (count < len) {
+				int n = is.read(b, off + count, len - count);
+				if (n < 0) {
+					break;
+				}
+				count += n;
+			}
+		} catch (IOException e) {
+			throw new PartialReadException(count, e);
+		}
+		return count;
+	}
+
+	/**
+	 * Signals an {@link IOException} that occurred after some bytes had been read successfully
+	 */
+	private static class PartialReadException extends IOException {
+		private static final long serialVersionUID = 1L;
+		private final int count;
+		private final IOException exception;
+
+		public PartialReadException(int count, IOException exception) {
+			super(exception);
+			this.count = count;
+			this.exception = exception;
+		}
+	}
+
+}
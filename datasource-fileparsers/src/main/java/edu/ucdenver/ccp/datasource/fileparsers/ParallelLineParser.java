@@ -0,0 +1,318 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import edu.ucdenver.ccp.common.file.reader.Line;
+
+/**
+ * Parses lines on a pool of worker threads. A single reader thread pulls {@link Line} objects from
+ * a {@link LineSource} in batches and hands each batch to the worker pool; parsed records are
+ * returned by {@link #hasNext()}/{@link #next()} either in the original line order or in the order
+ * the batches finish parsing. The number of batches in flight is bounded so that the reader thread
+ * cannot run arbitrarily far ahead of the consumer.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ * @param <T>
+ */
+class ParallelLineParser<T> implements Iterator<T>, Closeable {
+
+	private static final Logger logger = Logger.getLogger(ParallelLineParser.class);
+
+	/**
+	 * Supplies lines to the reader thread. Returns null when there are no more lines.
+	 */
+	interface LineSource {
+		Line readLine() throws IOException;
+	}
+
+	/**
+	 * Converts a line to a record. Implementations are called concurrently from the worker threads.
+	 * Lines that are not of interest are skipped; every other line yields exactly one element,
+	 * including null if that is what {@link #parseLine(Line)} returns, so that the records produced
+	 * match those of serial parsing.
+	 */
+	interface LineParser<T> {
+		boolean isLineOfInterest(Line line);
+
+		T parseLine(Line line);
+	}
+
+	private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+	private final LineSource source;
+	private final LineParser<T> parser;
+	private final int batchSize;
+	private final boolean preserveOrder;
+	private final ExecutorService workers;
+	private final Semaphore batchesInFlight;
+	private final int maxBatchesInFlight;
+	private final BlockingQueue<BatchTask> completedBatches = new LinkedBlockingQueue<BatchTask>();
+	private final BatchTask endOfInput;
+	private final Thread readerThread;
+
+	private Iterator<T> currentBatch = Collections.<T> emptyList().iterator();
+	private boolean exhausted = false;
+	private volatile boolean closed = false;
+
+	/**
+	 * @param firstLine
+	 *            a line that has already been read from the source, or null
+	 * @param source
+	 * @param parser
+	 * @param workerCount
+	 *            the number of threads used to parse lines
+	 * @param batchSize
+	 *            the number of lines handed to a worker at a time
+	 * @param preserveOrder
+	 *            if true, records are returned in the order of the lines from which they were
+	 *            parsed
+	 */
+	ParallelLineParser(final Line firstLine, LineSource source, LineParser<T> parser, int workerCount, int batchSize,
+			boolean preserveOrder) {
+		if (workerCount < 1) {
+			throw new IllegalArgumentException("Worker count must be >= 1: " + workerCount);
+		}
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be >= 1: " + batchSize);
+		}
+		this.source = source;
+		this.parser = parser;
+		this.batchSize = batchSize;
+		this.preserveOrder = preserveOrder;
+		this.maxBatchesInFlight = workerCount * 4;
+		this.batchesInFlight = new Semaphore(maxBatchesInFlight);
+		final String poolName = "line-parser-" + POOL_COUNT.incrementAndGet();
+		this.workers = Executors.newFixedThreadPool(workerCount, new DaemonThreadFactory(poolName + "-worker-"));
+		this.endOfInput = new BatchTask(Collections.<Line> emptyList());
+		this.readerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				readLines(firstLine);
+			}
+		}, poolName + "-reader");
+		this.readerThread.setDaemon(true);
+		this.readerThread.start();
+	}
+
+	/**
+	 * Runs on the reader thread. Reads batches of lines and submits them to the worker pool until
+	 * the source is exhausted, an error occurs, or this parser is closed.
+	 */
+	private void readLines(Line firstLine) {
+		try {
+			Line line = firstLine;
+			if (line == null) {
+				line = source.readLine();
+			}
+			while (line != null && !closed) {
+				List<Line> lines = new ArrayList<Line>(batchSize);
+				while (line != null && lines.size() < batchSize) {
+					lines.add(line);
+					line = source.readLine();
+				}
+				batchesInFlight.acquire();
+				BatchTask task = new BatchTask(lines);
+				if (preserveOrder) {
+					completedBatches.add(task);
+				}
+				workers.execute(task);
+			}
+			if (!preserveOrder) {
+				/* wait until all submitted batches have been handed to the consumer */
+				batchesInFlight.acquire(maxBatchesInFlight);
+				batchesInFlight.release(maxBatchesInFlight);
+			}
+			completedBatches.add(endOfInput);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Throwable t) {
+			completedBatches.add(new FailedTask(t));
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!currentBatch.hasNext()) {
+			if (exhausted) {
+				return false;
+			}
+			BatchTask task;
+			try {
+				task = completedBatches.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for parsed records.", e);
+			}
+			if (task == endOfInput) {
+				exhausted = true;
+				close();
+				return false;
+			}
+			try {
+				currentBatch = task.get().iterator();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for parsed records.", e);
+			} catch (ExecutionException e) {
+				exhausted = true;
+				close();
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				throw new RuntimeException(cause);
+			} finally {
+				if (!(task instanceof FailedTask)) {
+					batchesInFlight.release();
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return currentBatch.next();
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("This operation is not supported.");
+	}
+
+	/**
+	 * Stops the reader thread and the worker pool. Lines that have been read but not yet returned
+	 * are discarded.
+	 */
+	@Override
+	public void close() {
+		if (!closed) {
+			closed = true;
+			readerThread.interrupt();
+			workers.shutdownNow();
+			logger.debug("Closed parallel line parser.");
+		}
+	}
+
+	/**
+	 * Parses a batch of lines. If the lines are not being returned in order, the task queues itself
+	 * for the consumer as soon as it completes.
+	 */
+	private class BatchTask extends FutureTask<List<T>> {
+
+		BatchTask(final List<Line> lines) {
+			super(new Callable<List<T>>() {
+				@Override
+				public List<T> call() {
+					List<T> records = new ArrayList<T>(lines.size());
+					for (Line line : lines) {
+						try {
+							if (parser.isLineOfInterest(line)) {
+								records.add(parser.parseLine(line));
+							}
+						} catch (RuntimeException e) {
+							throw new IllegalStateException("Error while parsing line " + line.getLineNumber()
+									+ " (byte offset " + line.getByteOffset() + "): " + line.getText(), e);
+						}
+					}
+					return records;
+				}
+			});
+		}
+
+		@Override
+		protected void done() {
+			if (!preserveOrder && !isCancelled()) {
+				completedBatches.add(this);
+			}
+		}
+	}
+
+	/**
+	 * Used to hand an error encountered by the reader thread to the consumer
+	 */
+	private class FailedTask extends BatchTask {
+
+		FailedTask(Throwable t) {
+			super(Collections.<Line> emptyList());
+			setException(t);
+		}
+
+		@Override
+		protected void done() {
+			// the reader thread queues this task directly
+		}
+	}
+
+	private static class DaemonThreadFactory implements ThreadFactory {
+		private final String namePrefix;
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		DaemonThreadFactory(String namePrefix) {
+			this.namePrefix = namePrefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, namePrefix + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		}
+	}
+
+}
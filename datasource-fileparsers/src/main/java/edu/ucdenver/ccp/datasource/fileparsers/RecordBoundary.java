@@ -0,0 +1,91 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+/**
+ * Identifies the first line of each record in a line-based file format. Used to snap the byte
+ * ranges computed by {@link FileSplitter} to record boundaries.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public abstract class RecordBoundary {
+
+	/**
+	 * every line starts a record, e.g. for {@link SingleLineFileRecordReader}s
+	 */
+	public static final RecordBoundary EVERY_LINE = new RecordBoundary() {
+		@Override
+		public boolean isRecordStart(String previousLineText, String lineText) {
+			return true;
+		}
+	};
+
+	/**
+	 * @param prefix
+	 * @return a boundary for formats whose records start with a line with the specified prefix,
+	 *         e.g. "&gt;" for FASTA files
+	 */
+	public static RecordBoundary lineStartingWith(final String prefix) {
+		return new RecordBoundary() {
+			@Override
+			public boolean isRecordStart(String previousLineText, String lineText) {
+				return lineText.startsWith(prefix);
+			}
+		};
+	}
+
+	/**
+	 * @param terminatorPrefix
+	 * @return a boundary for formats whose records end with a line with the specified prefix, e.g.
+	 *         "//" for UniProt and EMBL flat files
+	 */
+	public static RecordBoundary lineFollowing(final String terminatorPrefix) {
+		return new RecordBoundary() {
+			@Override
+			public boolean isRecordStart(String previousLineText, String lineText) {
+				return previousLineText != null && previousLineText.startsWith(terminatorPrefix);
+			}
+		};
+	}
+
+	/**
+	 * @param previousLineText
+	 *            the text of the preceding line, or null if it is not known
+	 * @param lineText
+	 * @return true if a record starts with the line
+	 */
+	public abstract boolean isRecordStart(String previousLineText, String lineText);
+
+}
@@ -0,0 +1,593 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.zip.CRC32;
+
+import org.apache.log4j.Logger;
+
+import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
+
+/**
+ * A persistent index of the records returned by a {@link LineFileRecordReader}, mapping the
+ * ordinal of each record to its byte offset (and line number) in the file being read and, for
+ * records with {@link RecordField#isKeyField()} fields, mapping the record key to its ordinal.
+ * <p>
+ * The index is stored in a sidecar file next to the data file (see
+ * {@link #getIndexFile(File, RecordReader)}) and is built during the first full pass over the data
+ * file (see {@link IndexingRecordReader}). It records the size, modification time and a checksum of
+ * the data file and is ignored (and rebuilt) if any of these change.
+ * <p>
+ * The index describes the records returned by a particular reader configuration, e.g. a
+ * taxon-aware reader restricted to a set of taxa indexes only the records for those taxa. The
+ * index therefore also records the class of the reader and its
+ * {@link LineFileRecordReader#getRecordSelectionDescription()}; both are part of the index file
+ * name, and an index built by a differently configured reader is ignored (and rebuilt). Readers
+ * created by the {@link RecordReaderFactory} passed to
+ * {@link #openAtOrdinal(File, RecordReaderFactory, long)} or
+ * {@link #openAtKey(File, RecordReaderFactory, String)} must always be configured identically.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class RecordOffsetIndex {
+
+	private static final Logger logger = Logger.getLogger(RecordOffsetIndex.class);
+
+	public static final String INDEX_FILE_SUFFIX = ".idx";
+
+	private static final int MAGIC = 0x43435849;
+	private static final int VERSION = 2;
+	/**
+	 * the number of bytes at the start and end of the data file that contribute to the checksum
+	 */
+	private static final int CHECKSUM_BLOCK_SIZE = 64 * 1024;
+	/**
+	 * separates the values of records with multiple key fields
+	 */
+	private static final String KEY_FIELD_SEPARATOR = "\t";
+
+	/**
+	 * see {@link #describeReader(RecordReader)}
+	 */
+	private final String readerDescription;
+	private final long sourceLength;
+	private final long sourceLastModified;
+	private final long sourceChecksum;
+	private final int recordCount;
+	private final long[] byteOffsets;
+	private final long[] lineNumbers;
+	/**
+	 * sorted record keys
+	 */
+	private final String[] keys;
+	private final int[] keyOrdinals;
+
+	private RecordOffsetIndex(String readerDescription, long sourceLength, long sourceLastModified,
+			long sourceChecksum, int recordCount, long[] byteOffsets, long[] lineNumbers, String[] keys,
+			int[] keyOrdinals) {
+		this.readerDescription = readerDescription;
+		this.sourceLength = sourceLength;
+		this.sourceLastModified = sourceLastModified;
+		this.sourceChecksum = sourceChecksum;
+		this.recordCount = recordCount;
+		this.byteOffsets = byteOffsets;
+		this.lineNumbers = lineNumbers;
+		this.keys = keys;
+		this.keyOrdinals = keyOrdinals;
+	}
+
+	/**
+	 * @param dataFile
+	 *            the indexed file
+	 * @param readerDescription
+	 *            the description of the reader whose records are indexed, see
+	 *            {@link #describeReader(RecordReader)}
+	 * @param recordCount
+	 * @param byteOffsets
+	 *            the byte offset of each record, indexed by record ordinal
+	 * @param lineNumbers
+	 *            the line number of the first line of each record, indexed by record ordinal
+	 * @param keyToOrdinalMap
+	 *            maps record keys to record ordinals; may be empty
+	 * @throws IOException
+	 */
+	RecordOffsetIndex(File dataFile, String readerDescription, int recordCount, long[] byteOffsets,
+			long[] lineNumbers, Map<String, Integer> keyToOrdinalMap) throws IOException {
+		this(readerDescription, dataFile.length(), dataFile.lastModified(), computeChecksum(dataFile), recordCount,
+				byteOffsets, lineNumbers, new String[keyToOrdinalMap.size()], new int[keyToOrdinalMap.size()]);
+		List<Entry<String, Integer>> entries = new ArrayList<Entry<String, Integer>>(keyToOrdinalMap.entrySet());
+		Collections.sort(entries, new Comparator<Entry<String, Integer>>() {
+			@Override
+			public int compare(Entry<String, Integer> e1, Entry<String, Integer> e2) {
+				return e1.getKey().compareTo(e2.getKey());
+			}
+		});
+		for (int i = 0; i < entries.size(); i++) {
+			keys[i] = entries.get(i).getKey();
+			keyOrdinals[i] = entries.get(i).getValue();
+		}
+	}
+
+	/**
+	 * @return the description of the reader whose records are indexed, see
+	 *         {@link #describeReader(RecordReader)}
+	 */
+	public String getReaderDescription() {
+		return readerDescription;
+	}
+
+	/**
+	 * @return the number of indexed records
+	 */
+	public int getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * @param ordinal
+	 * @return the byte offset of the record with the specified ordinal
+	 */
+	public long getByteOffset(int ordinal) {
+		checkOrdinal(ordinal);
+		return byteOffsets[ordinal];
+	}
+
+	/**
+	 * @param ordinal
+	 * @return the line number of the first line of the record with the specified ordinal, or 0 if
+	 *         the record is not a {@link SingleLineFileRecord} (line numbers are then counted
+	 *         from the record once a reader has been repositioned)
+	 */
+	public long getLineNumber(int ordinal) {
+		checkOrdinal(ordinal);
+		return lineNumbers[ordinal];
+	}
+
+	/**
+	 * @param key
+	 * @return the ordinal of the first record with the specified key, or -1 if there is no such
+	 *         record. See {@link #getRecordKey(Object, List)} for the key format.
+	 */
+	public int getOrdinal(String key) {
+		int index = Arrays.binarySearch(keys, key);
+		return (index < 0) ? -1 : keyOrdinals[index];
+	}
+
+	/**
+	 * @param dataFile
+	 * @return true if the data file has not changed since this index was built
+	 * @throws IOException
+	 */
+	public boolean isValidFor(File dataFile) throws IOException {
+		return dataFile.length() == sourceLength && dataFile.lastModified() == sourceLastModified
+				&& computeChecksum(dataFile) == sourceChecksum;
+	}
+
+	/**
+	 * @param dataFile
+	 * @param reader
+	 * @return true if the data file has not changed since this index was built and the index was
+	 *         built using a reader of the same class and configuration as the input reader
+	 * @throws IOException
+	 */
+	public boolean isValidFor(File dataFile, RecordReader<?> reader) throws IOException {
+		return readerDescription.equals(describeReader(reader)) && isValidFor(dataFile);
+	}
+
+	private void checkOrdinal(int ordinal) {
+		if (ordinal < 0 || ordinal >= recordCount) {
+			throw new IndexOutOfBoundsException("Record ordinal " + ordinal + " is out of range. The index contains "
+					+ recordCount + " records.");
+		}
+	}
+
+	/**
+	 * Writes this index to the specified file. The index is written to a temporary file first so
+	 * that an incomplete index is never observed.
+	 * 
+	 * @param indexFile
+	 * @throws IOException
+	 */
+	public void write(File indexFile) throws IOException {
+		File tmpFile = new File(indexFile.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			writeString(out, readerDescription);
+			out.writeLong(sourceLength);
+			out.writeLong(sourceLastModified);
+			out.writeLong(sourceChecksum);
+			out.writeInt(recordCount);
+			/* offsets and line numbers are increasing, so their deltas are small */
+			long previousByteOffset = 0;
+			long previousLineNumber = 0;
+			for (int i = 0; i < recordCount; i++) {
+				writeVarLong(out, byteOffsets[i] - previousByteOffset);
+				writeVarLong(out, lineNumbers[i] - previousLineNumber);
+				previousByteOffset = byteOffsets[i];
+				previousLineNumber = lineNumbers[i];
+			}
+			out.writeInt(keys.length);
+			for (int i = 0; i < keys.length; i++) {
+				writeString(out, keys[i]);
+				writeVarLong(out, keyOrdinals[i]);
+			}
+		} finally {
+			out.close();
+		}
+		if (indexFile.exists() && !indexFile.delete()) {
+			throw new IOException("Unable to replace index file: " + indexFile.getAbsolutePath());
+		}
+		if (!tmpFile.renameTo(indexFile)) {
+			throw new IOException("Unable to rename " + tmpFile.getAbsolutePath() + " to "
+					+ indexFile.getAbsolutePath());
+		}
+	}
+
+	/**
+	 * @param indexFile
+	 * @return the index stored in the specified file
+	 * @throws IOException
+	 *             if the file cannot be read or is not an index file
+	 */
+	public static RecordOffsetIndex read(File indexFile) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+		try {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Not a record offset index file (or unsupported version): "
+						+ indexFile.getAbsolutePath());
+			}
+			String readerDescription = readString(in);
+			long sourceLength = in.readLong();
+			long sourceLastModified = in.readLong();
+			long sourceChecksum = in.readLong();
+			int recordCount = in.readInt();
+			long[] byteOffsets = new long[recordCount];
+			long[] lineNumbers = new long[recordCount];
+			long byteOffset = 0;
+			long lineNumber = 0;
+			for (int i = 0; i < recordCount; i++) {
+				byteOffset += readVarLong(in);
+				lineNumber += readVarLong(in);
+				byteOffsets[i] = byteOffset;
+				lineNumbers[i] = lineNumber;
+			}
+			int keyCount = in.readInt();
+			String[] keys = new String[keyCount];
+			int[] keyOrdinals = new int[keyCount];
+			for (int i = 0; i < keyCount; i++) {
+				keys[i] = readString(in);
+				keyOrdinals[i] = (int) readVarLong(in);
+			}
+			return new RecordOffsetIndex(readerDescription, sourceLength, sourceLastModified, sourceChecksum,
+					recordCount, byteOffsets, lineNumbers, keys, keyOrdinals);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * @param reader
+	 * @return the fully qualified name of the reader class followed, if the reader is a
+	 *         {@link LineFileRecordReader} with a non-empty
+	 *         {@link LineFileRecordReader#getRecordSelectionDescription()}, by a space and that
+	 *         description
+	 */
+	static String describeReader(RecordReader<?> reader) {
+		String description = reader.getClass().getName();
+		if (reader instanceof LineFileRecordReader) {
+			String selection = ((LineFileRecordReader<?>) reader).getRecordSelectionDescription();
+			if (selection != null && !selection.isEmpty()) {
+				description += " " + selection;
+			}
+		}
+		return description;
+	}
+
+	/**
+	 * @param dataFile
+	 * @param reader
+	 *            a reader configured identically to the reader whose records are indexed
+	 * @return the default location of the index of the data file. The file name includes the
+	 *         fully qualified name of the reader class and a checksum of the
+	 *         {@link #describeReader(RecordReader)} so that readers of different classes or
+	 *         configurations use different index files.
+	 */
+	public static File getIndexFile(File dataFile, RecordReader<?> reader) {
+		CRC32 crc = new CRC32();
+		crc.update(describeReader(reader).getBytes(StandardCharsets.UTF_8));
+		return new File(dataFile.getPath() + "." + reader.getClass().getName() + "."
+				+ String.format("%08x", crc.getValue()) + INDEX_FILE_SUFFIX);
+	}
+
+	/**
+	 * Returns the index of the data file, building it (by reading the entire file) if it does not
+	 * exist or if it is out of date
+	 * 
+	 * @param dataFile
+	 * @param readerFactory
+	 * @return the index of the records returned by readers created by the reader factory
+	 * @throws IOException
+	 */
+	public static <R extends LineFileRecordReader<?>> RecordOffsetIndex getIndex(File dataFile,
+			RecordReaderFactory<R> readerFactory) throws IOException {
+		R reader = readerFactory.newReader();
+		try {
+			return getIndex(dataFile, reader, readerFactory);
+		} finally {
+			reader.close();
+		}
+	}
+
+	private static <R extends LineFileRecordReader<?>> RecordOffsetIndex getIndex(File dataFile, R reader,
+			RecordReaderFactory<R> readerFactory) throws IOException {
+		File indexFile = getIndexFile(dataFile, reader);
+		if (indexFile.exists()) {
+			try {
+				RecordOffsetIndex index = read(indexFile);
+				if (index.isValidFor(dataFile, reader)) {
+					return index;
+				}
+				logger.info("Rebuilding out-of-date index: " + indexFile.getAbsolutePath());
+			} catch (IOException e) {
+				logger.warn("Rebuilding unreadable index: " + indexFile.getAbsolutePath(), e);
+			}
+		}
+		return buildIndex(dataFile, indexFile, readerFactory.newReader());
+	}
+
+	/**
+	 * Reads all records from the reader, writing the index to the specified index file
+	 * 
+	 * @param dataFile
+	 * @param indexFile
+	 * @param reader
+	 *            this reader is closed once the index has been built
+	 * @return the newly built index
+	 * @throws IOException
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public static RecordOffsetIndex buildIndex(File dataFile, File indexFile, LineFileRecordReader<?> reader)
+			throws IOException {
+		IndexingRecordReader<?> indexingReader = new IndexingRecordReader(reader, dataFile, indexFile);
+		try {
+			while (indexingReader.hasNext()) {
+				indexingReader.next();
+			}
+		} finally {
+			indexingReader.close();
+		}
+		return indexingReader.getIndex();
+	}
+
+	/**
+	 * @param dataFile
+	 * @param readerFactory
+	 * @param ordinal
+	 *            the ordinal of the first record to be returned by the reader
+	 * @return a new reader whose next record is the record with the specified ordinal
+	 * @throws IOException
+	 * @throws IndexOutOfBoundsException
+	 *             if there is no record with the specified ordinal
+	 * @throws UnsupportedOperationException
+	 *             if the reader cannot be repositioned, e.g. because the data file is compressed
+	 */
+	public static <R extends LineFileRecordReader<?>> R openAtOrdinal(File dataFile,
+			RecordReaderFactory<R> readerFactory, long ordinal) throws IOException {
+		R reader = readerFactory.newReader();
+		try {
+			RecordOffsetIndex index = getIndex(dataFile, reader, readerFactory);
+			if (ordinal < 0 || ordinal >= index.getRecordCount()) {
+				throw new IndexOutOfBoundsException("Record ordinal " + ordinal
+						+ " is out of range. The data file contains " + index.getRecordCount() + " records.");
+			}
+			reader.seek(index.getByteOffset((int) ordinal), index.getLineNumber((int) ordinal));
+			return reader;
+		} catch (IOException e) {
+			reader.close();
+			throw e;
+		} catch (RuntimeException e) {
+			reader.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @param dataFile
+	 * @param readerFactory
+	 * @param key
+	 *            see {@link #getRecordKey(Object, List)}
+	 * @return a new reader whose next record is the first record with the specified key, or null
+	 *         if there is no record with the specified key
+	 * @throws IOException
+	 * @throws UnsupportedOperationException
+	 *             if the reader cannot be repositioned, e.g. because the data file is compressed
+	 */
+	public static <R extends LineFileRecordReader<?>> R openAtKey(File dataFile, RecordReaderFactory<R> readerFactory,
+			String key) throws IOException {
+		RecordOffsetIndex index = getIndex(dataFile, readerFactory);
+		int ordinal = index.getOrdinal(key);
+		if (ordinal < 0) {
+			return null;
+		}
+		return openAtOrdinal(dataFile, readerFactory, ordinal);
+	}
+
+	/**
+	 * @param recordClass
+	 * @return the fields of the record class annotated as key fields, sorted by name
+	 */
+	static List<Field> getKeyFields(Class<?> recordClass) {
+		List<Field> keyFields = new ArrayList<Field>();
+		for (Entry<Field, RecordField> entry : RecordUtil.getFieldToRecordFieldAnnotationsMap(recordClass).entrySet()) {
+			if (entry.getValue().isKeyField()) {
+				Field field = entry.getKey();
+				field.setAccessible(true);
+				keyFields.add(field);
+			}
+		}
+		Collections.sort(keyFields, new Comparator<Field>() {
+			@Override
+			public int compare(Field f1, Field f2) {
+				return f1.getName().compareTo(f2.getName());
+			}
+		});
+		return keyFields;
+	}
+
+	/**
+	 * @param record
+	 * @param keyFields
+	 * @return the key of the record, or null if the record has no key fields. The key is the value
+	 *         of the key field (the identifier itself for {@link DataSourceIdentifier} values). The
+	 *         values of records with more than one key field are joined by a tab, in order of the
+	 *         key field names.
+	 */
+	static String getRecordKey(Object record, List<Field> keyFields) {
+		if (keyFields.isEmpty()) {
+			return null;
+		}
+		StringBuilder key = new StringBuilder();
+		for (Field field : keyFields) {
+			if (key.length() > 0) {
+				key.append(KEY_FIELD_SEPARATOR);
+			}
+			Object value;
+			try {
+				value = field.get(record);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("Unable to access key field: " + field.getName(), e);
+			}
+			if (value instanceof DataSourceIdentifier) {
+				value = ((DataSourceIdentifier<?>) value).getId();
+			}
+			key.append(value);
+		}
+		return key.toString();
+	}
+
+	/**
+	 * @param dataFile
+	 * @return a CRC32 checksum of the first and last {@link #CHECKSUM_BLOCK_SIZE} bytes of the file
+	 * @throws IOException
+	 */
+	static long computeChecksum(File dataFile) throws IOException {
+		CRC32 crc = new CRC32();
+		RandomAccessFile raf = new RandomAccessFile(dataFile, "r");
+		try {
+			long length = raf.length();
+			byte[] block = new byte[(int) Math.min(CHECKSUM_BLOCK_SIZE, length)];
+			raf.readFully(block);
+			crc.update(block);
+			if (length > CHECKSUM_BLOCK_SIZE) {
+				block = new byte[(int) Math.min(CHECKSUM_BLOCK_SIZE, length - CHECKSUM_BLOCK_SIZE)];
+				raf.seek(length - block.length);
+				raf.readFully(block);
+				crc.update(block);
+			}
+		} finally {
+			raf.close();
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * Writes a string as its UTF-8 encoding preceded by the encoded length. Unlike
+	 * {@link DataOutputStream#writeUTF(String)}, strings of any length can be written.
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(out, bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Reads a string written by {@link #writeString(DataOutputStream, String)}
+	 */
+	private static String readString(DataInputStream in) throws IOException {
+		long length = readVarLong(in);
+		if (length < 0 || length > Integer.MAX_VALUE) {
+			throw new IOException("Invalid string length in index file: " + length);
+		}
+		byte[] bytes = new byte[(int) length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Writes a signed value using a zig-zag, variable-length encoding (7 bits per byte)
+	 */
+	private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+		long v = (value << 1) ^ (value >> 63);
+		while ((v & ~0x7FL) != 0) {
+			out.writeByte((int) ((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		out.writeByte((int) v);
+	}
+
+	private static long readVarLong(DataInputStream in) throws IOException {
+		long v = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			v |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return (v >>> 1) ^ -(v & 1);
+			}
+		}
+		throw new EOFException("Malformed variable-length value.");
+	}
+
+}
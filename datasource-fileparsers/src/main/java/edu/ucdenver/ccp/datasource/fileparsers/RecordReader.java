@@ -34,7 +34,11 @@ package edu.ucdenver.ccp.datasource.fileparsers;
  */
 
 import java.io.Closeable;
+import java.io.IOException;
 import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import edu.ucdenver.ccp.common.string.StringConstants;
 
@@ -61,6 +65,51 @@ public abstract class RecordReader<T extends DataRecord> implements Closeable, I
 		return StringConstants.BLANK;
 	}
 
+	/**
+	 * Adds up to max of the remaining records to the sink, in order. This is equivalent to, but
+	 * typically cheaper than, calling {@link #hasNext()} and {@link #next()} for each record. Line
+	 * based readers override this method to read and filter lines in a single loop.
+	 * 
+	 * @param sink
+	 *            the list to which the records are added
+	 * @param max
+	 *            the maximum number of records to add
+	 * @return the number of records added; if max is positive, 0 indicates that there are no
+	 *         records remaining
+	 */
+	public int nextBatch(List<? super T> sink, int max) {
+		int count = 0;
+		while (count < max && hasNext()) {
+			sink.add(next());
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns a stream of the records that have not yet been read. The stream is backed by a
+	 * {@link RecordSpliterator}, so a parallel stream processes batches of records while this reader
+	 * continues reading. Closing the stream closes this reader, so the stream should be used in a
+	 * try-with-resources statement. For uncompressed files,
+	 * {@link FileSplitter#stream(java.io.File, RecordReaderFactory, int)} parses the file with a
+	 * reader per split instead. Like {@link #next()}, the stream may contain null elements for
+	 * records the reader could not parse.
+	 * 
+	 * @return a sequential stream of the remaining records
+	 */
+	public Stream<T> stream() {
+		return StreamSupport.stream(new RecordSpliterator<T>(this), false).onClose(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					close();
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+	}
+
 	@Override
 	public void remove() {
 		throw new UnsupportedOperationException("This operation is not supported.");
@@ -0,0 +1,108 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Spliterator} over the records returned by a {@link RecordReader}. A reader can only be
+ * consumed sequentially, so {@link #trySplit()} hands off a batch of records that have already been
+ * read, letting a parallel stream process them while the reader continues. Batches grow
+ * arithmetically, up to {@link #MAX_BATCH_SIZE}, so that small inputs still split.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class RecordSpliterator<T extends DataRecord> implements Spliterator<T> {
+
+	static final int BATCH_SIZE_INCREMENT = 64;
+	static final int MAX_BATCH_SIZE = 1 << 14;
+
+	/* not NONNULL: readers return null for lines or records they cannot parse */
+	private static final int CHARACTERISTICS = Spliterator.ORDERED;
+
+	private final Iterator<T> recordIter;
+	private int batchSize = 0;
+
+	public RecordSpliterator(Iterator<T> recordIter) {
+		this.recordIter = recordIter;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		if (recordIter.hasNext()) {
+			action.accept(recordIter.next());
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		while (recordIter.hasNext()) {
+			action.accept(recordIter.next());
+		}
+	}
+
+	/**
+	 * @return a spliterator over the next batch of records, or null if the reader is exhausted
+	 */
+	@Override
+	public Spliterator<T> trySplit() {
+		if (!recordIter.hasNext()) {
+			return null;
+		}
+		batchSize = Math.min(batchSize + BATCH_SIZE_INCREMENT, MAX_BATCH_SIZE);
+		Object[] batch = new Object[batchSize];
+		int count = 0;
+		while (count < batchSize && recordIter.hasNext()) {
+			batch[count++] = recordIter.next();
+		}
+		return Spliterators.spliterator(batch, 0, count, CHARACTERISTICS);
+	}
+
+	@Override
+	public long estimateSize() {
+		return Long.MAX_VALUE;
+	}
+
+	@Override
+	public int characteristics() {
+		return CHARACTERISTICS;
+	}
+
+}
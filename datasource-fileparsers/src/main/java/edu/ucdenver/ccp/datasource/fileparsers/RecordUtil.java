@@ -46,6 +46,7 @@ import java.util.Set;
 import org.apache.log4j.Logger;
 
 import edu.ucdenver.ccp.common.reflection.PrivateAccessor;
+import edu.ucdenver.ccp.datasource.fileparsers.processor.RecordVisitorProcessor;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 
 /**
@@ -147,6 +148,26 @@ public class RecordUtil {
 		return getRecordFieldAnnotation(recordClass, fieldName).isKeyField();
 	}
 
+	/**
+	 * @param recordClass
+	 * @return the {@link RecordVisitor} generated for the record class by the
+	 *         {@link RecordVisitorProcessor}, or null if no visitor was generated for the class
+	 */
+	@SuppressWarnings("unchecked")
+	public static <R> RecordVisitor<R> getRecordVisitor(Class<R> recordClass) {
+		String visitorClassName = RecordVisitorProcessor.getVisitorClassName(recordClass.getName());
+		try {
+			Class<?> visitorClass = Class.forName(visitorClassName, true, recordClass.getClassLoader());
+			return (RecordVisitor<R>) visitorClass.newInstance();
+		} catch (ClassNotFoundException e) {
+			return null;
+		} catch (InstantiationException e) {
+			throw new IllegalStateException("Unable to instantiate record visitor: " + visitorClassName, e);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Unable to instantiate record visitor: " + visitorClassName, e);
+		}
+	}
+
 	private RecordUtil() {
 		// this class should not be instantiated
 	}
@@ -0,0 +1,80 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.util.List;
+
+import edu.ucdenver.ccp.datasource.fileparsers.processor.RecordVisitorProcessor;
+
+/**
+ * Visits the {@link RecordField}-annotated fields of a record. Implementations are generated at
+ * compile time by the {@link RecordVisitorProcessor} for each {@link Record}-annotated class that
+ * exposes its fields either directly or through getter methods. A generated visitor can be
+ * retrieved using {@link RecordUtil#getRecordVisitor(Class)}.
+ * 
+ * @param <R>
+ *            the record type
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public interface RecordVisitor<R> {
+
+	/**
+	 * @return the names of the fields visited by this visitor, sorted by name. The index of a field
+	 *         name in this list is the field index passed to the {@link RecordFieldVisitor}.
+	 */
+	List<String> getFieldNames();
+
+	/**
+	 * Passes the values of the record fields to the {@link RecordFieldVisitor} in field name order.
+	 * Fields with null values are not visited. For fields whose values are {@link java.util.Collection}s
+	 * each member of the collection is visited.
+	 * 
+	 * @param record
+	 * @param fieldVisitor
+	 */
+	void visit(R record, RecordFieldVisitor fieldVisitor);
+
+	/**
+	 * @param record
+	 * @param fieldIndex
+	 *            the index of the field in {@link #getFieldNames()}
+	 * @return the value of the field in the record, with primitive values boxed
+	 * @throws IndexOutOfBoundsException
+	 *             if the field index is out of range
+	 */
+	Object getFieldValue(R record, int fieldIndex);
+
+}
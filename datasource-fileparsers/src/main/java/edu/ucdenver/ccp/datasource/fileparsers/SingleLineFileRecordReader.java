@@ -36,13 +36,26 @@ package edu.ucdenver.ccp.datasource.fileparsers;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
 
+import org.apache.log4j.Logger;
+
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
 import edu.ucdenver.ccp.common.file.reader.Line;
 
 public abstract class SingleLineFileRecordReader<T extends SingleLineFileRecord> extends LineFileRecordReader<T> {
 
+	private static final Logger logger = Logger.getLogger(SingleLineFileRecordReader.class);
+
+	/**
+	 * Non-null once {@link #enableParallelParsing(int, int, boolean)} has been called
+	 */
+	private ParallelLineParser<T> parallelParser;
+
+	private final List<RawLinePredicate> rawLinePredicates = new ArrayList<RawLinePredicate>();
+
 	public SingleLineFileRecordReader(InputStream stream, CharacterEncoding encoding, String skipLinePrefix)
 			throws IOException {
 		super(stream, encoding, skipLinePrefix);
@@ -78,8 +91,129 @@ public abstract class SingleLineFileRecordReader<T extends SingleLineFileRecord>
 		line = readLine();
 	}
 
+	/**
+	 * Switches this reader to parallel mode. Lines are read in batches by a dedicated reader thread
+	 * and {@link #parseRecordFromLine(Line)} is invoked concurrently on a pool of worker threads,
+	 * so it must not modify shared state. Records retain the line number and byte offset of the
+	 * line they were parsed from. If parsing a line fails, the exception is rethrown by
+	 * {@link #hasNext()}/{@link #next()} wrapped in an {@link IllegalStateException} that reports
+	 * the offending line. This method must be called before the first record is retrieved.
+	 * 
+	 * @param workerCount
+	 *            the number of threads used to parse lines
+	 * @param batchSize
+	 *            the number of lines handed to a worker thread at a time
+	 * @param preserveOrder
+	 *            if true, records are returned in the same order as the lines of the file; if
+	 *            false, records are returned as soon as the batch containing them has been parsed
+	 */
+	public void enableParallelParsing(int workerCount, int batchSize, boolean preserveOrder) {
+		if (parallelParser != null) {
+			throw new IllegalStateException("Parallel parsing has already been enabled.");
+		}
+		logger.info(String.format("Parsing lines using %d worker threads (batch size: %d, ordered: %s)", workerCount,
+				batchSize, preserveOrder));
+		Line firstLine = line;
+		line = null;
+		parallelParser = new ParallelLineParser<T>(firstLine, new ParallelLineParser.LineSource() {
+			@Override
+			public Line readLine() throws IOException {
+				return SingleLineFileRecordReader.this.readLine();
+			}
+		}, new ParallelLineParser.LineParser<T>() {
+			@Override
+			public boolean isLineOfInterest(Line lineToParse) {
+				return SingleLineFileRecordReader.this.isLineOfInterest(lineToParse);
+			}
+
+			@Override
+			public T parseLine(Line lineToParse) {
+				return parseRecordFromLine(lineToParse);
+			}
+		}, workerCount, batchSize, preserveOrder);
+	}
+
+	/**
+	 * @return true if {@link #enableParallelParsing(int, int, boolean)} has been called
+	 */
+	protected boolean isParallelParsingEnabled() {
+		return parallelParser != null;
+	}
+
+	/**
+	 * Adds a filter that is applied to the raw text of every line before the line is parsed. Lines
+	 * that are rejected by any of the predicates are skipped. Predicates must be added before the
+	 * first call to {@link #hasNext()} or {@link #next()}, and before
+	 * {@link #enableParallelParsing(int, int, boolean)} is called.
+	 * 
+	 * @param predicate
+	 */
+	public void addRawLinePredicate(RawLinePredicate predicate) {
+		if (predicate.getDescription() == null) {
+			throw new IllegalArgumentException("RawLinePredicate must provide a description: "
+					+ predicate.getClass().getName());
+		}
+		rawLinePredicates.add(predicate);
+	}
+
+	/**
+	 * @param line
+	 * @return true if a record should be parsed from the input line. By default, all non-null lines
+	 *         that are accepted by the {@link RawLinePredicate}s added to this reader are parsed.
+	 *         Subclasses that filter lines should override this method and consult
+	 *         super.isLineOfInterest() first.
+	 */
+	protected boolean isLineOfInterest(Line line) {
+		if (line == null) {
+			return false;
+		}
+		for (RawLinePredicate predicate : rawLinePredicates) {
+			if (!predicate.accept(line.getText())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Overriding to include the {@link RawLinePredicate}s, which are described using
+	 * {@link RawLinePredicate#getDescription()}
+	 */
+	@Override
+	protected String getRecordSelectionDescription() {
+		String description = super.getRecordSelectionDescription();
+		if (rawLinePredicates.isEmpty()) {
+			return description;
+		}
+		List<String> predicateDescriptions = new ArrayList<String>(rawLinePredicates.size());
+		for (RawLinePredicate predicate : rawLinePredicates) {
+			predicateDescriptions.add(predicate.getDescription());
+		}
+		return description + " predicates=" + predicateDescriptions;
+	}
+
+	/**
+	 * Reads past any lines that are not of interest, leaving {@link #line} either null or
+	 * positioned on the next line to parse
+	 * 
+	 * @throws IOException
+	 */
+	private void skipLinesNotOfInterest() throws IOException {
+		while (line != null && !isLineOfInterest(line)) {
+			line = readLine();
+		}
+	}
+
 	@Override
 	public boolean hasNext() {
+		if (parallelParser != null) {
+			return parallelParser.hasNext();
+		}
+		try {
+			skipLinesNotOfInterest();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
 		return line != null;
 	}
 
@@ -94,6 +228,10 @@ public abstract class SingleLineFileRecordReader<T extends SingleLineFileRecord>
 		if (!hasNext())
 			throw new NoSuchElementException();
 
+		if (parallelParser != null) {
+			return parallelParser.next();
+		}
+
 		T recordToReturn = parseRecordFromLine(line);
 
 		try {
@@ -105,5 +243,44 @@ public abstract class SingleLineFileRecordReader<T extends SingleLineFileRecord>
 		return recordToReturn;
 	}
 
+	/**
+	 * Overriding to parse records directly from the lines of the file in a single loop
+	 */
+	@Override
+	public int nextBatch(List<? super T> sink, int max) {
+		if (parallelParser != null) {
+			return super.nextBatch(sink, max);
+		}
+		int count = 0;
+		try {
+			skipLinesNotOfInterest();
+			while (count < max && line != null) {
+				sink.add(parseRecordFromLine(line));
+				count++;
+				line = readLine();
+				skipLinesNotOfInterest();
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return count;
+	}
+
 	protected abstract T parseRecordFromLine(Line line);
+
+	@Override
+	protected void resetAfterSeek() throws IOException {
+		if (parallelParser != null) {
+			throw new IllegalStateException("A reader cannot be repositioned once parallel parsing has been enabled.");
+		}
+		super.resetAfterSeek();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (parallelParser != null) {
+			parallelParser.close();
+		}
+		super.close();
+	}
 }
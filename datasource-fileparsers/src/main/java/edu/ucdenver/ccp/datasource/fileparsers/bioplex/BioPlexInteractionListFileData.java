@@ -41,7 +41,8 @@ import edu.ucdenver.ccp.datasource.fileparsers.RecordField;
 import edu.ucdenver.ccp.datasource.fileparsers.SingleLineFileRecord;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
-import edu.ucdenver.ccp.datasource.identifiers.ProbableErrorDataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierPool;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierResult;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiGeneId;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtID;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtIsoformID;
@@ -110,22 +111,22 @@ public class BioPlexInteractionListFileData extends SingleLineFileRecord {
 	}
 
 	private static DataSourceIdentifier<?> resolveId(DataSource ds, String idStr) {
-		try {
-			switch (ds) {
-			case NCBI_GENE:
-				return new NcbiGeneId(idStr);
-			case UNIPROT:
-				if (idStr.contains("-")) {
-					return new UniProtIsoformID(idStr);
-				} else {
-					return new UniProtID(idStr);
-				}
-			default:
-				throw new IllegalStateException("Cannot create identifier. Unhandled data source: " + ds.name());
+		IdentifierResult<? extends DataSourceIdentifier<?>> result;
+		switch (ds) {
+		case NCBI_GENE:
+			result = IdentifierPool.tryIntern(NcbiGeneId.class, idStr);
+			break;
+		case UNIPROT:
+			if (idStr.contains("-")) {
+				result = IdentifierPool.tryIntern(UniProtIsoformID.class, idStr);
+			} else {
+				result = IdentifierPool.tryIntern(UniProtID.class, idStr);
 			}
-		} catch (IllegalArgumentException e) {
-			return new ProbableErrorDataSourceIdentifier(idStr, ds.name(), e.getMessage());
+			break;
+		default:
+			throw new IllegalStateException("Cannot create identifier. Unhandled data source: " + ds.name());
 		}
+		return result.getIdentifierOrProbableError(ds.name());
 	}
 
 }
@@ -44,9 +44,12 @@ import edu.ucdenver.ccp.common.download.HttpDownload;
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
 import edu.ucdenver.ccp.common.file.reader.Line;
 import edu.ucdenver.ccp.common.file.reader.StreamLineReader;
+import edu.ucdenver.ccp.common.string.StringConstants;
+import edu.ucdenver.ccp.datasource.fileparsers.ColumnValuePredicate;
 import edu.ucdenver.ccp.datasource.fileparsers.idlist.IdListFileFactory;
 import edu.ucdenver.ccp.datasource.fileparsers.taxonaware.TaxonAwareSingleLineFileRecordReader;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierPool;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtID;
 
@@ -55,6 +58,9 @@ public class BioPlexInteractionListRecordReader
 
 	private static final String EXPECTED_HEADER = "GeneA\tGeneB\tUniprotA\tUniprotB\tSymbolA\tSymbolB\tp(Wrong)\tp(No Interaction)\tp(Interaction)";
 
+	private static final int UNIPROT_A_COLUMN_INDEX = 2;
+	private static final int UNIPROT_B_COLUMN_INDEX = 3;
+
 	private final Set<UniProtID> taxonSpecificIds;
 
 	@HttpDownload(url = "http://bioplex.hms.harvard.edu/data/BioPlex_interactionList_v4a.tsv", fileName = "BioPlex_interactionList_v4a.tsv")
@@ -115,10 +121,13 @@ public class BioPlexInteractionListRecordReader
 
 	@Override
 	protected Set<NcbiTaxonomyID> getLineTaxon(Line line) {
-		BioPlexInteractionListFileData record = BioPlexInteractionListFileData.parseLine(line);
-
-		if (taxonSpecificIds != null && !taxonSpecificIds.isEmpty() && taxonSpecificIds.contains(record.getUniprotIdA())
-				&& taxonSpecificIds.contains(record.getUniprotIdB())) {
+		/*
+		 * only the two UniProt columns are needed to determine whether the
+		 * line is of interest so the rest of the line is not parsed
+		 */
+		if (taxonSpecificIds != null && !taxonSpecificIds.isEmpty()
+				&& isTaxonSpecificId(line.getText(), UNIPROT_A_COLUMN_INDEX)
+				&& isTaxonSpecificId(line.getText(), UNIPROT_B_COLUMN_INDEX)) {
 			/*
 			 * if both proteins in the interaction are members of the
 			 * taxon-specific-id list, then we want to keep this record. We
@@ -137,4 +146,28 @@ public class BioPlexInteractionListRecordReader
 
 	}
 
+	/**
+	 * @param lineText
+	 * @param columnIndex
+	 * @return true if the specified column contains one of the taxon-specific
+	 *         UniProt IDs. Isoform IDs and invalid IDs are never members of the
+	 *         taxon-specific ID set (see
+	 *         {@link BioPlexInteractionListFileData#parseLine(Line)}).
+	 */
+	private boolean isTaxonSpecificId(String lineText, int columnIndex) {
+		int start = ColumnValuePredicate.columnStart(lineText, '\t', columnIndex);
+		if (start < 0) {
+			return false;
+		}
+		String idStr = lineText.substring(start, ColumnValuePredicate.columnEnd(lineText, '\t', start));
+		if (idStr.contains(StringConstants.HYPHEN_MINUS)) {
+			return false;
+		}
+		try {
+			return taxonSpecificIds.contains(IdentifierPool.intern(UniProtID.class, idStr));
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
 }
@@ -52,9 +52,7 @@ package edu.ucdenver.ccp.datasource.fileparsers.ebi.embl;
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.zip.GZIPInputStream;
 
 import edu.ucdenver.ccp.common.download.FtpDownload;
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
@@ -89,7 +87,7 @@ public class EmblAccToTaxIdMappingTxtFileParser extends SingleLineFileRecordRead
 	@Override
 	protected StreamLineReader initializeLineReaderFromDownload(CharacterEncoding encoding, String skipLinePrefix)
 			throws IOException {
-		return new StreamLineReader(new GZIPInputStream(new FileInputStream(emblAccToTaxIdMappingTxtFile)), encoding,
+		return new StreamLineReader(openGzippedFile(emblAccToTaxIdMappingTxtFile), encoding,
 				skipLinePrefix);
 	}
 
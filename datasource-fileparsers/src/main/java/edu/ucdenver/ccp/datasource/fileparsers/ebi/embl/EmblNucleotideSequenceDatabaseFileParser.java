@@ -36,7 +36,6 @@ package edu.ucdenver.ccp.datasource.fileparsers.ebi.embl;
  * #L%
  */
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
@@ -106,10 +105,10 @@ public class EmblNucleotideSequenceDatabaseFileParser extends
 	 * (non-Javadoc)
 	 * 
 	 * @see edu.ucdenver.ccp.fileparsers.ebi.embl.EmblNucleotideSequenceDatabaseFileParserBase#
-	 * parseFeatureTable(java.lang.String, java.io.BufferedReader)
+	 * parseFeatureTable(java.lang.String, edu.ucdenver.ccp.datasource.fileparsers.MultiLineFileRecordReader.LineCursor)
 	 */
 	@Override
-	protected Collection parseFeatureTable(String line, BufferedReader br) throws IOException {
+	protected Collection parseFeatureTable(String line, LineCursor cursor) {
 		throw new UnsupportedOperationException("This feature has not been implemented, as parsing of generic EMBL files has not been used.");
 	}
 
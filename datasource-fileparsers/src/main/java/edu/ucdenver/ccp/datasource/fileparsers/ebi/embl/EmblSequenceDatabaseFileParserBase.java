@@ -51,10 +51,8 @@ package edu.ucdenver.ccp.datasource.fileparsers.ebi.embl;
  * #L%
  */
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.StringReader;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -69,6 +67,7 @@ import org.apache.log4j.Logger;
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
 import edu.ucdenver.ccp.common.string.StringUtil;
 import edu.ucdenver.ccp.datasource.fileparsers.MultiLineFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordBoundary;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.NucleotideAccessionResolver;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.AgricolaId;
@@ -230,6 +229,11 @@ public abstract class EmblSequenceDatabaseFileParserBase<T extends EmblSequenceD
 		super.initialize();
 	}
 
+	@Override
+	protected RecordBoundary getRecordBoundary() {
+		return RecordBoundary.lineFollowing(RECORD_SEPARATOR);
+	}
+
 	@Override
 	protected MultiLineBuffer compileMultiLineBuffer() throws IOException {
 		if (line == null) {
@@ -246,15 +250,20 @@ public abstract class EmblSequenceDatabaseFileParserBase<T extends EmblSequenceD
 
 	@Override
 	protected T parseRecordFromMultipleLines(MultiLineBuffer multiLineBuffer) {
-		try {
-			return parseEmblNucelotideSequenceDatabaseRecord(multiLineBuffer);
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
+		return parseEmblNucelotideSequenceDatabaseRecord(multiLineBuffer);
+	}
+
+	/**
+	 * @param line
+	 * @return the line type indicated by the two-character prefix of the line
+	 */
+	protected static LinePrefix getLinePrefix(String line) {
+		String prefix = line.substring(0, 2);
+		return (prefix.trim().isEmpty()) ? LinePrefix.BLANK : LinePrefix.valueOf(prefix);
 	}
 
-	private T parseEmblNucelotideSequenceDatabaseRecord(MultiLineBuffer multiLineBuffer) throws IOException {
-		BufferedReader br = new BufferedReader(new StringReader(multiLineBuffer.toString()));
+	private T parseEmblNucelotideSequenceDatabaseRecord(MultiLineBuffer multiLineBuffer) {
+		LineCursor cursor = multiLineBuffer.cursor();
 		String line;
 
 		E idLineContents = null;
@@ -275,9 +284,8 @@ public abstract class EmblSequenceDatabaseFileParserBase<T extends EmblSequenceD
 		String constructedSeqInfo = null;
 		Set<EmblAssemblyInformation> assemblyInfo = new HashSet<EmblAssemblyInformation>();
 		Set<SequenceFeature> sequenceFeatures = new HashSet<SequenceFeature>();
-		while ((line = br.readLine()) != null) {
-			String prefix = line.substring(0, 2);
-			LinePrefix lp = (prefix.trim().isEmpty()) ? LinePrefix.BLANK : LinePrefix.valueOf(prefix);
+		while ((line = cursor.readLine()) != null) {
+			LinePrefix lp = getLinePrefix(line);
 			switch (lp) {
 			case ID:
 				idLineContents = parseIDLine(line);
@@ -316,7 +324,7 @@ public abstract class EmblSequenceDatabaseFileParserBase<T extends EmblSequenceD
 				organelle = line.substring(2).trim();
 				break;
 			case RN:
-				referenceCitations.add(parseReferenceCitation(line, br));
+				referenceCitations.add(parseReferenceCitation(line, cursor));
 				break;
 			case RC:
 				throw new IllegalStateException(
@@ -353,7 +361,7 @@ public abstract class EmblSequenceDatabaseFileParserBase<T extends EmblSequenceD
 			case FH:
 				continue; // header line, contains no data
 			case FT:
-				sequenceFeatures.addAll(parseFeatureTable(line, br));
+				sequenceFeatures.addAll(parseFeatureTable(line, cursor));
 				break;
 			case SQ:
 				sqLineContents = parseSqLine(line);
@@ -448,11 +456,12 @@ public abstract class EmblSequenceDatabaseFileParserBase<T extends EmblSequenceD
 
 	/**
 	 * @param line
-	 * @param br
+	 * @param cursor
+	 *            positioned after the first FT line; the feature table lines are consumed along
+	 *            with the XX line that ends the table
 	 * @return
-	 * @throws IOException 
 	 */
-	protected abstract Collection<? extends SequenceFeature> parseFeatureTable(String line, BufferedReader br) throws IOException;
+	protected abstract Collection<? extends SequenceFeature> parseFeatureTable(String line, LineCursor cursor);
 
 	/**
 	 * @param idLineContents 
@@ -538,11 +547,10 @@ public abstract class EmblSequenceDatabaseFileParserBase<T extends EmblSequenceD
 
 	/**
 	 * @param line
-	 * @param br
+	 * @param cursor
 	 * @return
-	 * @throws IOException
 	 */
-	private EmblReferenceCitation parseReferenceCitation(String rnLine, BufferedReader br) throws IOException {
+	private EmblReferenceCitation parseReferenceCitation(String rnLine, LineCursor cursor) {
 		int referenceNumber = Integer.parseInt(StringUtil.removeSuffix(
 				StringUtil.removePrefix(rnLine.substring(2).trim(), "["), "]"));
 		String referenceComment = null;
@@ -554,12 +562,11 @@ public abstract class EmblSequenceDatabaseFileParserBase<T extends EmblSequenceD
 		String referenceLocation = null;
 		boolean endReference = false;
 		while (!endReference) {
-			String line = br.readLine();
+			String line = cursor.readLine();
 			if (line == null) {
 				throw new IllegalStateException("File ended unexpectedly mid-reference.");
 			}
-			String prefix = line.substring(0, 2);
-			LinePrefix lp = (prefix.trim().isEmpty()) ? LinePrefix.BLANK : LinePrefix.valueOf(prefix);
+			LinePrefix lp = getLinePrefix(line);
 			switch (lp) {
 			case RN:
 				throw new IllegalStateException("Did not expect RN line. Must not be a break between references.");
@@ -598,7 +605,8 @@ public abstract class EmblSequenceDatabaseFileParserBase<T extends EmblSequenceD
 				endReference = true;
 				break;
 			default:
-				throw new IllegalStateException("Did not expect " + prefix + " line in the parseReference() method");
+				throw new IllegalStateException("Did not expect " + line.substring(0, 2)
+						+ " line in the parseReference() method");
 			}
 		}
 
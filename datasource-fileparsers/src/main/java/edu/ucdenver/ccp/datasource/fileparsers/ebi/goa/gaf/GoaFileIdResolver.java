@@ -38,7 +38,8 @@ import org.apache.log4j.Logger;
 import edu.ucdenver.ccp.common.string.StringUtil;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.IdResolver;
-import edu.ucdenver.ccp.datasource.identifiers.ProbableErrorDataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierPool;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierResult;
 import edu.ucdenver.ccp.datasource.identifiers.ProteinAccessionResolver;
 import edu.ucdenver.ccp.datasource.identifiers.UnknownDataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.factories.EnsemblIdentifierFactory;
@@ -95,157 +96,158 @@ public class GoaFileIdResolver implements IdResolver {
 
 	@Override
 	public DataSourceIdentifier<?> resolveId(String idStr) {
+		return tryResolveId(idStr).getIdentifier();
+	}
+
+	@Override
+	public IdentifierResult<? extends DataSourceIdentifier<?>> tryResolveId(String idStr) {
 
 		if (idStr.matches("RGD:\\d+")) {
-			return new RgdID(idStr.substring(4));
+			return IdentifierPool.tryIntern(RgdID.class, idStr.substring(4));
 		}
 		if (idStr.startsWith("MGI:")) {
-			return new MgiGeneID(idStr.substring(4));
+			return IdentifierPool.tryIntern(MgiGeneID.class, idStr.substring(4));
 		}
 		if (idStr.startsWith("ZFIN:")) {
-			return new ZfinID(idStr.substring(4));
+			return IdentifierPool.tryIntern(ZfinID.class, idStr.substring(4));
 		}
 		if (idStr.startsWith("EMBL:")) {
-			return new EmblID(idStr.substring(5));
+			return IdentifierPool.tryIntern(EmblID.class, idStr.substring(5));
 		}
 		if (idStr.startsWith("HGNC:")) {
-			try {
-				return new HgncID(idStr.substring(5));
-			} catch (IllegalArgumentException e) {
-				return new ProbableErrorDataSourceIdentifier(idStr.substring(5), idStr, e.getMessage());
-			}
+			return IdentifierResult.valid(IdentifierPool.tryIntern(HgncID.class, idStr.substring(5))
+					.getIdentifierOrProbableError(idStr));
 		}
 		if (idStr.startsWith("WB:")) {
-			return new WormBaseID(idStr.substring(3));
+			return IdentifierPool.tryIntern(WormBaseID.class, idStr.substring(3));
 		}
 		if (idStr.startsWith("DOI:")) {
-			return new DOI(idStr.substring(4));
+			return IdentifierPool.tryIntern(DOI.class, idStr.substring(4));
 		}
 		if (idStr.matches("MP:\\d+")) {
-			return new MammalianPhenotypeID(idStr);
+			return IdentifierPool.tryIntern(MammalianPhenotypeID.class, idStr);
 		}
 		if (idStr.matches("PMID:\\d+")) {
-			return new PubMedID(idStr.substring(5));
+			return IdentifierPool.tryIntern(PubMedID.class, idStr.substring(5));
 		}
 		if (idStr.matches("RDO:\\d+")) {
-			return new RdoId(idStr);
+			return IdentifierPool.tryIntern(RdoId.class, idStr);
 		}
 		if (idStr.matches("OMIM:\\d+")) {
-			return new OmimID(idStr.substring(5));
+			return IdentifierPool.tryIntern(OmimID.class, idStr.substring(5));
 		}
 		if (idStr.matches("NCBI GeneID:\\d+")) {
-			return new NcbiGeneId(idStr.substring(12));
+			return IdentifierPool.tryIntern(NcbiGeneId.class, idStr.substring(12));
 		}
 		if (idStr.matches("NBO:\\d+")) {
-			return new NboId(idStr);
+			return IdentifierPool.tryIntern(NboId.class, idStr);
 		}
 		if (idStr.matches("PW:\\d+")) {
-			return new PwId(idStr);
+			return IdentifierPool.tryIntern(PwId.class, idStr);
 		}
 		if (idStr.matches("GO:\\d+")) {
-			return new GeneOntologyID(idStr);
+			return IdentifierPool.tryIntern(GeneOntologyID.class, idStr);
 		}
 		if (idStr.matches("GO_REF:\\d+")) {
-			return new GoRefID(idStr);
+			return IdentifierPool.tryIntern(GoRefID.class, idStr);
 		}
 		if (idStr.startsWith("Reactome:")) {
-			return new ReactomeReactionID(idStr.substring(9));
+			return IdentifierPool.tryIntern(ReactomeReactionID.class, idStr.substring(9));
 		}
 		if (idStr.startsWith("InterPro:")) {
-			return new InterProID(idStr.substring(9));
+			return IdentifierPool.tryIntern(InterProID.class, idStr.substring(9));
 		}
 		if (StringUtil.startsWithRegex(idStr, "[Ee][Nn][Ss][Ee][Mm][Bb][Ll]:")) {
-			return EnsemblIdentifierFactory.createEnsemblIdentifier(idStr.substring(8));
+			return EnsemblIdentifierFactory.tryCreateEnsemblIdentifier(idStr.substring(8));
 		}
 		if (idStr.startsWith("PANTHER:")) {
-			return new PantherID(idStr.substring(8));
+			return IdentifierPool.tryIntern(PantherID.class, idStr.substring(8));
 		}
 		if (idStr.startsWith("HAMAP:")) {
-			return new HAMAPId(idStr.substring(6));
+			return IdentifierPool.tryIntern(HAMAPId.class, idStr.substring(6));
 		}
 		if (idStr.startsWith("UniPathway:")) {
-			return new UniPathwayId(idStr.substring(11));
+			return IdentifierPool.tryIntern(UniPathwayId.class, idStr.substring(11));
 		}
 		if (idStr.startsWith("SGD:")) {
-			return new SgdID(idStr.substring(4));
+			return IdentifierPool.tryIntern(SgdID.class, idStr.substring(4));
 		}
 		if (idStr.startsWith("RNAcentral:")) {
-			return new RnaCentralId(idStr.substring(11));
+			return IdentifierPool.tryIntern(RnaCentralId.class, idStr.substring(11));
 		}
 		if (idStr.startsWith("IntAct:")) {
-			return new IntActID(idStr.substring(7));
+			return IdentifierPool.tryIntern(IntActID.class, idStr.substring(7));
 		}
 		if (idStr.startsWith("EC:")) {
-			return new EnzymeCommissionID(idStr.substring(3));
+			return IdentifierPool.tryIntern(EnzymeCommissionID.class, idStr.substring(3));
 		}
 		if (idStr.startsWith("RefSeq:")) {
-			try {
-				return new RefSeqID(idStr.substring(7));
-			} catch (IllegalArgumentException e) {
-				return new ProbableErrorDataSourceIdentifier(idStr.substring(7), idStr, e.getMessage());
-			}
+			return IdentifierResult.valid(IdentifierPool.tryIntern(RefSeqID.class, idStr.substring(7))
+					.getIdentifierOrProbableError(idStr));
 		}
 		if (idStr.startsWith("PomBase:")) {
-			return new PomBaseId(idStr.substring(8));
+			return IdentifierPool.tryIntern(PomBaseId.class, idStr.substring(8));
 		}
 		if (idStr.startsWith("PubChem_Compound:")) {
-			return new PubChemCompoundId(idStr.substring(17));
+			return IdentifierPool.tryIntern(PubChemCompoundId.class, idStr.substring(17));
 		}
 		if (idStr.startsWith("PubChem_Substance:")) {
-			return new PubChemSubstanceId(idStr.substring(18));
+			return IdentifierPool.tryIntern(PubChemSubstanceId.class, idStr.substring(18));
 		}
 		if (idStr.startsWith("ECOGENE:")) {
-			return new EcoGeneID(idStr.substring(8));
+			return IdentifierPool.tryIntern(EcoGeneID.class, idStr.substring(8));
 		}
 		if (idStr.matches("CL:\\d+")) {
-			return new CellTypeOntologyID(idStr);
+			return IdentifierPool.tryIntern(CellTypeOntologyID.class, idStr);
 		}
 		if (idStr.matches("SO:\\d+")) {
-			return new SequenceOntologyId(idStr);
+			return IdentifierPool.tryIntern(SequenceOntologyId.class, idStr);
 		}
 		if (idStr.matches("PR:\\d+")) {
-			return new ProteinOntologyId(idStr);
+			return IdentifierPool.tryIntern(ProteinOntologyId.class, idStr);
 		}
 		if (idStr.startsWith("FB:")) {
-			return new FlyBaseID(idStr);
+			return IdentifierPool.tryIntern(FlyBaseID.class, idStr);
 		}
 		if (idStr.startsWith("TAIR:")) {
-			return new TairID(idStr);
+			return IdentifierPool.tryIntern(TairID.class, idStr);
 		}
 		if (idStr.startsWith("protein_id:")) {
-			return ProteinAccessionResolver.resolveProteinAccession(idStr, null);
+			try {
+				return IdentifierResult.valid(ProteinAccessionResolver.resolveProteinAccession(idStr, null));
+			} catch (IllegalArgumentException e) {
+				return IdentifierResult.invalid(idStr, e.getMessage());
+			}
 		}
 		if (idStr.startsWith("NCBI_gi:")) {
-			return new GiNumberID(idStr.substring(8));
+			return IdentifierPool.tryIntern(GiNumberID.class, idStr.substring(8));
 		}
 		if (idStr.startsWith("GenBank:")) {
-			return new GenBankID(idStr.substring(8));
+			return IdentifierPool.tryIntern(GenBankID.class, idStr.substring(8));
 		}
 		if (idStr.matches("CHEBI:\\d+")) {
-			return new ChebiOntologyID(idStr);
+			return IdentifierPool.tryIntern(ChebiOntologyID.class, idStr);
 		}
 		if (idStr.matches("UBERON:\\d+")) {
-			return new UberonID(idStr);
+			return IdentifierPool.tryIntern(UberonID.class, idStr);
 		}
 		if (idStr.matches("NCBI_Gene:\\d+")) {
-			return new NcbiGeneId(idStr.substring(10));
+			return IdentifierPool.tryIntern(NcbiGeneId.class, idStr.substring(10));
 		}
 		if (idStr.startsWith("UniProtKB:")) {
 			if (idStr.contains(":PRO_")) {
-				return new UnknownDataSourceIdentifier(idStr);
+				return IdentifierResult.valid(new UnknownDataSourceIdentifier(idStr));
 			}
-			try {
-				if (idStr.contains("-")) {
-					return new UniProtIsoformID(idStr.substring(10));
-				}
-				return new UniProtID(idStr.substring(10));
-			} catch (IllegalArgumentException e) {
-				return new ProbableErrorDataSourceIdentifier(idStr.substring(10), idStr, e.getMessage());
+			if (idStr.contains("-")) {
+				return IdentifierResult.valid(IdentifierPool.tryIntern(UniProtIsoformID.class, idStr.substring(10))
+						.getIdentifierOrProbableError(idStr));
 			}
+			return IdentifierResult.valid(IdentifierPool.tryIntern(UniProtID.class, idStr.substring(10))
+					.getIdentifierOrProbableError(idStr));
 		}
 
 		logger.warn("Encountered unknown ID: " + idStr);
-		return new UnknownDataSourceIdentifier(idStr);
+		return IdentifierResult.valid(new UnknownDataSourceIdentifier(idStr));
 	}
 
 	/*
@@ -257,20 +259,25 @@ public class GoaFileIdResolver implements IdResolver {
 	 */
 	@Override
 	public DataSourceIdentifier<?> resolveId(String db, String id, String originalIdString) {
+		return tryResolveId(db, id, originalIdString).getIdentifier();
+	}
+
+	@Override
+	public IdentifierResult<? extends DataSourceIdentifier<?>> tryResolveId(String db, String id, String originalIdString) {
 		if (db.equals("RGD") && id.matches("\\d+")) {
-			return new RgdID(id);
+			return IdentifierPool.tryIntern(RgdID.class, id);
 		}
 		if (db.equals("UniProtKB")) {
-			return new UniProtID(id);
+			return IdentifierPool.tryIntern(UniProtID.class, id);
 		}
 		if (db.equals("IntAct")) {
-			return new IntActID(id);
+			return IdentifierPool.tryIntern(IntActID.class, id);
 		}
 		if (db.equals("RNAcentral")) {
-			return new RnaCentralId(id);
+			return IdentifierPool.tryIntern(RnaCentralId.class, id);
 		}
 		logger.warn("Encountered unknown id/db: " + id + " -- " + db);
-		return new UnknownDataSourceIdentifier(originalIdString);
+		return IdentifierResult.valid(new UnknownDataSourceIdentifier(originalIdString));
 	}
 
 }
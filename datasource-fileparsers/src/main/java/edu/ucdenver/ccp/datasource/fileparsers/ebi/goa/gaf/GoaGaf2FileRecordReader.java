@@ -57,7 +57,7 @@ public class GoaGaf2FileRecordReader extends
 	@Override
 	protected GoaGaf2FileRecord parseRecordFromLine(Line line) {
 		return new GoaGaf2FileRecord(
-				Gaf2FileRecordReader.parseGaf2FileLine(line));
+				parseGaf2FileLine(line, getIdResolver()));
 	}
 
 }
@@ -61,6 +61,7 @@ import edu.ucdenver.ccp.datasource.fileparsers.RecordField;
 import edu.ucdenver.ccp.datasource.fileparsers.SingleLineFileRecord;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierPool;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.InterProID;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtID;
 import lombok.Getter;
@@ -117,8 +118,8 @@ public class InterProProtein2IprDatFileData extends SingleLineFileRecord {
 		try {
 			String[] toks = line.getText().split("\\t");
 			if (toks.length > 2) {
-				UniProtID uniprotID = new UniProtID(toks[0]);
-				InterProID interProID = new InterProID(toks[1]);
+				UniProtID uniprotID = IdentifierPool.intern(UniProtID.class, toks[0]);
+				InterProID interProID = IdentifierPool.intern(InterProID.class, toks[1]);
 				String interProName = new String(toks[2]);
 				DataSourceIdentifier<String> externalReference = InterProExternalReferenceFactory
 						.parseExternalReference(toks[3]);
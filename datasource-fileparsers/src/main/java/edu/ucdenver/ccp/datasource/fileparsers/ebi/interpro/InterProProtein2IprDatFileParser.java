@@ -52,10 +52,8 @@ package edu.ucdenver.ccp.datasource.fileparsers.ebi.interpro;
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.Set;
-import java.util.zip.GZIPInputStream;
 
 import edu.ucdenver.ccp.common.collections.CollectionsUtil;
 import edu.ucdenver.ccp.common.download.FtpDownload;
@@ -114,7 +112,7 @@ public class InterProProtein2IprDatFileParser extends
 	@Override
 	protected StreamLineReader initializeLineReaderFromDownload(CharacterEncoding encoding, String skipLinePrefix)
 			throws IOException {
-		return new StreamLineReader(new GZIPInputStream(new FileInputStream(interProProtein2IprDatFile)), encoding,
+		return new StreamLineReader(openGzippedFile(interProProtein2IprDatFile), encoding,
 				skipLinePrefix);
 	}
 
@@ -37,11 +37,9 @@ package edu.ucdenver.ccp.datasource.fileparsers.ebi.interpro;
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Set;
-import java.util.zip.GZIPInputStream;
 
 import org.apache.log4j.Logger;
 import org.interpro.InterproType;
@@ -78,7 +76,7 @@ public class InterProXmlFileRecordReader extends XmlFileRecordReader<InterProXml
 	}
 
 	protected InputStream initializeInputStreamFromDownload() throws IOException {
-		return new GZIPInputStream(new FileInputStream(interProXmlFile));
+		return openGzippedFile(interProXmlFile);
 	}
 
 	@Override
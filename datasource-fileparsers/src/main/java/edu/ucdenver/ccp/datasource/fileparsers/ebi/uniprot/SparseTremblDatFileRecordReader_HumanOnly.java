@@ -34,10 +34,8 @@ package edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot;
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.Set;
-import java.util.zip.GZIPInputStream;
 
 import edu.ucdenver.ccp.common.download.FtpDownload;
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
@@ -70,7 +68,7 @@ public class SparseTremblDatFileRecordReader_HumanOnly extends SparseUniProtDatF
 	@Override
 	protected StreamLineReader initializeLineReaderFromDownload(CharacterEncoding encoding, String skipLinePrefix)
 			throws IOException {
-		return new StreamLineReader(new GZIPInputStream(new FileInputStream(tremblKbFile)), encoding, skipLinePrefix);
+		return new StreamLineReader(openGzippedFile(tremblKbFile), encoding, skipLinePrefix);
 	}
 
 }
@@ -34,11 +34,9 @@ package edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot;
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Set;
-import java.util.zip.GZIPInputStream;
 
 import edu.ucdenver.ccp.common.download.FtpDownload;
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
@@ -64,7 +62,7 @@ public class SparseTremblXmlFileRecordReader extends SparseUniProtXmlFileRecordR
 
 	@Override
 	protected InputStream initializeInputStreamFromDownload() throws IOException {
-		return new GZIPInputStream(new FileInputStream(tremblKbFile));
+		return openGzippedFile(tremblKbFile);
 	}
 
 }
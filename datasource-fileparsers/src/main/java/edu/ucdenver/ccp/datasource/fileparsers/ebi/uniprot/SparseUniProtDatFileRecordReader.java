@@ -51,21 +51,18 @@ package edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot;
  * #L%
  */
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.zip.GZIPInputStream;
 
 import org.apache.log4j.Logger;
 
 import edu.ucdenver.ccp.common.collections.CollectionsUtil;
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordBoundary;
 import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtFileRecord.DbReference;
 import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtFileRecord.Organism;
 import edu.ucdenver.ccp.datasource.fileparsers.taxonaware.TaxonAwareMultiLineFileRecordReader;
@@ -85,6 +82,11 @@ public class SparseUniProtDatFileRecordReader extends TaxonAwareMultiLineFileRec
 
 	private static final Logger logger = Logger.getLogger(SparseUniProtDatFileRecordReader.class);
 
+	/**
+	 * the length of the two-letter code at the start of each line
+	 */
+	private static final int LINE_CODE_LENGTH = 2;
+
 //	public SparseUniProtDatFileRecordReader(File file, CharacterEncoding encoding) throws IOException {
 //		super((file.getName().endsWith(".gz")) ? new GZIPInputStream(new FileInputStream(file)) : new FileInputStream(
 //				file), encoding, null, null);
@@ -92,8 +94,7 @@ public class SparseUniProtDatFileRecordReader extends TaxonAwareMultiLineFileRec
 
 	public SparseUniProtDatFileRecordReader(File file, CharacterEncoding encoding, Set<NcbiTaxonomyID> taxonIds)
 			throws IOException {
-		super((file.getName().endsWith(".gz")) ? new GZIPInputStream(new FileInputStream(file)) : new FileInputStream(
-				file), encoding, null, taxonIds);
+		super(file, encoding, null, taxonIds);
 	}
 
 	/**
@@ -121,6 +122,11 @@ public class SparseUniProtDatFileRecordReader extends TaxonAwareMultiLineFileRec
 		super.initialize();
 	}
 
+	@Override
+	protected RecordBoundary getRecordBoundary() {
+		return RecordBoundary.lineFollowing("//");
+	}
+
 	@Override
 	protected MultiLineBuffer compileMultiLineBuffer() throws IOException {
 		if (line == null)
@@ -136,77 +142,71 @@ public class SparseUniProtDatFileRecordReader extends TaxonAwareMultiLineFileRec
 
 	@Override
 	protected SparseUniProtFileRecord parseRecordFromMultipleLines(MultiLineBuffer multiLineBuffer) {
-		try {
-			BufferedReader br = new BufferedReader(new StringReader(multiLineBuffer.toString()));
-			String line;
-			UniProtEntryName uniprotEntryName = null;
-			List<UniProtID> uniprotIDs = new ArrayList<UniProtID>();
-			Organism organism = null;
-			List<Organism> organismHosts = new ArrayList<Organism>();
-			String canonicalGeneSymbol = null;
-			Set<String> fullGeneNames = new HashSet<String>();
-			Set<String> synonyms = new HashSet<String>();
-			List<UniProtIsoformID> isoformIds = new ArrayList<UniProtIsoformID>();
-
-			boolean hasGoAnnotation = false;
-			while ((line = br.readLine()) != null) {
-				// if (line.startsWith("//")) {
-				// break;
-				// } else
-				if (line.startsWith("ID")) {
+		UniProtEntryName uniprotEntryName = null;
+		List<UniProtID> uniprotIDs = new ArrayList<UniProtID>();
+		Organism organism = null;
+		List<Organism> organismHosts = new ArrayList<Organism>();
+		String canonicalGeneSymbol = null;
+		Set<String> fullGeneNames = new HashSet<String>();
+		Set<String> synonyms = new HashSet<String>();
+		List<UniProtIsoformID> isoformIds = new ArrayList<UniProtIsoformID>();
+
+		boolean hasGoAnnotation = false;
+		for (LineRun run : multiLineBuffer.getRuns(LINE_CODE_LENGTH)) {
+			String lineCode = run.getPrefix();
+			if (lineCode.equals("GN")) {
+				List<String> geneNameAndSynonyms = UniProtDatFileUtil.parseGNLinesForNameAndSynonyms(run);
+				if (geneNameAndSynonyms.size() > 0) {
+					canonicalGeneSymbol = geneNameAndSynonyms.get(0);
+					synonyms.addAll(geneNameAndSynonyms.subList(1, geneNameAndSynonyms.size()));
+				}
+				continue;
+			}
+			for (int i = 0; i < run.size(); i++) {
+				String line = run.getLineText(i);
+				if (lineCode.equals("ID")) {
 					uniprotEntryName = UniProtDatFileUtil.parseIDLine(line);
-				} else if (line.startsWith("AC")) {
+				} else if (lineCode.equals("AC")) {
 					uniprotIDs.addAll(UniProtDatFileUtil.parseACLine(line));
-				} else if (line.startsWith("OX")) {
+				} else if (lineCode.equals("OX")) {
 					organism = UniProtDatFileUtil.parseOXLine(line);
-				} else if (line.startsWith("OH")) {
+				} else if (lineCode.equals("OH")) {
 					Organism o = UniProtDatFileUtil.parseOXLine(line);
 					if (o != null) {
 						organismHosts.add(o);
 					}
-				} else if (line.startsWith("DE")) {
-					String fullName = UniProtDatFileUtil.parseDELine(line, br);
+				} else if (lineCode.equals("DE")) {
+					String fullName = UniProtDatFileUtil.parseDELine(line);
 					if (fullName != null) {
 						fullGeneNames.add(fullName);
 					}
-				} else if (line.startsWith("CC")) {
-					isoformIds.addAll(UniProtDatFileUtil.parseCCLine(line, br));
-				} else if (line.startsWith("DR")) {
+				} else if (lineCode.equals("CC")) {
+					isoformIds.addAll(UniProtDatFileUtil.parseCCLine(line));
+				} else if (lineCode.equals("DR")) {
 					if (line.substring(3).trim().startsWith("GO;")) {
 						hasGoAnnotation = true;
 					}
 				}
-
-				if (line.startsWith("GN")) {
-					List<String> geneNameAndSynonyms = UniProtDatFileUtil.parseGNLineForNameAndSynonyms(line, br);
-					if (geneNameAndSynonyms.size() > 0) {
-						canonicalGeneSymbol = geneNameAndSynonyms.get(0);
-						synonyms.addAll(geneNameAndSynonyms.subList(1, geneNameAndSynonyms.size()));
-					}
-				}
-			}
-
-			if (organism != null && uniprotIDs.size() > 0) {
-				UniProtID primaryUniprotID = uniprotIDs.get(0);
-				uniprotIDs.remove(0);
-//				List<String> allNames = new ArrayList<String>();
-//				allNames.add(canonicalGeneSymbol);
-//				allNames.addAll(fullGeneNames);
-//				allNames.addAll(synonyms);
-				// sparse representation won't contain x-refs
-				List<DbReference> dbReferences = new ArrayList<DbReference>();
-
-				return new SparseUniProtFileRecord(primaryUniprotID, uniprotIDs, CollectionsUtil.createList(uniprotEntryName), organism, organismHosts,
-						dbReferences, multiLineBuffer.getByteOffset());
 			}
+		}
 
-			logger.warn("Could not create UniProtDatFileData. Missing either ncbiTaxonomyID or uniprotID(s): "
-					+ uniprotIDs.toString());
-			return null;
-
-		} catch (IOException ioe) {
-			throw new RuntimeException(ioe);
+		if (organism != null && uniprotIDs.size() > 0) {
+			UniProtID primaryUniprotID = uniprotIDs.get(0);
+			uniprotIDs.remove(0);
+//			List<String> allNames = new ArrayList<String>();
+//			allNames.add(canonicalGeneSymbol);
+//			allNames.addAll(fullGeneNames);
+//			allNames.addAll(synonyms);
+			// sparse representation won't contain x-refs
+			List<DbReference> dbReferences = new ArrayList<DbReference>();
+
+			return new SparseUniProtFileRecord(primaryUniprotID, uniprotIDs, CollectionsUtil.createList(uniprotEntryName), organism, organismHosts,
+					dbReferences, multiLineBuffer.getByteOffset());
 		}
+
+		logger.warn("Could not create UniProtDatFileData. Missing either ncbiTaxonomyID or uniprotID(s): "
+				+ uniprotIDs.toString());
+		return null;
 	}
 
 	@Override
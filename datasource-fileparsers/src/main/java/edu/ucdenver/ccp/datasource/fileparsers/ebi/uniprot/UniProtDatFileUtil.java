@@ -36,8 +36,6 @@ package edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot;
  * #L%
  */
 
-import java.io.BufferedReader;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
@@ -50,6 +48,7 @@ import org.apache.log4j.Logger;
 import org.uniprot.DbReferenceType;
 import org.uniprot.OrganismType;
 
+import edu.ucdenver.ccp.datasource.fileparsers.MultiLineFileRecordReader.LineRun;
 import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtFileRecord.Organism;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtEntryName;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtID;
@@ -63,12 +62,13 @@ public class UniProtDatFileUtil {
 
 	private static final Logger logger = Logger.getLogger(UniProtDatFileUtil.class);
 
+	private static final Pattern FULL_NAME_PATTERN = Pattern.compile("Name:\\s+Full=(.*?);");
+
 	/**
 	 * @param line
-	 * @param br
 	 * @return
 	 */
-	public static Collection<UniProtIsoformID> parseCCLine(String line, BufferedReader br) {
+	public static Collection<UniProtIsoformID> parseCCLine(String line) {
 		Collection<UniProtIsoformID> isoFormIDs = new ArrayList<UniProtIsoformID>();
 		if (line.contains("IsoId=")) {
 			Pattern p = Pattern.compile("[A-Z].*?-\\d+");
@@ -84,21 +84,19 @@ public class UniProtDatFileUtil {
 	}
 
 	/**
-	 * Returns the canonical gene symbol if there is one, null otherwise
+	 * Returns a list containing the canonical gene symbol followed by its synonyms if there is a
+	 * canonical gene symbol, an empty list otherwise
 	 * 
-	 * @param line
-	 * @param br
+	 * @param gnLines
+	 *            a run of consecutive GN lines
 	 * @return
-	 * @throws IOException
 	 */
-	public static List<String> parseGNLineForNameAndSynonyms(String line, BufferedReader br) throws IOException {
+	public static List<String> parseGNLinesForNameAndSynonyms(LineRun gnLines) {
 		String canonicalName = null;
 		Set<String> synonyms = new HashSet<String>();
 
-		canonicalName = lookForGeneNameOnLine(line);
-		synonyms.addAll(lookForGeneSynonymsOnLine(line));
-
-		while ((line = br.readLine()) != null && line.startsWith("GN")) {
+		for (int i = 0; i < gnLines.size(); i++) {
+			String line = gnLines.getLineText(i);
 			if (canonicalName == null) {
 				canonicalName = lookForGeneNameOnLine(line);
 			}
@@ -136,32 +134,16 @@ public class UniProtDatFileUtil {
 	}
 
 	/**
-	 * Returns the full gene name if there is one, null otherwise
+	 * Returns the full gene name on the DE line if there is one, null otherwise
 	 * 
 	 * @param line
-	 * @param br
 	 * @return
-	 * @throws IOException
 	 */
-	public static String parseDELine(String line, BufferedReader br) throws IOException {
-		Pattern p = Pattern.compile("Name:\\s+Full=(.*?);");
-		Matcher m = p.matcher(line);
+	public static String parseDELine(String line) {
+		Matcher m = FULL_NAME_PATTERN.matcher(line);
 		if (m.find()) {
 			return m.group(1);
 		}
-
-		br.mark(1024);
-		// while ((line = br.readLine()).startsWith("DE")) {
-		while ((line = br.readLine()) != null && line.startsWith("DE")) {
-			m = p.matcher(line);
-			if (m.find()) {
-				br.reset();
-				return m.group(1);
-			}
-			br.mark(1024);
-		}
-		br.reset();
-
 		return null;
 	}
 
@@ -43,12 +43,14 @@ import org.apache.log4j.Logger;
 
 import edu.ucdenver.ccp.common.file.reader.Line;
 import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
+import edu.ucdenver.ccp.datasource.fileparsers.DelimitedLineView;
 import edu.ucdenver.ccp.datasource.fileparsers.License;
 import edu.ucdenver.ccp.datasource.fileparsers.Record;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordField;
 import edu.ucdenver.ccp.datasource.fileparsers.SingleLineFileRecord;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierPool;
 import edu.ucdenver.ccp.datasource.identifiers.UnknownDataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EmblID;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EnsemblGeneID;
@@ -221,32 +223,32 @@ public class UniProtIDMappingFileData extends SingleLineFileRecord {
 	}
 
 	public static UniProtIDMappingFileData parseRecordFromLine(Line line) {
-		String[] toks = line.getText().split("\\t", -1);
+		DelimitedLineView toks = new DelimitedLineView(line.getText(), '\t');
 
 		int index = 0;
-		UniProtID uniProtID = new UniProtID(toks[index++]);
-		UniProtEntryName uniprotEntryname = new UniProtEntryName(toks[index++]);
-		String entrezGeneIDStr = toks[index++];
-		String refseqIdStr = toks[index++];
-		String giNumbersStr = toks[index++];
-		String pdbIdStr = toks[index++];
-		String goIdStr = toks[index++];
-		String uniref100IdStr = toks[index++];
-		String uniref90IdStr = toks[index++];
-		String uniref50IdStr = toks[index++];
-		String uniParcIdStr = toks[index++];
-		String pirIdStr = toks[index++];
+		UniProtID uniProtID = IdentifierPool.intern(UniProtID.class, toks.columnString(index++));
+		UniProtEntryName uniprotEntryname = new UniProtEntryName(toks.columnString(index++));
+		String entrezGeneIDStr = toks.columnString(index++);
+		String refseqIdStr = toks.columnString(index++);
+		String giNumbersStr = toks.columnString(index++);
+		String pdbIdStr = toks.columnString(index++);
+		String goIdStr = toks.columnString(index++);
+		String uniref100IdStr = toks.columnString(index++);
+		String uniref90IdStr = toks.columnString(index++);
+		String uniref50IdStr = toks.columnString(index++);
+		String uniParcIdStr = toks.columnString(index++);
+		String pirIdStr = toks.columnString(index++);
 		NcbiTaxonomyID taxonomyID = null;
-		taxonomyID = new NcbiTaxonomyID(toks[index++]);
-		String omimIdStr = toks[index++];
-		String unigeneIdStr = toks[index++];
-		String pubmedIdStr = toks[index++];
-		String emblIdStr = toks[index++];
-		String emblCdsIdStr = toks[index++];
-		String ensemblIdStr = toks[index++];
-		String ensemblTrsIdStr = toks[index++];
-		String ensemblProIdStr = toks[index++];
-		String additionalPubmedIdStr = toks[index++];
+		taxonomyID = IdentifierPool.intern(NcbiTaxonomyID.class, toks.columnString(index++));
+		String omimIdStr = toks.columnString(index++);
+		String unigeneIdStr = toks.columnString(index++);
+		String pubmedIdStr = toks.columnString(index++);
+		String emblIdStr = toks.columnString(index++);
+		String emblCdsIdStr = toks.columnString(index++);
+		String ensemblIdStr = toks.columnString(index++);
+		String ensemblTrsIdStr = toks.columnString(index++);
+		String ensemblProIdStr = toks.columnString(index++);
+		String additionalPubmedIdStr = toks.columnString(index++);
 
 		try {
 			Set<DataSourceIdentifier<?>> entrezGeneIDs = getIdSet(entrezGeneIDStr, NcbiGeneId.class);
@@ -331,8 +333,7 @@ public class UniProtIDMappingFileData extends SingleLineFileRecord {
 			InstantiationException, IllegalAccessException, InvocationTargetException {
 		Set<DataSourceIdentifier<?>> ids = new HashSet<DataSourceIdentifier<?>>();
 		if (delimitedInput.trim().length() > 0) {
-			String[] idToks = delimitedInput.split(";");
-			for (String idTok : idToks) {
+			for (String idTok : DelimitedLineView.values(delimitedInput, ";")) {
 				idTok = idTok.trim();
 				if (!idTok.isEmpty()) {
 					Constructor<T> constructor = idClass.getConstructor(parameterTypes);
@@ -34,10 +34,8 @@ package edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot;
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.Set;
-import java.util.zip.GZIPInputStream;
 
 import edu.ucdenver.ccp.common.collections.CollectionsUtil;
 import edu.ucdenver.ccp.common.download.FtpDownload;
@@ -47,6 +45,7 @@ import edu.ucdenver.ccp.common.file.reader.StreamLineReader;
 import edu.ucdenver.ccp.common.ftp.FTPUtil.FileType;
 import edu.ucdenver.ccp.datasource.fileparsers.download.FtpHost;
 import edu.ucdenver.ccp.datasource.fileparsers.taxonaware.TaxonAwareSingleLineFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.taxonaware.TaxonColumnFilter;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
 
 /**
@@ -62,6 +61,9 @@ import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
  */
 public class UniProtIDMappingFileRecordReader extends TaxonAwareSingleLineFileRecordReader<UniProtIDMappingFileData> {
 
+	/** the taxonomy id is in the 13th column */
+	private static final TaxonColumnFilter TAXON_COLUMN_FILTER = new TaxonColumnFilter('\t', 12);
+
 	public static final String FTP_FILE_NAME = "idmapping_selected.tab.gz";
 	public static final CharacterEncoding ENCODING = CharacterEncoding.US_ASCII;
 
@@ -89,7 +91,7 @@ public class UniProtIDMappingFileRecordReader extends TaxonAwareSingleLineFileRe
 	@Override
 	protected StreamLineReader initializeLineReaderFromDownload(CharacterEncoding encoding, String skipLinePrefix)
 			throws IOException {
-		return new StreamLineReader(new GZIPInputStream(new FileInputStream(idMappingSelectedTabFile)), encoding,
+		return new StreamLineReader(openGzippedFile(idMappingSelectedTabFile), encoding,
 				skipLinePrefix);
 	}
 
@@ -98,6 +100,11 @@ public class UniProtIDMappingFileRecordReader extends TaxonAwareSingleLineFileRe
 		return UniProtIDMappingFileData.parseRecordFromLine(line);
 	}
 
+	@Override
+	protected TaxonColumnFilter getTaxonColumnFilter() {
+		return TAXON_COLUMN_FILTER;
+	}
+
 	@Override
 	protected Set<NcbiTaxonomyID> getLineTaxon(Line line) {
 		UniProtIDMappingFileData record = parseRecordFromLine(line);
@@ -58,6 +58,7 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -69,10 +70,13 @@ import edu.ucdenver.ccp.common.file.CharacterEncoding;
 import edu.ucdenver.ccp.common.file.reader.Line;
 import edu.ucdenver.ccp.common.reflection.ConstructorUtil;
 import edu.ucdenver.ccp.common.string.StringConstants;
+import edu.ucdenver.ccp.datasource.fileparsers.DelimitedLineView;
 import edu.ucdenver.ccp.datasource.fileparsers.format.gaf2.Gaf2FileRecord.AnnotationExtension;
 import edu.ucdenver.ccp.datasource.fileparsers.taxonaware.TaxonAwareSingleLineFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.taxonaware.TaxonColumnFilter;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.IdResolver;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierPool;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
 import edu.ucdenver.ccp.datasource.identifiers.impl.ice.PubMedID;
 
@@ -84,6 +88,13 @@ import edu.ucdenver.ccp.datasource.identifiers.impl.ice.PubMedID;
  */
 public class Gaf2FileRecordReader<T extends Gaf2FileRecord> extends TaxonAwareSingleLineFileRecordReader<T> {
 
+	/**
+	 * the taxon column has the form taxon:9606 or taxon:9606|taxon:1234; the first taxon is that of
+	 * the gene product
+	 */
+	private static final TaxonColumnFilter TAXON_COLUMN_FILTER = new TaxonColumnFilter('\t', new int[] { 12 },
+			"taxon:", '|', false, null);
+
 	private static final Logger logger = Logger.getLogger(Gaf2FileRecordReader.class);
 	
 	private final static String COMMENT_INDICATOR = StringConstants.EXCLAMATION_MARK;
@@ -92,67 +103,128 @@ public class Gaf2FileRecordReader<T extends Gaf2FileRecord> extends TaxonAwareSi
 	 * Implementation of the IdResolver interface to be used to resolve identifiers in the file
 	 * being parsed
 	 */
-	private static IdResolver idResolver;
+	private final IdResolver idResolver;
 
-	private static final SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd");
+	/**
+	 * The {@link IdResolver} of the most recently constructed reader; used by the deprecated
+	 * {@link #parseGaf2FileLine(Line)} which historically relied on a shared static resolver
+	 */
+	private static volatile IdResolver defaultIdResolver;
+
+	/**
+	 * {@link SimpleDateFormat} is not thread-safe and lines may be parsed concurrently (see
+	 * {@link #enableParallelParsing(int, int, boolean)}), so each thread uses its own instance
+	 */
+	private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = new ThreadLocal<SimpleDateFormat>() {
+		@Override
+		protected SimpleDateFormat initialValue() {
+			return new SimpleDateFormat("yyyyMMdd");
+		}
+	};
+
+	private static final Pattern RELATION_ID_PATTERN = Pattern.compile("^(.*?)\\((.*?)\\)$");
 
 	public Gaf2FileRecordReader(File file, CharacterEncoding encoding, Set<NcbiTaxonomyID> taxonIdsOfInterest, Class<? extends IdResolver> idResolverClass)
 			throws IOException {
 		super(file, encoding, COMMENT_INDICATOR, taxonIdsOfInterest);
 		idResolver = (IdResolver) ConstructorUtil.invokeConstructor(idResolverClass.getName());
+		defaultIdResolver = idResolver;
 	}
 
 	public Gaf2FileRecordReader(InputStream stream, CharacterEncoding encoding,Set<NcbiTaxonomyID> taxonIdsOfInterest,
 			Class<? extends IdResolver> idResolverClass) throws IOException {
 		super(stream, encoding, COMMENT_INDICATOR, taxonIdsOfInterest);
 		idResolver = (IdResolver) ConstructorUtil.invokeConstructor(idResolverClass.getName());
+		defaultIdResolver = idResolver;
 	}
 
 	public Gaf2FileRecordReader(File workDirectory, CharacterEncoding encoding, boolean clean, Set<NcbiTaxonomyID> taxonIdsOfInterest,
 			Class<? extends IdResolver> idResolverClass) throws IOException {
 		super(workDirectory, encoding, COMMENT_INDICATOR, clean, taxonIdsOfInterest);
 		idResolver = (IdResolver) ConstructorUtil.invokeConstructor(idResolverClass.getName());
+		defaultIdResolver = idResolver;
+	}
+
+	@Override
+	protected TaxonColumnFilter getTaxonColumnFilter() {
+		return TAXON_COLUMN_FILTER;
 	}
 
 	@Override
 	protected Set<NcbiTaxonomyID> getLineTaxon(Line line) {
-		String[] toks = line.getText().split("\\t", -1);
-		String taxonColumn = toks[12];
+		DelimitedLineView toks = new DelimitedLineView(line.getText(), '\t');
 		/* cardinality is either 1 or 2, in either case the first taxon id presented is that of the gene product in column 2 */
-		return CollectionsUtil.createSet(new NcbiTaxonomyID(taxonColumn.split("\\|")[0]));
+		return CollectionsUtil.createSet(IdentifierPool.intern(NcbiTaxonomyID.class, toks.columnValues(12, '|').iterator()
+				.next()));
 	}
 	
+	/**
+	 * @return the {@link IdResolver} used by this reader to resolve identifiers in the file
+	 */
+	protected IdResolver getIdResolver() {
+		return idResolver;
+	}
+
+	/**
+	 * Parses a GAF 2.0 line using the {@link IdResolver} of the most recently constructed
+	 * {@link Gaf2FileRecordReader}.
+	 * 
+	 * @param line
+	 * @return the record parsed from the line
+	 * @deprecated the resolver used depends on which reader was constructed last; use
+	 *             {@link #parseGaf2FileLine(Line, IdResolver)} instead
+	 */
+	@Deprecated
 	public static Gaf2FileRecord parseGaf2FileLine(Line line) {
-		String[] toks = line.getText().split("\\t", -1);
+		IdResolver resolver = defaultIdResolver;
+		if (resolver == null) {
+			throw new IllegalStateException("No IdResolver is available. No Gaf2FileRecordReader has been constructed; "
+					+ "use parseGaf2FileLine(Line, IdResolver) instead.");
+		}
+		return parseGaf2FileLine(line, resolver);
+	}
+
+	/**
+	 * Parses a GAF 2.0 line. This method does not depend on any reader state and may be called
+	 * concurrently.
+	 * 
+	 * @param line
+	 * @param idResolver
+	 *            used to resolve the identifiers in the line
+	 * @return the record parsed from the line
+	 */
+	public static Gaf2FileRecord parseGaf2FileLine(Line line, IdResolver idResolver) {
+		DelimitedLineView toks = new DelimitedLineView(line.getText(), '\t');
 		int index = 0;
 
-		String databaseDesignation = toks[index++];
-		String idToken = toks[index++];
+		String databaseDesignation = toks.columnString(index++);
+		String idToken = toks.columnString(index++);
 		DataSourceIdentifier<?> dbObjectId = idResolver.resolveId(databaseDesignation, idToken, "Source: " + databaseDesignation + " ID: " + idToken);
-		String dbObjectSymbol = toks[index++];
-		String qualifier = toks[index++].isEmpty() ? null : toks[index - 1];
-		DataSourceIdentifier<?> ontologyTermId = idResolver.resolveId(toks[index++]);
-		Set<DataSourceIdentifier<?>> referenceAccessionIds = extractIds(toks[index++]);
-		String evidenceCode = toks[index++];
-		Set<DataSourceIdentifier<?>> withOrFromIds = extractIds(toks[index++]);
-		String aspect = toks[index++].isEmpty() ? null : toks[index - 1];
-		String dbObjectName = toks[index++].isEmpty() ? null : toks[index - 1];
-		Set<String> dbObjectSynonyms = new HashSet<String>(CollectionsUtil.fromDelimitedString(toks[index++], "|",
-				String.class));
-		String dbObjectType = toks[index++].isEmpty() ? null : toks[index - 1];
-		String[] taxonomyIds = toks[index++].split("\\|");
-		NcbiTaxonomyID dbObjectTaxonId = new NcbiTaxonomyID(taxonomyIds[0]);
-		NcbiTaxonomyID interactingTaxonId = taxonomyIds.length == 2 ? new NcbiTaxonomyID(taxonomyIds[1]) : null;
+		String dbObjectSymbol = toks.columnString(index++);
+		String qualifier = nullIfEmpty(toks, index++);
+		DataSourceIdentifier<?> ontologyTermId = idResolver.resolveId(toks.columnString(index++));
+		Set<DataSourceIdentifier<?>> referenceAccessionIds = extractIds(toks, index++, idResolver);
+		String evidenceCode = toks.columnString(index++);
+		Set<DataSourceIdentifier<?>> withOrFromIds = extractIds(toks, index++, idResolver);
+		String aspect = nullIfEmpty(toks, index++);
+		String dbObjectName = nullIfEmpty(toks, index++);
+		Set<String> dbObjectSynonyms = new HashSet<String>(CollectionsUtil.fromDelimitedString(
+				toks.columnString(index++), "|", String.class));
+		String dbObjectType = nullIfEmpty(toks, index++);
+		Iterator<String> taxonomyIds = toks.columnValues(index++, '|').iterator();
+		NcbiTaxonomyID dbObjectTaxonId = IdentifierPool.intern(NcbiTaxonomyID.class, taxonomyIds.next());
+		NcbiTaxonomyID interactingTaxonId = taxonomyIds.hasNext() ? IdentifierPool.intern(NcbiTaxonomyID.class,
+				taxonomyIds.next()) : null;
 		Calendar date = Calendar.getInstance();
 		try {
-			date.setTime(sdf.parse(toks[index++]));
+			date.setTime(DATE_FORMAT.get().parse(toks.columnString(index++)));
 		} catch (ParseException e) {
-			throw new IllegalArgumentException("Invalid date string (should be YYYYMMDD: " + toks[index - 1]);
+			throw new IllegalArgumentException("Invalid date string (should be YYYYMMDD: " + toks.columnString(index - 1));
 		}
-		String assignedBy = toks[index++].isEmpty() ? null : toks[index - 1];
-		Set<AnnotationExtension> annotationExtensions = getAnnotationExtensions(toks[index++]);
-		DataSourceIdentifier<?> geneProductFormId = toks[index++].isEmpty() ? null : idResolver
-				.resolveId(toks[index - 1]);
+		String assignedBy = nullIfEmpty(toks, index++);
+		Set<AnnotationExtension> annotationExtensions = getAnnotationExtensions(toks, index++, idResolver);
+		DataSourceIdentifier<?> geneProductFormId = toks.isColumnEmpty(index++) ? null : idResolver
+				.resolveId(toks.columnString(index - 1));
 
 //		for (DataSourceIdentifier<?> id : referenceAccessionIds) {
 //			if (id.getClass().isInstance(PubMedID.class)) {
@@ -168,16 +240,28 @@ public class Gaf2FileRecordReader<T extends Gaf2FileRecord> extends TaxonAwareSi
 	}
 
 	/**
-	 * @param string
+	 * @param toks
+	 * @param columnIndex
+	 * @return the content of the specified column, or null if the column is empty
+	 */
+	private static String nullIfEmpty(DelimitedLineView toks, int columnIndex) {
+		return toks.isColumnEmpty(columnIndex) ? null : toks.columnString(columnIndex);
+	}
+
+	/**
+	 * @param toks
+	 * @param columnIndex
+	 *            the index of the annotation extension column
+	 * @param idResolver
 	 * @return
 	 */
-	private static Set<AnnotationExtension> getAnnotationExtensions(String extensionsStr) {
+	private static Set<AnnotationExtension> getAnnotationExtensions(DelimitedLineView toks, int columnIndex,
+			IdResolver idResolver) {
 		Set<AnnotationExtension> extensions = new HashSet<AnnotationExtension>();
-		Pattern relationIdPattern = Pattern.compile("^(.*?)\\((.*?)\\)$");
 		Matcher m;
-		if (!extensionsStr.trim().isEmpty()) {
-			for (String ext : extensionsStr.split("[,\\|]")) {
-				m = relationIdPattern.matcher(ext.trim());
+		if (!toks.isColumnBlank(columnIndex)) {
+			for (String ext : toks.columnValues(columnIndex, ",|")) {
+				m = RELATION_ID_PATTERN.matcher(ext.trim());
 				if (m.find()) {
 //				try {
 					String relation = m.group(1);
@@ -186,7 +270,7 @@ public class Gaf2FileRecordReader<T extends Gaf2FileRecord> extends TaxonAwareSi
 					extensions.add(new AnnotationExtension(relation, id));
 				} else {
 //					throw new IllegalStateException("Should have found a match for: " + extensionsStr);
-					logger.warn("Unable to handle extension str: " + extensionsStr);
+					logger.warn("Unable to handle extension str: " + toks.columnString(columnIndex));
 				}
 //				} catch (IllegalStateException e) {
 //					System.out.println(e.getMessage());
@@ -199,18 +283,20 @@ public class Gaf2FileRecordReader<T extends Gaf2FileRecord> extends TaxonAwareSi
 	}
 
 	/**
-	 * @param idStr
-	 *            pipe-delimited String containing data source identifiers
-	 * @return a set of {@link DataSourceIdentifer} objects parsed from the pipe-delimited input
-	 *         String
+	 * @param toks
+	 * @param columnIndex
+	 *            the index of a pipe-delimited column containing data source identifiers
+	 * @param idResolver
+	 * @return a set of {@link DataSourceIdentifer} objects parsed from the pipe-delimited column
 	 */
-	private static Set<DataSourceIdentifier<?>> extractIds(String idStr) {
+	private static Set<DataSourceIdentifier<?>> extractIds(DelimitedLineView toks, int columnIndex,
+			IdResolver idResolver) {
 //		if (idStr.contains("PMID")) {
 //			System.out.println("extracting pmid: " + idStr);
 //		}
 		Set<DataSourceIdentifier<?>> ids = new HashSet<DataSourceIdentifier<?>>();
-		if (!idStr.trim().isEmpty()) {
-			for (String id : idStr.split("[\\|,]")) {
+		if (!toks.isColumnBlank(columnIndex)) {
+			for (String id : toks.columnValues(columnIndex, "|,")) {
 				DataSourceIdentifier<?> resolvedId = idResolver.resolveId(id);
 				if (resolvedId != null) {
 					ids.add(resolvedId);
@@ -239,7 +325,7 @@ public class Gaf2FileRecordReader<T extends Gaf2FileRecord> extends TaxonAwareSi
 	 */
 	@Override
 	protected T parseRecordFromLine(Line line) {
-		return (T) parseGaf2FileLine(line);
+		return (T) parseGaf2FileLine(line, idResolver);
 	}
 
 	
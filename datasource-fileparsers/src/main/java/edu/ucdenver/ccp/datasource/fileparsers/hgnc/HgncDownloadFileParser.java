@@ -50,6 +50,7 @@ import edu.ucdenver.ccp.common.string.StringUtil;
 import edu.ucdenver.ccp.common.string.StringUtil.RemoveFieldEnclosures;
 import edu.ucdenver.ccp.datasource.fileparsers.SingleLineFileRecordReader;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierPool;
 import edu.ucdenver.ccp.datasource.identifiers.NucleotideAccessionResolver;
 import edu.ucdenver.ccp.datasource.identifiers.ProbableErrorDataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.ProteinAccessionResolver;
@@ -254,12 +255,8 @@ public class HgncDownloadFileParser extends SingleLineFileRecordReader<HgncDownl
 			}
 			for (String refseqIdStr : toks[column++].split("\\|")) {
 				if (!refseqIdStr.isEmpty()) {
-					try {
-						refseqIDs.add(new RefSeqID(refseqIdStr.trim()));
-					} catch (IllegalArgumentException e) {
-						refseqIDs.add(
-								new ProbableErrorDataSourceIdentifier(refseqIdStr.trim(), "RefSeq", e.getMessage()));
-					}
+					refseqIDs.add(IdentifierPool.tryIntern(RefSeqID.class, refseqIdStr.trim())
+							.getIdentifierOrProbableError("RefSeq"));
 				}
 			}
 			// ccds_id
@@ -66,6 +66,7 @@ import edu.ucdenver.ccp.common.string.StringUtil;
 import edu.ucdenver.ccp.datasource.fileparsers.obo.MiOntologyIdTermPair;
 import edu.ucdenver.ccp.datasource.fileparsers.obo.NcbiTaxonomyIdTermPair;
 import edu.ucdenver.ccp.datasource.fileparsers.taxonaware.TaxonAwareSingleLineFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.taxonaware.TaxonColumnFilter;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.NucleotideAccessionResolver;
 import edu.ucdenver.ccp.datasource.identifiers.ProbableErrorDataSourceIdentifier;
@@ -128,6 +129,13 @@ import edu.ucdenver.ccp.datasource.identifiers.impl.ice.PubMedID;
  */
 public class IRefWebPsiMitab2_6FileParser extends TaxonAwareSingleLineFileRecordReader<IRefWebPsiMitab2_6FileData> {
 
+	/**
+	 * the interactor taxonomy ids are in columns 10 and 11 and have the form
+	 * taxid:10090(Mus musculus) or - if unspecified
+	 */
+	private static final TaxonColumnFilter TAXON_COLUMN_FILTER = new TaxonColumnFilter('\t', new int[] { 9, 10 },
+			"taxid:", '(', true, StringConstants.HYPHEN_MINUS);
+
 	private static final Logger logger = Logger.getLogger(IRefWebPsiMitab2_6FileParser.class);
 
 	private static final String HEADER = "#uidA\tuidB\taltA\taltB\taliasA\taliasB\tmethod\tauthor\tpmids\ttaxa\ttaxb\tinteractionType\tsourcedb\tinteractionIdentifier\tconfidence\texpansion\tbiological_role_A\tbiological_role_B\texperimental_role_A\texperimental_role_B\tinteractor_type_A\tinteractor_type_B\txrefs_A\txrefs_B\txrefs_Interaction\tAnnotations_A\tAnnotations_B\tAnnotations_Interaction\tHost_organism_taxid\tparameters_Interaction\tCreation_date\tUpdate_date\tChecksum_A\tChecksum_B\tChecksum_Interaction\tNegative\tOriginalReferenceA\tOriginalReferenceB\tFinalReferenceA\tFinalReferenceB\tMappingScoreA\tMappingScoreB\tirogida\tirogidb\tirigid\tcrogida\tcrogidb\tcrigid\ticrogida\ticrogidb\ticrigid\timex_id\tedgetype\tnumParticipants";
@@ -153,6 +161,11 @@ public class IRefWebPsiMitab2_6FileParser extends TaxonAwareSingleLineFileRecord
 		super(workDirectory, ENCODING, null, null, null, clean, taxonIds);
 	}
 
+	@Override
+	protected TaxonColumnFilter getTaxonColumnFilter() {
+		return TAXON_COLUMN_FILTER;
+	}
+
 	@Override
 	protected Set<NcbiTaxonomyID> getLineTaxon(Line line) {
 		Set<NcbiTaxonomyID> taxonIds = new HashSet<NcbiTaxonomyID>();
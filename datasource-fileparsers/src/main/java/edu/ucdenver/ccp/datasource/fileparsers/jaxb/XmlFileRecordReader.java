@@ -44,7 +44,6 @@ import java.io.InputStream;
 import java.util.HashSet;
 import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.zip.GZIPInputStream;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
@@ -126,7 +125,7 @@ public abstract class XmlFileRecordReader<T extends FileRecord> extends FileReco
 		try {
 			InputStream is;
 			if (dataFile.getName().endsWith(".gz")) {
-				is = new GZIPInputStream(new FileInputStream(dataFile));
+				is = openGzippedFile(dataFile);
 			} else {
 				is = new FileInputStream(dataFile);
 			}
@@ -33,9 +33,6 @@ package edu.ucdenver.ccp.datasource.fileparsers.kegg;
  * #L%
  */
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.StringReader;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -105,39 +102,33 @@ public class KeggGenesFileData extends FileRecord {
 	}
 
 	public static KeggGenesFileData parseKeggGenesFileRecord(MultiLineBuffer multiLineBuffer) {
-		try {
-			BufferedReader br = new BufferedReader(new StringReader(multiLineBuffer.toString()));
-			String line;
-			boolean inDbLinks = false;
-			boolean inPathwayIds = false;
-			KeggGeneID keggGeneId = null;
-			Set<DataSourceIdentifier<?>> ids = new HashSet<DataSourceIdentifier<?>>();
-			Set<KeggPathwayID> pathwayIds = new HashSet<KeggPathwayID>();
-			while ((line = br.readLine()) != null) {
-				if (line.startsWith(ENTRY)) {
-					keggGeneId = getKeggGeneIdFromLine(line);
-				} else if (StringUtil.startsWithRegex(line, "[A-Z]+") && !line.startsWith(PATHWAY)
-						&& !line.startsWith(DBLINKS)) {
-					inDbLinks = false;
-					inPathwayIds = false;
-				} else if (line.startsWith(PATHWAY) || inPathwayIds) {
-					inPathwayIds = true;
-					inDbLinks = false;
-					pathwayIds.add(getKeggPathwayId(line));
-				} else if (line.startsWith(DBLINKS) || inDbLinks) {
-					inDbLinks = true;
-					inPathwayIds = false;
-					ids.addAll(getDbLink(line));
-				} else {
-					inDbLinks = false;
-					inPathwayIds = false;
-				}
+		boolean inDbLinks = false;
+		boolean inPathwayIds = false;
+		KeggGeneID keggGeneId = null;
+		Set<DataSourceIdentifier<?>> ids = new HashSet<DataSourceIdentifier<?>>();
+		Set<KeggPathwayID> pathwayIds = new HashSet<KeggPathwayID>();
+		for (int i = 0; i < multiLineBuffer.size(); i++) {
+			String line = multiLineBuffer.getLineText(i);
+			if (line.startsWith(ENTRY)) {
+				keggGeneId = getKeggGeneIdFromLine(line);
+			} else if (StringUtil.startsWithRegex(line, "[A-Z]+") && !line.startsWith(PATHWAY)
+					&& !line.startsWith(DBLINKS)) {
+				inDbLinks = false;
+				inPathwayIds = false;
+			} else if (line.startsWith(PATHWAY) || inPathwayIds) {
+				inPathwayIds = true;
+				inDbLinks = false;
+				pathwayIds.add(getKeggPathwayId(line));
+			} else if (line.startsWith(DBLINKS) || inDbLinks) {
+				inDbLinks = true;
+				inPathwayIds = false;
+				ids.addAll(getDbLink(line));
+			} else {
+				inDbLinks = false;
+				inPathwayIds = false;
 			}
-			return new KeggGenesFileData(keggGeneId, ids, pathwayIds, multiLineBuffer.getByteOffset());
-		} catch (IOException ioe) {
-			ioe.printStackTrace();
 		}
-		return null;
+		return new KeggGenesFileData(keggGeneId, ids, pathwayIds, multiLineBuffer.getByteOffset());
 	}
 
 	/**
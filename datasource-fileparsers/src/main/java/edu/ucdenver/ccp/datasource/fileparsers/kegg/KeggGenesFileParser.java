@@ -36,7 +36,6 @@ package edu.ucdenver.ccp.datasource.fileparsers.kegg;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.zip.GZIPInputStream;
 
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
 import edu.ucdenver.ccp.datasource.fileparsers.MultiLineFileRecordReader;
@@ -50,7 +49,7 @@ import edu.ucdenver.ccp.datasource.fileparsers.MultiLineFileRecordReader;
 public class KeggGenesFileParser extends MultiLineFileRecordReader<KeggGenesFileData> {
 
 	public KeggGenesFileParser(File file, CharacterEncoding encoding) throws IOException {
-		super((file.getName().endsWith(".gz") ? new GZIPInputStream(new FileInputStream(file)) : new FileInputStream(
+		super((file.getName().endsWith(".gz") ? openGzippedFile(file) : new FileInputStream(
 				file)), encoding, null);
 	}
 
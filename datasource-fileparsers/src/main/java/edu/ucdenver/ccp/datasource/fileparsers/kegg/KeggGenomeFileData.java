@@ -33,9 +33,6 @@ package edu.ucdenver.ccp.datasource.fileparsers.kegg;
  * #L%
  */
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.StringReader;
 
 import org.apache.log4j.Logger;
 
@@ -88,33 +85,27 @@ public class KeggGenomeFileData extends FileRecord {
 		// TODO: review how to handle multiple taxonomy ID values in Kegg
 		// entries classified as
 		// 'Meta Genome'
-		try {
-			BufferedReader br = new BufferedReader(new StringReader(multiLineBuffer.toString()));
-			String line;
-			String speciesCode = null;
-			String abbreviatedTaxonName = null;
-			NcbiTaxonomyID ncbiTaxonomyID = null;
-			while ((line = br.readLine()) != null) {
-				if (line.startsWith(NAME)) {
-					speciesCode = getSpeciesCodeFromLine(line);
-					abbreviatedTaxonName = getAbbreviatedTaxonNameFromLine(line);
-				} else if (line.startsWith(TAXONOMY)) {
-					ncbiTaxonomyID = getNcbiTaxonomyIDFromLine(line);
-					break;
-				} else if (line.startsWith(ENTRY)) {
-					String testLine = line.replace(ENTRY, "").trim();
-					if (testLine.startsWith(GENOME_ID_T3)) {
-						logger.warn("Ignoring meta genome entry : " + multiLineBuffer.toString());
-						return null;
-					}
+		String speciesCode = null;
+		String abbreviatedTaxonName = null;
+		NcbiTaxonomyID ncbiTaxonomyID = null;
+		for (int i = 0; i < multiLineBuffer.size(); i++) {
+			String line = multiLineBuffer.getLineText(i);
+			if (line.startsWith(NAME)) {
+				speciesCode = getSpeciesCodeFromLine(line);
+				abbreviatedTaxonName = getAbbreviatedTaxonNameFromLine(line);
+			} else if (line.startsWith(TAXONOMY)) {
+				ncbiTaxonomyID = getNcbiTaxonomyIDFromLine(line);
+				break;
+			} else if (line.startsWith(ENTRY)) {
+				String testLine = line.replace(ENTRY, "").trim();
+				if (testLine.startsWith(GENOME_ID_T3)) {
+					logger.warn("Ignoring meta genome entry : " + multiLineBuffer.toString());
+					return null;
 				}
 			}
-			return new KeggGenomeFileData(speciesCode, abbreviatedTaxonName, ncbiTaxonomyID,
-					multiLineBuffer.getByteOffset());
-		} catch (IOException ioe) {
-			ioe.printStackTrace();
 		}
-		return null;
+		return new KeggGenomeFileData(speciesCode, abbreviatedTaxonName, ncbiTaxonomyID,
+				multiLineBuffer.getByteOffset());
 	}
 
 	/**
@@ -40,7 +40,6 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.zip.GZIPInputStream;
 
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
 import edu.ucdenver.ccp.datasource.fileparsers.MultiLineFileRecordReader;
@@ -55,7 +54,7 @@ import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
 public class KeggGenomeFileParser extends MultiLineFileRecordReader<KeggGenomeFileData> {
 
 	public KeggGenomeFileParser(File file, CharacterEncoding encoding) throws IOException {
-		super((file.getName().endsWith(".gz") ? new GZIPInputStream(new FileInputStream(file)) : new FileInputStream(
+		super((file.getName().endsWith(".gz") ? openGzippedFile(file) : new FileInputStream(
 				file)), encoding, null);
 	}
 
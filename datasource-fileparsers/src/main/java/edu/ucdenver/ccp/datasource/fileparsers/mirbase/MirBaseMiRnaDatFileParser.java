@@ -33,9 +33,7 @@ package edu.ucdenver.ccp.datasource.fileparsers.mirbase;
  * #L%
  */
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -44,7 +42,6 @@ import java.util.List;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.zip.GZIPInputStream;
 
 import org.apache.log4j.Logger;
 
@@ -96,7 +93,7 @@ public class MirBaseMiRnaDatFileParser extends
 	@Override
 	protected StreamLineReader initializeLineReaderFromDownload(CharacterEncoding encoding, String skipLinePrefix)
 			throws IOException {
-		return new StreamLineReader(new GZIPInputStream(new FileInputStream(miRnaDatFile)), encoding, skipLinePrefix);
+		return new StreamLineReader(openGzippedFile(miRnaDatFile), encoding, skipLinePrefix);
 	}
 
 	@Override
@@ -227,13 +224,12 @@ public class MirBaseMiRnaDatFileParser extends
 	}
 
 	@Override
-	protected Collection<? extends SequenceFeature> parseFeatureTable(String line, BufferedReader br)
-			throws IOException {
+	protected Collection<? extends SequenceFeature> parseFeatureTable(String line, LineCursor cursor) {
 		Collection<SequenceFeature> features = new HashSet<SequenceFeature>();
 		List<String> sequenceFeatureLines = new ArrayList<String>();
 		sequenceFeatureLines.add(line);
 		String featureKey = getFeatureKey(line);
-		while ((line = br.readLine()).startsWith("FT")) {
+		while ((line = cursor.readLine()).startsWith("FT")) {
 			if (!lineHasKey(line)) {
 				sequenceFeatureLines.add(line);
 			} else {
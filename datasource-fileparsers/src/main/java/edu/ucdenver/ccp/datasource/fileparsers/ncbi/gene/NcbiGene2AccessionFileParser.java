@@ -34,9 +34,7 @@ package edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene;
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.zip.GZIPInputStream;
 
 import edu.ucdenver.ccp.common.download.FtpDownload;
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
@@ -73,7 +71,7 @@ public class NcbiGene2AccessionFileParser extends SingleLineFileRecordReader<Ncb
 	@Override
 	protected StreamLineReader initializeLineReaderFromDownload(CharacterEncoding encoding, String skipLinePrefix)
 			throws IOException {
-		return new StreamLineReader(new GZIPInputStream(new FileInputStream(gene2accessionFile)), encoding,
+		return new StreamLineReader(openGzippedFile(gene2accessionFile), encoding,
 				skipLinePrefix);
 	}
 
@@ -37,6 +37,7 @@ import org.apache.log4j.Logger;
 
 import edu.ucdenver.ccp.common.file.reader.Line;
 import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
+import edu.ucdenver.ccp.datasource.fileparsers.DelimitedLineView;
 import edu.ucdenver.ccp.datasource.fileparsers.License;
 import edu.ucdenver.ccp.datasource.fileparsers.Record;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordField;
@@ -92,16 +93,18 @@ public class NcbiGene2PubmedFileData extends SingleLineFileRecord {
 	}
 
 	public static NcbiGene2PubmedFileData parseGene2PubmedLine(Line line) {
-		String[] toks = line.getText().split("\\t");
-		if (toks.length == 3) {
-			NcbiTaxonomyID taxonomyID = new NcbiTaxonomyID(toks[0]);
-			NcbiGeneId entrezGeneID = new NcbiGeneId(toks[1]);
-			PubMedID pmid = new PubMedID(toks[2]);
+		DelimitedLineView toks = new DelimitedLineView(line.getText(), '\t');
+		/* trailing empty columns are not counted, consistent with String.split() */
+		int columnCount = toks.splitColumnCount();
+		if (columnCount == 3) {
+			NcbiTaxonomyID taxonomyID = new NcbiTaxonomyID(toks.columnString(0));
+			NcbiGeneId entrezGeneID = new NcbiGeneId(toks.columnString(1));
+			PubMedID pmid = new PubMedID(toks.columnString(2));
 			return new NcbiGene2PubmedFileData(taxonomyID, entrezGeneID, pmid, line.getByteOffset(),
 					line.getLineNumber());
 		}
 
-		logger.error("Unexpected number of tokens (" + toks.length + ") on line: " + line.toString());
+		logger.error("Unexpected number of tokens (" + columnCount + ") on line: " + line.toString());
 		return null;
 	}
 
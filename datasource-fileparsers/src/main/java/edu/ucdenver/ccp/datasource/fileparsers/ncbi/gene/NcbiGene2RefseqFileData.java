@@ -9,6 +9,7 @@ import edu.ucdenver.ccp.datasource.fileparsers.Record;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordField;
 import edu.ucdenver.ccp.datasource.fileparsers.SingleLineFileRecord;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierPool;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.GiNumberID;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiGeneId;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
@@ -157,8 +158,8 @@ public class NcbiGene2RefseqFileData extends SingleLineFileRecord {
 				return null;
 			}
 
-			NcbiTaxonomyID taxonID = new NcbiTaxonomyID(toks[0]);
-			NcbiGeneId geneID = new NcbiGeneId(toks[1]);
+			NcbiTaxonomyID taxonID = IdentifierPool.intern(NcbiTaxonomyID.class, toks[0]);
+			NcbiGeneId geneID = IdentifierPool.intern(NcbiGeneId.class, toks[1]);
 
 			String status = toks[2];
 			if (status.equals("-")) {
@@ -173,7 +174,7 @@ public class NcbiGene2RefseqFileData extends SingleLineFileRecord {
 			String intStr = toks[4];
 			GiNumberID RNA_nucleotide_gi = null;
 			if (!intStr.equals("-")) {
-				RNA_nucleotide_gi = new GiNumberID(intStr);
+				RNA_nucleotide_gi = IdentifierPool.intern(GiNumberID.class, intStr);
 			}
 
 			RefSeqID protein_accession_dot_version = null;
@@ -184,7 +185,7 @@ public class NcbiGene2RefseqFileData extends SingleLineFileRecord {
 			intStr = toks[6];
 			GiNumberID protein_gi = null;
 			if (!intStr.equals("-")) {
-				protein_gi = new GiNumberID(intStr);
+				protein_gi = IdentifierPool.intern(GiNumberID.class, intStr);
 			}
 
 			RefSeqID genomic_nucleotide_accession_dot_version = null;
@@ -195,7 +196,7 @@ public class NcbiGene2RefseqFileData extends SingleLineFileRecord {
 			intStr = toks[8];
 			GiNumberID genomic_nucleotide_gi = null;
 			if (!intStr.equals("-")) {
-				genomic_nucleotide_gi = new GiNumberID(intStr);
+				genomic_nucleotide_gi = IdentifierPool.intern(GiNumberID.class, intStr);
 			}
 
 			intStr = toks[9];
@@ -233,7 +234,7 @@ public class NcbiGene2RefseqFileData extends SingleLineFileRecord {
 			intStr = toks[14];
 			GiNumberID mature_peptide_gi = null;
 			if (!intStr.equals("-")) {
-				mature_peptide_gi = new GiNumberID(intStr);
+				mature_peptide_gi = IdentifierPool.intern(GiNumberID.class, intStr);
 			}
 
 			String symbol = null;
@@ -34,13 +34,11 @@ package edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene;
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.zip.GZIPInputStream;
 
 import edu.ucdenver.ccp.common.collections.CollectionsUtil;
 import edu.ucdenver.ccp.common.download.FtpDownload;
@@ -89,7 +87,7 @@ public class NcbiGene2RefseqFileParser extends TaxonAwareSingleLineFileRecordRea
 	@Override
 	protected StreamLineReader initializeLineReaderFromDownload(CharacterEncoding encoding, String skipLinePrefix)
 			throws IOException {
-		return new StreamLineReader(new GZIPInputStream(new FileInputStream(gene2accessionFile)), encoding, skipLinePrefix);
+		return new StreamLineReader(openGzippedFile(gene2accessionFile), encoding, skipLinePrefix);
 	}
 
 	@Override
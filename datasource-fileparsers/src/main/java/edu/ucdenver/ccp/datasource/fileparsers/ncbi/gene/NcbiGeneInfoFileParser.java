@@ -34,13 +34,11 @@ package edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene;
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.zip.GZIPInputStream;
 
 import org.apache.log4j.Logger;
 
@@ -50,7 +48,9 @@ import edu.ucdenver.ccp.common.file.CharacterEncoding;
 import edu.ucdenver.ccp.common.file.reader.Line;
 import edu.ucdenver.ccp.common.file.reader.StreamLineReader;
 import edu.ucdenver.ccp.common.ftp.FTPUtil.FileType;
+import edu.ucdenver.ccp.datasource.fileparsers.DelimitedLineView;
 import edu.ucdenver.ccp.datasource.fileparsers.taxonaware.TaxonAwareSingleLineFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.taxonaware.TaxonColumnFilter;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdResolver;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiGeneId;
@@ -64,6 +64,9 @@ import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
  */
 public class NcbiGeneInfoFileParser extends TaxonAwareSingleLineFileRecordReader<NcbiGeneInfoFileData> {
 
+	/** the taxonomy id is in the first column */
+	private static final TaxonColumnFilter TAXON_COLUMN_FILTER = new TaxonColumnFilter('\t', 0);
+
 	private static final String HEADER = "#tax_id\tGeneID\tSymbol\tLocusTag\tSynonyms\tdbXrefs\tchromosome\tmap_location\tdescription\ttype_of_gene\tSymbol_from_nomenclature_authority\tFull_name_from_nomenclature_authority\tNomenclature_status\tOther_designations\tModification_date\tFeature_type";
 
 	private final static Logger logger = Logger.getLogger(NcbiGeneInfoFileParser.class);
@@ -99,7 +102,7 @@ public class NcbiGeneInfoFileParser extends TaxonAwareSingleLineFileRecordReader
 	@Override
 	protected StreamLineReader initializeLineReaderFromDownload(CharacterEncoding encoding, String skipLinePrefix)
 			throws IOException {
-		return new StreamLineReader(new GZIPInputStream(new FileInputStream(gene2infoFile)), encoding, skipLinePrefix);
+		return new StreamLineReader(openGzippedFile(gene2infoFile), encoding, skipLinePrefix);
 	}
 
 	@Override
@@ -117,6 +120,11 @@ public class NcbiGeneInfoFileParser extends TaxonAwareSingleLineFileRecordReader
 		return HEADER;
 	}
 
+	@Override
+	protected TaxonColumnFilter getTaxonColumnFilter() {
+		return TAXON_COLUMN_FILTER;
+	}
+
 	@Override
 	protected Set<NcbiTaxonomyID> getLineTaxon(Line line) {
 		NcbiGeneInfoFileData record = parseGeneInfoLine(line);
@@ -139,30 +147,30 @@ public class NcbiGeneInfoFileParser extends TaxonAwareSingleLineFileRecordReader
 	public static NcbiGeneInfoFileData parseGeneInfoLine(Line line) {
 		String lineText = line.getText();
 		// if (!lineText.startsWith(COMMENT_INDICATOR)) {
-		String[] toks = lineText.split("\\t");
-		if (toks.length != 16) {
-			logger.error("Unexpected number of tokens (" + toks.length + ") on line:"
+		DelimitedLineView toks = new DelimitedLineView(lineText, '\t');
+		/* trailing empty columns are not counted, consistent with String.split() */
+		int columnCount = toks.splitColumnCount();
+		if (columnCount != 16) {
+			logger.error("Unexpected number of tokens (" + columnCount + ") on line:"
 					+ lineText.replaceAll("\\t", " [TAB] "));
+			if (columnCount < 16) {
+				throw new IllegalArgumentException("Expected 16 columns but found " + columnCount
+						+ " on gene_info line: " + lineText);
+			}
 		}
 
-		NcbiTaxonomyID taxonID = new NcbiTaxonomyID(toks[0]);
-		NcbiGeneId geneID = new NcbiGeneId(toks[1]);
-		String symbol = null;
-		if (!toks[2].equals("-")) {
-			symbol = new String(toks[2]);
-		}
-		String locusTag = toks[3];
-		if (locusTag.equals("-")) {
-			locusTag = null;
-		}
+		NcbiTaxonomyID taxonID = new NcbiTaxonomyID(toks.columnString(0));
+		NcbiGeneId geneID = new NcbiGeneId(toks.columnString(1));
+		String symbol = nullIfHyphen(toks, 2);
+		String locusTag = nullIfHyphen(toks, 3);
 		Set<String> synonyms = new HashSet<String>();
-		if (!toks[4].equals("-")) {
-			for (String syn : toks[4].split("\\|"))
-				synonyms.add(new String(syn));
+		if (!toks.columnEquals(4, "-")) {
+			for (String syn : toks.columnValues(4, '|'))
+				synonyms.add(syn);
 		}
 		Set<DataSourceIdentifier<?>> dbXrefs = new HashSet<DataSourceIdentifier<?>>();
-		if (!toks[5].equals("-")) {
-			for (String id : toks[5].split("\\|")) {
+		if (!toks.columnEquals(5, "-")) {
+			for (String id : toks.columnValues(5, '|')) {
 				DataSourceIdentifier<?> resolveGeneID = DataSourceIdResolver.resolveId(id);
 				if (resolveGeneID != null) {
 					dbXrefs.add(resolveGeneID);
@@ -170,51 +178,26 @@ public class NcbiGeneInfoFileParser extends TaxonAwareSingleLineFileRecordReader
 			}
 		}
 		String chromosome = null;
-		if (!toks[6].equals("-") && !toks[6].equals("Unknown")) {
-			chromosome = new String(toks[6]);
-		}
-		String mapLocation = toks[7];
-		if (mapLocation.equals("-")) {
-			mapLocation = null;
-		}
-		String description = toks[8];
-		if (description.equals("-")) {
-			description = null;
+		if (!toks.columnEquals(6, "-") && !toks.columnEquals(6, "Unknown")) {
+			chromosome = toks.columnString(6);
 		}
-		String typeOfGene = toks[9];
-		if (typeOfGene.equals("-")) {
-			typeOfGene = null;
-		}
-		String symbolFromNomenclatureAuthority = null;
-		if (!toks[10].equals("-")) {
-			symbolFromNomenclatureAuthority = new String(toks[10]);
-		}
-		String fullNameFromNomenclatureAuthority = null;
-		if (!toks[11].equals("-")) {
-			fullNameFromNomenclatureAuthority = new String(toks[11]);
-		}
-		String nomenclatureStatus = toks[12];
-		if (nomenclatureStatus.equals("-")) {
-			nomenclatureStatus = null;
-		}
-		Set<String> otherDesignations;
-		if (toks[13].equals("-")) {
-			otherDesignations = new HashSet<String>();
-		} else {
-			otherDesignations = new HashSet<String>();
-			for (String other : toks[13].split("\\|")) {
-				otherDesignations.add(new String(other));
+		String mapLocation = nullIfHyphen(toks, 7);
+		String description = nullIfHyphen(toks, 8);
+		String typeOfGene = nullIfHyphen(toks, 9);
+		String symbolFromNomenclatureAuthority = nullIfHyphen(toks, 10);
+		String fullNameFromNomenclatureAuthority = nullIfHyphen(toks, 11);
+		String nomenclatureStatus = nullIfHyphen(toks, 12);
+		Set<String> otherDesignations = new HashSet<String>();
+		if (!toks.columnEquals(13, "-")) {
+			for (String other : toks.columnValues(13, '|')) {
+				otherDesignations.add(other);
 			}
 		}
-		String modificationDate = toks[14];
-		if (modificationDate.equals("-")) {
-			modificationDate = null;
-		}
+		String modificationDate = nullIfHyphen(toks, 14);
 
-		String featureTypeStr = toks[15];
 		Set<String> featureTypes = new HashSet<String>();
-		if (!featureTypeStr.equals("-")) {
-			for (String ft : featureTypeStr.split("\\|")) {
+		if (!toks.columnEquals(15, "-")) {
+			for (String ft : toks.columnValues(15, '|')) {
 				featureTypes.add(ft);
 			}
 		}
@@ -229,6 +212,16 @@ public class NcbiGeneInfoFileParser extends TaxonAwareSingleLineFileRecordReader
 		// return null;
 	}
 
+	/**
+	 * @param toks
+	 * @param columnIndex
+	 * @return the content of the specified column, or null if the column contains only a hyphen
+	 *         (the gene_info placeholder for a missing value)
+	 */
+	private static String nullIfHyphen(DelimitedLineView toks, int columnIndex) {
+		return toks.columnEquals(columnIndex, "-") ? null : toks.columnString(columnIndex);
+	}
+
 	// /**
 	// * Returns a map from the gene symbol (3rd column in gene_info file) to
 	// the entrez gene id.
@@ -34,10 +34,8 @@ package edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene;
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.Set;
-import java.util.zip.GZIPInputStream;
 
 import edu.ucdenver.ccp.common.collections.CollectionsUtil;
 import edu.ucdenver.ccp.common.download.FtpDownload;
@@ -100,7 +98,7 @@ public class NcbiGeneRefSeqUniprotKbCollabFileParser
 	@Override
 	protected StreamLineReader initializeLineReaderFromDownload(CharacterEncoding encoding, String skipLinePrefix)
 			throws IOException {
-		return new StreamLineReader(new GZIPInputStream(new FileInputStream(geneRefseqUniprotKbCollabFile)), encoding,
+		return new StreamLineReader(openGzippedFile(geneRefseqUniprotKbCollabFile), encoding,
 				skipLinePrefix);
 	}
 
@@ -36,6 +36,7 @@ package edu.ucdenver.ccp.datasource.fileparsers.ncbi.homologene;
 import org.apache.log4j.Logger;
 
 import edu.ucdenver.ccp.common.file.reader.Line;
+import edu.ucdenver.ccp.datasource.fileparsers.DelimitedLineView;
 import edu.ucdenver.ccp.datasource.fileparsers.License;
 import edu.ucdenver.ccp.datasource.fileparsers.Record;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordField;
@@ -137,17 +138,23 @@ public class HomoloGeneDataFileData extends SingleLineFileRecord {
 	 * @return
 	 */
 	public static HomoloGeneDataFileData parseHomologeneDataLine(Line line) {
-		String[] toks = line.getText().split("\\t");
-		if (toks.length != 6) {
-			logger.error("Unexpected number of tokens (" + toks.length + ") on line:"
+		DelimitedLineView toks = new DelimitedLineView(line.getText(), '\t');
+		/* trailing empty columns are not counted, consistent with String.split() */
+		int columnCount = toks.splitColumnCount();
+		if (columnCount != 6) {
+			logger.error("Unexpected number of tokens (" + columnCount + ") on line:"
 					+ line.getText().replaceAll("\\t", " [TAB] "));
+			if (columnCount < 6) {
+				throw new IllegalArgumentException("Expected 6 columns but found " + columnCount
+						+ " on homologene.data line: " + line.getText());
+			}
 		}
-		HomologeneGroupID homologeneGroupID = new HomologeneGroupID(toks[0]);
-		NcbiTaxonomyID taxonomyID = new NcbiTaxonomyID(toks[1]);
-		NcbiGeneId entrezGeneID = new NcbiGeneId(toks[2]);
-		String geneSymbol = new String(toks[3]);
-		GiNumberID proteinGI = new GiNumberID(toks[4]);
-		RefSeqID proteinAccession = new RefSeqID(toks[5]);
+		HomologeneGroupID homologeneGroupID = new HomologeneGroupID(toks.columnString(0));
+		NcbiTaxonomyID taxonomyID = new NcbiTaxonomyID(toks.columnString(1));
+		NcbiGeneId entrezGeneID = new NcbiGeneId(toks.columnString(2));
+		String geneSymbol = toks.columnString(3);
+		GiNumberID proteinGI = new GiNumberID(toks.columnString(4));
+		RefSeqID proteinAccession = new RefSeqID(toks.columnString(5));
 
 		return new HomoloGeneDataFileData(homologeneGroupID, taxonomyID, entrezGeneID, geneSymbol, proteinGI,
 				proteinAccession, line.getByteOffset(), line.getLineNumber());
@@ -49,6 +49,7 @@ import edu.ucdenver.ccp.common.file.reader.StreamLineReader;
 import edu.ucdenver.ccp.common.ftp.FTPUtil.FileType;
 import edu.ucdenver.ccp.datasource.fileparsers.download.FtpHost;
 import edu.ucdenver.ccp.datasource.fileparsers.taxonaware.TaxonAwareSingleLineFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.taxonaware.TaxonColumnFilter;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.HomologeneGroupID;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiGeneId;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
@@ -61,6 +62,9 @@ import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
  */
 public class HomoloGeneDataFileParser extends TaxonAwareSingleLineFileRecordReader<HomoloGeneDataFileData> {
 
+	/** the taxonomy id is in the second column */
+	private static final TaxonColumnFilter TAXON_COLUMN_FILTER = new TaxonColumnFilter('\t', 1);
+
 	public static final String FTP_FILE_NAME = "homologene.data";
 	public static final CharacterEncoding ENCODING = CharacterEncoding.US_ASCII;
 	private static Logger logger = Logger.getLogger(HomoloGeneDataFileParser.class);
@@ -92,6 +96,11 @@ public class HomoloGeneDataFileParser extends TaxonAwareSingleLineFileRecordRead
 		return new StreamLineReader(homologeneDataFile, encoding, skipLinePrefix);
 	}
 
+	@Override
+	protected TaxonColumnFilter getTaxonColumnFilter() {
+		return TAXON_COLUMN_FILTER;
+	}
+
 	@Override
 	protected Set<NcbiTaxonomyID> getLineTaxon(Line line) {
 		HomoloGeneDataFileData record = parseRecordFromLine(line);
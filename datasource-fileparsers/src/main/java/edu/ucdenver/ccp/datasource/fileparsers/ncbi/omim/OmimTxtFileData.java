@@ -33,9 +33,6 @@ package edu.ucdenver.ccp.datasource.fileparsers.ncbi.omim;
  * #L%
  */
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.StringReader;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -45,6 +42,7 @@ import org.apache.log4j.Logger;
 
 import edu.ucdenver.ccp.datasource.fileparsers.License;
 import edu.ucdenver.ccp.datasource.fileparsers.MultiLineFileRecord;
+import edu.ucdenver.ccp.datasource.fileparsers.MultiLineFileRecordReader.LineCursor;
 import edu.ucdenver.ccp.datasource.fileparsers.MultiLineFileRecordReader.MultiLineBuffer;
 import edu.ucdenver.ccp.datasource.fileparsers.Record;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordField;
@@ -101,27 +99,23 @@ public class OmimTxtFileData extends MultiLineFileRecord {
 	}
 
 	public static OmimTxtFileData parseOmimTxtFileRecord(MultiLineBuffer multiLineBuffer) {
-		try {
-			BufferedReader br = new BufferedReader(new StringReader(multiLineBuffer.toString()));
-			String line;
-			Map<String, String> fieldID2TextMap = new HashMap<String, String>();
-			while ((line = br.readLine()) != null) {
-				if (line.startsWith(OmimTxtFileParser.RECORD_TAG) || line.startsWith(OmimTxtFileParser.THE_END_TAG)) {
-					logger.error("Encountered *RECORD* or *THEEND* tag within a record. This should not happen.");
-					return null;
-				} else if (line.startsWith(FIELD_TAG)) {
-					String fieldID = line.substring(7).trim();
-					getFieldText(br, fieldID, fieldID2TextMap);
-				}
+		LineCursor cursor = multiLineBuffer.cursor();
+		String line;
+		Map<String, String> fieldID2TextMap = new HashMap<String, String>();
+		while ((line = cursor.readLine()) != null) {
+			if (line.startsWith(OmimTxtFileParser.RECORD_TAG) || line.startsWith(OmimTxtFileParser.THE_END_TAG)) {
+				logger.error("Encountered *RECORD* or *THEEND* tag within a record. This should not happen.");
+				return null;
+			} else if (line.startsWith(FIELD_TAG)) {
+				String fieldID = line.substring(7).trim();
+				getFieldText(cursor, fieldID, fieldID2TextMap);
 			}
-
-			OmimID mimNumber = new OmimID(fieldID2TextMap.get(MIM_NUMBER_TAG));
-			String title = new String(getMimTitle(fieldID2TextMap.get(MIM_TITLE_TAG)));
-			Set<String> alternativeTitles = getMimAlternativeTitles(fieldID2TextMap.get(MIM_TITLE_TAG));
-			return new OmimTxtFileData(mimNumber, title, alternativeTitles, multiLineBuffer.getByteOffset());
-		} catch (IOException ioe) {
-			throw new RuntimeException(ioe);
 		}
+
+		OmimID mimNumber = new OmimID(fieldID2TextMap.get(MIM_NUMBER_TAG));
+		String title = new String(getMimTitle(fieldID2TextMap.get(MIM_TITLE_TAG)));
+		Set<String> alternativeTitles = getMimAlternativeTitles(fieldID2TextMap.get(MIM_TITLE_TAG));
+		return new OmimTxtFileData(mimNumber, title, alternativeTitles, multiLineBuffer.getByteOffset());
 	}
 
 	private static Set<String> getMimAlternativeTitles(String titleText) {
@@ -147,13 +141,14 @@ public class OmimTxtFileData extends MultiLineFileRecord {
 		return titleText;
 	}
 
-	private static void getFieldText(BufferedReader br, String fieldID, Map<String, String> fieldID2TextMap)
-			throws IOException {
-		StringBuffer fieldText = new StringBuffer();
+	private static void getFieldText(LineCursor cursor, String fieldID, Map<String, String> fieldID2TextMap) {
+		StringBuilder fieldText = new StringBuilder();
 		String line;
-		while ((line = br.readLine()) != null) {
+		/* an empty field is followed directly by the next field tag, so mark before reading it */
+		cursor.mark();
+		while ((line = cursor.readLine()) != null) {
 			if (line.startsWith(FIELD_TAG)) {
-				br.reset();
+				cursor.reset();
 				if (fieldID2TextMap.containsKey(fieldID)) {
 					String newText = fieldID2TextMap.get(fieldID) + " " + fieldText.toString().trim();
 					fieldID2TextMap.remove(fieldID);
@@ -164,8 +159,8 @@ public class OmimTxtFileData extends MultiLineFileRecord {
 				break;
 			}
 
-			fieldText.append(line + "\n");
-			br.mark(1024);
+			fieldText.append(line).append('\n');
+			cursor.mark();
 		}
 	}
 
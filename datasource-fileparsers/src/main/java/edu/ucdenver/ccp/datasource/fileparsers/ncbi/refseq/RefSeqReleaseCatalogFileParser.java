@@ -34,10 +34,8 @@ package edu.ucdenver.ccp.datasource.fileparsers.ncbi.refseq;
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.Set;
-import java.util.zip.GZIPInputStream;
 
 import edu.ucdenver.ccp.common.collections.CollectionsUtil;
 import edu.ucdenver.ccp.common.download.DownloadUtil;
@@ -94,7 +92,7 @@ public class RefSeqReleaseCatalogFileParser extends TaxonAwareSingleLineFileReco
 				catalogFileName, FileType.BINARY, false, null);
 		File downloadedFile = DownloadUtil.handleFtpDownload(getWorkDirectory(), ftpInfo, isClean());
 		DownloadUtil.writeReadySemaphoreFile(downloadedFile, ftpInfo.getUrl());
-		return new StreamLineReader(new GZIPInputStream(new FileInputStream(downloadedFile)), encoding,
+		return new StreamLineReader(openGzippedFile(downloadedFile), encoding,
 				skipLinePrefix);
 	}
 	
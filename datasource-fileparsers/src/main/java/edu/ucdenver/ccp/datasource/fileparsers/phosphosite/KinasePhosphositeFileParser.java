@@ -34,11 +34,9 @@ package edu.ucdenver.ccp.datasource.fileparsers.phosphosite;
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.zip.GZIPInputStream;
 
 import org.apache.log4j.Logger;
 
@@ -83,7 +81,7 @@ public class KinasePhosphositeFileParser extends SingleLineFileRecordReader<Kina
 	@Override
 	protected StreamLineReader initializeLineReaderFromDownload(CharacterEncoding encoding, String skipLinePrefix)
 			throws IOException {
-		return new StreamLineReader(new GZIPInputStream(new FileInputStream(kinaseFile)), encoding, skipLinePrefix);
+		return new StreamLineReader(openGzippedFile(kinaseFile), encoding, skipLinePrefix);
 	}
 
 	@Override
@@ -34,9 +34,7 @@ package edu.ucdenver.ccp.datasource.fileparsers.phosphosite;
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.zip.GZIPInputStream;
 
 import edu.ucdenver.ccp.common.download.HttpDownload;
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
@@ -67,7 +65,7 @@ public class PhosphorylationPhosphositeFileParser extends PhosphositeFileParser
 	@Override
 	protected StreamLineReader initializeLineReaderFromDownload(CharacterEncoding encoding, String skipLinePrefix)
 			throws IOException {
-		return new StreamLineReader(new GZIPInputStream(new FileInputStream(phosphorylationFile)), encoding, skipLinePrefix);
+		return new StreamLineReader(openGzippedFile(phosphorylationFile), encoding, skipLinePrefix);
 	}
 
 }
@@ -34,9 +34,7 @@ package edu.ucdenver.ccp.datasource.fileparsers.premod;
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.zip.GZIPInputStream;
 
 import edu.ucdenver.ccp.common.download.HttpDownload;
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
@@ -65,7 +63,7 @@ public class HumanPReModModuleTabFileParser extends PReModModuleTabFileParser {
 	@Override
 	protected StreamLineReader initializeLineReaderFromDownload(CharacterEncoding encoding, String skipLinePrefix)
 			throws IOException {
-		return new StreamLineReader(new GZIPInputStream(new FileInputStream(premodModuleTabFile)), encoding, skipLinePrefix);
+		return new StreamLineReader(openGzippedFile(premodModuleTabFile), encoding, skipLinePrefix);
 	}
 
 }
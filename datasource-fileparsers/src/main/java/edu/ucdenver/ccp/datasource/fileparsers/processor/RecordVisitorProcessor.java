@@ -0,0 +1,530 @@
+package edu.ucdenver.ccp.datasource.fileparsers.processor;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+
+/**
+ * An annotation processor that generates a {@code RecordVisitor} for each class annotated with
+ * {@code Record}. The generated visitor reads each {@code RecordField}-annotated field of the record
+ * directly, or through its getter method, and passes the field values to a
+ * {@code RecordFieldVisitor} in field name order, so that records can be serialized without
+ * inspecting their classes using reflection.
+ * <p>
+ * A visitor is generated in the package of the record class and is named after the record class
+ * (see {@link #getVisitorClassName(String)}). No visitor is generated for abstract, generic, local,
+ * or private record classes, or for records with a field that can be neither read directly nor
+ * through a getter. Getters are either declared explicitly or generated by the lombok
+ * {@code Data}, {@code Value}, or {@code Getter} annotations. Such records continue to be handled
+ * using reflection.
+ * <p>
+ * The processor refers to the annotations by name so that it can be compiled ahead of the rest of
+ * this module.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class RecordVisitorProcessor extends AbstractProcessor {
+
+	private static final String PACKAGE = "edu.ucdenver.ccp.datasource.fileparsers";
+	private static final String RECORD_ANNOTATION = PACKAGE + ".Record";
+	private static final String RECORD_FIELD_ANNOTATION = PACKAGE + ".RecordField";
+	private static final String RECORD_VISITOR = PACKAGE + ".RecordVisitor";
+	private static final String RECORD_FIELD_VISITOR = PACKAGE + ".RecordFieldVisitor";
+
+	private static final String LOMBOK_DATA = "lombok.Data";
+	private static final String LOMBOK_VALUE = "lombok.Value";
+	private static final String LOMBOK_GETTER = "lombok.Getter";
+
+	private static final String VISITOR_CLASS_NAME_SUFFIX = "_RecordVisitor";
+
+	/**
+	 * @param recordClassName
+	 *            the binary name of a record class, e.g. as returned by {@link Class#getName()}
+	 * @return the fully qualified name of the visitor class generated for the record class. Nested
+	 *         class names are joined using underscores, e.g. the visitor for {@code a.Outer$Inner}
+	 *         is {@code a.Outer_Inner_RecordVisitor}.
+	 */
+	public static String getVisitorClassName(String recordClassName) {
+		return recordClassName.replace('$', '_') + VISITOR_CLASS_NAME_SUFFIX;
+	}
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(RECORD_ANNOTATION);
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() == ElementKind.CLASS) {
+					processRecordClass((TypeElement) element);
+				}
+			}
+		}
+		/* other processors may also handle the Record annotation */
+		return false;
+	}
+
+	private void processRecordClass(TypeElement recordClass) {
+		String reason = getIneligibilityReason(recordClass);
+		List<VisitedField> fields = null;
+		if (reason == null) {
+			fields = new ArrayList<VisitedField>();
+			reason = collectFields(recordClass, fields);
+		}
+		if (reason != null) {
+			processingEnv.getMessager().printMessage(Kind.NOTE,
+					"No record visitor generated for " + recordClass.getQualifiedName() + ": " + reason, recordClass);
+			return;
+		}
+		try {
+			writeVisitor(recordClass, fields);
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR,
+					"Unable to write record visitor for " + recordClass.getQualifiedName() + ": " + e.getMessage(),
+					recordClass);
+		}
+	}
+
+	/**
+	 * @param recordClass
+	 * @return the reason a visitor cannot be generated for the record class, or null if the record
+	 *         class is eligible
+	 */
+	private static String getIneligibilityReason(TypeElement recordClass) {
+		if (recordClass.getModifiers().contains(Modifier.ABSTRACT)) {
+			return "class is abstract";
+		}
+		if (!recordClass.getTypeParameters().isEmpty()) {
+			return "class is generic";
+		}
+		Element element = recordClass;
+		while (element.getKind().isClass() || element.getKind().isInterface()) {
+			NestingKind nestingKind = ((TypeElement) element).getNestingKind();
+			if (nestingKind == NestingKind.LOCAL || nestingKind == NestingKind.ANONYMOUS) {
+				return "class is not a member class";
+			}
+			element = element.getEnclosingElement();
+		}
+		if (isPrivate(recordClass)) {
+			return "class is private";
+		}
+		return null;
+	}
+
+	/**
+	 * @return true if the class, or a class enclosing it, is private
+	 */
+	private static boolean isPrivate(TypeElement type) {
+		Element element = type;
+		while (element.getKind().isClass() || element.getKind().isInterface()) {
+			if (element.getModifiers().contains(Modifier.PRIVATE)) {
+				return true;
+			}
+			element = element.getEnclosingElement();
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the {@code RecordField}-annotated fields of the record class and its super classes to
+	 * the list, sorted by name
+	 * 
+	 * @return the reason a visitor cannot be generated for the record class, or null if all fields
+	 *         can be read
+	 */
+	private String collectFields(TypeElement recordClass, List<VisitedField> fields) {
+		Set<String> fieldNames = new HashSet<String>();
+		TypeElement type = recordClass;
+		while (type != null) {
+			for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+				if (getAnnotation(field, RECORD_FIELD_ANNOTATION) == null) {
+					continue;
+				}
+				String name = field.getSimpleName().toString();
+				if (!fieldNames.add(name)) {
+					return "multiple fields are named " + name;
+				}
+				String accessor = getAccessor(recordClass, type, field);
+				if (accessor == null) {
+					return "field " + name + " is not accessible";
+				}
+				fields.add(new VisitedField(name, accessor, getFieldKind(recordClass, field), isSubRecord(field)));
+			}
+			type = getSuperclass(type);
+		}
+		Collections.sort(fields, new Comparator<VisitedField>() {
+			@Override
+			public int compare(VisitedField f1, VisitedField f2) {
+				return f1.name.compareTo(f2.name);
+			}
+		});
+		return null;
+	}
+
+	private static TypeElement getSuperclass(TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		return (TypeElement) ((DeclaredType) superclass).asElement();
+	}
+
+	/**
+	 * @return an expression reading the field from a variable named {@code record}, or null if the
+	 *         field cannot be read from the package of the record class
+	 */
+	private String getAccessor(TypeElement recordClass, TypeElement declaringClass, VariableElement field) {
+		String name = field.getSimpleName().toString();
+		if (field.getModifiers().contains(Modifier.STATIC)) {
+			if (isAccessible(recordClass, declaringClass, field)) {
+				return declaringClass.getQualifiedName() + "." + name;
+			}
+			return null;
+		}
+		if (isAccessible(recordClass, declaringClass, field)) {
+			return "record." + name;
+		}
+		String getterName = getGetterName(field);
+		for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(
+				recordClass))) {
+			if (method.getSimpleName().contentEquals(getterName) && method.getParameters().isEmpty()
+					&& !method.getModifiers().contains(Modifier.STATIC)) {
+				if (isAccessible(recordClass, (TypeElement) method.getEnclosingElement(), method)) {
+					return "record." + getterName + "()";
+				}
+				return null;
+			}
+		}
+		if (hasLombokGetter(recordClass, declaringClass, field)) {
+			return "record." + getterName + "()";
+		}
+		return null;
+	}
+
+	/**
+	 * @return true if the member can be accessed from a class in the package of the record class
+	 */
+	private boolean isAccessible(TypeElement recordClass, TypeElement declaringClass, Element member) {
+		Set<Modifier> modifiers = member.getModifiers();
+		if (modifiers.contains(Modifier.PRIVATE) || isPrivate(declaringClass)) {
+			return false;
+		}
+		if (modifiers.contains(Modifier.PUBLIC)) {
+			return true;
+		}
+		return getPackage(recordClass).equals(getPackage(declaringClass));
+	}
+
+	private PackageElement getPackage(Element element) {
+		return processingEnv.getElementUtils().getPackageOf(element);
+	}
+
+	/**
+	 * @return true if lombok will generate a getter for the field that can be called from the
+	 *         package of the record class. Generated getters are not visible to this processor if
+	 *         lombok has not yet processed the declaring class.
+	 */
+	private boolean hasLombokGetter(TypeElement recordClass, TypeElement declaringClass, VariableElement field) {
+		AnnotationMirror fieldGetter = getAnnotation(field, LOMBOK_GETTER);
+		if (fieldGetter != null) {
+			return isAccessibleLombokGetter(recordClass, declaringClass, fieldGetter);
+		}
+		AnnotationMirror classGetter = getAnnotation(declaringClass, LOMBOK_GETTER);
+		if (classGetter != null) {
+			return isAccessibleLombokGetter(recordClass, declaringClass, classGetter);
+		}
+		return getAnnotation(declaringClass, LOMBOK_DATA) != null
+				|| getAnnotation(declaringClass, LOMBOK_VALUE) != null;
+	}
+
+	/**
+	 * @param getter
+	 *            a lombok {@code Getter} annotation
+	 */
+	private boolean isAccessibleLombokGetter(TypeElement recordClass, TypeElement declaringClass,
+			AnnotationMirror getter) {
+		String accessLevel = "PUBLIC";
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : getter.getElementValues()
+				.entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals("value")) {
+				accessLevel = entry.getValue().getValue().toString();
+			}
+		}
+		if (accessLevel.equals("PUBLIC")) {
+			return true;
+		}
+		if (accessLevel.equals("PROTECTED") || accessLevel.equals("PACKAGE")) {
+			return getPackage(recordClass).equals(getPackage(declaringClass));
+		}
+		return false;
+	}
+
+	/**
+	 * @return the name of the getter for the field, following the lombok naming conventions
+	 */
+	private static String getGetterName(VariableElement field) {
+		String name = field.getSimpleName().toString();
+		if (field.asType().getKind() == TypeKind.BOOLEAN) {
+			if (name.startsWith("is") && name.length() > 2 && Character.isUpperCase(name.charAt(2))) {
+				return name;
+			}
+			return "is" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+		}
+		return "get" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	/**
+	 * @return the kind of the field as a member of the record class, i.e. with any type variables of
+	 *         super classes resolved
+	 */
+	private FieldKind getFieldKind(TypeElement recordClass, VariableElement field) {
+		TypeMirror type = processingEnv.getTypeUtils().asMemberOf((DeclaredType) recordClass.asType(), field);
+		if (type.getKind().isPrimitive()) {
+			return FieldKind.PRIMITIVE;
+		}
+		if (isCollection(type)) {
+			return FieldKind.COLLECTION;
+		}
+		if (type.getKind() == TypeKind.DECLARED) {
+			Element typeElement = ((DeclaredType) type).asElement();
+			if (typeElement.getKind().isClass()
+					&& !((TypeElement) typeElement).getQualifiedName().contentEquals("java.lang.Object")) {
+				return FieldKind.VALUE;
+			}
+		}
+		/* values of interface, Object, or type variable types might be collections */
+		return FieldKind.UNKNOWN;
+	}
+
+	private boolean isCollection(TypeMirror type) {
+		TypeMirror collection = processingEnv.getTypeUtils().erasure(
+				processingEnv.getElementUtils().getTypeElement("java.util.Collection").asType());
+		return processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type), collection);
+	}
+
+	/**
+	 * @return true if the declared type of the field, or the first type argument of a collection
+	 *         field, is annotated with {@code Record}. This mirrors the check made at runtime when
+	 *         records are serialized using reflection.
+	 */
+	private boolean isSubRecord(VariableElement field) {
+		TypeMirror type = field.asType();
+		if (type.getKind() != TypeKind.DECLARED) {
+			return false;
+		}
+		DeclaredType declaredType = (DeclaredType) type;
+		if (isCollection(type) && !declaredType.getTypeArguments().isEmpty()) {
+			TypeMirror typeArgument = declaredType.getTypeArguments().get(0);
+			if (typeArgument.getKind() == TypeKind.DECLARED
+					&& ((DeclaredType) typeArgument).getTypeArguments().isEmpty()) {
+				return getAnnotation(((DeclaredType) typeArgument).asElement(), RECORD_ANNOTATION) != null;
+			}
+		}
+		return getAnnotation(declaredType.asElement(), RECORD_ANNOTATION) != null;
+	}
+
+	private static AnnotationMirror getAnnotation(Element element, String annotationName) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+			if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+				return annotation;
+			}
+		}
+		return null;
+	}
+
+	private void writeVisitor(TypeElement recordClass, List<VisitedField> fields) throws IOException {
+		String visitorName = getVisitorClassName(processingEnv.getElementUtils().getBinaryName(recordClass)
+				.toString());
+		String packageName = getPackage(recordClass).getQualifiedName().toString();
+		String recordType = recordClass.getQualifiedName().toString();
+
+		Writer writer = processingEnv.getFiler().createSourceFile(visitorName, recordClass).openWriter();
+		try {
+			if (!packageName.isEmpty()) {
+				writer.write("package " + packageName + ";\n\n");
+			}
+			writer.write("/**\n");
+			writer.write(" * Visits the fields of {@link " + recordType + "}. Generated by {@link "
+					+ getClass().getName() + "}; do not edit.\n");
+			writer.write(" */\n");
+			writer.write("public final class " + visitorName.substring(visitorName.lastIndexOf('.') + 1)
+					+ " implements " + RECORD_VISITOR + "<" + recordType + "> {\n\n");
+
+			writer.write("\tprivate static final java.util.List<String> FIELD_NAMES = "
+					+ "java.util.Collections.unmodifiableList(java.util.Arrays.asList(");
+			for (int i = 0; i < fields.size(); i++) {
+				writer.write((i > 0 ? ", " : "") + "\"" + fields.get(i).name + "\"");
+			}
+			writer.write("));\n\n");
+
+			writer.write("\t@Override\n");
+			writer.write("\tpublic java.util.List<String> getFieldNames() {\n");
+			writer.write("\t\treturn FIELD_NAMES;\n");
+			writer.write("\t}\n\n");
+
+			writer.write("\t@Override\n");
+			writer.write("\tpublic void visit(" + recordType + " record, " + RECORD_FIELD_VISITOR
+					+ " fieldVisitor) {\n");
+			for (int i = 0; i < fields.size(); i++) {
+				writeFieldVisit(writer, i, fields.get(i));
+			}
+			writer.write("\t}\n\n");
+
+			writer.write("\t@Override\n");
+			writer.write("\tpublic Object getFieldValue(" + recordType + " record, int fieldIndex) {\n");
+			writer.write("\t\tswitch (fieldIndex) {\n");
+			for (int i = 0; i < fields.size(); i++) {
+				writer.write("\t\tcase " + i + ":\n");
+				writer.write("\t\t\treturn " + fields.get(i).accessor + ";\n");
+			}
+			writer.write("\t\tdefault:\n");
+			writer.write("\t\t\tthrow new IndexOutOfBoundsException(\"Invalid field index: \" + fieldIndex);\n");
+			writer.write("\t\t}\n");
+			writer.write("\t}\n\n");
+			writer.write("}\n");
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static void writeFieldVisit(Writer writer, int index, VisitedField field) throws IOException {
+		String visit = "fieldVisitor." + (field.isSubRecord ? "visitSubRecord" : "visitValue") + "(" + index + ", ";
+		String value = "value" + index;
+		writer.write("\t\t// " + field.name + "\n");
+		switch (field.kind) {
+		case PRIMITIVE:
+			writer.write("\t\t" + visit + field.accessor + ");\n");
+			break;
+		case COLLECTION:
+			writer.write("\t\tjava.util.Collection<?> " + value + " = " + field.accessor + ";\n");
+			writer.write("\t\tif (" + value + " != null) {\n");
+			writer.write("\t\t\tfor (Object member : " + value + ") {\n");
+			writer.write("\t\t\t\t" + visit + "member);\n");
+			writer.write("\t\t\t}\n");
+			writer.write("\t\t}\n");
+			break;
+		case VALUE:
+			writer.write("\t\tObject " + value + " = " + field.accessor + ";\n");
+			writer.write("\t\tif (" + value + " != null) {\n");
+			writer.write("\t\t\t" + visit + value + ");\n");
+			writer.write("\t\t}\n");
+			break;
+		case UNKNOWN:
+			writer.write("\t\tObject " + value + " = " + field.accessor + ";\n");
+			writer.write("\t\tif (" + value + " instanceof java.util.Collection) {\n");
+			writer.write("\t\t\tfor (Object member : (java.util.Collection<?>) " + value + ") {\n");
+			writer.write("\t\t\t\t" + visit + "member);\n");
+			writer.write("\t\t\t}\n");
+			writer.write("\t\t} else if (" + value + " != null) {\n");
+			writer.write("\t\t\t" + visit + value + ");\n");
+			writer.write("\t\t}\n");
+			break;
+		default:
+			throw new IllegalStateException("Unhandled field kind: " + field.kind);
+		}
+	}
+
+	/**
+	 * How the value of a field is visited
+	 */
+	private static enum FieldKind {
+		/**
+		 * the value is boxed and is never null
+		 */
+		PRIMITIVE,
+		/**
+		 * the value is a collection and each member is visited
+		 */
+		COLLECTION,
+		/**
+		 * the value is visited as is
+		 */
+		VALUE,
+		/**
+		 * the value is checked at runtime to see if it is a collection
+		 */
+		UNKNOWN
+	}
+
+	private static class VisitedField {
+		private final String name;
+		private final String accessor;
+		private final FieldKind kind;
+		private final boolean isSubRecord;
+
+		public VisitedField(String name, String accessor, FieldKind kind, boolean isSubRecord) {
+			this.name = name;
+			this.accessor = accessor;
+			this.kind = kind;
+			this.isSubRecord = isSubRecord;
+		}
+	}
+
+}
@@ -37,6 +37,8 @@ import org.apache.log4j.Logger;
 
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.IdResolver;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierPool;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierResult;
 import edu.ucdenver.ccp.datasource.identifiers.UnknownDataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.MammalianPhenotypeID;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NboId;
@@ -59,65 +61,70 @@ public class RgdAnnotationFileIdResolver implements IdResolver {
 
 	@Override
 	public DataSourceIdentifier<?> resolveId(String idStr) {
+		return tryResolveId(idStr).getIdentifier();
+	}
+
+	@Override
+	public IdentifierResult<? extends DataSourceIdentifier<?>> tryResolveId(String idStr) {
 		if (idStr.equals("]")) {
 			// this exists alone in one entry of the withOrFrom column
-			return null;
+			return IdentifierResult.valid(null);
 		}
 		if (idStr.matches("[Rr][Gg][Dd][:;]\\d+")) {
 			// there are instances with mixed case, e.g. RGd: and with
 			// semi-colons instead of colons
-			return new RgdID(idStr.substring(4));
+			return IdentifierPool.tryIntern(RgdID.class, idStr.substring(4));
 		}
 		if (idStr.matches("[Rr][Gg][Dd]\\d+")) {
 			// there is at least one instance missing the colon, e.g. RGD731056
-			return new RgdID(idStr.substring(3));
+			return IdentifierPool.tryIntern(RgdID.class, idStr.substring(3));
 		}
 		if (idStr.matches("RGR:735727")) {
 			// there is one instance of RGR: instead of RGD:
-			return new RgdID(idStr.substring(4));
+			return IdentifierPool.tryIntern(RgdID.class, idStr.substring(4));
 		}
 		if (idStr.matches("RGD:\\s+\\d+")) {
 			// there is one instance of RGD:[space]737465
-			return new RgdID(idStr.substring(idStr.lastIndexOf(" ")));
+			return IdentifierPool.tryIntern(RgdID.class, idStr.substring(idStr.lastIndexOf(" ")));
 		}
 		if (idStr.matches("RGDG:\\d+")) {
 			// there is one instance of RGDG:733289
-			return new RgdID(idStr.substring(5));
+			return IdentifierPool.tryIntern(RgdID.class, idStr.substring(5));
 		}
 		if (idStr.matches("RDG:\\d+")) {
 			// there are a few typos where RDG appears instead of RGD
-			return new RgdID(idStr.substring(4));
+			return IdentifierPool.tryIntern(RgdID.class, idStr.substring(4));
 		}
 		if (idStr.matches("\\d+")) {
 			// there are a few typos where the "RGD:" prefix is missing, e.g.
 			// 1550157
-			return new RgdID(idStr);
+			return IdentifierPool.tryIntern(RgdID.class, idStr);
 		}
 		if (idStr.matches("MP:\\d+")) {
-			return new MammalianPhenotypeID(idStr);
+			return IdentifierPool.tryIntern(MammalianPhenotypeID.class, idStr);
 		}
 		if (idStr.matches("PMID:\\d+")) {
-			return new PubMedID(idStr.substring(5));
+			return IdentifierPool.tryIntern(PubMedID.class, idStr.substring(5));
 		}
 		if (idStr.matches("RDO:\\d+")) {
-			return new RdoId(idStr);
+			return IdentifierPool.tryIntern(RdoId.class, idStr);
 		}
 		if (idStr.matches("OMIM:\\d+")) {
-			return new OmimID(idStr.substring(5));
+			return IdentifierPool.tryIntern(OmimID.class, idStr.substring(5));
 		}
 		if (idStr.matches("NCBI GeneID:\\d+")) {
-			return new NcbiGeneId(idStr.substring(12));
+			return IdentifierPool.tryIntern(NcbiGeneId.class, idStr.substring(12));
 		}
 		if (idStr.matches("NBO:\\d+")) {
-			return new NboId(idStr);
+			return IdentifierPool.tryIntern(NboId.class, idStr);
 		}
 		if (idStr.matches("PW:\\d+")) {
-			return new PwId(idStr);
+			return IdentifierPool.tryIntern(PwId.class, idStr);
 		}
 		if (idStr.startsWith("UniProtKB:")) {
-			return new UniProtID(idStr.substring(10));
+			return IdentifierPool.tryIntern(UniProtID.class, idStr.substring(10));
 		}
-		return new UnknownDataSourceIdentifier(idStr);
+		return IdentifierResult.valid(new UnknownDataSourceIdentifier(idStr));
 	}
 
 	/*
@@ -129,10 +136,15 @@ public class RgdAnnotationFileIdResolver implements IdResolver {
 	 */
 	@Override
 	public DataSourceIdentifier<?> resolveId(String db, String id, String originalIdString) {
+		return tryResolveId(db, id, originalIdString).getIdentifier();
+	}
+
+	@Override
+	public IdentifierResult<? extends DataSourceIdentifier<?>> tryResolveId(String db, String id, String originalIdString) {
 		if (db.equals("RGD") && id.matches("\\d+")) {
-			return new RgdID(id);
+			return IdentifierPool.tryIntern(RgdID.class, id);
 		}
-		return new UnknownDataSourceIdentifier(originalIdString);
+		return IdentifierResult.valid(new UnknownDataSourceIdentifier(originalIdString));
 	}
 
 }
@@ -83,7 +83,7 @@ public class RgdRatGeneMpAnnotationFileRecordReader extends Gaf2FileRecordReader
 
 	@Override
 	protected RgdAnnotationGaf2FileRecord parseRecordFromLine(Line line) {
-		return new RgdAnnotationGaf2FileRecord(Gaf2FileRecordReader.parseGaf2FileLine(line));
+		return new RgdAnnotationGaf2FileRecord(parseGaf2FileLine(line, getIdResolver()));
 	}
 
 	public static void main(String[] args) {
@@ -81,7 +81,7 @@ public class RgdRatGeneNboAnnotationFileRecordReader extends Gaf2FileRecordReade
 
 	@Override
 	protected RgdAnnotationGaf2FileRecord parseRecordFromLine(Line line) {
-		return new RgdAnnotationGaf2FileRecord(Gaf2FileRecordReader.parseGaf2FileLine(line));
+		return new RgdAnnotationGaf2FileRecord(parseGaf2FileLine(line, getIdResolver()));
 	}
 
 }
@@ -36,8 +36,10 @@ package edu.ucdenver.ccp.datasource.fileparsers.taxonaware;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.TreeSet;
 
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
 import edu.ucdenver.ccp.datasource.fileparsers.FileRecord;
@@ -70,6 +72,18 @@ public abstract class TaxonAwareMultiLineFileRecordReader<T extends FileRecord>
 		initializeToFirstRecordWithTaxonOfInterest();
 	}
 
+	/**
+	 * Overriding to include the taxa of interest
+	 */
+	@Override
+	protected String getRecordSelectionDescription() {
+		String description = super.getRecordSelectionDescription();
+		if (taxonsOfInterest == null || taxonsOfInterest.isEmpty()) {
+			return description;
+		}
+		return description + " taxa=" + new TreeSet<Integer>(TaxonColumnFilter.toTaxonIdNumbers(taxonsOfInterest));
+	}
+
 	protected abstract NcbiTaxonomyID getRecordTaxon(MultiLineBuffer multiLineBuffer);
 
 	/**
@@ -92,6 +106,16 @@ public abstract class TaxonAwareMultiLineFileRecordReader<T extends FileRecord>
 		}
 	}
 
+	/**
+	 * Overriding so that, once repositioned, this reader skips to the first record of interest
+	 * rather than returning the record at the new position regardless of its taxon
+	 */
+	@Override
+	protected void resetAfterSeek() throws IOException {
+		super.resetAfterSeek();
+		initializeToFirstRecordWithTaxonOfInterest();
+	}
+
 	@Override
 	public T next() {
 		if (!hasNext())
@@ -110,6 +134,26 @@ public abstract class TaxonAwareMultiLineFileRecordReader<T extends FileRecord>
 		return record;
 	}
 
+	/**
+	 * Overriding to skip records that are not of interest while filling the batch
+	 */
+	@Override
+	public int nextBatch(List<? super T> sink, int max) {
+		int count = 0;
+		try {
+			while (count < max && buffer != null) {
+				sink.add(parseRecordFromMultipleLines(buffer));
+				count++;
+				while (((buffer = compileMultiLineBuffer()) != null) && !isRecordOfInterest(buffer)) {
+					// cycling to the next record with appropriate taxon
+				}
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return count;
+	}
+
 	protected abstract T parseRecordFromMultipleLines(MultiLineBuffer multiLineBuffer);
 
 }
@@ -36,8 +36,10 @@ package edu.ucdenver.ccp.datasource.fileparsers.taxonaware;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.TreeSet;
 
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
 import edu.ucdenver.ccp.common.file.reader.Line;
@@ -55,6 +57,11 @@ public abstract class TaxonAwareSingleLineFileRecordReader<T extends SingleLineF
 
 	protected final Set<NcbiTaxonomyID> taxonsOfInterest;
 
+	/**
+	 * Lazily initialized by {@link #getTaxonIdNumbers()}
+	 */
+	private volatile Set<Integer> taxonIdNumbers;
+
 	public TaxonAwareSingleLineFileRecordReader(InputStream stream, CharacterEncoding encoding, String skipLinePrefix,
 			Set<NcbiTaxonomyID> taxonsOfInterest) throws IOException {
 		super(stream, encoding, skipLinePrefix);
@@ -113,13 +120,50 @@ public abstract class TaxonAwareSingleLineFileRecordReader<T extends SingleLineF
 
 	protected abstract Set<NcbiTaxonomyID> getLineTaxon(Line line);
 
+	/**
+	 * Subclasses whose taxonomy identifiers are located in fixed delimited columns should override
+	 * this method so that lines can be filtered by taxon without being parsed. The returned filter
+	 * is consulted before {@link #getLineTaxon(Line)}, which is only used for lines the filter
+	 * cannot decide.
+	 * <p>
+	 * Lines that the filter rejects are skipped without being parsed and without calling
+	 * {@link #getLineTaxon(Line)}, so a malformed line whose taxon column names a taxon that is not
+	 * of interest is skipped silently rather than causing an exception.
+	 * 
+	 * @return the location of the taxon column(s), or null (the default) if the taxon for a line
+	 *         can only be determined using {@link #getLineTaxon(Line)}
+	 */
+	protected TaxonColumnFilter getTaxonColumnFilter() {
+		return null;
+	}
+
+	/**
+	 * Overriding to include the taxa of interest
+	 */
+	@Override
+	protected String getRecordSelectionDescription() {
+		String description = super.getRecordSelectionDescription();
+		if (taxonsOfInterest == null || taxonsOfInterest.isEmpty()) {
+			return description;
+		}
+		return description + " taxa=" + new TreeSet<Integer>(TaxonColumnFilter.toTaxonIdNumbers(taxonsOfInterest));
+	}
+
+	private Set<Integer> getTaxonIdNumbers() {
+		if (taxonIdNumbers == null) {
+			taxonIdNumbers = TaxonColumnFilter.toTaxonIdNumbers(taxonsOfInterest);
+		}
+		return taxonIdNumbers;
+	}
+
 	/**
 	 * @param line
 	 * @return true if no taxons of interest have been specified (null or
 	 *         empty), or if the line is associated with only taxons of interest
 	 */
+	@Override
 	protected boolean isLineOfInterest(Line line) {
-		if (line == null) {
+		if (!super.isLineOfInterest(line)) {
 			return false;
 		}
 
@@ -127,6 +171,18 @@ public abstract class TaxonAwareSingleLineFileRecordReader<T extends SingleLineF
 			return true;
 		}
 
+		TaxonColumnFilter taxonColumnFilter = getTaxonColumnFilter();
+		if (taxonColumnFilter != null) {
+			switch (taxonColumnFilter.evaluate(line.getText(), getTaxonIdNumbers())) {
+			case ACCEPT:
+				return true;
+			case REJECT:
+				return false;
+			default:
+				// fall back to the taxon determined by getLineTaxon()
+			}
+		}
+
 		boolean lineContainsOnlyTaxonsOfInterest = true;
 		for (NcbiTaxonomyID id : getLineTaxon(line)) {
 			if (!taxonsOfInterest.contains(id)) {
@@ -146,8 +202,23 @@ public abstract class TaxonAwareSingleLineFileRecordReader<T extends SingleLineF
 		}
 	}
 
+	/**
+	 * Overriding so that, once repositioned, this reader skips to the first line of interest
+	 * rather than returning the line at the new position regardless of its taxon
+	 */
+	@Override
+	protected void resetAfterSeek() throws IOException {
+		super.resetAfterSeek();
+		if (line != null && !isLineOfInterest(line)) {
+			advanceToNextLineWithTaxonOfInterest();
+		}
+	}
+
 	@Override
 	public boolean hasNext() {
+		if (isParallelParsingEnabled()) {
+			return super.hasNext();
+		}
 		try {
 			if (line == null) {
 				advanceToNextLineWithTaxonOfInterest();
@@ -160,6 +231,9 @@ public abstract class TaxonAwareSingleLineFileRecordReader<T extends SingleLineF
 
 	@Override
 	public T next() {
+		if (isParallelParsingEnabled()) {
+			return super.next();
+		}
 		if (!hasNext()) {
 			throw new NoSuchElementException();
 		}
@@ -177,4 +251,28 @@ public abstract class TaxonAwareSingleLineFileRecordReader<T extends SingleLineF
 		return recordToReturn;
 	}
 
+	/**
+	 * Overriding to skip lines that are not of interest while filling the batch
+	 */
+	@Override
+	public int nextBatch(List<? super T> sink, int max) {
+		if (isParallelParsingEnabled()) {
+			return super.nextBatch(sink, max);
+		}
+		int count = 0;
+		try {
+			if (line == null) {
+				advanceToNextLineWithTaxonOfInterest();
+			}
+			while (count < max && line != null) {
+				sink.add(parseRecordFromLine(line));
+				count++;
+				advanceToNextLineWithTaxonOfInterest();
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return count;
+	}
+
 }
@@ -0,0 +1,193 @@
+package edu.ucdenver.ccp.datasource.fileparsers.taxonaware;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.util.HashSet;
+import java.util.Set;
+
+import edu.ucdenver.ccp.datasource.fileparsers.ColumnValuePredicate;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
+
+/**
+ * Declares where the taxonomy identifier(s) are located in a delimited line so that
+ * {@link TaxonAwareSingleLineFileRecordReader} can decide whether a line is of interest without
+ * parsing the line into a record. The taxon columns are located by scanning for the delimiter and
+ * the numeric identifier is read directly from the line text; nothing is allocated per line.
+ * <p>
+ * A column value has the form [prefix]digits[valueDelimiter...]. Values that do not have this form,
+ * e.g. because they contain whitespace or a negative id, cannot be decided by the filter and
+ * {@link #evaluate(String, Set)} returns {@link Decision#UNDECIDED}, in which case the reader falls
+ * back to {@link TaxonAwareSingleLineFileRecordReader#getLineTaxon(edu.ucdenver.ccp.common.file.reader.Line)}.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class TaxonColumnFilter {
+
+	public enum Decision {
+		ACCEPT, REJECT, UNDECIDED
+	}
+
+	private static final char NO_VALUE_DELIMITER = '\0';
+
+	private final char columnDelimiter;
+	private final int[] columnIndexes;
+	private final String prefix;
+	private final char valueDelimiter;
+	private final boolean valueDelimiterRequired;
+	private final String emptyValue;
+
+	/**
+	 * Filter for a single column containing an unprefixed taxonomy identifier
+	 * 
+	 * @param columnDelimiter
+	 * @param columnIndex
+	 *            0-based index of the column containing the taxonomy identifier
+	 */
+	public TaxonColumnFilter(char columnDelimiter, int columnIndex) {
+		this(columnDelimiter, new int[] { columnIndex }, null, NO_VALUE_DELIMITER, false, null);
+	}
+
+	/**
+	 * @param columnDelimiter
+	 * @param columnIndexes
+	 *            0-based indexes of the columns containing taxonomy identifiers. A line is of
+	 *            interest if the taxonomy identifiers in all columns are of interest.
+	 * @param prefix
+	 *            optional prefix preceding the numeric identifier, e.g. "taxid:". If specified,
+	 *            column values that do not start with the prefix (case-sensitive) are undecided.
+	 *            May be null.
+	 * @param valueDelimiter
+	 *            optional character that terminates the identifier within the column, e.g. '|' for
+	 *            a multi-valued column where only the first value is relevant. Use '\0' for none.
+	 * @param valueDelimiterRequired
+	 *            if true, column values that do not contain the value delimiter are undecided
+	 * @param emptyValue
+	 *            optional column value indicating that the column does not contribute a taxon,
+	 *            e.g. "-". May be null.
+	 */
+	public TaxonColumnFilter(char columnDelimiter, int[] columnIndexes, String prefix, char valueDelimiter,
+			boolean valueDelimiterRequired, String emptyValue) {
+		if (columnIndexes.length == 0) {
+			throw new IllegalArgumentException("At least one taxon column must be specified.");
+		}
+		this.columnDelimiter = columnDelimiter;
+		this.columnIndexes = columnIndexes.clone();
+		this.prefix = prefix;
+		this.valueDelimiter = valueDelimiter;
+		this.valueDelimiterRequired = valueDelimiterRequired;
+		this.emptyValue = emptyValue;
+	}
+
+	/**
+	 * @param taxonsOfInterest
+	 * @return the numeric form of the input taxonomy identifiers for use with
+	 *         {@link #evaluate(String, Set)}
+	 */
+	public static Set<Integer> toTaxonIdNumbers(Set<NcbiTaxonomyID> taxonsOfInterest) {
+		Set<Integer> taxonIdNumbers = new HashSet<Integer>();
+		for (NcbiTaxonomyID id : taxonsOfInterest) {
+			taxonIdNumbers.add(id.getId());
+		}
+		return taxonIdNumbers;
+	}
+
+	/**
+	 * @param lineText
+	 * @param taxonIdNumbers
+	 * @return {@link Decision#ACCEPT} if the taxon in every taxon column is in the input set,
+	 *         {@link Decision#REJECT} if at least one is not, and {@link Decision#UNDECIDED} if
+	 *         any of the taxon columns could not be interpreted
+	 */
+	public Decision evaluate(String lineText, Set<Integer> taxonIdNumbers) {
+		boolean allOfInterest = true;
+		for (int columnIndex : columnIndexes) {
+			int start = ColumnValuePredicate.columnStart(lineText, columnDelimiter, columnIndex);
+			if (start < 0) {
+				return Decision.UNDECIDED;
+			}
+			int end = ColumnValuePredicate.columnEnd(lineText, columnDelimiter, start);
+			if (emptyValue != null && emptyValue.length() == end - start && lineText.startsWith(emptyValue, start)) {
+				continue;
+			}
+			long taxonId = parseTaxonId(lineText, start, end);
+			if (taxonId < 0) {
+				return Decision.UNDECIDED;
+			}
+			if (!taxonIdNumbers.contains((int) taxonId)) {
+				allOfInterest = false;
+			}
+		}
+		return allOfInterest ? Decision.ACCEPT : Decision.REJECT;
+	}
+
+	/**
+	 * @return the taxonomy identifier contained in the column or -1 if the column content does not
+	 *         match the expected format
+	 */
+	private long parseTaxonId(String text, int start, int end) {
+		int index = start;
+		if (prefix != null) {
+			if (!text.startsWith(prefix, index)) {
+				return -1;
+			}
+			index += prefix.length();
+		}
+		long taxonId = 0;
+		int digitCount = 0;
+		while (index < end) {
+			char c = text.charAt(index);
+			if (c >= '0' && c <= '9') {
+				if (++digitCount > 9) {
+					return -1;
+				}
+				taxonId = taxonId * 10 + (c - '0');
+				index++;
+			} else {
+				break;
+			}
+		}
+		if (digitCount == 0) {
+			return -1;
+		}
+		if (index == end) {
+			return valueDelimiterRequired ? -1 : taxonId;
+		}
+		if (valueDelimiter != NO_VALUE_DELIMITER && text.charAt(index) == valueDelimiter) {
+			return taxonId;
+		}
+		return -1;
+	}
+
+}
@@ -33,23 +33,19 @@ package edu.ucdenver.ccp.datasource.fileparsers.vectorbase;
  * #L%
  */
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.StringReader;
-import java.util.zip.GZIPInputStream;
 
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
 import edu.ucdenver.ccp.common.string.StringUtil;
 import edu.ucdenver.ccp.datasource.fileparsers.MultiLineFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordBoundary;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.VectorBaseID;
 
 public class VectorBaseFastaFileRecordReader extends MultiLineFileRecordReader<VectorBaseFastaFileRecord> {
 	// write a test for this class, then generate rdf for the transcript file
 	public VectorBaseFastaFileRecordReader(File file, CharacterEncoding encoding) throws IOException {
-		super((file.getName().endsWith(".gz")) ? new GZIPInputStream(new FileInputStream(file)) : new FileInputStream(
-				file), encoding, null);
+		super(file, encoding, null);
 	}
 
 	public VectorBaseFastaFileRecordReader(File workDirectory, CharacterEncoding encoding, boolean clean)
@@ -63,6 +59,11 @@ public class VectorBaseFastaFileRecordReader extends MultiLineFileRecordReader<V
 		super.initialize();
 	}
 
+	@Override
+	protected RecordBoundary getRecordBoundary() {
+		return RecordBoundary.lineStartingWith(">");
+	}
+
 	@Override
 	protected MultiLineBuffer compileMultiLineBuffer() throws IOException {
 		if (line == null) {
@@ -79,56 +80,50 @@ public class VectorBaseFastaFileRecordReader extends MultiLineFileRecordReader<V
 
 	@Override
 	protected VectorBaseFastaFileRecord parseRecordFromMultipleLines(MultiLineBuffer multiLineBuffer) {
-		try {
-			BufferedReader br = new BufferedReader(new StringReader(multiLineBuffer.toString()));
-			String line;
-			VectorBaseID sequenceId = null;
-			String sequenceName = null;
-			String sequenceType = null;
-			String contig = null;
-			VectorBaseID geneId = null;
-			String sequence = null;
+		VectorBaseID sequenceId = null;
+		String sequenceName = null;
+		String sequenceType = null;
+		String contig = null;
+		VectorBaseID geneId = null;
+		StringBuilder sequence = null;
 
-			while ((line = br.readLine()) != null) {
-				if (line.startsWith(">")) {
-					String references = "";
-					/*
-					 * a minority of entries contain a bracketed expression
-					 * containing external references, e.g.
-					 * {ECO:0000303|PubMed:9887508} that may have a pipe within
-					 * so we handle those bracketed expressions separately here
-					 */
-					if (line.contains("{")) {
-						int referencesStart = line.indexOf("{");
-						int referencesEnd = line.indexOf("}");
-						references = line.substring(referencesStart, referencesEnd + 1);
-						line = line.substring(0, referencesStart) + line.substring(referencesEnd + 1);
-					}
-					String[] toks = line.substring(1).split("\\|");
-					int index = 0;
-					int firstSpace = toks[0].indexOf(" ");
-					sequenceId = new VectorBaseID(toks[0].substring(0, firstSpace));
-					String nameStr = toks[index++].substring(firstSpace + 1).trim();
-					if (!nameStr.isEmpty()) {
-						sequenceName = nameStr + ((!references.isEmpty()) ? " " : "") + references;
-					}
-					sequenceType = toks[index++].trim();
-					contig = toks[index++].trim();
-					geneId = new VectorBaseID(StringUtil.removePrefix(toks[index++], "gene:"));
-				} else {
-					if (sequence == null) {
-						sequence = "";
-					}
-					sequence += line.trim();
+		for (int i = 0; i < multiLineBuffer.size(); i++) {
+			String line = multiLineBuffer.getLineText(i);
+			if (line.startsWith(">")) {
+				String references = "";
+				/*
+				 * a minority of entries contain a bracketed expression
+				 * containing external references, e.g.
+				 * {ECO:0000303|PubMed:9887508} that may have a pipe within
+				 * so we handle those bracketed expressions separately here
+				 */
+				if (line.contains("{")) {
+					int referencesStart = line.indexOf("{");
+					int referencesEnd = line.indexOf("}");
+					references = line.substring(referencesStart, referencesEnd + 1);
+					line = line.substring(0, referencesStart) + line.substring(referencesEnd + 1);
+				}
+				String[] toks = line.substring(1).split("\\|");
+				int index = 0;
+				int firstSpace = toks[0].indexOf(" ");
+				sequenceId = new VectorBaseID(toks[0].substring(0, firstSpace));
+				String nameStr = toks[index++].substring(firstSpace + 1).trim();
+				if (!nameStr.isEmpty()) {
+					sequenceName = nameStr + ((!references.isEmpty()) ? " " : "") + references;
 				}
+				sequenceType = toks[index++].trim();
+				contig = toks[index++].trim();
+				geneId = new VectorBaseID(StringUtil.removePrefix(toks[index++], "gene:"));
+			} else {
+				if (sequence == null) {
+					sequence = new StringBuilder();
+				}
+				sequence.append(line.trim());
 			}
-
-			return new VectorBaseFastaFileRecord(sequenceId, sequenceName, sequenceType, contig, geneId, sequence,
-					multiLineBuffer.getByteOffset());
-
-		} catch (IOException ioe) {
-			throw new RuntimeException(ioe);
 		}
+
+		return new VectorBaseFastaFileRecord(sequenceId, sequenceName, sequenceType, contig, geneId,
+				(sequence == null) ? null : sequence.toString(), multiLineBuffer.getByteOffset());
 	}
 
 }
\ No newline at end of file
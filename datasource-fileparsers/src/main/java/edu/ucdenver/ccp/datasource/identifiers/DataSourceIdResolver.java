@@ -33,8 +33,12 @@ package edu.ucdenver.ccp.datasource.identifiers;
  * #L%
  */
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import org.apache.log4j.Logger;
 
@@ -151,63 +155,259 @@ public class DataSourceIdResolver {
 	private static final String IREFWEB_ENTREZGENE_ID_PREFIX = "entrezgene/locuslink:";
 	private static final Logger logger = Logger.getLogger(DataSourceIdResolver.class);
 
+	/**
+	 * Rules used by {@link #resolveId(String, String, String)}, keyed by case-folded database name
+	 */
+	private static final Map<String, IdRule> DATABASE_NAME_RULES = new HashMap<String, IdRule>();
+
+	/**
+	 * Rules used by {@link #resolveId(String)}, indexed by case-folded prefix
+	 */
+	private static final PrefixRuleTrie PREFIX_RULES = new PrefixRuleTrie();
+
+	static {
+		addDatabaseNameRule(new IdRule(MgiGeneID.class), "MGI");
+		addDatabaseNameRule(new IdRule(ChemicalAbstractsServiceId.class), "Chemical Abstracts Service");
+		addDatabaseNameRule(new IdRule(ClinicalTrialsGovId.class), "ClinicalTrials.gov");
+		addDatabaseNameRule(new IdRule(RgdID.class), "RGD");
+		addDatabaseNameRule(new IdRule(UniProtID.class), "UniProtKB");
+		addDatabaseNameRule(new IdRule(ChebiOntologyID.class) {
+			@Override
+			IdentifierResult<? extends DataSourceIdentifier<?>> tryCreate(String id) {
+				return super.tryCreate("CHEBI:" + id);
+			}
+		}, "chebi");
+		addDatabaseNameRule(new IdRule(DipInteractorID.class), "DIP");
+		addDatabaseNameRule(new IdRule(DrugBankID.class), "drugbank", "DrugBank");
+		addDatabaseNameRule(new IdRule(KeggDrugID.class), "keggdrug", "KEGG Drug");
+		addDatabaseNameRule(new IdRule(KeggCompoundID.class), "keggcompound", "KEGG Compound");
+		addDatabaseNameRule(new IdRule(PubChemCompoundId.class), "pubchemcompound", "PubChem Compound");
+		addDatabaseNameRule(new IdRule(PubChemSubstanceId.class), "pubchemsubstance", "PubChem Substance");
+		addDatabaseNameRule(new IdRule(NcbiGeneId.class), "EG");
+		addDatabaseNameRule(new IdRule(EnsemblGeneID.class), "Ensembl");
+		addDatabaseNameRule(new IdRule(EmblID.class), "EMBL");
+		addDatabaseNameRule(new IdRule(RefSeqID.class), "RefSeq");
+		addDatabaseNameRule(new IdRule(VegaID.class), "VEGA");
+		addDatabaseNameRule(new IdRule(GiNumberID.class), "NCBI-GI");
+		addDatabaseNameRule(new IdRule(NcbiGeneId.class), "NCBI-GeneID");
+		addDatabaseNameRule(new IdRule(OmimID.class), "OMIM");
+		addDatabaseNameRule(new IdRule(HgncID.class), "HGNC");
+		addDatabaseNameRule(new IdRule(HprdID.class), "HPRD");
+		addDatabaseNameRule(new IdRule(UniProtID.class), "UniProt");
+		addDatabaseNameRule(new IdRule(PharmGkbGenericId.class), "PharmGKB");
+		addDatabaseNameRule(new IdRule(TherapeuticTargetsDatabaseId.class), "TTD", "Therapeutic Targets Database");
+		addDatabaseNameRule(new IdRule(BindingDbId.class), "bindingDb");
+		addDatabaseNameRule(new IdRule(ChemSpiderId.class), "chemSpider");
+		addDatabaseNameRule(new IdRule(DrugsProductDatabaseID.class), "dpd");
+		addDatabaseNameRule(new IdRule(DailyMedId.class), "DailyMed", "FDA Drug Label at DailyMed");
+		addDatabaseNameRule(new IdRule(PdbLigandId.class), "HET");
+		addDatabaseNameRule(new IdRule(IupharLigandId.class), "iupharLigand", "IUPHAR Ligand");
+		addDatabaseNameRule(new IdRule(NationalDrugCodeDirectoryId.class), "ndc");
+		addDatabaseNameRule(new IdRule(VectorBaseID.class), "VectorBase");
+		addDatabaseNameRule(new IdRule(PdbID.class) {
+			@Override
+			IdentifierResult<? extends DataSourceIdentifier<?>> tryCreate(String id) {
+				if (id.length() == 3) {
+					return IdentifierPool.tryIntern(PdbLigandId.class, id);
+				}
+				return super.tryCreate(id);
+			}
+		}, "pdb");
+		addDatabaseNameRule(new IdRule(DrugsProductDatabaseID.class), "Drugs Product Database (DPD)", "DPD");
+		addDatabaseNameRule(new IdRule(DrugCodeDirectoryID.class), "National Drug Code Directory");
+		addDatabaseNameRule(new IdRule(WikipediaId.class) {
+			@Override
+			IdentifierResult<? extends DataSourceIdentifier<?>> tryCreate(String id) {
+				if (id.startsWith("http://en.wikipedia.org/wiki/")) {
+					return super.tryCreate(StringUtil.removePrefix(id, "http://en.wikipedia.org/wiki/"));
+				}
+				return null;
+			}
+		}, "url", "Web Resource");
+		addDatabaseNameRule(new IdRule(GenBankID.class), "GenBank", "GenBank Gene Database", "GenBank Protein Database");
+		addDatabaseNameRule(new IdRule(FlyBaseID.class), "FlyBase");
+
+		/*
+		 * The order in which prefix rules are added matters: if more than one rule matches an id,
+		 * the rule that was added first is used.
+		 */
+		addPrefixRule(new PrefixRule("MGI:", MgiGeneID.class, false) {
+			@Override
+			String getId(String idStr) {
+				if (idStr.startsWith("MGI:MGI:")) {
+					return StringUtil.removePrefix(idStr, "MGI:");
+				}
+				return idStr;
+			}
+		});
+		addPrefixRule("ncbi-geneid:", NcbiGeneId.class);
+		addPrefixRule(IREFWEB_ENTREZGENE_ID_PREFIX, NcbiGeneId.class);
+		addPrefixRule("Ensembl:", EnsemblGeneID.class);
+		addPrefixRule("refseq:", RefSeqID.class);
+		addPrefixRule(new PrefixRule("uniprot", UniProtID.class, false) {
+			@Override
+			boolean matches(String idStr) {
+				return StringUtil.startsWithRegex(idStr.toLowerCase(), "uniprot.*?:");
+			}
+
+			/*
+			 * invalid ids are reported without the prefix
+			 */
+			@Override
+			IdentifierResult<? extends DataSourceIdentifier<?>> tryResolve(String idStr) {
+				idStr = StringUtil.removePrefixRegex(idStr.toLowerCase(), "uniprot.*?:");
+				IdentifierResult<? extends DataSourceIdentifier<?>> result;
+				if (idStr.contains(StringConstants.HYPHEN_MINUS))
+					result = IdentifierPool.tryIntern(UniProtIsoformID.class, idStr.toUpperCase());
+				else
+					result = tryCreate(idStr.toUpperCase());
+				if (result.isValid()) {
+					return result;
+				}
+				return IdentifierResult.invalid(idStr, result.getErrorMessage());
+			}
+		});
+		addPrefixRule("Swiss-Prot:", UniProtID.class);
+		addPrefixRule("TREMBL:", UniProtID.class);
+		addPrefixRule("TAIR:", TairID.class);
+		addPrefixRule("MaizeGDB:", MaizeGdbID.class);
+		addPrefixRule("WormBase:", WormBaseID.class);
+		addPrefixRule("BEEBASE:", BeeBaseID.class);
+		addPrefixRule("NASONIABASE:", NasoniaBaseID.class);
+		addPrefixRule("VectorBase:", VectorBaseID.class);
+		addPrefixRule("APHIDBASE:", AphidBaseID.class);
+		addPrefixRule("BEETLEBASE:", BeetleBaseID.class);
+		addPrefixRule(new UpperCasePrefixRule("FLYBASE:", FlyBaseID.class));
+		addPrefixRule("ZFIN:", ZfinID.class);
+		addPrefixRule("AnimalQTLdb:", AnimalQtlDbID.class);
+		addPrefixRule("RGD:", RgdID.class);
+		addPrefixRule("PBR:", PbrID.class);
+		addPrefixRule("VBRC:", VbrcID.class);
+		addPrefixRule("Pathema:", PathemaID.class);
+		addPrefixRule("PseudoCap:", PseudoCapID.class);
+		addPrefixRule("ApiDB_CryptoDB:", ApiDbCryptoDbID.class);
+		addPrefixRule("dictyBase:", DictyBaseID.class);
+		addPrefixRule("UniProtKB/Swiss-Prot:", UniProtID.class);
+		addPrefixRule("InterPro:", InterProID.class);
+		addPrefixRule("EcoGene:", EcoGeneID.class);
+		addPrefixRule(new UpperCasePrefixRule("ECOCYC:", EcoCycID.class));
+		addPrefixRule("SGD:", SgdID.class);
+		addPrefixRule("RATMAP:", RatMapID.class);
+		addPrefixRule("Xenbase:", XenBaseID.class);
+		addPrefixRule("CGNC:", CgncID.class);
+		addPrefixRule(new PrefixRule("HGNC:", HgncID.class, false) {
+			@Override
+			String getId(String idStr) {
+				if (idStr.startsWith("HGNC:HGNC:")) {
+					return StringUtil.removePrefix(idStr, "HGNC:");
+				}
+				return idStr;
+			}
+		});
+		addPrefixRule("MIM:", OmimID.class);
+		addPrefixRule("HPRD:", HprdID.class);
+		addPrefixRule("IMGT/GENE-DB:", ImgtID.class);
+		addPrefixRule("PDB:", PdbID.class);
+		addPrefixRule(new LowerCasePrefixRule("gb:", GenBankID.class));
+		addPrefixRule("emb:", EmbID.class);
+		addPrefixRule("dbj:", DbjID.class);
+		addPrefixRule("intact:", IntActID.class);
+		addPrefixRule("RefSeq:", RefSeqID.class);
+		addPrefixRule("uniparc:", UniParcID.class);
+		addPrefixRule("genbank_protein_gi:", GiNumberID.class);
+		addPrefixRule(new LowerCasePrefixRule("pir:", PirID.class));
+		addPrefixRule("pubmed:", PubMedID.class);
+		addPrefixRule(new SuffixPrefixRule("dip:", "N", DipInteractorID.class));
+		addPrefixRule(new SuffixPrefixRule("dip:", "E", DipInteractionID.class));
+		addPrefixRule("TIGR:", TigrFamsID.class);
+		addPrefixRule("ipi:", IpiID.class);
+		addPrefixRule("mint:", MintID.class);
+		addPrefixRule("Reactome:", ReactomeReactionID.class);
+		addPrefixRule("miRBase:", MiRBaseID.class);
+		addPrefixRule(new PrefixRule("PR:", ProteinOntologyId.class, false));
+		addPrefixRule(new PrefixRule("SO:", SequenceOntologyId.class, false));
+		addPrefixRule(new PrefixRule("GO:", GeneOntologyID.class, false));
+		addPrefixRule(new PrefixRule("CHEBI:", ChebiOntologyID.class, false));
+		addPrefixRule(new PrefixRule("MP:", MammalianPhenotypeID.class, false));
+		addPrefixRule(new PrefixRule("MOD:", PsiModId.class, false));
+		addPrefixRule(new PrefixRule("KEGG_", KeggGeneID.class, false));
+		addPrefixRule(new PrefixRule("KEGG_PATHWAY", KeggPathwayID.class, false));
+		addPrefixRule("EG_", NcbiGeneId.class);
+		addPrefixRule("HOMOLOGENE_GROUP_", HomologeneGroupID.class);
+		addPrefixRule(new RegexPrefixRule("IPR", "IPR\\d+", InterProID.class));
+		addPrefixRule(new RegexPrefixRule("rs", "rs\\d+", SnpRsId.class));
+		addPrefixRule(new PrefixRule("CL:", CellTypeOntologyID.class, false));
+		addPrefixRule("Vega:", VegaID.class);
+		addPrefixRule("NCBITaxon:", NcbiTaxonomyID.class);
+	}
+
 	public static DataSourceIdentifier<?> resolveId(DataSource dataSource, String databaseObjectID) {
+		return tryResolveId(dataSource, databaseObjectID).getIdentifier();
+	}
+
+	/**
+	 * Equivalent to {@link #resolveId(DataSource, String)}, except that an id that cannot be
+	 * resolved is reported by an invalid {@link IdentifierResult} rather than by an
+	 * {@link IllegalArgumentException}
+	 */
+	public static IdentifierResult<? extends DataSourceIdentifier<?>> tryResolveId(DataSource dataSource, String databaseObjectID) {
 		switch (dataSource) {
 		case CLINICAL_TRIALS_GOV:
-			return new ClinicalTrialsGovId(databaseObjectID);
+			return IdentifierPool.tryIntern(ClinicalTrialsGovId.class, databaseObjectID);
 		case DIP:
-			if (databaseObjectID.matches("DIP-\\d+N"))
-				return new DipInteractorID(databaseObjectID);
-			if (databaseObjectID.matches("DIP-\\d+E"))
-				return new DipInteractionID(databaseObjectID);
-			throw new IllegalArgumentException(String.format("Invalid DIP Interactor ID detected %s", databaseObjectID));
+			if (IdentifierValidators.isPrefixedNumber(databaseObjectID, "DIP-", 'N'))
+				return IdentifierPool.tryIntern(DipInteractorID.class, databaseObjectID);
+			if (IdentifierValidators.isPrefixedNumber(databaseObjectID, "DIP-", 'E'))
+				return IdentifierPool.tryIntern(DipInteractionID.class, databaseObjectID);
+			return IdentifierResult.invalid(databaseObjectID,
+					String.format("Invalid DIP Interactor ID detected %s", databaseObjectID));
 		case NCBI_GENE:
-			return new NcbiGeneId(databaseObjectID);
+			return IdentifierPool.tryIntern(NcbiGeneId.class, databaseObjectID);
 		case EMBL:
-			return new EmblID(databaseObjectID);
+			return IdentifierPool.tryIntern(EmblID.class, databaseObjectID);
 		case ISRCTN:
-			return new IsrctnId(databaseObjectID);
+			return IdentifierPool.tryIntern(IsrctnId.class, databaseObjectID);
 		case GDB:
-			return new GdbId(databaseObjectID);
+			return IdentifierPool.tryIntern(GdbId.class, databaseObjectID);
 		case GENBANK:
-			return new GenBankID(databaseObjectID);
+			return IdentifierPool.tryIntern(GenBankID.class, databaseObjectID);
 		case GEO:
-			return new GeoId(databaseObjectID);
+			return IdentifierPool.tryIntern(GeoId.class, databaseObjectID);
 		case MGI:
-			return new MgiGeneID(databaseObjectID);
+			return IdentifierPool.tryIntern(MgiGeneID.class, databaseObjectID);
 		case PHARMGKB:
-			return new PharmGkbGenericId(databaseObjectID);
+			return IdentifierPool.tryIntern(PharmGkbGenericId.class, databaseObjectID);
 		case PR:
-			return new ProteinOntologyId(databaseObjectID);
+			return IdentifierPool.tryIntern(ProteinOntologyId.class, databaseObjectID);
 		case PUBCHEM_SUBSTANCE:
-			return new PubChemSubstanceId(databaseObjectID);
+			return IdentifierPool.tryIntern(PubChemSubstanceId.class, databaseObjectID);
 		case PUBCHEM_COMPOUND:
-			return new PubChemCompoundId(databaseObjectID);
+			return IdentifierPool.tryIntern(PubChemCompoundId.class, databaseObjectID);
 		case PUBCHEM_BIOASSAY:
-			return new PubChemBioAssayId(databaseObjectID);
+			return IdentifierPool.tryIntern(PubChemBioAssayId.class, databaseObjectID);
 		case HPRD:
-			return new HprdID(databaseObjectID);
+			return IdentifierPool.tryIntern(HprdID.class, databaseObjectID);
 		case HGNC:
-			return new HgncGeneSymbolID(databaseObjectID);
+			return IdentifierPool.tryIntern(HgncGeneSymbolID.class, databaseObjectID);
 		case OMIM:
-			return new OmimID(databaseObjectID);
+			return IdentifierPool.tryIntern(OmimID.class, databaseObjectID);
 		case PDB:
-			return new PdbID(databaseObjectID);
+			return IdentifierPool.tryIntern(PdbID.class, databaseObjectID);
 		case PIR:
-			return new PirID(databaseObjectID);
+			return IdentifierPool.tryIntern(PirID.class, databaseObjectID);
 		case REFSEQ:
-			return new RefSeqID(databaseObjectID);
+			return IdentifierPool.tryIntern(RefSeqID.class, databaseObjectID);
 		case RGD:
-			return new RgdID(databaseObjectID);
+			return IdentifierPool.tryIntern(RgdID.class, databaseObjectID);
 		case TRANSFAC:
-			return new TransfacGeneID(databaseObjectID);
+			return IdentifierPool.tryIntern(TransfacGeneID.class, databaseObjectID);
 		case UNIPROT:
 			if (databaseObjectID.contains(StringConstants.HYPHEN_MINUS))
-				return new UniProtIsoformID(databaseObjectID);
-			return new UniProtID(databaseObjectID);
+				return IdentifierPool.tryIntern(UniProtIsoformID.class, databaseObjectID);
+			return IdentifierPool.tryIntern(UniProtID.class, databaseObjectID);
 
 		default:
-			throw new IllegalArgumentException(String.format(
+			return IdentifierResult.invalid(databaseObjectID, String.format(
 					"Resolving the ID's for this DataSource are not yet implemented: %s.", dataSource.name()));
 		}
 
@@ -216,263 +416,49 @@ public class DataSourceIdResolver {
 	// TODO: remove this method and replace its use with resolveId(DataSource,
 	// String)
 	public static DataSourceIdentifier<?> resolveId(String databaseName, String databaseObjectID, String originalIdString) {
-		if (databaseName.equalsIgnoreCase("MGI"))
-			return new MgiGeneID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("Chemical Abstracts Service"))
-			return new  ChemicalAbstractsServiceId(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("ClinicalTrials.gov"))
-			return new ClinicalTrialsGovId(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("RGD"))
-			return new RgdID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("UniProtKB"))
-			return new UniProtID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("chebi"))
-			return new ChebiOntologyID("CHEBI:" + databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("DIP"))
-			return new DipInteractorID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("drugbank") || databaseName.equalsIgnoreCase("DrugBank"))
-			return new DrugBankID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("keggdrug") || databaseName.equalsIgnoreCase("KEGG Drug"))
-			return new KeggDrugID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("keggcompound") || databaseName.equalsIgnoreCase("KEGG Compound"))
-			return new KeggCompoundID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("pubchemcompound") || databaseName.equalsIgnoreCase("PubChem Compound"))
-			return new PubChemCompoundId(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("pubchemsubstance") || databaseName.equalsIgnoreCase("PubChem Substance"))
-			return new PubChemSubstanceId(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("EG"))
-			return new NcbiGeneId(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("Ensembl"))
-			return new EnsemblGeneID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("EMBL"))
-			return new EmblID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("RefSeq"))
-			return new RefSeqID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("VEGA"))
-			return new VegaID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("NCBI-GI"))
-			return new GiNumberID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("NCBI-GeneID"))
-			return new NcbiGeneId(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("OMIM"))
-			return new OmimID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("HGNC"))
-			return new HgncID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("HPRD"))
-			return new HprdID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("UniProt"))
-			return new UniProtID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("PharmGKB"))
-			return new PharmGkbGenericId(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("TTD") || databaseName.equalsIgnoreCase("Therapeutic Targets Database"))
-			return new TherapeuticTargetsDatabaseId(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("bindingDb"))
-			return new BindingDbId(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("chemSpider"))
-			return new ChemSpiderId(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("dpd"))
-			return new DrugsProductDatabaseID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("DailyMed") || databaseName.equalsIgnoreCase("FDA Drug Label at DailyMed"))
-			return new DailyMedId(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("HET"))
-			return new PdbLigandId(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("iupharLigand") || databaseName.equalsIgnoreCase("IUPHAR Ligand"))
-			return new IupharLigandId(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("ndc"))
-			return new NationalDrugCodeDirectoryId(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("VectorBase"))
-			return new VectorBaseID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("pdb")) {
-			if (databaseObjectID.length() == 3) {
-				return new PdbLigandId(databaseObjectID);
-			}
-			return new PdbID(databaseObjectID);
-		} else if (databaseName.equalsIgnoreCase("Drugs Product Database (DPD)")
-				|| databaseName.equalsIgnoreCase("DPD"))
-			return new DrugsProductDatabaseID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("National Drug Code Directory"))
-			return new DrugCodeDirectoryID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("url") || databaseName.equalsIgnoreCase("Web Resource")) {
-			if (databaseObjectID.startsWith("http://en.wikipedia.org/wiki/")) {
-				return new WikipediaId(StringUtil.removePrefix(databaseObjectID, "http://en.wikipedia.org/wiki/"));
+		return tryResolveId(databaseName, databaseObjectID, originalIdString).getIdentifier();
+	}
+
+	/**
+	 * Equivalent to {@link #resolveId(String, String, String)}, except that an id that is rejected
+	 * by its identifier class is reported by an invalid {@link IdentifierResult} rather than by an
+	 * {@link IllegalArgumentException}
+	 */
+	public static IdentifierResult<? extends DataSourceIdentifier<?>> tryResolveId(String databaseName, String databaseObjectID,
+			String originalIdString) {
+		IdRule rule = DATABASE_NAME_RULES.get(foldCase(databaseName));
+		if (rule != null) {
+			IdentifierResult<? extends DataSourceIdentifier<?>> result = rule.tryCreate(databaseObjectID);
+			if (result != null) {
+				return result;
 			}
-		} else if (databaseName.equalsIgnoreCase("GenBank") || databaseName.equalsIgnoreCase("GenBank Gene Database")
-				|| databaseName.equalsIgnoreCase("GenBank Protein Database"))
-			return new GenBankID(databaseObjectID);
-		else if (databaseName.equalsIgnoreCase("FlyBase"))
-			return new FlyBaseID(databaseObjectID);
+		}
 
 		logger.warn("Unable to resolve data source identifier: datasource=" + databaseName + " id=" + databaseObjectID
 				+ ". Using UnknownDataSourceIdentifier.");
-		return new UnknownDataSourceIdentifier(originalIdString);
+		return IdentifierResult.valid(new UnknownDataSourceIdentifier(originalIdString));
 	}
 
 	/**
 	 * Resolve provided id to an instance of {@link DataSourceIdentifier}.
 	 * 
 	 * @param geneIDStr
-	 * @return if can be resolved, id instance; otherwise, null
+	 * @return if can be resolved, id instance; if the id is not in a known format, an
+	 *         {@link UnknownDataSourceIdentifier}; if the id is rejected by its identifier class, a
+	 *         {@link ProbableErrorDataSourceIdentifier}
 	 */
 	public static DataSourceIdentifier<?> resolveId(String geneIDStr) {
-		try {
-			if (geneIDStr.startsWith("MGI:")) {
-				if (geneIDStr.startsWith("MGI:MGI:")) {
-					return new MgiGeneID(StringUtil.removePrefix(geneIDStr, "MGI:")); 
-				}
-				return new MgiGeneID(geneIDStr);
-			} else if (geneIDStr.startsWith("ncbi-geneid:"))
-				return new NcbiGeneId(StringUtil.removePrefix(geneIDStr, "ncbi-geneid:"));
-			else if (geneIDStr.startsWith(IREFWEB_ENTREZGENE_ID_PREFIX))
-				return new NcbiGeneId(StringUtil.removePrefix(geneIDStr, IREFWEB_ENTREZGENE_ID_PREFIX));
-			else if (geneIDStr.startsWith("Ensembl:"))
-				return new EnsemblGeneID(StringUtil.removePrefix(geneIDStr, "Ensembl:"));
-			else if (geneIDStr.startsWith("refseq:"))
-				return new RefSeqID(StringUtil.removePrefix(geneIDStr, "refseq:"));
-			else if (StringUtil.startsWithRegex(geneIDStr.toLowerCase(), "uniprot.*?:")) {
-				geneIDStr = StringUtil.removePrefixRegex(geneIDStr.toLowerCase(), "uniprot.*?:");
-				if (geneIDStr.contains(StringConstants.HYPHEN_MINUS))
-					return new UniProtIsoformID(geneIDStr.toUpperCase());
-
-				return new UniProtID(geneIDStr.toUpperCase());
-			} else if (geneIDStr.startsWith("Swiss-Prot:"))
-				return new UniProtID(StringUtil.removePrefix(geneIDStr, "Swiss-Prot:"));
-			else if (geneIDStr.startsWith("TREMBL:"))
-				return new UniProtID(StringUtil.removePrefix(geneIDStr, "TREMBL:"));
-			else if (geneIDStr.startsWith("TAIR:"))
-				return new TairID(StringUtil.removePrefix(geneIDStr, "TAIR:"));
-			else if (geneIDStr.startsWith("MaizeGDB:"))
-				return new MaizeGdbID(StringUtil.removePrefix(geneIDStr, "MaizeGDB:"));
-			else if (geneIDStr.startsWith("WormBase:"))
-				return new WormBaseID(StringUtil.removePrefix(geneIDStr, "WormBase:"));
-			else if (geneIDStr.startsWith("BEEBASE:"))
-				return new BeeBaseID(StringUtil.removePrefix(geneIDStr, "BEEBASE:"));
-			else if (geneIDStr.startsWith("NASONIABASE:"))
-				return new NasoniaBaseID(StringUtil.removePrefix(geneIDStr, "NASONIABASE:"));
-			else if (geneIDStr.startsWith("VectorBase:"))
-				return new VectorBaseID(StringUtil.removePrefix(geneIDStr, "VectorBase:"));
-			else if (geneIDStr.startsWith("APHIDBASE:"))
-				return new AphidBaseID(StringUtil.removePrefix(geneIDStr, "APHIDBASE:"));
-			else if (geneIDStr.startsWith("BEETLEBASE:"))
-				return new BeetleBaseID(StringUtil.removePrefix(geneIDStr, "BEETLEBASE:"));
-			else if (geneIDStr.toUpperCase().startsWith("FLYBASE:"))
-				return new FlyBaseID(StringUtil.removePrefix(geneIDStr.toUpperCase(), "FLYBASE:"));
-			else if (geneIDStr.startsWith("ZFIN:"))
-				return new ZfinID(StringUtil.removePrefix(geneIDStr, "ZFIN:"));
-			else if (geneIDStr.startsWith("AnimalQTLdb:"))
-				return new AnimalQtlDbID(StringUtil.removePrefix(geneIDStr, "AnimalQTLdb:"));
-			else if (geneIDStr.startsWith("RGD:"))
-				return new RgdID(StringUtil.removePrefix(geneIDStr, "RGD:"));
-			else if (geneIDStr.startsWith("PBR:"))
-				return new PbrID(StringUtil.removePrefix(geneIDStr, "PBR:"));
-			else if (geneIDStr.startsWith("VBRC:"))
-				return new VbrcID(StringUtil.removePrefix(geneIDStr, "VBRC:"));
-			else if (geneIDStr.startsWith("Pathema:"))
-				return new PathemaID(StringUtil.removePrefix(geneIDStr, "Pathema:"));
-			else if (geneIDStr.startsWith("PseudoCap:"))
-				return new PseudoCapID(StringUtil.removePrefix(geneIDStr, "PseudoCap:"));
-			else if (geneIDStr.startsWith("ApiDB_CryptoDB:"))
-				return new ApiDbCryptoDbID(StringUtil.removePrefix(geneIDStr, "ApiDB_CryptoDB:"));
-			else if (geneIDStr.startsWith("dictyBase:"))
-				return new DictyBaseID(StringUtil.removePrefix(geneIDStr, "dictyBase:"));
-			else if (geneIDStr.startsWith("UniProtKB/Swiss-Prot:"))
-				return new UniProtID(StringUtil.removePrefix(geneIDStr, "UniProtKB/Swiss-Prot:"));
-			else if (geneIDStr.startsWith("InterPro:"))
-				return new InterProID(StringUtil.removePrefix(geneIDStr, "InterPro:"));
-			else if (geneIDStr.startsWith("EcoGene:"))
-				return new EcoGeneID(StringUtil.removePrefix(geneIDStr, "EcoGene:"));
-			else if (geneIDStr.toUpperCase().startsWith("ECOCYC:"))
-				return new EcoCycID(StringUtil.removePrefix(geneIDStr.toUpperCase(), "ECOCYC:"));
-			else if (geneIDStr.startsWith("SGD:"))
-				return new SgdID(StringUtil.removePrefix(geneIDStr, "SGD:"));
-			else if (geneIDStr.startsWith("RATMAP:"))
-				return new RatMapID(StringUtil.removePrefix(geneIDStr, "RATMAP:"));
-			else if (geneIDStr.startsWith("Xenbase:"))
-				return new XenBaseID(StringUtil.removePrefix(geneIDStr, "Xenbase:"));
-			else if (geneIDStr.startsWith("CGNC:"))
-				return new CgncID(StringUtil.removePrefix(geneIDStr, "CGNC:"));
-			else if (geneIDStr.startsWith("HGNC:")) {
-				if (geneIDStr.startsWith("HGNC:HGNC:")) {
-					return new HgncID(StringUtil.removePrefix(geneIDStr, "HGNC:")); 
-				}
-				return new HgncID(geneIDStr);
-			} else if (geneIDStr.startsWith("MIM:"))
-				return new OmimID(StringUtil.removePrefix(geneIDStr, "MIM:"));
-			else if (geneIDStr.startsWith("HPRD:"))
-				return new HprdID(StringUtil.removePrefix(geneIDStr, "HPRD:"));
-			else if (geneIDStr.startsWith("IMGT/GENE-DB:"))
-				return new ImgtID(StringUtil.removePrefix(geneIDStr, "IMGT/GENE-DB:"));
-			else if (geneIDStr.startsWith("PDB:"))
-				return new PdbID(StringUtil.removePrefix(geneIDStr, "PDB:"));
-			else if (geneIDStr.toLowerCase().startsWith("gb:"))
-				return new GenBankID(StringUtil.removePrefix(geneIDStr.toLowerCase(), "gb:").toUpperCase());
-			else if (geneIDStr.startsWith("emb:"))
-				return new EmbID(StringUtil.removePrefix(geneIDStr, "emb:"));
-			else if (geneIDStr.startsWith("dbj:"))
-				return new DbjID(StringUtil.removePrefix(geneIDStr, "dbj:"));
-			else if (geneIDStr.startsWith("intact:"))
-				return new IntActID(StringUtil.removePrefix(geneIDStr, "intact:"));
-			else if (geneIDStr.startsWith("RefSeq:"))
-				return new RefSeqID(StringUtil.removePrefix(geneIDStr, "RefSeq:"));
-			else if (geneIDStr.startsWith("uniparc:"))
-				return new UniParcID(StringUtil.removePrefix(geneIDStr, "uniparc:"));
-			else if (geneIDStr.startsWith("genbank_protein_gi:"))
-				return new GiNumberID(StringUtil.removePrefix(geneIDStr, "genbank_protein_gi:"));
-			else if (geneIDStr.toLowerCase().startsWith("pir:"))
-				return new PirID(StringUtil.removePrefix(geneIDStr.toLowerCase(), "pir:").toUpperCase());
-			else if (geneIDStr.startsWith("pubmed:"))
-				return new PubMedID(StringUtil.removePrefix(geneIDStr, "pubmed:"));
-			else if (geneIDStr.startsWith("dip:") && geneIDStr.endsWith("N"))
-				return new DipInteractorID(StringUtil.removePrefix(geneIDStr, "dip:"));
-			else if (geneIDStr.startsWith("dip:") && geneIDStr.endsWith("E"))
-				return new DipInteractionID(StringUtil.removePrefix(geneIDStr, "dip:"));
-			else if (geneIDStr.startsWith("TIGR:"))
-				return new TigrFamsID(StringUtil.removePrefix(geneIDStr, "TIGR:"));
-			else if (geneIDStr.startsWith("ipi:"))
-				return new IpiID(StringUtil.removePrefix(geneIDStr, "ipi:"));
-			else if (geneIDStr.startsWith("mint:"))
-				return new MintID(StringUtil.removePrefix(geneIDStr, "mint:"));
-			else if (geneIDStr.startsWith("Reactome:"))
-				return new ReactomeReactionID(StringUtil.removePrefix(geneIDStr, "Reactome:"));
-			else if (geneIDStr.startsWith("miRBase:"))
-				return new MiRBaseID(StringUtil.removePrefix(geneIDStr, "miRBase:"));
-			else if (geneIDStr.startsWith("PR:"))
-				return new ProteinOntologyId(geneIDStr);
-			else if (geneIDStr.startsWith("SO:"))
-				return new SequenceOntologyId(geneIDStr);
-			else if (geneIDStr.startsWith("GO:"))
-				return new GeneOntologyID(geneIDStr);
-			else if (geneIDStr.startsWith("CHEBI:"))
-				return new ChebiOntologyID(geneIDStr);
-			else if (geneIDStr.startsWith("MP:"))
-				return new MammalianPhenotypeID(geneIDStr);
-			else if (geneIDStr.startsWith("MOD:"))
-				return new PsiModId(geneIDStr);
-			else if (geneIDStr.startsWith("KEGG_"))
-				return new KeggGeneID(geneIDStr);
-			else if (geneIDStr.startsWith("KEGG_PATHWAY"))
-				return new KeggPathwayID(geneIDStr);
-			else if (geneIDStr.startsWith("EG_"))
-				return new NcbiGeneId(StringUtil.removePrefix(geneIDStr, "EG_"));
-			else if (geneIDStr.startsWith("HOMOLOGENE_GROUP_"))
-				return new HomologeneGroupID(StringUtil.removePrefix(geneIDStr, "HOMOLOGENE_GROUP_"));
-			else if (geneIDStr.matches("IPR\\d+"))
-				return new InterProID(geneIDStr);
-			else if (geneIDStr.matches("rs\\d+"))
-				return new SnpRsId(geneIDStr);
-			else if (geneIDStr.startsWith("CL:"))
-				return new CellTypeOntologyID(geneIDStr);
-			else if (geneIDStr.startsWith("Vega:"))
-				return new VegaID(StringUtil.removePrefix(geneIDStr, "Vega:"));
-			else if (geneIDStr.startsWith("NCBITaxon:"))
-				return new NcbiTaxonomyID(StringUtil.removePrefix(geneIDStr, "NCBITaxon:"));
-
-			logger.warn(String.format("Unhandled gene ID format: %s. Creating UnknownDataSourceIdentifier.", geneIDStr));
-			return new UnknownDataSourceIdentifier(geneIDStr);
-		} catch (IllegalArgumentException e) {
-			logger.warn("Invalid ID detected... " + e.getMessage());
-			return new ProbableErrorDataSourceIdentifier(geneIDStr, null, e.getMessage());
+		PrefixRule rule = PREFIX_RULES.find(geneIDStr);
+		if (rule != null) {
+			IdentifierResult<? extends DataSourceIdentifier<?>> result = rule.tryResolve(geneIDStr);
+			if (!result.isValid()) {
+				logger.warn("Invalid ID detected... " + result.getErrorMessage());
+			}
+			return result.getIdentifierOrProbableError(null);
 		}
 
+		logger.warn(String.format("Unhandled gene ID format: %s. Creating UnknownDataSourceIdentifier.", geneIDStr));
+		return new UnknownDataSourceIdentifier(geneIDStr);
 	}
 
 	/**
@@ -561,4 +547,238 @@ public class DataSourceIdResolver {
 		}
 		return databaseObjectIDs;
 	}
+
+	private static void addDatabaseNameRule(IdRule rule, String... databaseNames) {
+		for (String databaseName : databaseNames) {
+			String key = foldCase(databaseName);
+			if (!DATABASE_NAME_RULES.containsKey(key)) {
+				DATABASE_NAME_RULES.put(key, rule);
+			}
+		}
+	}
+
+	private static void addPrefixRule(String prefix, Class<? extends DataSourceIdentifier<?>> idClass) {
+		addPrefixRule(new PrefixRule(prefix, idClass, true));
+	}
+
+	private static void addPrefixRule(PrefixRule rule) {
+		PREFIX_RULES.add(rule);
+	}
+
+	/**
+	 * Folds a character so that two characters are folded to the same value if and only if they
+	 * are considered equal by {@link String#equalsIgnoreCase(String)}
+	 */
+	private static char foldCase(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	private static String foldCase(String s) {
+		char[] chars = new char[s.length()];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = foldCase(s.charAt(i));
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Creates identifiers of a single type. Subclasses override {@link #tryCreate(String)} when
+	 * the id needs to be modified first, or when the type depends on the id. Returns null if the id
+	 * cannot be resolved.
+	 */
+	private static class IdRule {
+		private final Class<? extends DataSourceIdentifier<?>> idClass;
+
+		IdRule(Class<? extends DataSourceIdentifier<?>> idClass) {
+			this.idClass = idClass;
+		}
+
+		IdentifierResult<? extends DataSourceIdentifier<?>> tryCreate(String id) {
+			return IdentifierPool.tryIntern(idClass, id);
+		}
+	}
+
+	/**
+	 * An {@link IdRule} that applies to ids starting with a given prefix. By default the prefix
+	 * match is case-sensitive; subclasses that override {@link #matches(String)} must only accept
+	 * ids that start with the prefix ignoring case, as the {@link PrefixRuleTrie} only considers
+	 * those rules.
+	 */
+	private static class PrefixRule extends IdRule {
+		protected final String prefix;
+		private final boolean removePrefix;
+		private int order;
+
+		PrefixRule(String prefix, Class<? extends DataSourceIdentifier<?>> idClass, boolean removePrefix) {
+			super(idClass);
+			this.prefix = prefix;
+			this.removePrefix = removePrefix;
+		}
+
+		boolean matches(String idStr) {
+			return idStr.startsWith(prefix);
+		}
+
+		/**
+		 * @return the id passed to the identifier constructor for a matching id
+		 */
+		String getId(String idStr) {
+			return removePrefix ? idStr.substring(prefix.length()) : idStr;
+		}
+
+		/**
+		 * @return the identifier for a matching id; if it is rejected, the complete id is reported
+		 *         as the invalid id
+		 */
+		IdentifierResult<? extends DataSourceIdentifier<?>> tryResolve(String idStr) {
+			IdentifierResult<? extends DataSourceIdentifier<?>> result = tryCreate(getId(idStr));
+			if (result.isValid()) {
+				return result;
+			}
+			return IdentifierResult.invalid(idStr, result.getErrorMessage());
+		}
+	}
+
+	/**
+	 * Matches the prefix regardless of case; the id is upper-cased before the prefix is removed
+	 */
+	private static class UpperCasePrefixRule extends PrefixRule {
+
+		UpperCasePrefixRule(String prefix, Class<? extends DataSourceIdentifier<?>> idClass) {
+			super(prefix, idClass, true);
+		}
+
+		@Override
+		boolean matches(String idStr) {
+			return idStr.toUpperCase().startsWith(prefix);
+		}
+
+		@Override
+		String getId(String idStr) {
+			return StringUtil.removePrefix(idStr.toUpperCase(), prefix);
+		}
+	}
+
+	/**
+	 * Matches the prefix regardless of case; the id is lower-cased before the prefix is removed and
+	 * the remainder is upper-cased
+	 */
+	private static class LowerCasePrefixRule extends PrefixRule {
+
+		LowerCasePrefixRule(String prefix, Class<? extends DataSourceIdentifier<?>> idClass) {
+			super(prefix, idClass, true);
+		}
+
+		@Override
+		boolean matches(String idStr) {
+			return idStr.toLowerCase().startsWith(prefix);
+		}
+
+		@Override
+		String getId(String idStr) {
+			return StringUtil.removePrefix(idStr.toLowerCase(), prefix).toUpperCase();
+		}
+	}
+
+	/**
+	 * Matches ids that start with the prefix and end with the suffix
+	 */
+	private static class SuffixPrefixRule extends PrefixRule {
+		private final String suffix;
+
+		SuffixPrefixRule(String prefix, String suffix, Class<? extends DataSourceIdentifier<?>> idClass) {
+			super(prefix, idClass, true);
+			this.suffix = suffix;
+		}
+
+		@Override
+		boolean matches(String idStr) {
+			return super.matches(idStr) && idStr.endsWith(suffix);
+		}
+	}
+
+	/**
+	 * Matches ids that match the regular expression in their entirety. The prefix is used only to
+	 * index the rule and is not removed.
+	 */
+	private static class RegexPrefixRule extends PrefixRule {
+		private final Pattern pattern;
+
+		RegexPrefixRule(String prefix, String regex, Class<? extends DataSourceIdentifier<?>> idClass) {
+			super(prefix, idClass, false);
+			this.pattern = Pattern.compile(regex);
+		}
+
+		@Override
+		boolean matches(String idStr) {
+			return pattern.matcher(idStr).matches();
+		}
+	}
+
+	/**
+	 * Indexes {@link PrefixRule}s by their case-folded prefixes. Looking up an id walks the trie
+	 * once along the characters of the id, so the cost depends on the length of the longest
+	 * matching prefix rather than on the number of rules.
+	 */
+	private static class PrefixRuleTrie {
+		private final Node root = new Node();
+		private int ruleCount = 0;
+
+		void add(PrefixRule rule) {
+			rule.order = ruleCount++;
+			Node node = root;
+			for (int i = 0; i < rule.prefix.length(); i++) {
+				node = node.getOrAddChild(foldCase(rule.prefix.charAt(i)));
+			}
+			node.rules = Arrays.copyOf(node.rules, node.rules.length + 1);
+			node.rules[node.rules.length - 1] = rule;
+		}
+
+		/**
+		 * @return the first-added rule that matches the id, or null if no rule matches
+		 */
+		PrefixRule find(String idStr) {
+			PrefixRule match = null;
+			Node node = root;
+			for (int i = 0; i < idStr.length(); i++) {
+				node = node.getChild(foldCase(idStr.charAt(i)));
+				if (node == null) {
+					break;
+				}
+				for (PrefixRule rule : node.rules) {
+					if ((match == null || rule.order < match.order) && rule.matches(idStr)) {
+						match = rule;
+					}
+				}
+			}
+			return match;
+		}
+
+		private static class Node {
+			private char[] keys = new char[0];
+			private Node[] children = new Node[0];
+			private PrefixRule[] rules = new PrefixRule[0];
+
+			Node getChild(char c) {
+				for (int i = 0; i < keys.length; i++) {
+					if (keys[i] == c) {
+						return children[i];
+					}
+				}
+				return null;
+			}
+
+			Node getOrAddChild(char c) {
+				Node child = getChild(c);
+				if (child == null) {
+					child = new Node();
+					keys = Arrays.copyOf(keys, keys.length + 1);
+					keys[keys.length - 1] = c;
+					children = Arrays.copyOf(children, children.length + 1);
+					children[children.length - 1] = child;
+				}
+				return child;
+			}
+		}
+	}
 }
@@ -64,6 +64,20 @@ public abstract class DataSourceIdentifier<T> {
 		this(resourceId, ds, null);
 	}
 
+	/**
+	 * Constructor for subclasses that hold the identifier in their own representation and
+	 * override {@link #getId()}, e.g. {@link IntegerDataSourceIdentifier}. The id field is left
+	 * null and the subclass is responsible for validating its identifier.
+	 * 
+	 * @param ds
+	 * @param version
+	 */
+	protected DataSourceIdentifier(DataSource ds, String version) {
+		this.id = null;
+		this.dataSource = ds;
+		this.version = version;
+	}
+
 	/**
 	 * Provides a means for checking the structure of a resource ID and
 	 * determining validity. For example, checking to make sure Entrez Gene IDs
@@ -45,5 +45,35 @@ public interface IdResolver {
 	public DataSourceIdentifier<?> resolveId(String idStr);
 	
 	public DataSourceIdentifier<?> resolveId(String db, String id, String originalIdString);
-		
+
+	/**
+	 * Equivalent to {@link #resolveId(String)}, except that it never throws an
+	 * {@link IllegalArgumentException} for an invalid id: where {@link #resolveId(String)} would
+	 * throw, an invalid {@link IdentifierResult} carrying the exception message is returned. The
+	 * default implementation catches the exception thrown by {@link #resolveId(String)}.
+	 * Implementations that can reject ids without throwing, e.g. using
+	 * {@link IdentifierPool#tryIntern(Class, String)}, should override this method and implement
+	 * {@link #resolveId(String)} as <code>tryResolveId(idStr).getIdentifier()</code>.
+	 */
+	public default IdentifierResult<? extends DataSourceIdentifier<?>> tryResolveId(String idStr) {
+		try {
+			return IdentifierResult.valid(resolveId(idStr));
+		} catch (IllegalArgumentException e) {
+			return IdentifierResult.invalid(idStr, String.valueOf(e.getMessage()));
+		}
+	}
+
+	/**
+	 * The non-throwing equivalent of {@link #resolveId(String, String, String)}; see
+	 * {@link #tryResolveId(String)}
+	 */
+	public default IdentifierResult<? extends DataSourceIdentifier<?>> tryResolveId(String db, String id,
+			String originalIdString) {
+		try {
+			return IdentifierResult.valid(resolveId(db, id, originalIdString));
+		} catch (IllegalArgumentException e) {
+			return IdentifierResult.invalid(id, String.valueOf(e.getMessage()));
+		}
+	}
+
 }
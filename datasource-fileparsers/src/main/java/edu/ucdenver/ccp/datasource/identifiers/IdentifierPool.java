@@ -0,0 +1,341 @@
+package edu.ucdenver.ccp.datasource.identifiers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * An opt-in flyweight pool for {@link DataSourceIdentifier} instances. Identifiers are immutable,
+ * so a single validated instance can be shared by every record that references the same id, e.g.
+ * the human {@link edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID} on every line
+ * of a human GAF file. Each identifier class has its own cache keyed by the raw id string passed to
+ * {@link #intern(Class, String)}; a cache that reaches the maximum size is cleared, so memory use
+ * stays bounded regardless of the number of distinct ids in the input.
+ * <p>
+ * Interning is disabled by default, in which case {@link #intern(Class, String)} simply invokes the
+ * identifier's String constructor. The constructor is called through a factory generated with
+ * {@link LambdaMetafactory}, i.e. the equivalent of <code>new idClass(idStr)</code>, rather than by
+ * reflection. Applications opt in to interning with {@link #setEnabled(boolean)}. Interned
+ * instances are equal to (and hash the same as) instances created directly, so enabling the pool
+ * never changes the behavior of code that compares identifiers with {@link Object#equals(Object)}.
+ * <p>
+ * {@link #tryIntern(Class, String)} reports invalid ids through an {@link IdentifierResult} instead
+ * of an exception. If the identifier class declares a
+ * <code>public static String getValidationError(String)</code> method, it is used to reject
+ * invalid ids without invoking the constructor; the method must return null if and only if the
+ * String constructor accepts the id, and otherwise the message of the exception the constructor
+ * would throw. For other classes the constructor is invoked and its exception is caught. The
+ * validation method is only called by {@link #tryIntern(Class, String)} (and, when interning is
+ * enabled, only when an id is not yet cached); {@link #intern(Class, String)} throws for an
+ * invalid id anyway, so it leaves validation to the constructor alone.
+ * 
+ * @author Center for Computational Pharmacology; ccpsupport@ucdenver.edu
+ * 
+ */
+public class IdentifierPool {
+
+	public static final int DEFAULT_MAX_SIZE_PER_TYPE = 100000;
+
+	private static final ConcurrentMap<Class<?>, TypePool<?>> typePools = new ConcurrentHashMap<Class<?>, TypePool<?>>();
+
+	private static volatile boolean enabled = false;
+	private static volatile int maxSizePerType = DEFAULT_MAX_SIZE_PER_TYPE;
+
+	/**
+	 * @param idClass
+	 *            the identifier class; must have a public constructor that takes a single String
+	 * @param idStr
+	 *            the raw identifier string as it appears in the input
+	 * @return a validated identifier equal to <code>new idClass(idStr)</code>. If interning is
+	 *         enabled, the same instance is returned for repeated calls with the same arguments
+	 *         (until the type's cache is cleared).
+	 * @throws IllegalArgumentException
+	 *             if the identifier constructor rejects the id string. Invalid ids are not cached.
+	 */
+	public static <I extends DataSourceIdentifier<?>> I intern(Class<I> idClass, String idStr) {
+		TypePool<I> pool = getTypePool(idClass);
+		if (!enabled || idStr == null) {
+			return pool.create(idStr);
+		}
+		return pool.intern(idStr, maxSizePerType);
+	}
+
+	/**
+	 * Equivalent to {@link #intern(Class, String)}, except that an id rejected by the identifier
+	 * class is reported by an invalid {@link IdentifierResult} rather than by an
+	 * {@link IllegalArgumentException}
+	 * 
+	 * @param idClass
+	 *            the identifier class; must have a public constructor that takes a single String
+	 * @param idStr
+	 *            the raw identifier string as it appears in the input
+	 */
+	public static <I extends DataSourceIdentifier<?>> IdentifierResult<I> tryIntern(Class<I> idClass, String idStr) {
+		TypePool<I> pool = getTypePool(idClass);
+		if (!enabled || idStr == null) {
+			return pool.tryCreate(idStr);
+		}
+		return pool.tryIntern(idStr, maxSizePerType);
+	}
+
+	/**
+	 * Enables or disables interning. Disabling the pool also discards all cached instances.
+	 */
+	public static void setEnabled(boolean enable) {
+		enabled = enable;
+		if (!enable) {
+			clear();
+		}
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @param maxSize
+	 *            the maximum number of instances cached for each identifier class
+	 */
+	public static void setMaxSizePerType(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Max size must be >= 1: " + maxSize);
+		}
+		maxSizePerType = maxSize;
+		clear();
+	}
+
+	public static int getMaxSizePerType() {
+		return maxSizePerType;
+	}
+
+	/**
+	 * @return the number of instances currently cached for the specified identifier class
+	 */
+	public static int size(Class<? extends DataSourceIdentifier<?>> idClass) {
+		TypePool<?> pool = typePools.get(idClass);
+		return (pool == null) ? 0 : pool.instances.size();
+	}
+
+	/**
+	 * Discards all cached instances
+	 */
+	public static void clear() {
+		for (TypePool<?> pool : typePools.values()) {
+			pool.instances.clear();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <I extends DataSourceIdentifier<?>> TypePool<I> getTypePool(Class<I> idClass) {
+		TypePool<I> pool = (TypePool<I>) typePools.get(idClass);
+		if (pool == null) {
+			pool = new TypePool<I>(idClass);
+			TypePool<I> existing = (TypePool<I>) typePools.putIfAbsent(idClass, pool);
+			if (existing != null) {
+				pool = existing;
+			}
+		}
+		return pool;
+	}
+
+	private IdentifierPool() {
+		// this class should not be instantiated
+	}
+
+	/**
+	 * The cache, String constructor and optional validation method for a single identifier class
+	 */
+	private static class TypePool<I extends DataSourceIdentifier<?>> {
+		private final Constructor<I> constructor;
+		/** invokes the String constructor directly, or null if it could not be generated */
+		private final Function<String, I> factory;
+		private final Method validationMethod;
+		private final ConcurrentMap<String, I> instances = new ConcurrentHashMap<String, I>();
+
+		TypePool(Class<I> idClass) {
+			if (ProbableErrorDataSourceIdentifier.class.isAssignableFrom(idClass)
+					|| UnknownDataSourceIdentifier.class.isAssignableFrom(idClass)) {
+				throw new IllegalArgumentException("Identifiers of type " + idClass.getName()
+						+ " record unresolved ids and cannot be pooled.");
+			}
+			try {
+				this.constructor = idClass.getConstructor(String.class);
+			} catch (NoSuchMethodException e) {
+				throw new IllegalArgumentException("Identifier class " + idClass.getName()
+						+ " cannot be pooled because it does not have a public String constructor.", e);
+			}
+			this.factory = getFactory(idClass);
+			this.validationMethod = getValidationMethod(idClass);
+		}
+
+		/**
+		 * @return a {@link Function} that invokes the String constructor of the identifier class
+		 *         directly, or null if one cannot be generated, in which case the constructor is
+		 *         invoked by reflection
+		 */
+		@SuppressWarnings("unchecked")
+		private static <I> Function<String, I> getFactory(Class<I> idClass) {
+			try {
+				MethodHandles.Lookup lookup = MethodHandles.lookup();
+				MethodHandle constructorHandle = lookup.findConstructor(idClass,
+						MethodType.methodType(void.class, String.class));
+				CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+						MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+						constructorHandle, MethodType.methodType(idClass, String.class));
+				return (Function<String, I>) callSite.getTarget().invoke();
+			} catch (Throwable t) {
+				return null;
+			}
+		}
+
+		/**
+		 * @return the <code>public static String getValidationError(String)</code> method declared
+		 *         by the identifier class, or null if it does not declare one. Inherited methods are
+		 *         ignored as a subclass may validate differently than its superclass.
+		 */
+		private static Method getValidationMethod(Class<?> idClass) {
+			try {
+				Method method = idClass.getDeclaredMethod("getValidationError", String.class);
+				int modifiers = method.getModifiers();
+				if (Modifier.isPublic(modifiers) && Modifier.isStatic(modifiers)
+						&& method.getReturnType().equals(String.class)) {
+					return method;
+				}
+			} catch (NoSuchMethodException e) {
+				// the class does not provide a validation method
+			}
+			return null;
+		}
+
+		I intern(String idStr, int maxSize) {
+			I id = instances.get(idStr);
+			if (id == null) {
+				id = cache(idStr, create(idStr), maxSize);
+			}
+			return id;
+		}
+
+		IdentifierResult<I> tryIntern(String idStr, int maxSize) {
+			I id = instances.get(idStr);
+			if (id == null) {
+				IdentifierResult<I> result = tryCreate(idStr);
+				if (!result.isValid()) {
+					return result;
+				}
+				id = cache(idStr, result.getIdentifier(), maxSize);
+			}
+			return IdentifierResult.valid(id);
+		}
+
+		/**
+		 * @return the instance cached for the id string, which is the input instance unless another
+		 *         thread cached one first
+		 */
+		private I cache(String idStr, I id, int maxSize) {
+			if (instances.size() >= maxSize) {
+				instances.clear();
+			}
+			I existing = instances.putIfAbsent(idStr, id);
+			return (existing == null) ? id : existing;
+		}
+
+		IdentifierResult<I> tryCreate(String idStr) {
+			if (validationMethod != null) {
+				String errorMessage = getValidationError(idStr);
+				if (errorMessage != null) {
+					return IdentifierResult.invalid(idStr, errorMessage);
+				}
+			}
+			try {
+				return IdentifierResult.valid(create(idStr));
+			} catch (IllegalArgumentException e) {
+				return IdentifierResult.invalid(idStr, e.getMessage());
+			}
+		}
+
+		/**
+		 * @return <code>new idClass(idStr)</code>
+		 * @throws IllegalArgumentException
+		 *             if the constructor rejects the id string
+		 */
+		I create(String idStr) {
+			if (factory != null) {
+				return factory.apply(idStr);
+			}
+			try {
+				return constructor.newInstance(idStr);
+			} catch (InvocationTargetException e) {
+				throw unwrap(e, idStr);
+			} catch (InstantiationException e) {
+				throw new IllegalStateException("Unable to create identifier of type "
+						+ constructor.getDeclaringClass().getName() + " for id: " + idStr, e);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("Unable to create identifier of type "
+						+ constructor.getDeclaringClass().getName() + " for id: " + idStr, e);
+			}
+		}
+
+		private String getValidationError(String idStr) {
+			try {
+				return (String) validationMethod.invoke(null, idStr);
+			} catch (InvocationTargetException e) {
+				throw unwrap(e, idStr);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("Unable to validate identifier of type "
+						+ constructor.getDeclaringClass().getName() + " for id: " + idStr, e);
+			}
+		}
+
+		private RuntimeException unwrap(InvocationTargetException e, String idStr) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				return (RuntimeException) cause;
+			}
+			return new IllegalStateException("Unable to create identifier of type "
+					+ constructor.getDeclaringClass().getName() + " for id: " + idStr, cause);
+		}
+	}
+
+}
@@ -0,0 +1,130 @@
+package edu.ucdenver.ccp.datasource.identifiers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+/**
+ * The outcome of creating or resolving an identifier without throwing an exception: either the
+ * identifier or the message of the {@link IllegalArgumentException} that the equivalent throwing
+ * method would have thrown. Avoiding the exception matters for inputs that contain many invalid
+ * ids, as constructing an exception captures a full stack trace.
+ * 
+ * @author Center for Computational Pharmacology; ccpsupport@ucdenver.edu
+ * 
+ */
+public final class IdentifierResult<I extends DataSourceIdentifier<?>> {
+
+	private final I identifier;
+	private final String invalidId;
+	private final String errorMessage;
+
+	private IdentifierResult(I identifier, String invalidId, String errorMessage) {
+		this.identifier = identifier;
+		this.invalidId = invalidId;
+		this.errorMessage = errorMessage;
+	}
+
+	/**
+	 * @param identifier
+	 *            the resolved identifier; may be null for resolvers that return null for ids that
+	 *            should be ignored
+	 */
+	public static <I extends DataSourceIdentifier<?>> IdentifierResult<I> valid(I identifier) {
+		return new IdentifierResult<I>(identifier, null, null);
+	}
+
+	/**
+	 * @param invalidId
+	 *            the id that was rejected
+	 * @param errorMessage
+	 *            a description of why the id was rejected
+	 */
+	public static <I extends DataSourceIdentifier<?>> IdentifierResult<I> invalid(String invalidId,
+			String errorMessage) {
+		if (errorMessage == null) {
+			throw new IllegalArgumentException("An invalid identifier result requires an error message.");
+		}
+		return new IdentifierResult<I>(null, invalidId, errorMessage);
+	}
+
+	public boolean isValid() {
+		return errorMessage == null;
+	}
+
+	/**
+	 * @return the identifier
+	 * @throws IllegalArgumentException
+	 *             with the error message if the result is invalid
+	 */
+	public I getIdentifier() throws IllegalArgumentException {
+		if (errorMessage != null) {
+			throw new IllegalArgumentException(errorMessage);
+		}
+		return identifier;
+	}
+
+	/**
+	 * @return the id that was rejected, or null if the result is valid
+	 */
+	public String getInvalidId() {
+		return invalidId;
+	}
+
+	/**
+	 * @return the description of why the id was rejected, or null if the result is valid
+	 */
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	/**
+	 * @param dataSourceStr
+	 *            the data source recorded for an invalid id; may be null
+	 * @return the identifier if the result is valid, otherwise a
+	 *         {@link ProbableErrorDataSourceIdentifier} for the rejected id
+	 */
+	public DataSourceIdentifier<?> getIdentifierOrProbableError(String dataSourceStr) {
+		if (errorMessage == null) {
+			return identifier;
+		}
+		return new ProbableErrorDataSourceIdentifier(invalidId, dataSourceStr, errorMessage);
+	}
+
+	@Override
+	public String toString() {
+		if (errorMessage == null) {
+			return "IdentifierResult(" + identifier + ")";
+		}
+		return "IdentifierResult(invalidId=" + invalidId + ", errorMessage=" + errorMessage + ")";
+	}
+}
@@ -0,0 +1,252 @@
+package edu.ucdenver.ccp.datasource.identifiers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.util.regex.Pattern;
+
+import edu.ucdenver.ccp.common.string.RegExPatterns;
+
+/**
+ * Validators for identifier formats that are checked many times per input file. The hottest
+ * formats are checked by hand-written scanners; each scanner accepts exactly the strings matched
+ * by the regular expression given in its documentation. Note that, as in the regular expressions
+ * they replace, only the ASCII characters 0-9 are treated as digits.
+ * 
+ * @author Center for Computational Pharmacology; ccpsupport@ucdenver.edu
+ * 
+ */
+public class IdentifierValidators {
+
+	private static final Pattern HAS_NUMBERS_ONLY_PATTERN = Pattern.compile(RegExPatterns.HAS_NUMBERS_ONLY);
+
+	/**
+	 * @return true if the input matches {@link RegExPatterns#HAS_NUMBERS_ONLY}
+	 */
+	public static boolean hasNumbersOnly(String s) {
+		return HAS_NUMBERS_ONLY_PATTERN.matcher(s).matches();
+	}
+
+	/**
+	 * @return true if the portion of the input starting at <code>start</code> matches
+	 *         {@link RegExPatterns#HAS_NUMBERS_ONLY}
+	 */
+	public static boolean hasNumbersOnly(String s, int start) {
+		return HAS_NUMBERS_ONLY_PATTERN.matcher(s).region(start, s.length()).matches();
+	}
+
+	/**
+	 * @return true if the input matches <code>prefix\d+</code>, e.g. GO:0005515 for prefix "GO:"
+	 */
+	public static boolean isPrefixedNumber(String s, String prefix) {
+		return s.startsWith(prefix) && isDigits(s, prefix.length(), s.length());
+	}
+
+	/**
+	 * @return true if the input matches <code>prefix\d+suffix</code>, e.g. DIP-123N for prefix
+	 *         "DIP-" and suffix 'N'
+	 */
+	public static boolean isPrefixedNumber(String s, String prefix, char suffix) {
+		int end = s.length() - 1;
+		return end > prefix.length() && s.charAt(end) == suffix && s.startsWith(prefix)
+				&& isDigits(s, prefix.length(), end);
+	}
+
+	/**
+	 * See http://www.uniprot.org/manual/accession_numbers
+	 * 
+	 * @return true if the input matches
+	 *         <code>[OPQ][0-9][A-Z0-9]{3}[0-9]|[A-NR-Z][0-9]([A-Z][A-Z0-9]{2}[0-9]){1,2}</code>
+	 */
+	public static boolean isUniProtAccession(String s) {
+		int length = s.length();
+		if (length != 6 && length != 10) {
+			return false;
+		}
+		char first = s.charAt(0);
+		if (!isUpperCaseLetter(first) || !isDigit(s.charAt(1))) {
+			return false;
+		}
+		if (first == 'O' || first == 'P' || first == 'Q') {
+			return length == 6 && isUpperCaseLetterOrDigit(s.charAt(2)) && isUniProtBlockTail(s, 3);
+		}
+		return isUniProtBlock(s, 2) && (length == 6 || isUniProtBlock(s, 6));
+	}
+
+	/**
+	 * @return true if the four characters starting at <code>start</code> match
+	 *         <code>[A-Z][A-Z0-9]{2}[0-9]</code>
+	 */
+	private static boolean isUniProtBlock(String s, int start) {
+		return isUpperCaseLetter(s.charAt(start)) && isUniProtBlockTail(s, start + 1);
+	}
+
+	/**
+	 * @return true if the three characters starting at <code>start</code> match
+	 *         <code>[A-Z0-9]{2}[0-9]</code>
+	 */
+	private static boolean isUniProtBlockTail(String s, int start) {
+		return isUpperCaseLetterOrDigit(s.charAt(start)) && isUpperCaseLetterOrDigit(s.charAt(start + 1))
+				&& isDigit(s.charAt(start + 2));
+	}
+
+	/**
+	 * See http://www.ncbi.nlm.nih.gov/refseq/key.html#accessions
+	 * 
+	 * @return true if the input matches
+	 *         <code>((AC_)|(AP_)|(NC_)|(NG_)|(NM_)|(NP_)|(NR_)|(NT_)|(NW_)|(NZ_[A-Z]{1,6})|(XM_)|(XP_)|(XR_)|(YP_)|(ZP_)|(NS_)|(WP_))\d+</code>
+	 */
+	public static boolean isRefSeqAccession(String s) {
+		if (s.length() < 4 || s.charAt(2) != '_') {
+			return false;
+		}
+		char c0 = s.charAt(0);
+		char c1 = s.charAt(1);
+		int digitsStart = 3;
+		switch (c0) {
+		case 'A':
+			if (c1 != 'C' && c1 != 'P')
+				return false;
+			break;
+		case 'N':
+			if (c1 == 'Z') {
+				while (digitsStart < s.length() && isUpperCaseLetter(s.charAt(digitsStart))) {
+					digitsStart++;
+				}
+				int letterCount = digitsStart - 3;
+				if (letterCount < 1 || letterCount > 6)
+					return false;
+			} else if ("CGMPRTWS".indexOf(c1) < 0) {
+				return false;
+			}
+			break;
+		case 'X':
+			if (c1 != 'M' && c1 != 'P' && c1 != 'R')
+				return false;
+			break;
+		case 'Y':
+		case 'Z':
+		case 'W':
+			if (c1 != 'P')
+				return false;
+			break;
+		default:
+			return false;
+		}
+		return isDigits(s, digitsStart, s.length());
+	}
+
+	/**
+	 * @return true if the input matches <code>[A-Z][A-Z]_\d+\.?\d*</code>, the general form of a
+	 *         RefSeq accession with an optional version
+	 */
+	public static boolean isRefSeqStyleAccession(String s) {
+		int length = s.length();
+		if (length < 4 || !isUpperCaseLetter(s.charAt(0)) || !isUpperCaseLetter(s.charAt(1)) || s.charAt(2) != '_'
+				|| !isDigit(s.charAt(3))) {
+			return false;
+		}
+		int i = 4;
+		while (i < length && isDigit(s.charAt(i))) {
+			i++;
+		}
+		if (i < length && s.charAt(i) == '.') {
+			i++;
+		}
+		while (i < length && isDigit(s.charAt(i))) {
+			i++;
+		}
+		return i == length;
+	}
+
+	/**
+	 * @param typeCode
+	 *            G for genes, T for transcripts, P for proteins
+	 * @return true if the input matches <code>ENS[^\d]*typeCode\d+</code>, e.g. ENSG00000141510 or
+	 *         ENSMUSG00000059552
+	 */
+	public static boolean isEnsemblId(String s, char typeCode) {
+		if (!s.startsWith("ENS")) {
+			return false;
+		}
+		int firstDigit = 3;
+		while (firstDigit < s.length() && !isDigit(s.charAt(firstDigit))) {
+			firstDigit++;
+		}
+		return firstDigit > 3 && firstDigit < s.length() && s.charAt(firstDigit - 1) == typeCode
+				&& isDigits(s, firstDigit, s.length());
+	}
+
+	/**
+	 * @return the index of the version suffix (matching <code>\.\d+</code>) at the end of the
+	 *         input, or -1 if the input does not end with a version suffix
+	 */
+	public static int getVersionSuffixStart(String s) {
+		int dot = s.lastIndexOf('.');
+		if (dot >= 0 && isDigits(s, dot + 1, s.length())) {
+			return dot;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return true if the characters in [start, end) are all ASCII digits and there is at least one
+	 */
+	static boolean isDigits(String s, int start, int end) {
+		if (start >= end) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (!isDigit(s.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isUpperCaseLetter(char c) {
+		return c >= 'A' && c <= 'Z';
+	}
+
+	private static boolean isUpperCaseLetterOrDigit(char c) {
+		return isUpperCaseLetter(c) || isDigit(c);
+	}
+
+	private IdentifierValidators() {
+		// this class should not be instantiated
+	}
+}
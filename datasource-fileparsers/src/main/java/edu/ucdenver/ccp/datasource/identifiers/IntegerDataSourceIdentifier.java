@@ -33,21 +33,38 @@ package edu.ucdenver.ccp.datasource.identifiers;
  * #L%
  */
 
+
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
-import edu.ucdenver.ccp.common.string.StringUtil;
-
+/**
+ * Superclass for identifiers that are non-negative integers. The identifier is held as a primitive
+ * <code>int</code> rather than as a boxed {@link Integer}; {@link #getId()} boxes it on request.
+ * Integer identifiers are among the most numerous objects created while parsing, so this keeps
+ * the per-instance footprint down.
+ * 
+ * @author Center for Computational Pharmacology; ccpsupport@ucdenver.edu
+ * 
+ */
 public abstract class IntegerDataSourceIdentifier extends DataSourceIdentifier<Integer> {
 
+	private final int intId;
+
+	/* cached hash code; 0 until first computed */
+	private int hash;
+
 	public IntegerDataSourceIdentifier(Integer resourceID, DataSource ds) {
-		super(resourceID, ds);
+		super(ds, null);
+		this.intId = validate(resourceID);
 	}
 
 	public IntegerDataSourceIdentifier(String resourceID, DataSource ds) {
-		super(validate(resourceID), ds);
+		this(resourceID, Prefixes.NONE, ds);
 	}
-	
+
 	/**
 	 * Constructor that can handle String value that may start with one of provided prefixes
 	 * 
@@ -55,7 +72,32 @@ public abstract class IntegerDataSourceIdentifier extends DataSourceIdentifier<I
 	 * @param prefixes non-null prefixes
 	 */
 	public IntegerDataSourceIdentifier(String resourceID, Collection<String> prefixes, DataSource ds) {
-		super(validate(resourceID, prefixes), ds);
+		this(resourceID, new Prefixes(prefixes), ds);
+	}
+
+	/**
+	 * Constructor that can handle String value that may start with one of provided prefixes.
+	 * Subclasses should keep their {@link Prefixes} in a static field rather than creating one per
+	 * identifier.
+	 * 
+	 * @param resourceID value
+	 * @param prefixes non-null prefixes
+	 */
+	public IntegerDataSourceIdentifier(String resourceID, Prefixes prefixes, DataSource ds) {
+		super(ds, null);
+		this.intId = parse(resourceID, prefixes);
+	}
+
+	@Override
+	public Integer getId() {
+		return intId;
+	}
+
+	/**
+	 * @return the identifier without boxing it
+	 */
+	public int getIntId() {
+		return intId;
 	}
 
 	@Override
@@ -74,7 +116,7 @@ public abstract class IntegerDataSourceIdentifier extends DataSourceIdentifier<I
 	 * @throws IllegalArgumentException if resourceID isn't a non-negative integer.
 	 */
 	public static Integer validate(String resourceID) throws IllegalArgumentException {
-		return validate(resourceID, Collections.<String>emptyList());
+		return parse(resourceID, Prefixes.NONE);
 	}
 	
 	/**
@@ -87,44 +129,163 @@ public abstract class IntegerDataSourceIdentifier extends DataSourceIdentifier<I
 	 * @throws IllegalArgumentException 
 	 */
 	public static Integer validate(String resourceId, Collection<String> prefixes) throws IllegalArgumentException {
+		return parse(resourceId, new Prefixes(prefixes));
+	}
+
+	/**
+	 * @param resourceId
+	 * @param prefixes non-null valid prefixes
+	 * @return null if the input is a non-negative integer that may start with one of the provided
+	 *         prefixes, otherwise a description of why it is not
+	 */
+	public static String getValidationError(String resourceId, Prefixes prefixes) {
 		if (resourceId == null)
-			throw new IllegalArgumentException("Resource ID must be non-null.");
-		
-		String id = resourceId.toLowerCase().trim();
-		if (StringUtil.isNonNegativeInteger(id))
-			return new Integer(id);
-		
-		// check prefixes
-		String prefix = getPrefix(id, prefixes);
-		if (prefix != null) {
-			String numericResourceID = StringUtil.removePrefix(id.toLowerCase(), prefix);
-			if (StringUtil.isNonNegativeInteger(numericResourceID))
-				return new Integer(numericResourceID);
-		}
-		
-		throw new IllegalArgumentException(getInvalidGeneIDErrorMessage(id));
+			return "Resource ID must be non-null.";
+		if (parseNonNegativeInt(resourceId, prefixes) < 0)
+			return getInvalidGeneIDErrorMessage(resourceId.toLowerCase().trim());
+		return null;
+	}
+
+	private static int parse(String resourceId, Prefixes prefixes) throws IllegalArgumentException {
+		int value = resourceId == null ? -1 : parseNonNegativeInt(resourceId, prefixes);
+		if (value < 0)
+			throw new IllegalArgumentException(getValidationError(resourceId, prefixes));
+		return value;
 	}
 
 	/**
-	 * Determine with which prefix , if any, resourceID starts.
+	 * Parses the digits of a non-negative integer directly from the input, ignoring leading and
+	 * trailing whitespace and an optional prefix. Only the ASCII characters 0-9 are treated as
+	 * digits.
 	 * 
-	 * @param resourceID id to check
-	 * @param prefixes non-null prefixes
-	 * @return lower-cased prefix if found; otherwise, null.
+	 * @return the parsed value, or -1 if the input is not a non-negative integer or does not fit in
+	 *         an int
 	 */
-	private static String getPrefix(String resourceID, Collection<String> prefixes) {
-		String lowerResourceID = resourceID.toLowerCase();
-		
-		for (String prefix: prefixes) {
-			String lowerPrefix = prefix.toLowerCase().trim();
-			if (lowerPrefix.length() > 0 && lowerResourceID.startsWith(lowerPrefix))
-				return lowerPrefix;
+	static int parseNonNegativeInt(CharSequence resourceId, Prefixes prefixes) {
+		int start = 0;
+		int end = resourceId.length();
+		while (start < end && resourceId.charAt(start) <= ' ')
+			start++;
+		while (end > start && resourceId.charAt(end - 1) <= ' ')
+			end--;
+
+		int value = parseDigits(resourceId, start, end);
+		if (value < 0) {
+			int prefixLength = prefixes.match(resourceId, start, end);
+			if (prefixLength > 0)
+				value = parseDigits(resourceId, start + prefixLength, end);
 		}
-		
-		return null;
+		return value;
+	}
+
+	private static int parseDigits(CharSequence s, int start, int end) {
+		if (start == end)
+			return -1;
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			int digit = s.charAt(i) - '0';
+			if (digit < 0 || digit > 9 || value > (Integer.MAX_VALUE - digit) / 10)
+				return -1;
+			value = value * 10 + digit;
+		}
+		return value;
 	}
 
 	private static String getInvalidGeneIDErrorMessage(Object resourceID) {
 		return String.format("Invalid ID: %s. Must be a non-negative integer.", resourceID);
 	}
+
+	/*
+	 * equals() and hashCode() are consistent with the generated DataSourceIdentifier versions;
+	 * they only avoid boxing the id when comparing two integer identifiers and cache the hash
+	 * code.
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (o instanceof IntegerDataSourceIdentifier) {
+			IntegerDataSourceIdentifier other = (IntegerDataSourceIdentifier) o;
+			return intId == other.intId && getDataSource() == other.getDataSource()
+					&& (getVersion() == null ? other.getVersion() == null : getVersion().equals(other.getVersion()));
+		}
+		return super.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		int h = hash;
+		if (h == 0) {
+			h = super.hashCode();
+			hash = h;
+		}
+		return h;
+	}
+
+	/**
+	 * A precomputed set of identifier prefixes, e.g. "PMID:", that may precede the digits of an
+	 * identifier. Prefixes are matched ignoring case and are bucketed by their first character so
+	 * that an identifier is only compared with the prefixes it could start with. As with
+	 * {@link IntegerDataSourceIdentifier#validate(String, Collection)}, the first matching prefix in
+	 * the order given is used.
+	 */
+	public static final class Prefixes {
+
+		public static final Prefixes NONE = new Prefixes(Collections.<String> emptyList());
+
+		/* prefixes whose first character is not ASCII share the last bucket */
+		private static final int ASCII_BUCKETS = 128;
+
+		private final char[][][] table = new char[ASCII_BUCKETS + 1][][];
+
+		public Prefixes(String... prefixes) {
+			this(Arrays.asList(prefixes));
+		}
+
+		public Prefixes(Collection<String> prefixes) {
+			List<List<char[]>> buckets = new ArrayList<List<char[]>>(table.length);
+			for (int i = 0; i < table.length; i++)
+				buckets.add(null);
+			for (String prefix : prefixes) {
+				char[] lowerPrefix = prefix.trim().toCharArray();
+				if (lowerPrefix.length == 0)
+					continue;
+				for (int i = 0; i < lowerPrefix.length; i++)
+					lowerPrefix[i] = Character.toLowerCase(lowerPrefix[i]);
+				int bucket = bucket(lowerPrefix[0]);
+				if (buckets.get(bucket) == null)
+					buckets.set(bucket, new ArrayList<char[]>());
+				buckets.get(bucket).add(lowerPrefix);
+			}
+			for (int i = 0; i < table.length; i++)
+				if (buckets.get(i) != null)
+					table[i] = buckets.get(i).toArray(new char[buckets.get(i).size()][]);
+		}
+
+		private static int bucket(char lowerCaseChar) {
+			return lowerCaseChar < ASCII_BUCKETS ? lowerCaseChar : ASCII_BUCKETS;
+		}
+
+		/**
+		 * @return the length of the first prefix that the input starts with at <code>start</code>,
+		 *         or -1 if there is none
+		 */
+		int match(CharSequence s, int start, int end) {
+			if (start == end)
+				return -1;
+			char[][] candidates = table[bucket(Character.toLowerCase(s.charAt(start)))];
+			if (candidates != null)
+				for (char[] prefix : candidates)
+					if (startsWith(s, start, end, prefix))
+						return prefix.length;
+			return -1;
+		}
+
+		private static boolean startsWith(CharSequence s, int start, int end, char[] lowerPrefix) {
+			if (end - start < lowerPrefix.length)
+				return false;
+			for (int i = 0; i < lowerPrefix.length; i++)
+				if (Character.toLowerCase(s.charAt(start + i)) != lowerPrefix[i])
+					return false;
+			return true;
+		}
+	}
 }
@@ -117,10 +117,10 @@ public class NucleotideAccessionResolver {
 	
 	public static DataSourceIdentifier<String> resolveNucleotideAccession(String acc, String idWithPrefix) {
 		acc = acc.toUpperCase().trim();
-		if (acc.matches("[A-Z][A-Z]_\\d+\\.?\\d*")) {
+		if (IdentifierValidators.isRefSeqStyleAccession(acc)) {
 			return new RefSeqID(acc);
 		}
-		if (acc.matches("TI\\d{8}")) {
+		if (acc.length() == 10 && IdentifierValidators.isPrefixedNumber(acc, "TI")) {
 			return new NcbiTraceId(acc);
 		}
 		Matcher m = ACC_PATTERN.matcher(acc);
@@ -60,9 +60,6 @@ public class ProteinAccessionResolver {
 	private static final Logger logger = Logger.getLogger(ProteinAccessionResolver.class);
 
 	private static final Pattern ACC_PATTERN = Pattern.compile("([A-Z]{3})\\d+\\.?\\d*");
-	private static final String VALID_UNIPROT_PATTERN_1 = "[A-NR-Z][0-9][A-Z][A-Z0-9][A-Z0-9][0-9]";
-	private static final String VALID_UNIPROT_PATTERN_3 = "[A-NR-Z][0-9][A-Z][A-Z0-9][A-Z0-9][0-9][A-Z][A-Z0-9][A-Z0-9][0-9]";
-	private static final String VALID_UNIPROT_PATTERN_2 = "[OPQ][0-9][A-Z0-9][A-Z0-9][A-Z0-9][0-9]";
 
 	/**
 	 * @param acc
@@ -80,11 +77,10 @@ public class ProteinAccessionResolver {
 	
 	public static DataSourceIdentifier<String> resolveProteinAccession(String acc, String idWithPrefix) {
 		acc = acc.toUpperCase();
-		if (acc.matches("[A-Z][A-Z]_\\d+\\.?\\d*")) {
+		if (IdentifierValidators.isRefSeqStyleAccession(acc)) {
 			return new RefSeqID(acc);
 		}
-		if (acc.matches(VALID_UNIPROT_PATTERN_1) || acc.matches(VALID_UNIPROT_PATTERN_2)
-				|| acc.matches(VALID_UNIPROT_PATTERN_3)) {
+		if (IdentifierValidators.isUniProtAccession(acc)) {
 			return new UniProtID(acc);
 		}
 		Matcher m = ACC_PATTERN.matcher(acc);
@@ -41,10 +41,20 @@ public abstract class StringDataSourceIdentifier extends DataSourceIdentifier<St
 
 	@Override
 	public String validate(String resourceID) throws IllegalArgumentException {
+		String errorMessage = getValidationError(resourceID);
+		if (errorMessage != null)
+			throw new IllegalArgumentException(errorMessage);
+		return resourceID.trim();
+	}
+
+	/**
+	 * @return null if the input is neither null nor blank, otherwise a description of why it is
+	 *         invalid
+	 */
+	public static String getValidationError(String resourceID) {
 		if (resourceID != null && !resourceID.trim().isEmpty())
-			return resourceID.trim();
-		throw new IllegalArgumentException(String.format("Resource ID cannot be null (null=%b) or empty.",
-				resourceID == null));
+			return null;
+		return String.format("Resource ID cannot be null (null=%b) or empty.", resourceID == null);
 	}
 
 	@Override
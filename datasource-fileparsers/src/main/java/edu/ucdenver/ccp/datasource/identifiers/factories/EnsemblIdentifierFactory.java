@@ -35,6 +35,8 @@ package edu.ucdenver.ccp.datasource.identifiers.factories;
  */
 
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierResult;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EnsemblGeneID;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EnsemblProteinID;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EnsemblTranscriptID;
@@ -42,15 +44,23 @@ import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EnsemblTranscriptID;
 public class EnsemblIdentifierFactory {
 
 	public static DataSourceIdentifier<?> createEnsemblIdentifier(String id) {
-		if (id.matches("ENS[^\\d]*P\\d+")) {
-			return new EnsemblProteinID(id);
+		return tryCreateEnsemblIdentifier(id).getIdentifier();
+	}
+
+	/**
+	 * @return the Ensembl gene, transcript or protein identifier for the input, or an invalid
+	 *         result if the input is not in a known Ensembl identifier format
+	 */
+	public static IdentifierResult<? extends DataSourceIdentifier<?>> tryCreateEnsemblIdentifier(String id) {
+		if (IdentifierValidators.isEnsemblId(id, 'P')) {
+			return IdentifierResult.valid(new EnsemblProteinID(id));
 		}
-		if (id.matches("ENS[^\\d]*T\\d+")) {
-			return new EnsemblTranscriptID(id);
+		if (IdentifierValidators.isEnsemblId(id, 'T')) {
+			return IdentifierResult.valid(new EnsemblTranscriptID(id));
 		}
-		if (id.matches("ENS[^\\d]*G\\d+")) {
-			return new EnsemblGeneID(id);
+		if (IdentifierValidators.isEnsemblId(id, 'G')) {
+			return IdentifierResult.valid(new EnsemblGeneID(id));
 		}
-		throw new IllegalArgumentException("Unknown Ensembl identifier format: " + id);
+		return IdentifierResult.invalid(id, "Unknown Ensembl identifier format: " + id);
 	}
 }
@@ -46,5 +46,12 @@ public class CellTypeOntologyID extends StringDataSourceIdentifier {
 		super(resourceID,DataSource.CL);
 	}
 
+	/**
+	 * @return null if the input is neither null nor blank, otherwise a description of why it is
+	 *         invalid
+	 */
+	public static String getValidationError(String resourceID) {
+		return StringDataSourceIdentifier.getValidationError(resourceID);
+	}
 
 }
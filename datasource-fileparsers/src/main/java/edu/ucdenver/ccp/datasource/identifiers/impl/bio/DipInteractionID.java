@@ -37,6 +37,7 @@ import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 import edu.ucdenver.ccp.datasource.identifiers.InteractionID;
 
 /**
@@ -57,7 +58,7 @@ public class DipInteractionID extends InteractionID {
 	@Override
 	public String validate(String resourceID) throws IllegalArgumentException {
 		resourceID = super.validate(resourceID);
-		if (resourceID.matches("DIP-\\d+E"))
+		if (IdentifierValidators.isPrefixedNumber(resourceID, "DIP-", 'E'))
 			return resourceID;
 		throw new IllegalArgumentException(String.format("Invalid DIP Interaction ID detected %s", resourceID));
 	}
@@ -37,6 +37,7 @@ import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 import edu.ucdenver.ccp.datasource.identifiers.InteractorID;
 
 @Identifier(ontClass=CcpExtensionOntology.DIPINTERACTOR_IDENTIFIER)
@@ -49,7 +50,7 @@ public class DipInteractorID extends InteractorID {
 	@Override
 	public String validate(String resourceID) throws IllegalArgumentException {
 		resourceID = super.validate(resourceID);
-		if (resourceID.matches("DIP-\\d+N"))
+		if (IdentifierValidators.isPrefixedNumber(resourceID, "DIP-", 'N'))
 			return resourceID;
 		throw new IllegalArgumentException(String.format("Invalid DIP Interactor ID detected: %s", resourceID));
 	}
@@ -36,6 +36,8 @@ import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
  * #L%
  */
 
+import java.util.regex.Pattern;
+
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
@@ -43,13 +45,16 @@ import edu.ucdenver.ccp.datasource.identifiers.Identifier;
 @Identifier(ontClass=CcpExtensionOntology.DRUGBANK_IDENTIFIER)
 public class DrugBankID extends DataSourceIdentifier<String> {
 
+	private static final Pattern DRUGBANK_ID_PATTERN = Pattern
+			.compile("((DB)|(BIOD)|(BTD)|(APRD)|(NUTR)|(EXPT)|(BE)|(DBSALT)|(DBMET))\\d+");
+
 	public DrugBankID(String resourceID) {
 		super(resourceID, DataSource.DRUGBANK);
 	}
 
 	@Override
 	public String validate(String resourceID) throws IllegalArgumentException {
-		if (resourceID.matches("((DB)|(BIOD)|(BTD)|(APRD)|(NUTR)|(EXPT)|(BE)|(DBSALT)|(DBMET))\\d+")) {
+		if (DRUGBANK_ID_PATTERN.matcher(resourceID).matches()) {
 			return resourceID;
 		}
 		throw new IllegalArgumentException(String.format("Invalid DrugBank ID detected: %s", resourceID));
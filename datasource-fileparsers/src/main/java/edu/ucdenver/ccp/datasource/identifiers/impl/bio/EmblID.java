@@ -33,11 +33,11 @@ package edu.ucdenver.ccp.datasource.identifiers.impl.bio;
  * #L%
  */
 
-import edu.ucdenver.ccp.common.string.StringUtil;
 import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 
 @Identifier(ontClass=CcpExtensionOntology.EMBL_IDENTIFIER)
 public class EmblID extends DataSourceIdentifier<String> {
@@ -56,9 +56,9 @@ public class EmblID extends DataSourceIdentifier<String> {
 	 * @return
 	 */
 	private static String removeVersionIfPresent(String resourceID) {
-		String versionRegex = "\\.\\d+";
-		if (StringUtil.endsWithRegex(resourceID, versionRegex))
-			return StringUtil.removeSuffixRegex(resourceID, versionRegex);
+		int versionStart = IdentifierValidators.getVersionSuffixStart(resourceID);
+		if (versionStart >= 0)
+			return resourceID.substring(0, versionStart);
 		return resourceID;
 	}
 
@@ -69,4 +69,17 @@ public class EmblID extends DataSourceIdentifier<String> {
 		throw new IllegalArgumentException(String.format("Invalid Embl ID detected: %s", resourceID));
 	}
 
+	/**
+	 * @return null if the input is non-empty once a version suffix is removed, otherwise a
+	 *         description of why it is invalid
+	 */
+	public static String getValidationError(String resourceID) {
+		if (resourceID != null) {
+			resourceID = removeVersionIfPresent(resourceID);
+			if (!resourceID.isEmpty())
+				return null;
+		}
+		return String.format("Invalid Embl ID detected: %s", resourceID);
+	}
+
 }
@@ -38,6 +38,7 @@ import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 
 @Identifier(ontClass=CcpExtensionOntology.ENSEMBL_GENE_IDENTIFIER)
 public class EnsemblGeneID  extends DataSourceIdentifier<String>{
@@ -48,11 +49,22 @@ public class EnsemblGeneID  extends DataSourceIdentifier<String>{
 
 	@Override
 	public String validate(String ensemblID) throws IllegalArgumentException {
-		if (ensemblID.matches("ENS[^\\d]*G\\d+")) {
-			return ensemblID;
+		String errorMessage = getValidationError(ensemblID);
+		if (errorMessage != null) {
+			throw new IllegalArgumentException(errorMessage);
 		}
-		throw new IllegalArgumentException("Unexpected Ensembl Gene identifier format "
-				+ "(expected it to start with ENS..G and contain only numbers afterwards): " + ensemblID);
+		return ensemblID;
+	}
+
+	/**
+	 * @return null if the input is a valid Ensembl Gene ID, otherwise a description of why it is not
+	 */
+	public static String getValidationError(String ensemblID) {
+		if (IdentifierValidators.isEnsemblId(ensemblID, 'G')) {
+			return null;
+		}
+		return "Unexpected Ensembl Gene identifier format "
+				+ "(expected it to start with ENS..G and contain only numbers afterwards): " + ensemblID;
 	}
 	
 
@@ -38,6 +38,7 @@ import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 
 @Identifier(ontClass=CcpExtensionOntology.ENSEMBL_PROTEIN_IDENTIFIER)
 public class EnsemblProteinID  extends DataSourceIdentifier<String>{
@@ -48,11 +49,22 @@ public class EnsemblProteinID  extends DataSourceIdentifier<String>{
 
 	@Override
 	public String validate(String ensemblID) throws IllegalArgumentException {
-		if (ensemblID.matches("ENS[^\\d]*P\\d+")) {
-			return ensemblID;
+		String errorMessage = getValidationError(ensemblID);
+		if (errorMessage != null) {
+			throw new IllegalArgumentException(errorMessage);
 		}
-		throw new IllegalArgumentException("Unexpected Ensembl Protein identifier format "
-				+ "(expected it to start with ENS..P and contain only numbers afterwards): " + ensemblID);
+		return ensemblID;
+	}
+
+	/**
+	 * @return null if the input is a valid Ensembl Protein ID, otherwise a description of why it is not
+	 */
+	public static String getValidationError(String ensemblID) {
+		if (IdentifierValidators.isEnsemblId(ensemblID, 'P')) {
+			return null;
+		}
+		return "Unexpected Ensembl Protein identifier format "
+				+ "(expected it to start with ENS..P and contain only numbers afterwards): " + ensemblID;
 	}
 	
 
@@ -61,4 +61,15 @@ public class EnzymeCommissionID extends StringDataSourceIdentifier {
 			return validatedEcNumber;
 //		throw new IllegalArgumentException(String.format("Invalid EC number: %s", ecNumber));
 	}
+
+	/**
+	 * @return null if the input is non-null, otherwise a description of why it is invalid. EC
+	 *         numbers are not checked against a pattern, see {@link #validate(String)}.
+	 */
+	public static String getValidationError(String ecNumber) {
+		if (ecNumber != null)
+			return null;
+		return "EC number cannot be null.";
+	}
+
 }
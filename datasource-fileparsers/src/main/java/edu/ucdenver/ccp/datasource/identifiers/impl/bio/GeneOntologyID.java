@@ -37,6 +37,8 @@ import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
+import edu.ucdenver.ccp.datasource.identifiers.StringDataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.impl.ice.OntologyID;
 
 @Identifier(ontClass=CcpExtensionOntology.GENE_ONTOLOGY_CONCEPT_IDENTIFIER)
@@ -50,9 +52,22 @@ public class GeneOntologyID extends OntologyID {
 
 	@Override
 	public String validate(String resourceID) throws IllegalArgumentException {
-		resourceID = super.validate(resourceID);
-		if (resourceID.matches(String.format("%s\\d+", GENE_ONTOLOGY_ID_PREFIX)))
-			return resourceID;
-		throw new IllegalArgumentException(String.format("Invalid GO Ontology Term ID detected: %s", resourceID));
+		String errorMessage = getValidationError(resourceID);
+		if (errorMessage != null)
+			throw new IllegalArgumentException(errorMessage);
+		return resourceID.trim();
+	}
+
+	/**
+	 * @return null if the input is a GO: prefixed number, otherwise a description of why it is not
+	 */
+	public static String getValidationError(String resourceID) {
+		String errorMessage = StringDataSourceIdentifier.getValidationError(resourceID);
+		if (errorMessage != null)
+			return errorMessage;
+		resourceID = resourceID.trim();
+		if (IdentifierValidators.isPrefixedNumber(resourceID, GENE_ONTOLOGY_ID_PREFIX))
+			return null;
+		return String.format("Invalid GO Ontology Term ID detected: %s", resourceID);
 	}
 }
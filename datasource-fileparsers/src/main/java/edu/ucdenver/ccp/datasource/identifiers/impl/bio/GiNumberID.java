@@ -49,4 +49,13 @@ public class GiNumberID extends IntegerDataSourceIdentifier {
 	public GiNumberID(String resourceID) {
 		super(resourceID, DataSource.GENBANK);
 }
+
+	/**
+	 * @return null if the input is a non-negative integer, otherwise a description of why it is
+	 *         invalid
+	 */
+	public static String getValidationError(String resourceID) {
+		return getValidationError(resourceID, Prefixes.NONE);
+	}
+
 }
@@ -44,4 +44,14 @@ public class HAMAPId extends StringDataSourceIdentifier {
 		public HAMAPId(String id) {
 			super(id, DataSource.HAMAP);
 }
+	
+
+	/**
+	 * @return null if the input is neither null nor blank, otherwise a description of why it is
+	 *         invalid
+	 */
+	public static String getValidationError(String resourceID) {
+		return StringDataSourceIdentifier.getValidationError(resourceID);
 	}
+
+}
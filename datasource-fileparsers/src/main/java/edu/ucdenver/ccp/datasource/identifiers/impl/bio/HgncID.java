@@ -33,11 +33,11 @@ package edu.ucdenver.ccp.datasource.identifiers.impl.bio;
  * #L%
  */
 
-import edu.ucdenver.ccp.common.string.RegExPatterns;
 import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 
 @Identifier(ontClass = CcpExtensionOntology.HGNC_GENE_IDENTIFIER)
 public class HgncID extends DataSourceIdentifier<String> {
@@ -48,11 +48,24 @@ public class HgncID extends DataSourceIdentifier<String> {
 
 	@Override
 	public String validate(String geneID) throws IllegalArgumentException {
-		if (geneID != null && geneID.startsWith("HGNC:") && geneID.substring(5).matches(RegExPatterns.HAS_NUMBERS_ONLY))
+		String errorMessage = getValidationError(geneID);
+		if (errorMessage != null)
+			throw new IllegalArgumentException(errorMessage);
+		if (geneID.startsWith("HGNC:"))
 			return geneID;
-		if (geneID != null && geneID.matches(RegExPatterns.HAS_NUMBERS_ONLY))
-			return "HGNC:" + geneID;
-		throw new IllegalArgumentException(getInvalidGeneIDErrorMessage(geneID == null ? null : geneID));
+		return "HGNC:" + geneID;
+	}
+
+	/**
+	 * @return null if the input is a valid HGNC ID, with or without the HGNC: prefix, otherwise a
+	 *         description of why it is not
+	 */
+	public static String getValidationError(String geneID) {
+		if (geneID != null && geneID.startsWith("HGNC:") && IdentifierValidators.hasNumbersOnly(geneID, 5))
+			return null;
+		if (geneID != null && IdentifierValidators.hasNumbersOnly(geneID))
+			return null;
+		return getInvalidGeneIDErrorMessage(geneID);
 	}
 
 	private static String getInvalidGeneIDErrorMessage(String geneIDStr) {
@@ -33,17 +33,19 @@ package edu.ucdenver.ccp.datasource.identifiers.impl.bio;
  * #L%
  */
 
-import edu.ucdenver.ccp.common.string.RegExPatterns;
-import edu.ucdenver.ccp.common.string.StringUtil;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 
 @Identifier(ontClass=CcpExtensionOntology.HPRD_IDENTIFIER)
 public class HprdID extends DataSourceIdentifier<String> {
 
-	private static final String ID_PREFIX_REGEX = "HPRD_?:?";
+	private static final Pattern ID_PREFIX_PATTERN = Pattern.compile("HPRD_?:?");
 
 	public HprdID(String resourceID) {
 		super(resourceID, DataSource.HPRD);
@@ -53,10 +55,11 @@ public class HprdID extends DataSourceIdentifier<String> {
 	public String validate(String hprdID) throws IllegalArgumentException {
 		if (hprdID != null) {
 			String id = hprdID;
-			if (StringUtil.startsWithRegex(id, ID_PREFIX_REGEX)) {
-				return StringUtil.removePrefixRegex(id, ID_PREFIX_REGEX);
+			Matcher prefixMatcher = ID_PREFIX_PATTERN.matcher(id);
+			if (prefixMatcher.lookingAt()) {
+				return id.substring(prefixMatcher.end());
 			}
-			if (id.length() == 5 && id.matches(RegExPatterns.HAS_NUMBERS_ONLY)) {
+			if (id.length() == 5 && IdentifierValidators.hasNumbersOnly(id)) {
 				return id;
 			}
 		}
@@ -53,9 +53,19 @@ public class InterProID extends DataSourceIdentifier<String> {
 	 */
 	@Override
 	public String validate(String interProID) throws IllegalArgumentException {
+		String errorMessage = getValidationError(interProID);
+		if (errorMessage != null)
+			throw new IllegalArgumentException(errorMessage);
+		return interProID;
+	}
+
+	/**
+	 * @return null if the input is a valid InterPro ID, otherwise a description of why it is not
+	 */
+	public static String getValidationError(String interProID) {
 		if (interProID != null && interProID.startsWith("IPR") && NumberUtils.isDigits(interProID.substring(3)))
-			return interProID;
-		throw new IllegalArgumentException(String.format("Invalid InterPro ID detected: %s", interProID));
+			return null;
+		return String.format("Invalid InterPro ID detected: %s", interProID);
 	}
 
 }
@@ -46,4 +46,12 @@ public class MammalianPhenotypeID extends StringDataSourceIdentifier {
 		super(resourceID, DataSource.MP);
 	}
 
+	/**
+	 * @return null if the input is neither null nor blank, otherwise a description of why it is
+	 *         invalid
+	 */
+	public static String getValidationError(String resourceID) {
+		return StringDataSourceIdentifier.getValidationError(resourceID);
+	}
+
 }
@@ -33,11 +33,11 @@ package edu.ucdenver.ccp.datasource.identifiers.impl.bio;
  * #L%
  */
 
-import edu.ucdenver.ccp.common.string.RegExPatterns;
 import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 
 @Identifier(ontClass = CcpExtensionOntology.MGI_GENE_IDENTIFIER)
 public class MgiGeneID extends DataSourceIdentifier<String> {
@@ -48,11 +48,24 @@ public class MgiGeneID extends DataSourceIdentifier<String> {
 
 	@Override
 	public String validate(String mgiID) throws IllegalArgumentException {
-		if (mgiID != null && mgiID.startsWith("MGI:") && mgiID.substring(4).matches(RegExPatterns.HAS_NUMBERS_ONLY))
+		String errorMessage = getValidationError(mgiID);
+		if (errorMessage != null)
+			throw new IllegalArgumentException(errorMessage);
+		if (mgiID.startsWith("MGI:"))
 			return mgiID;
-		if (mgiID != null && mgiID.matches(RegExPatterns.HAS_NUMBERS_ONLY))
-			return "MGI:" + mgiID;
-		throw new IllegalArgumentException(String.format("Invalid MGI ID detected: %s", mgiID));
+		return "MGI:" + mgiID;
+	}
+
+	/**
+	 * @return null if the input is a valid MGI ID, with or without the MGI: prefix, otherwise a
+	 *         description of why it is not
+	 */
+	public static String getValidationError(String mgiID) {
+		if (mgiID != null && mgiID.startsWith("MGI:") && IdentifierValidators.hasNumbersOnly(mgiID, 4))
+			return null;
+		if (mgiID != null && IdentifierValidators.hasNumbersOnly(mgiID))
+			return null;
+		return String.format("Invalid MGI ID detected: %s", mgiID);
 	}
 
 }
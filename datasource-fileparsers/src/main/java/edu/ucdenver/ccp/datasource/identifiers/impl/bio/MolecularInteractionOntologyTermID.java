@@ -37,6 +37,7 @@ import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 import edu.ucdenver.ccp.datasource.identifiers.impl.ice.OntologyID;
 
 @Identifier(ontClass=CcpExtensionOntology.MOLECULAR_INTERACTION_ONTOLOGY_CONCEPT_IDENTIFIER)
@@ -53,7 +54,7 @@ public class MolecularInteractionOntologyTermID extends OntologyID {
 	@Override
 	public String validate(String resourceID) throws IllegalArgumentException {
 		resourceID = super.validate(resourceID);
-		if (resourceID.matches(MOLECULAR_INTERACTION_ONTOLOGY_ID_PREFIX + "\\d+"))
+		if (IdentifierValidators.isPrefixedNumber(resourceID, MOLECULAR_INTERACTION_ONTOLOGY_ID_PREFIX))
 			return resourceID;
 		throw new IllegalArgumentException(String.format("Invalid MI Ontology Term ID detected: %s", resourceID));
 	}
@@ -58,4 +58,11 @@ public class NcbiGeneId extends IntegerDataSourceIdentifier {
 		super(geneIDStr,DataSource.NCBI_GENE);
 	}
 
+	/**
+	 * @return null if the input is a valid NCBI Gene ID, otherwise a description of why it is not
+	 */
+	public static String getValidationError(String geneIDStr) {
+		return getValidationError(geneIDStr, Prefixes.NONE);
+	}
+
 }
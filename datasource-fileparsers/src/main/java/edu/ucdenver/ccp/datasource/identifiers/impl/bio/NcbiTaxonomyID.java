@@ -33,8 +33,6 @@ package edu.ucdenver.ccp.datasource.identifiers.impl.bio;
  * #L%
  */
 
-import java.util.Arrays;
-
 import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
@@ -43,6 +41,8 @@ import edu.ucdenver.ccp.datasource.identifiers.IntegerDataSourceIdentifier;
 @Identifier(ontClass=CcpExtensionOntology.NCBI_TAXONOMY_CONCEPT_IDENTIFIER)
 public class NcbiTaxonomyID extends IntegerDataSourceIdentifier {
 
+	private static final Prefixes PREFIXES = new Prefixes("TAXID:", "TAXON:");
+
 	public static final NcbiTaxonomyID ALL = new NcbiTaxonomyID(Integer.MAX_VALUE);
 	public static final NcbiTaxonomyID HOMO_SAPIENS = new NcbiTaxonomyID(9606);
 	public static final NcbiTaxonomyID HUMAN = new NcbiTaxonomyID(9606);
@@ -67,7 +67,15 @@ public class NcbiTaxonomyID extends IntegerDataSourceIdentifier {
 	}
 
 	public NcbiTaxonomyID(String taxonomyID) {
-		super(taxonomyID, Arrays.asList("TAXID:", "TAXON:"), DataSource.NCBI_TAXON);
+		super(taxonomyID, PREFIXES, DataSource.NCBI_TAXON);
+	}
+
+	/**
+	 * @return null if the input is a valid NCBI Taxonomy ID, otherwise a description of why it is
+	 *         not
+	 */
+	public static String getValidationError(String taxonomyID) {
+		return getValidationError(taxonomyID, PREFIXES);
 	}
 
 }
@@ -49,4 +49,13 @@ public class OmimID extends IntegerDataSourceIdentifier{
 	public OmimID(String resourceID) {
 		super(resourceID, DataSource.OMIM);
 }
+
+	/**
+	 * @return null if the input is a non-negative integer, otherwise a description of why it is
+	 *         invalid
+	 */
+	public static String getValidationError(String resourceID) {
+		return getValidationError(resourceID, Prefixes.NONE);
+	}
+
 }
@@ -35,6 +35,7 @@ import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
  * #L%
  */
 
+import java.util.regex.Pattern;
 
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
@@ -44,7 +45,7 @@ import edu.ucdenver.ccp.datasource.identifiers.Identifier;
 public class PharmGkbVariantLocationId extends DataSourceIdentifier<String> {
 
 	// e.g. chr17:41276046 (hg19)
-	private static final String PHARMGKB_CHROMOSOME_LOCATION_PATTERN = "chr.*?:\\d+ \\(hg\\d+\\)";
+	private static final Pattern PHARMGKB_CHROMOSOME_LOCATION_PATTERN = Pattern.compile("chr.*?:\\d+ \\(hg\\d+\\)");
 
 	public PharmGkbVariantLocationId(String resourceID) {
 		super(resourceID,DataSource.PHARMGKB);
@@ -52,7 +53,7 @@ public class PharmGkbVariantLocationId extends DataSourceIdentifier<String> {
 
 	@Override
 	public String validate(String resourceID) throws IllegalArgumentException {
-		if (resourceID != null && resourceID.matches(PHARMGKB_CHROMOSOME_LOCATION_PATTERN))
+		if (resourceID != null && PHARMGKB_CHROMOSOME_LOCATION_PATTERN.matcher(resourceID).matches())
 			return resourceID;
 		throw new IllegalArgumentException(String.format("Invalid PharmGKB variant location ID detected: %s", resourceID));
 	}
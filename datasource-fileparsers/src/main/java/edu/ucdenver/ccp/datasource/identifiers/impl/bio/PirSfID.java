@@ -33,10 +33,10 @@ package edu.ucdenver.ccp.datasource.identifiers.impl.bio;
  * #L%
  */
 
-import edu.ucdenver.ccp.common.string.RegExPatterns;
 import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 import edu.ucdenver.ccp.datasource.identifiers.StringDataSourceIdentifier;
 
 @Identifier(ontClass=CcpExtensionOntology.PIRSF_IDENTIFIER)
@@ -50,7 +50,7 @@ public class PirSfID extends StringDataSourceIdentifier {
 	public String validate(String resourceID) throws IllegalArgumentException {
 		resourceID = super.validate(resourceID);
 		if (resourceID.startsWith("PIRSF")
-				&& resourceID.substring("PIRSF".length()).matches(RegExPatterns.HAS_NUMBERS_ONLY))
+				&& IdentifierValidators.hasNumbersOnly(resourceID, "PIRSF".length()))
 			return resourceID;
 		throw new IllegalArgumentException(String.format("Invalid PIR ID detected: %s.", (resourceID)));
 
@@ -44,4 +44,14 @@ public class PomBaseId extends StringDataSourceIdentifier {
 		public PomBaseId(String id) {
 			super(id, DataSource.POMBASE);
 }
+	
+
+	/**
+	 * @return null if the input is neither null nor blank, otherwise a description of why it is
+	 *         invalid
+	 */
+	public static String getValidationError(String resourceID) {
+		return StringDataSourceIdentifier.getValidationError(resourceID);
 	}
+
+}
@@ -46,4 +46,12 @@ public class PubChemCompoundId extends StringDataSourceIdentifier {
 		super(resourceID, DataSource.PUBCHEM_COMPOUND);
 }
 
+	/**
+	 * @return null if the input is neither null nor blank, otherwise a description of why it is
+	 *         invalid
+	 */
+	public static String getValidationError(String resourceID) {
+		return StringDataSourceIdentifier.getValidationError(resourceID);
+	}
+
 }
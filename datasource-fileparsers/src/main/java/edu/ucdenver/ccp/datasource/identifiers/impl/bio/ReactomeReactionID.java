@@ -60,16 +60,33 @@ public class ReactomeReactionID
     public String validate(final String resourceID)
         throws IllegalArgumentException
     {
-        super.validate(resourceID);
+        String errorMessage = getValidationError(resourceID);
+        if (errorMessage != null) {
+            throw new IllegalArgumentException(errorMessage);
+        }
+
+        return resourceID;
+    }
+
+    /**
+     * @return null if the input is a Reactome stable identifier, otherwise a
+     *         description of why it is not
+     */
+    public static String getValidationError(String resourceID)
+    {
+        String errorMessage = StringDataSourceIdentifier.getValidationError(resourceID);
+        if (errorMessage != null) {
+            return errorMessage;
+        }
 
+        resourceID = resourceID.trim();
         if (! REACTOME_STABLE_ID.matcher(resourceID).matches()) {
-            throw new IllegalArgumentException(
-                String.format(
-                    "Detected invalid Reactome Reaction ID %s; expected an ID of the form: %s",
-                    resourceID,
-                    REACTOME_STABLE_ID.pattern()));
+            return String.format(
+                "Detected invalid Reactome Reaction ID %s; expected an ID of the form: %s",
+                resourceID,
+                REACTOME_STABLE_ID.pattern());
         }
 
-        return resourceID;
+        return null;
     }
 }
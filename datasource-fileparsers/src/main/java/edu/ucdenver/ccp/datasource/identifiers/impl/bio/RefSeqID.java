@@ -38,6 +38,7 @@ import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 
 @Identifier(ontClass=CcpExtensionOntology.REFSEQ_IDENTIFIER)
 public class RefSeqID extends DataSourceIdentifier<String> {
@@ -55,9 +56,9 @@ public class RefSeqID extends DataSourceIdentifier<String> {
 	 * @return
 	 */
 	private static String removeVersionIfPresent(String resourceID) {
-		String versionRegex = "\\.\\d+";
-		if (StringUtil.endsWithRegex(resourceID, versionRegex))
-			return StringUtil.removeSuffixRegex(resourceID, versionRegex);
+		int versionStart = IdentifierValidators.getVersionSuffixStart(resourceID);
+		if (versionStart >= 0)
+			return resourceID.substring(0, versionStart);
 		if (resourceID.endsWith(".")) // this was seen at least once in the HGNC data file
 			return StringUtil.removeLastCharacter(resourceID);
 		return resourceID;
@@ -68,10 +69,25 @@ public class RefSeqID extends DataSourceIdentifier<String> {
 	 */
 	@Override
 	public String validate(String refseqID) throws IllegalArgumentException {
-		String legalRefSeqRegex = "((AC_)|(AP_)|(NC_)|(NG_)|(NM_)|(NP_)|(NR_)|(NT_)|(NW_)|(NZ_[A-Z]{1,6})|(XM_)|(XP_)|(XR_)|(YP_)|(ZP_)|(NS_)|(WP_))\\d+";
-		if (refseqID.matches(legalRefSeqRegex))
+		if (IdentifierValidators.isRefSeqAccession(refseqID))
 			return refseqID;
-		throw new IllegalArgumentException("Illegal RefSeq identifier detected: " + refseqID);
+		throw new IllegalArgumentException(getInvalidRefSeqIDErrorMessage(refseqID));
+	}
+
+	/**
+	 * @param resourceID
+	 *            a RefSeq ID, optionally including a version
+	 * @return null if the input is a valid RefSeq ID, otherwise a description of why it is not
+	 */
+	public static String getValidationError(String resourceID) {
+		String refseqID = removeVersionIfPresent(resourceID);
+		if (IdentifierValidators.isRefSeqAccession(refseqID))
+			return null;
+		return getInvalidRefSeqIDErrorMessage(refseqID);
+	}
+
+	private static String getInvalidRefSeqIDErrorMessage(String refseqID) {
+		return "Illegal RefSeq identifier detected: " + refseqID;
 	}
 
 }
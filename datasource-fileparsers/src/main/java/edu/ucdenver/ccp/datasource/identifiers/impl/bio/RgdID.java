@@ -46,5 +46,12 @@ public class RgdID extends IntegerDataSourceIdentifier {
 		super(resourceID,DataSource.RGD);
 	}
 
+	/**
+	 * @return null if the input is a non-negative integer, otherwise a description of why it is
+	 *         invalid
+	 */
+	public static String getValidationError(String resourceID) {
+		return getValidationError(resourceID, Prefixes.NONE);
+	}
 
 }
@@ -52,4 +52,12 @@ public class RnaCentralId extends StringDataSourceIdentifier {
 		super(resourceID, DataSource.RNACENTRAL);
 }
 
+	/**
+	 * @return null if the input is neither null nor blank, otherwise a description of why it is
+	 *         invalid
+	 */
+	public static String getValidationError(String resourceID) {
+		return StringDataSourceIdentifier.getValidationError(resourceID);
+	}
+
 }
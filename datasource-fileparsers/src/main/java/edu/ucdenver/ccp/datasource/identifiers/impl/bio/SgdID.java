@@ -46,5 +46,12 @@ public class SgdID extends StringDataSourceIdentifier {
 		super(resourceID,DataSource.SGD);
 	}
 
+	/**
+	 * @return null if the input is neither null nor blank, otherwise a description of why it is
+	 *         invalid
+	 */
+	public static String getValidationError(String resourceID) {
+		return StringDataSourceIdentifier.getValidationError(resourceID);
+	}
 
 }
@@ -38,6 +38,7 @@ import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 
 /**
  * Reference SNP ID
@@ -57,9 +58,20 @@ public class SnpRsId extends DataSourceIdentifier<String> {
 	 */
 	@Override
 	public String validate(String snpId) throws IllegalArgumentException {
-		if (snpId != null && (snpId.matches("rs\\d+")))
-			return snpId;
-		throw new IllegalArgumentException(getInvalidGeneIDErrorMessage(snpId));
+		String errorMessage = getValidationError(snpId);
+		if (errorMessage != null)
+			throw new IllegalArgumentException(errorMessage);
+		return snpId;
+	}
+
+	/**
+	 * @return null if the input is a valid reference SNP ID, otherwise a description of why it is
+	 *         not
+	 */
+	public static String getValidationError(String snpId) {
+		if (snpId != null && IdentifierValidators.isPrefixedNumber(snpId, "rs"))
+			return null;
+		return getInvalidGeneIDErrorMessage(snpId);
 	}
 
 	private static String getInvalidGeneIDErrorMessage(String snpId) {
@@ -33,10 +33,10 @@ package edu.ucdenver.ccp.datasource.identifiers.impl.bio;
  * #L%
  */
 
-import edu.ucdenver.ccp.common.string.RegExPatterns;
 import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 import edu.ucdenver.ccp.datasource.identifiers.StringDataSourceIdentifier;
 
 @Identifier(ontClass=CcpExtensionOntology.TRANSFACGENE_IDENTIFIER)
@@ -49,7 +49,7 @@ public class TransfacGeneID extends StringDataSourceIdentifier {
 	@Override
 	public String validate(String resourceID) throws IllegalArgumentException {
 		resourceID = super.validate(resourceID);
-		if (resourceID.startsWith("G") && resourceID.substring(1).matches(RegExPatterns.HAS_NUMBERS_ONLY))
+		if (resourceID.startsWith("G") && IdentifierValidators.hasNumbersOnly(resourceID, 1))
 			return resourceID;
 		throw new IllegalArgumentException(String.format("Invalid Transfac Gene ID detected: %s", resourceID));
 
@@ -33,10 +33,10 @@ package edu.ucdenver.ccp.datasource.identifiers.impl.bio;
  * #L%
  */
 
-import edu.ucdenver.ccp.common.string.RegExPatterns;
 import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 import edu.ucdenver.ccp.datasource.identifiers.StringDataSourceIdentifier;
 
 @Identifier(ontClass=CcpExtensionOntology.TRANSFACMATRIX_IDENTIFIER)
@@ -50,7 +50,7 @@ public class TransfacMatrixID extends StringDataSourceIdentifier {
 	@Override
 	public String validate(String resourceID) throws IllegalArgumentException {
 		resourceID = super.validate(resourceID);
-		if (resourceID.startsWith("M") && resourceID.substring(1).matches(RegExPatterns.HAS_NUMBERS_ONLY))
+		if (resourceID.startsWith("M") && IdentifierValidators.hasNumbersOnly(resourceID, 1))
 			return resourceID;
 		throw new IllegalArgumentException(String.format("Invalid Transfac Matrix ID detected: %s", resourceID));
 	}
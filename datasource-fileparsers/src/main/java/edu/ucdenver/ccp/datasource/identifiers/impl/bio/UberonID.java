@@ -46,4 +46,12 @@ public class UberonID extends StringDataSourceIdentifier {
 		super(resourceID, DataSource.UBERON);
 }
 
+	/**
+	 * @return null if the input is neither null nor blank, otherwise a description of why it is
+	 *         invalid
+	 */
+	public static String getValidationError(String resourceID) {
+		return StringDataSourceIdentifier.getValidationError(resourceID);
+	}
+
 }
@@ -44,4 +44,14 @@ public class UniPathwayId extends StringDataSourceIdentifier {
 		public UniPathwayId(String id) {
 			super(id, DataSource.UNIPATHWAY);
 }
+	
+
+	/**
+	 * @return null if the input is neither null nor blank, otherwise a description of why it is
+	 *         invalid
+	 */
+	public static String getValidationError(String resourceID) {
+		return StringDataSourceIdentifier.getValidationError(resourceID);
 	}
+
+}
@@ -38,6 +38,7 @@ import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 
 @Identifier(ontClass = CcpExtensionOntology.UNIPROT_IDENTIFIER)
 public class UniProtID extends DataSourceIdentifier<String> {
@@ -51,14 +52,25 @@ public class UniProtID extends DataSourceIdentifier<String> {
 	 */
 	@Override
 	public String validate(String uniprotID) throws IllegalArgumentException {
-		String validUniProtFormatRegex = "[OPQ][0-9][A-Z0-9]{3}[0-9]|[A-NR-Z][0-9]([A-Z][A-Z0-9]{2}[0-9]){1,2}";
+		String errorMessage = getValidationError(uniprotID);
+		if (errorMessage != null) {
+			throw new IllegalArgumentException(errorMessage);
+		}
+		return uniprotID.toUpperCase().trim();
+	}
+
+	/**
+	 * @return null if the input is a valid UniProt accession, otherwise a description of why it is
+	 *         not
+	 */
+	public static String getValidationError(String uniprotID) {
 		if (uniprotID != null) {
 			uniprotID = uniprotID.toUpperCase().trim();
-			if (uniprotID.matches(validUniProtFormatRegex)) {
-				return uniprotID;
+			if (IdentifierValidators.isUniProtAccession(uniprotID)) {
+				return null;
 			}
 		}
-		throw new IllegalArgumentException(getInvalidGeneIDErrorMessage(uniprotID));
+		return getInvalidGeneIDErrorMessage(uniprotID);
 	}
 
 	private static String getInvalidGeneIDErrorMessage(String uniprotID) {
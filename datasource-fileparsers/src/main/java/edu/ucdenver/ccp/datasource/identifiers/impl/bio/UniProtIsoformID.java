@@ -51,23 +51,40 @@ public class UniProtIsoformID extends StringDataSourceIdentifier {
 	public String validate(String resourceID) throws IllegalArgumentException {
 		resourceID = super.validate(resourceID);
 		String[] toks = resourceID.split(StringConstants.HYPHEN_MINUS);
-		IllegalArgumentException invalidUniProtException = null;
+		String uniProtErrorMessage = null;
 		if (toks.length == 2) {
 			if (StringUtil.isNonNegativeInteger(toks[1]))
-				try {
-					new UniProtID(toks[0]);
-				} catch (IllegalArgumentException iae) {
-					invalidUniProtException = iae;
-				}
-			if (invalidUniProtException == null)
+				uniProtErrorMessage = UniProtID.getValidationError(toks[0]);
+			if (uniProtErrorMessage == null)
 				return resourceID;
 		}
-		String errorMessage = String.format("Invalid UniProt Isoform ID: %s. This ID must consist of a "
-				+ "valid UniProt ID followed by a hyphen and then an integer.", resourceID);
-		if (invalidUniProtException == null)
+		String errorMessage = getInvalidIsoformIDErrorMessage(resourceID);
+		if (uniProtErrorMessage == null)
 			throw new IllegalArgumentException(errorMessage);
-		throw new IllegalArgumentException(errorMessage, invalidUniProtException);
+		throw new IllegalArgumentException(errorMessage, new IllegalArgumentException(uniProtErrorMessage));
+	}
+
+	/**
+	 * @param resourceID
+	 *            the id as passed to the constructor, which trims it
+	 * @return null if the input is a valid UniProt isoform ID, otherwise a description of why it is
+	 *         not
+	 */
+	public static String getValidationError(String resourceID) {
+		resourceID = resourceID.trim();
+		String errorMessage = StringDataSourceIdentifier.getValidationError(resourceID);
+		if (errorMessage != null)
+			return errorMessage;
+		String[] toks = resourceID.split(StringConstants.HYPHEN_MINUS);
+		if (toks.length == 2
+				&& (!StringUtil.isNonNegativeInteger(toks[1]) || UniProtID.getValidationError(toks[0]) == null))
+			return null;
+		return getInvalidIsoformIDErrorMessage(resourceID);
+	}
 
+	private static String getInvalidIsoformIDErrorMessage(String resourceID) {
+		return String.format("Invalid UniProt Isoform ID: %s. This ID must consist of a "
+				+ "valid UniProt ID followed by a hyphen and then an integer.", resourceID);
 	}
 
 }
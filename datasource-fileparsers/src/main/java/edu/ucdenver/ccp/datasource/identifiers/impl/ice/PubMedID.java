@@ -33,8 +33,6 @@ package edu.ucdenver.ccp.datasource.identifiers.impl.ice;
  * #L%
  */
 
-import java.util.Arrays;
-
 import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
@@ -43,6 +41,8 @@ import edu.ucdenver.ccp.datasource.identifiers.IntegerDataSourceIdentifier;
 @Identifier(ontClass=CcpExtensionOntology.PUBMED_IDENTIFIER)
 public class PubMedID extends IntegerDataSourceIdentifier {
 
+	private static final Prefixes PREFIXES = new Prefixes("PMID:");
+
 	public PubMedID(Integer pubmedID) {
 		super(pubmedID, DataSource.PM);
 	}
@@ -53,7 +53,14 @@ public class PubMedID extends IntegerDataSourceIdentifier {
 	 * @param pubmedID
 	 */
 	public PubMedID(String pubmedID) {
-		super(pubmedID, Arrays.asList("PMID:"), DataSource.PM);
+		super(pubmedID, PREFIXES, DataSource.PM);
+	}
+
+	/**
+	 * @return null if the input is a valid PubMed ID, otherwise a description of why it is not
+	 */
+	public static String getValidationError(String pubmedID) {
+		return getValidationError(pubmedID, PREFIXES);
 	}
 
 }
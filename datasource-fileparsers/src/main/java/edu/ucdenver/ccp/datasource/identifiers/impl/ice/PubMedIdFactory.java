@@ -35,8 +35,8 @@ package edu.ucdenver.ccp.datasource.identifiers.impl.ice;
 
 import org.apache.log4j.Logger;
 
-import edu.ucdenver.ccp.common.string.RegExPatterns;
 import edu.ucdenver.ccp.common.string.StringUtil;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierValidators;
 
 /**
  * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
@@ -54,13 +54,13 @@ public class PubMedIdFactory {
 		if (id == null)
 			return null;
 		String normId = id.trim().toLowerCase();
-		if (normId.matches("pmid:-1") || normId.matches("pubmed:-1"))
+		if (normId.equals("pmid:-1") || normId.equals("pubmed:-1"))
 			return null;
-		if (normId.matches("pmid:\\d+"))
+		if (IdentifierValidators.isPrefixedNumber(normId, "pmid:"))
 			return new PubMedID(StringUtil.removePrefix(normId, "pmid:"));
-		if (normId.matches("pubmed:\\d+"))
+		if (IdentifierValidators.isPrefixedNumber(normId, "pubmed:"))
 			return new PubMedID(StringUtil.removePrefix(normId, "pubmed:"));
-		if (normId.matches(RegExPatterns.HAS_NUMBERS_ONLY))
+		if (IdentifierValidators.hasNumbersOnly(normId))
 			return new PubMedID(normId);
 		logger.warn("Unable to extract PubMed identifier from: " + id + ". Returning null.");
 		return null;
@@ -0,0 +1,212 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import edu.ucdenver.ccp.common.collections.CollectionsUtil;
+
+/**
+ * Tests for {@link DelimitedLineView}
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class DelimitedLineViewTest {
+
+	@Test
+	public void testColumns() {
+		DelimitedLineView view = new DelimitedLineView("9606\t1234\tABC", '\t');
+		assertEquals(3, view.columnCount());
+		assertEquals("9606", view.columnString(0));
+		assertEquals("1234", view.columnString(1));
+		assertEquals("ABC", view.columnString(2));
+		assertEquals("ABC", view.column(2).toString());
+		assertEquals(3, view.column(2).length());
+		assertEquals(10, view.columnStart(2));
+		assertEquals(13, view.columnEnd(2));
+	}
+
+	@Test
+	public void testEmptyTrailingColumns() {
+		String text = "a\tb\t\t";
+		/* String.split() drops the two trailing empty columns */
+		assertEquals(2, text.split("\\t").length);
+		DelimitedLineView view = new DelimitedLineView(text, '\t');
+		assertEquals(4, view.columnCount());
+		assertEquals(text.split("\\t", -1).length, view.columnCount());
+		assertTrue(view.isColumnEmpty(2));
+		assertTrue(view.isColumnEmpty(3));
+		assertEquals("", view.columnString(3));
+	}
+
+	@Test
+	public void testSplitColumnCount() {
+		for (String text : new String[] { "a\tb\tc", "a\tb\tc\t", "a\tb\t\t", "\ta\t\tb", "\t\t", "\t", "a",
+				"", "\ta" }) {
+			assertEquals(text.replace("\t", "[TAB]"), text.split("\\t").length,
+					new DelimitedLineView(text, '\t').splitColumnCount());
+		}
+	}
+
+	@Test
+	public void testEmptyLeadingAndInnerColumns() {
+		DelimitedLineView view = new DelimitedLineView("\ta\t\tb", '\t');
+		assertEquals(4, view.columnCount());
+		assertTrue(view.isColumnEmpty(0));
+		assertEquals("a", view.columnString(1));
+		assertTrue(view.isColumnEmpty(2));
+		assertEquals("b", view.columnString(3));
+	}
+
+	@Test
+	public void testEmptyLine() {
+		DelimitedLineView view = new DelimitedLineView("", '\t');
+		assertEquals(1, view.columnCount());
+		assertTrue(view.isColumnEmpty(0));
+		assertFalse(view.columnValues(0, '|').iterator().hasNext());
+	}
+
+	@Test
+	public void testColumnOutOfRange() {
+		DelimitedLineView view = new DelimitedLineView("a\tb", '\t');
+		try {
+			view.columnString(2);
+			fail("Expected IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+		try {
+			view.columnString(-1);
+			fail("Expected IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testReset() {
+		DelimitedLineView view = new DelimitedLineView('|');
+		StringBuilder sb = new StringBuilder("0");
+		for (int i = 1; i < 40; i++) {
+			sb.append("|" + i);
+		}
+		/* more columns than the initial capacity */
+		view.reset(sb.toString());
+		assertEquals(40, view.columnCount());
+		assertEquals(39, view.columnInt(39));
+		view.reset("x|y");
+		assertEquals(2, view.columnCount());
+		assertEquals("y", view.columnString(1));
+	}
+
+	@Test
+	public void testColumnEqualsAndBlank() {
+		DelimitedLineView view = new DelimitedLineView("-\t--\t  \tx", '\t');
+		assertTrue(view.columnEquals(0, "-"));
+		assertFalse(view.columnEquals(1, "-"));
+		assertFalse(view.columnEquals(3, "-"));
+		assertFalse(view.isColumnEmpty(2));
+		assertTrue(view.isColumnBlank(2));
+		assertFalse(view.isColumnBlank(3));
+	}
+
+	@Test
+	public void testColumnInt() {
+		DelimitedLineView view = new DelimitedLineView("9606,-42,+7,2147483647,-2147483648", ',');
+		assertEquals(9606, view.columnInt(0));
+		assertEquals(-42, view.columnInt(1));
+		assertEquals(7, view.columnInt(2));
+		assertEquals(Integer.MAX_VALUE, view.columnInt(3));
+		assertEquals(Integer.MIN_VALUE, view.columnInt(4));
+	}
+
+	@Test
+	public void testColumnIntInvalid() {
+		DelimitedLineView view = new DelimitedLineView(",-,12a,2147483648,taxon:9606", ',');
+		for (int i = 0; i < view.columnCount(); i++) {
+			try {
+				view.columnInt(i);
+				fail("Expected NumberFormatException for column " + i);
+			} catch (NumberFormatException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testColumnValues() {
+		DelimitedLineView view = new DelimitedLineView("1\tA|B|C\t-", '\t');
+		assertEquals(CollectionsUtil.createList("A", "B", "C"), toList(view.columnValues(1, '|')));
+		assertEquals(CollectionsUtil.createList("-"), toList(view.columnValues(2, '|')));
+		assertEquals(CollectionsUtil.createList("1"), toList(view.columnValues(0, '|')));
+	}
+
+	@Test
+	public void testColumnValuesSkipsEmptyValues() {
+		DelimitedLineView view = new DelimitedLineView("x\t|A||B|\ty", '\t');
+		assertEquals(CollectionsUtil.createList("A", "B"), toList(view.columnValues(1, '|')));
+	}
+
+	@Test
+	public void testColumnValuesMultipleDelimiters() {
+		DelimitedLineView view = new DelimitedLineView("GO:1\tPMID:1|GO_REF:2,PMID:3\tz", '\t');
+		assertEquals(CollectionsUtil.createList("PMID:1", "GO_REF:2", "PMID:3"),
+				toList(view.columnValues(1, "|,")));
+	}
+
+	@Test
+	public void testValues() {
+		assertEquals(CollectionsUtil.createList("P1", " P2", " "),
+				toList(DelimitedLineView.values("P1; P2; ", ";")));
+		assertFalse(DelimitedLineView.values("", ";").iterator().hasNext());
+	}
+
+	private static List<String> toList(Iterable<String> values) {
+		List<String> list = new ArrayList<String>();
+		for (String value : values) {
+			list.add(value);
+		}
+		return list;
+	}
+
+}
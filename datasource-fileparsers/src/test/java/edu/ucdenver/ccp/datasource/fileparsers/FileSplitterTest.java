@@ -0,0 +1,295 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import edu.ucdenver.ccp.common.collections.CollectionsUtil;
+import edu.ucdenver.ccp.common.file.CharacterEncoding;
+import edu.ucdenver.ccp.common.io.ClassPathUtil;
+import edu.ucdenver.ccp.common.test.DefaultTestCase;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.SparseUniProtDatFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.SparseUniProtFileRecord;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileParser;
+import edu.ucdenver.ccp.datasource.fileparsers.vectorbase.VectorBaseFastaFileRecord;
+import edu.ucdenver.ccp.datasource.fileparsers.vectorbase.VectorBaseFastaFileRecordReader;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
+
+/**
+ * Tests that concatenating the records read from each {@link FileSplit} yields the records of a
+ * single read of the entire file
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class FileSplitterTest extends DefaultTestCase {
+
+	private static final int MAX_SPLIT_COUNT = 16;
+
+	private File copyResource(Class<?> clazz, String resourceName) throws IOException {
+		File file = folder.newFile(resourceName);
+		ClassPathUtil.copyClasspathResourceToFile(clazz, resourceName, file);
+		return file;
+	}
+
+	/**
+	 * @return a description of the record that includes its byte offset and identifying fields
+	 */
+	private static String describe(FileRecord record) {
+		if (record instanceof SparseUniProtFileRecord) {
+			SparseUniProtFileRecord uniprotRecord = (SparseUniProtFileRecord) record;
+			return record.getByteOffset() + " " + uniprotRecord.getAccession() + " "
+					+ uniprotRecord.getDbReference().size();
+		}
+		if (record instanceof VectorBaseFastaFileRecord) {
+			VectorBaseFastaFileRecord fastaRecord = (VectorBaseFastaFileRecord) record;
+			return record.getByteOffset() + " " + fastaRecord.getSequenceId() + " " + fastaRecord.getSequence();
+		}
+		return record.getByteOffset() + " " + record.toString();
+	}
+
+	private static List<String> readAll(LineFileRecordReader<?> reader) throws IOException {
+		List<String> records = new ArrayList<String>();
+		try {
+			while (reader.hasNext()) {
+				records.add(describe(reader.next()));
+			}
+		} finally {
+			reader.close();
+		}
+		return records;
+	}
+
+	private static <R extends LineFileRecordReader<?>> void assertSplitsMatchFullRead(File dataFile,
+			RecordReaderFactory<R> readerFactory) throws IOException {
+		List<String> expectedRecords = readAll(readerFactory.newReader());
+		assertTrue(expectedRecords.size() > 1);
+		for (int splitCount = 1; splitCount <= MAX_SPLIT_COUNT; splitCount++) {
+			List<FileSplit> splits = FileSplitter.split(dataFile, readerFactory, splitCount);
+			assertEquals(splitCount, splits.size());
+			assertEquals(dataFile.length(), splits.get(splitCount - 1).getEndOffset());
+			List<String> records = new ArrayList<String>();
+			for (int i = 0; i < splits.size(); i++) {
+				if (i > 0) {
+					assertEquals(splits.get(i - 1).getEndOffset(), splits.get(i).getStartOffset());
+				}
+				records.addAll(readAll(FileSplitter.openSplit(readerFactory, splits.get(i))));
+			}
+			assertEquals("Split count: " + splitCount, expectedRecords, records);
+		}
+	}
+
+	@Test
+	public void testSplitSingleLineFile() throws IOException {
+		final File geneInfoFile = copyResource(NcbiGeneInfoFileParser.class, "EntrezGene_gene_info");
+		assertSplitsMatchFullRead(geneInfoFile, new RecordReaderFactory<NcbiGeneInfoFileParser>() {
+			@Override
+			public NcbiGeneInfoFileParser newReader() throws IOException {
+				return new NcbiGeneInfoFileParser(geneInfoFile, CharacterEncoding.US_ASCII);
+			}
+		});
+	}
+
+	@Test
+	public void testSplitSingleLineFile_CrLf() throws IOException {
+		File sampleFile = copyResource(NcbiGeneInfoFileParser.class, "EntrezGene_gene_info");
+		final File geneInfoFile = folder.newFile("gene_info_crlf");
+		List<String> lines = new ArrayList<String>();
+		for (String line : new String(read(sampleFile), "US-ASCII").split("\n")) {
+			lines.add(line);
+		}
+		/* the header followed by many copies of the sample records */
+		StringBuilder content = new StringBuilder(lines.get(0) + "\r\n");
+		for (int i = 0; i < 25; i++) {
+			for (String line : lines.subList(1, lines.size())) {
+				content.append(line + "\r\n");
+			}
+		}
+		OutputStream out = new FileOutputStream(geneInfoFile);
+		try {
+			out.write(content.toString().getBytes("US-ASCII"));
+		} finally {
+			out.close();
+		}
+		assertSplitsMatchFullRead(geneInfoFile, new RecordReaderFactory<NcbiGeneInfoFileParser>() {
+			@Override
+			public NcbiGeneInfoFileParser newReader() throws IOException {
+				return new NcbiGeneInfoFileParser(geneInfoFile, CharacterEncoding.US_ASCII);
+			}
+		});
+	}
+
+	/**
+	 * Most splits of the file start with a line for a taxon that is not of interest; those lines
+	 * must be skipped
+	 */
+	@Test
+	public void testSplitSingleLineFile_TaxonFilter() throws IOException {
+		File sampleFile = copyResource(NcbiGeneInfoFileParser.class, "EntrezGene_gene_info");
+		List<String> lines = new ArrayList<String>();
+		for (String line : new String(read(sampleFile), "US-ASCII").split("\n")) {
+			lines.add(line);
+		}
+		/* the header followed by many copies of the sample records (8 mouse, 1 human) */
+		StringBuilder content = new StringBuilder(lines.get(0) + "\n");
+		for (int i = 0; i < 25; i++) {
+			for (String line : lines.subList(1, lines.size())) {
+				content.append(line + "\n");
+			}
+		}
+		final File geneInfoFile = folder.newFile("gene_info_repeated");
+		write(geneInfoFile, content.toString());
+		for (final Set<NcbiTaxonomyID> taxonIds : CollectionsUtil.createList(
+				CollectionsUtil.createSet(new NcbiTaxonomyID(9606)),
+				CollectionsUtil.createSet(new NcbiTaxonomyID(10090)))) {
+			assertSplitsMatchFullRead(geneInfoFile, new RecordReaderFactory<NcbiGeneInfoFileParser>() {
+				@Override
+				public NcbiGeneInfoFileParser newReader() throws IOException {
+					return new NcbiGeneInfoFileParser(geneInfoFile, CharacterEncoding.US_ASCII, taxonIds);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Splits of the file that start with a record for a taxon that is not of interest must skip
+	 * that record
+	 */
+	@Test
+	public void testSplitMultiLineFile_TaxonFilter() throws IOException {
+		File sampleFile = copyResource(SparseUniProtDatFileRecordReader.class, "UniProt_uniprot_sprot.dat");
+		String sampleContent = new String(read(sampleFile), "US-ASCII");
+		/* many copies of the sample records (2 for taxon 345201, 1 for taxon 54321) */
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 10; i++) {
+			content.append(sampleContent);
+		}
+		final File uniprotFile = folder.newFile("uniprot_repeated.dat");
+		write(uniprotFile, content.toString());
+		for (final Set<NcbiTaxonomyID> taxonIds : CollectionsUtil.createList(
+				CollectionsUtil.createSet(new NcbiTaxonomyID(54321)),
+				CollectionsUtil.createSet(new NcbiTaxonomyID(345201)))) {
+			assertSplitsMatchFullRead(uniprotFile, new RecordReaderFactory<SparseUniProtDatFileRecordReader>() {
+				@Override
+				public SparseUniProtDatFileRecordReader newReader() throws IOException {
+					return new SparseUniProtDatFileRecordReader(uniprotFile, CharacterEncoding.US_ASCII, taxonIds);
+				}
+			});
+		}
+	}
+
+	@Test
+	public void testSplitRecordsTerminatedBySeparatorLine() throws IOException {
+		final File uniprotFile = copyResource(SparseUniProtDatFileRecordReader.class, "UniProt_uniprot_sprot.dat");
+		assertSplitsMatchFullRead(uniprotFile, new RecordReaderFactory<SparseUniProtDatFileRecordReader>() {
+			@Override
+			public SparseUniProtDatFileRecordReader newReader() throws IOException {
+				return new SparseUniProtDatFileRecordReader(uniprotFile, CharacterEncoding.US_ASCII, null);
+			}
+		});
+	}
+
+	@Test
+	public void testSplitFastaFile() throws IOException {
+		File gzippedFile = copyResource(VectorBaseFastaFileRecordReader.class, "sample_TRANSCRIPTS.fa.gz");
+		final File fastaFile = folder.newFile("sample_TRANSCRIPTS.fa");
+		OutputStream out = new FileOutputStream(fastaFile);
+		try {
+			out.write(read(new GZIPInputStream(new FileInputStream(gzippedFile))));
+		} finally {
+			out.close();
+		}
+		assertSplitsMatchFullRead(fastaFile, new RecordReaderFactory<VectorBaseFastaFileRecordReader>() {
+			@Override
+			public VectorBaseFastaFileRecordReader newReader() throws IOException {
+				return new VectorBaseFastaFileRecordReader(fastaFile, CharacterEncoding.US_ASCII);
+			}
+		});
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSplitCompressedFile() throws IOException {
+		final File gzippedFile = copyResource(VectorBaseFastaFileRecordReader.class, "sample_TRANSCRIPTS.fa.gz");
+		RecordReaderFactory<VectorBaseFastaFileRecordReader> readerFactory = new RecordReaderFactory<VectorBaseFastaFileRecordReader>() {
+			@Override
+			public VectorBaseFastaFileRecordReader newReader() throws IOException {
+				return new VectorBaseFastaFileRecordReader(gzippedFile, CharacterEncoding.US_ASCII);
+			}
+		};
+		FileSplitter.openSplits(gzippedFile, readerFactory, 2);
+	}
+
+	private static void write(File file, String content) throws IOException {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(content.getBytes("US-ASCII"));
+		} finally {
+			out.close();
+		}
+	}
+
+	private static byte[] read(File file) throws IOException {
+		return read(new FileInputStream(file));
+	}
+
+	private static byte[] read(InputStream is) throws IOException {
+		try {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int count;
+			while ((count = is.read(buffer)) != -1) {
+				baos.write(buffer, 0, count);
+			}
+			return baos.toByteArray();
+		} finally {
+			is.close();
+		}
+	}
+
+}
@@ -0,0 +1,177 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+import edu.ucdenver.ccp.common.file.CharacterEncoding;
+import edu.ucdenver.ccp.common.file.reader.Line;
+import edu.ucdenver.ccp.common.file.reader.StreamLineReader;
+import edu.ucdenver.ccp.common.io.ClassPathUtil;
+import edu.ucdenver.ccp.common.test.DefaultTestCase;
+import edu.ucdenver.ccp.datasource.fileparsers.phosphosite.PhosphositeFileParser;
+
+/**
+ * Tests that the {@link MappedFileLineReader} produces the same lines as the
+ * {@link StreamLineReader}
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class MappedFileLineReaderTest extends DefaultTestCase {
+
+	/**
+	 * small window sizes force lines (and CRLF terminators) to straddle window boundaries
+	 */
+	private static final int[] WINDOW_SIZES = { 2, 3, 5, 16, MappedFileLineReader.DEFAULT_WINDOW_SIZE };
+
+	@Test
+	public void testAsciiLf() throws IOException {
+		File file = writeFile("ascii.txt", "line 1\nline 2\n\nthe fourth line\n".getBytes("US-ASCII"));
+		assertSameLines(file, CharacterEncoding.US_ASCII, null);
+	}
+
+	@Test
+	public void testNoFinalTerminator() throws IOException {
+		File file = writeFile("noterminator.txt", "line 1\nline 2".getBytes("US-ASCII"));
+		assertSameLines(file, CharacterEncoding.US_ASCII, null);
+	}
+
+	@Test
+	public void testCrLf() throws IOException {
+		File file = writeFile("crlf.txt", "a\tb\r\n\r\nc\td\r\nlast\r\n".getBytes("US-ASCII"));
+		assertSameLines(file, CharacterEncoding.US_ASCII, null);
+	}
+
+	@Test
+	public void testCr() throws IOException {
+		File file = writeFile("cr.txt", "a\rb\r\rc\n\rd".getBytes("US-ASCII"));
+		assertSameLines(file, CharacterEncoding.US_ASCII, null);
+	}
+
+	@Test
+	public void testUtf8() throws IOException {
+		File file = writeFile("utf8.txt",
+				"D261–70\nnaïve café\r\n𝔸 supplementary\nascii\n".getBytes("UTF-8"));
+		assertSameLines(file, CharacterEncoding.UTF_8, null);
+	}
+
+	@Test
+	public void testIso88591() throws IOException {
+		File file = writeFile("latin1.txt", "Straße\tMüller\nété\n".getBytes("ISO-8859-1"));
+		assertSameLines(file, CharacterEncoding.ISO_8859_1, null);
+	}
+
+	@Test
+	public void testSkipLinePrefix() throws IOException {
+		File file = writeFile("comments.txt", "#header\nline 1\n#comment\nline 2\n".getBytes("US-ASCII"));
+		assertSameLines(file, CharacterEncoding.US_ASCII, "#");
+	}
+
+	@Test
+	public void testEmptyFile() throws IOException {
+		File file = writeFile("empty.txt", new byte[0]);
+		assertSameLines(file, CharacterEncoding.US_ASCII, null);
+	}
+
+	@Test
+	public void testPhosphositeFile() throws IOException {
+		File file = folder.newFile("acetylation_test.txt");
+		ClassPathUtil.copyClasspathResourceToFile(PhosphositeFileParser.class, "acetylation_test.txt", file);
+		assertSameLines(file, CharacterEncoding.ISO_8859_1, null);
+		assertSameLines(file, CharacterEncoding.UTF_8, null);
+	}
+
+	@Test
+	public void testSupports() throws IOException {
+		File file = writeFile("plain.txt", "line\n".getBytes("US-ASCII"));
+		assertTrue(MappedFileLineReader.supports(file, CharacterEncoding.US_ASCII));
+		assertTrue(MappedFileLineReader.supports(file, CharacterEncoding.UTF_8));
+		assertTrue(MappedFileLineReader.supports(file, CharacterEncoding.ISO_8859_1));
+
+		File gzFile = folder.newFile("plain.txt.gz");
+		OutputStream os = new GZIPOutputStream(new FileOutputStream(gzFile));
+		try {
+			os.write("line\n".getBytes("US-ASCII"));
+		} finally {
+			os.close();
+		}
+		assertFalse(MappedFileLineReader.supports(gzFile, CharacterEncoding.US_ASCII));
+	}
+
+	private File writeFile(String fileName, byte[] content) throws IOException {
+		File file = folder.newFile(fileName);
+		OutputStream os = new FileOutputStream(file);
+		try {
+			os.write(content);
+		} finally {
+			os.close();
+		}
+		return file;
+	}
+
+	private static void assertSameLines(File file, CharacterEncoding encoding, String skipLinePrefix)
+			throws IOException {
+		for (int windowSize : WINDOW_SIZES) {
+			StreamLineReader expectedReader = new StreamLineReader(file, encoding, skipLinePrefix);
+			MappedFileLineReader mappedReader = new MappedFileLineReader(file, encoding, skipLinePrefix, windowSize);
+			try {
+				Line expected;
+				while ((expected = expectedReader.readLine()) != null) {
+					Line actual = mappedReader.readLine();
+					String message = "window size " + windowSize + ", line " + expected.getLineNumber();
+					assertEquals(message, expected.getText(), actual.getText());
+					assertEquals(message, expected.getByteOffset(), actual.getByteOffset());
+					assertEquals(message, expected.getLineNumber(), actual.getLineNumber());
+				}
+				assertNull(mappedReader.readLine());
+			} finally {
+				expectedReader.close();
+				mappedReader.close();
+			}
+		}
+	}
+
+}
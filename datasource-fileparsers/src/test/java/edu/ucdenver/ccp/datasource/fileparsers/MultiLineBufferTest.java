@@ -0,0 +1,144 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import edu.ucdenver.ccp.common.file.reader.Line;
+import edu.ucdenver.ccp.datasource.fileparsers.MultiLineFileRecordReader.LineCursor;
+import edu.ucdenver.ccp.datasource.fileparsers.MultiLineFileRecordReader.LineRun;
+import edu.ucdenver.ccp.datasource.fileparsers.MultiLineFileRecordReader.MultiLineBuffer;
+
+/**
+ * Tests for the line access methods of {@link MultiLineBuffer}
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class MultiLineBufferTest {
+
+	private static MultiLineBuffer createBuffer(String... lineTexts) {
+		MultiLineBuffer buffer = new MultiLineBuffer();
+		long offset = 100;
+		long lineNumber = 10;
+		for (String text : lineTexts) {
+			buffer.add(new Line(text, Line.LineTerminator.LF, offset, offset, lineNumber++, offset));
+			offset += text.length() + 1;
+		}
+		return buffer;
+	}
+
+	@Test
+	public void testIndexedAccess() {
+		MultiLineBuffer buffer = createBuffer("ID   001R_FRG3G", "AC   Q6GZX4;", "//");
+		assertEquals(3, buffer.size());
+		assertEquals("AC   Q6GZX4;", buffer.getLineText(1));
+		assertEquals(11, buffer.getLine(1).getLineNumber());
+		assertEquals(100, buffer.getByteOffset());
+		assertEquals("ID   001R_FRG3G\nAC   Q6GZX4;\n//\n", buffer.toString());
+	}
+
+	@Test
+	public void testRuns() {
+		MultiLineBuffer buffer = createBuffer("ID   001R_FRG3G", "GN   Name=001R;", "GN   ORFNames=FV3-001R;",
+				"OS   Frog virus 3", "GN   Name=002L;", "//");
+		List<LineRun> runs = buffer.getRuns(2);
+		assertEquals(5, runs.size());
+		assertEquals("ID", runs.get(0).getPrefix());
+		assertEquals("GN", runs.get(1).getPrefix());
+		assertEquals(1, runs.get(1).getStartIndex());
+		assertEquals(2, runs.get(1).size());
+		assertEquals("GN   ORFNames=FV3-001R;", runs.get(1).getLineText(1));
+		assertEquals("OS", runs.get(2).getPrefix());
+		assertEquals("GN", runs.get(3).getPrefix());
+		assertEquals(1, runs.get(3).size());
+		assertEquals("//", runs.get(4).getPrefix());
+	}
+
+	@Test
+	public void testRunsWithShortLines() {
+		MultiLineBuffer buffer = createBuffer("", "", "X", "XX   a", "XX   b");
+		List<LineRun> runs = buffer.getRuns(2);
+		assertEquals(3, runs.size());
+		assertEquals("", runs.get(0).getPrefix());
+		assertEquals(2, runs.get(0).size());
+		assertEquals("X", runs.get(1).getPrefix());
+		assertEquals("XX", runs.get(2).getPrefix());
+		assertEquals(2, runs.get(2).size());
+	}
+
+	@Test
+	public void testRunsOfEmptyBuffer() {
+		assertTrue(new MultiLineBuffer().getRuns(2).isEmpty());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testRunIndexOutOfBounds() {
+		MultiLineBuffer buffer = createBuffer("AA 1", "BB 2", "BB 3");
+		buffer.getRuns(2).get(0).getLineText(1);
+	}
+
+	@Test
+	public void testCursor() {
+		MultiLineBuffer buffer = createBuffer("line 1", "line 2", "line 3");
+		LineCursor cursor = buffer.cursor();
+		assertTrue(cursor.hasNext());
+		assertEquals("line 1", cursor.peekLine());
+		assertEquals("line 1", cursor.readLine());
+		cursor.mark();
+		assertEquals("line 2", cursor.readLine());
+		assertEquals("line 3", cursor.readLine());
+		assertFalse(cursor.hasNext());
+		assertNull(cursor.peekLine());
+		assertNull(cursor.readLine());
+		cursor.reset();
+		assertEquals(1, cursor.getIndex());
+		assertEquals("line 2", cursor.readLine());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testResetWithoutMark() {
+		LineCursor cursor = createBuffer("line 1").cursor();
+		cursor.readLine();
+		cursor.reset();
+	}
+
+}
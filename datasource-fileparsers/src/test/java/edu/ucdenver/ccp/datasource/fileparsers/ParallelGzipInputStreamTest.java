@@ -0,0 +1,319 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+/**
+ * Tests that the {@link ParallelGzipInputStream} returns the same bytes as a
+ * {@link GZIPInputStream}
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class ParallelGzipInputStreamTest {
+
+	@Test
+	public void testSingleMember() throws IOException {
+		byte[] compressed = gzip(sampleData(3 * 1024 * 1024, 1));
+		assertSameContent(compressed);
+	}
+
+	@Test
+	public void testMultipleMembers() throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		for (int i = 0; i < 3; i++) {
+			baos.write(gzip(sampleData(100000 + i, i)));
+		}
+		assertSameContent(baos.toByteArray());
+	}
+
+	@Test
+	public void testBgzf() throws IOException {
+		assertSameContent(bgzf(sampleData(1024 * 1024, 2), true));
+	}
+
+	@Test
+	public void testBgzfFollowedByGzipMember() throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		baos.write(bgzf(sampleData(200000, 3), false));
+		baos.write(gzip(sampleData(200000, 4)));
+		assertSameContent(baos.toByteArray());
+	}
+
+	@Test
+	public void testEmptyContent() throws IOException {
+		assertSameContent(gzip(new byte[0]));
+		assertSameContent(bgzf(new byte[0], true));
+	}
+
+	@Test
+	public void testTruncatedSingleMember() throws IOException {
+		byte[] compressed = gzip(sampleData(500000, 5));
+		assertSameContentTruncated(Arrays.copyOf(compressed, compressed.length / 2));
+		assertSameContentTruncated(Arrays.copyOf(compressed, compressed.length - 4));
+	}
+
+	@Test
+	public void testTruncatedBgzf() throws IOException {
+		byte[] compressed = bgzf(sampleData(500000, 6), false);
+		assertSameContentTruncated(Arrays.copyOf(compressed, compressed.length / 2));
+		assertSameContentTruncated(Arrays.copyOf(compressed, compressed.length - 4));
+	}
+
+	@Test
+	public void testNotGzipped() throws IOException {
+		byte[] notCompressed = sampleData(1000, 7);
+		try {
+			read(new GZIPInputStream(new ByteArrayInputStream(notCompressed)));
+			fail("Expected IOException");
+		} catch (IOException e) {
+			// expected
+		}
+		try {
+			read(new ParallelGzipInputStream(new ByteArrayInputStream(notCompressed)));
+			fail("Expected IOException");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	@Test(expected = EOFException.class)
+	public void testEmptyInput() throws IOException {
+		read(new ParallelGzipInputStream(new ByteArrayInputStream(new byte[0])));
+	}
+
+	@Test
+	public void testCloseBeforeEnd() throws IOException {
+		InputStream is = new ParallelGzipInputStream(new ByteArrayInputStream(gzip(sampleData(4 * 1024 * 1024, 8))),
+				2, 1024, 2);
+		assertTrue(is.read() >= 0);
+		/* must not block although the read-ahead thread is waiting on a full queue */
+		is.close();
+	}
+
+	/**
+	 * Reaching the end of the input, or an error, must release the stream's threads even if the
+	 * stream is never closed
+	 */
+	@Test
+	public void testThreadsReleasedWithoutClose() throws Exception {
+		byte[] bgzf = bgzf(sampleData(500000, 9), true);
+		for (byte[] compressed : new byte[][] { gzip(sampleData(200000, 8)), bgzf }) {
+			ParallelGzipInputStream is = new ParallelGzipInputStream(new ByteArrayInputStream(compressed), 3, 1000, 2);
+			byte[] buffer = new byte[4096];
+			while (is.read(buffer) != -1) {
+				// reading to the end of the input without closing the stream
+			}
+			assertReleased(is);
+		}
+		ParallelGzipInputStream is = new ParallelGzipInputStream(new ByteArrayInputStream(Arrays.copyOf(bgzf,
+				bgzf.length / 2)), 3, 1000, 2);
+		try {
+			byte[] buffer = new byte[4096];
+			while (is.read(buffer) != -1) {
+				// reading until the truncated input fails
+			}
+			fail("Expected IOException");
+		} catch (IOException e) {
+			// expected
+		}
+		assertReleased(is);
+	}
+
+	private static void assertReleased(ParallelGzipInputStream is) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (!is.isReleased() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue("threads should have been released", is.isReleased());
+	}
+
+	private static void assertSameContent(byte[] compressed) throws IOException {
+		byte[] expected = read(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+		/* default settings */
+		assertArrayEquals(expected, read(new ParallelGzipInputStream(new ByteArrayInputStream(compressed))));
+		/* small blocks and queue so that the read-ahead thread repeatedly waits on the reader */
+		assertArrayEquals(expected,
+				read(new ParallelGzipInputStream(new ByteArrayInputStream(compressed), 3, 1000, 2)));
+		/* single byte reads */
+		InputStream is = new ParallelGzipInputStream(new ByteArrayInputStream(compressed), 2, 777, 3);
+		try {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			int b;
+			while ((b = is.read()) != -1) {
+				baos.write(b);
+			}
+			assertArrayEquals(expected, baos.toByteArray());
+		} finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * Checks that both streams fail and that the bytes returned by the
+	 * {@link ParallelGzipInputStream} before it fails are a prefix of those returned by the
+	 * {@link GZIPInputStream}
+	 */
+	private static void assertSameContentTruncated(byte[] compressed) throws IOException {
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		try {
+			copy(new GZIPInputStream(new ByteArrayInputStream(compressed)), expected);
+			fail("Expected IOException from GZIPInputStream");
+		} catch (IOException e) {
+			// expected
+		}
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		try {
+			copy(new ParallelGzipInputStream(new ByteArrayInputStream(compressed), 2, 1000, 2), actual);
+			fail("Expected IOException from ParallelGzipInputStream");
+		} catch (IOException e) {
+			// expected
+		}
+		byte[] expectedBytes = expected.toByteArray();
+		byte[] actualBytes = actual.toByteArray();
+		assertTrue(actualBytes.length <= expectedBytes.length);
+		assertArrayEquals(Arrays.copyOf(expectedBytes, actualBytes.length), actualBytes);
+	}
+
+	private static byte[] read(InputStream is) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		copy(is, baos);
+		return baos.toByteArray();
+	}
+
+	private static void copy(InputStream is, ByteArrayOutputStream baos) throws IOException {
+		try {
+			byte[] buffer = new byte[4096];
+			int n;
+			while ((n = is.read(buffer)) != -1) {
+				baos.write(buffer, 0, n);
+			}
+		} finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * @return tab-delimited text that compresses similarly to the data files being parsed
+	 */
+	private static byte[] sampleData(int length, long seed) {
+		Random random = new Random(seed);
+		StringBuilder sb = new StringBuilder(length + 100);
+		while (sb.length() < length) {
+			sb.append(random.nextInt(100000)).append('\t').append("GENE").append(random.nextInt(1000))
+					.append('\t').append(random.nextBoolean() ? "-" : "protein coding").append('\n');
+		}
+		sb.setLength(length);
+		return sb.toString().getBytes();
+	}
+
+	private static byte[] gzip(byte[] data) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		GZIPOutputStream gos = new GZIPOutputStream(baos);
+		gos.write(data);
+		gos.close();
+		return baos.toByteArray();
+	}
+
+	/**
+	 * @return the data compressed in BGZF format, i.e. as a series of gzip members of at most 64KB
+	 *         each, with the compressed size of each member recorded in its header
+	 */
+	private static byte[] bgzf(byte[] data, boolean addEofBlock) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		int blockDataSize = 0xff00;
+		for (int offset = 0; offset < data.length || offset == 0; offset += blockDataSize) {
+			int length = Math.min(blockDataSize, data.length - offset);
+			writeBgzfBlock(baos, data, offset, length);
+			if (data.length == 0) {
+				break;
+			}
+		}
+		if (addEofBlock) {
+			writeBgzfBlock(baos, data, 0, 0);
+		}
+		return baos.toByteArray();
+	}
+
+	private static void writeBgzfBlock(ByteArrayOutputStream baos, byte[] data, int offset, int length) {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		deflater.setInput(data, offset, length);
+		deflater.finish();
+		byte[] deflated = new byte[length + 1024];
+		int deflatedLength = 0;
+		while (!deflater.finished()) {
+			deflatedLength += deflater.deflate(deflated, deflatedLength, deflated.length - deflatedLength);
+		}
+		deflater.end();
+		CRC32 crc = new CRC32();
+		crc.update(data, offset, length);
+
+		int blockSize = 18 + deflatedLength + 8;
+		baos.write(new byte[] { 0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0 }, 0, 16);
+		writeShort(baos, blockSize - 1);
+		baos.write(deflated, 0, deflatedLength);
+		writeInt(baos, crc.getValue());
+		writeInt(baos, length);
+		assertEquals(blockSize, 18 + deflatedLength + 8);
+	}
+
+	private static void writeShort(ByteArrayOutputStream baos, int value) {
+		baos.write(value & 0xff);
+		baos.write((value >> 8) & 0xff);
+	}
+
+	private static void writeInt(ByteArrayOutputStream baos, long value) {
+		writeShort(baos, (int) (value & 0xffff));
+		writeShort(baos, (int) ((value >> 16) & 0xffff));
+	}
+
+}
@@ -0,0 +1,299 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.ucdenver.ccp.common.collections.CollectionsUtil;
+import edu.ucdenver.ccp.common.file.CharacterEncoding;
+import edu.ucdenver.ccp.common.file.FileReaderUtil;
+import edu.ucdenver.ccp.common.file.FileWriterUtil;
+import edu.ucdenver.ccp.common.file.reader.Line;
+import edu.ucdenver.ccp.common.io.ClassPathUtil;
+import edu.ucdenver.ccp.common.test.DefaultTestCase;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.goa.gaf.GoaFileIdResolver;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.goa.gaf.GoaGaf2FileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.goa.gaf.GoaGaf2FileRecordReaderTest;
+import edu.ucdenver.ccp.datasource.fileparsers.irefweb.IRefWebPsiMitab2_6FileParser;
+import edu.ucdenver.ccp.datasource.fileparsers.irefweb.IRefWebPsiMitab2_6FileParserTest;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileParser;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileParserTest;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
+
+/**
+ * Compares the records returned by {@link SingleLineFileRecordReader} when parsing serially and
+ * when parsing in parallel.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class ParallelSingleLineFileRecordReaderTest extends DefaultTestCase {
+
+	private File copySampleFile(Class<?> testClass, String fileName) throws IOException {
+		File file = folder.newFile(fileName);
+		ClassPathUtil.copyClasspathResourceToFile(testClass, fileName, file);
+		return file;
+	}
+
+	private static <T extends DataRecord> List<T> readAll(RecordReader<T> reader) throws IOException {
+		List<T> records = new ArrayList<T>();
+		try {
+			while (reader.hasNext()) {
+				records.add(reader.next());
+			}
+		} finally {
+			reader.close();
+		}
+		return records;
+	}
+
+	@Test
+	public void testGeneInfoParallelMatchesSerial() throws IOException {
+		File geneInfoFile = copySampleFile(NcbiGeneInfoFileParserTest.class, "EntrezGene_gene_info");
+		List<?> serial = readAll(new NcbiGeneInfoFileParser(geneInfoFile, CharacterEncoding.US_ASCII));
+		for (int batchSize = 1; batchSize <= 4; batchSize++) {
+			NcbiGeneInfoFileParser parallelReader = new NcbiGeneInfoFileParser(geneInfoFile, CharacterEncoding.US_ASCII);
+			parallelReader.enableParallelParsing(3, batchSize, true);
+			assertEquals("batch size: " + batchSize, serial, readAll(parallelReader));
+		}
+	}
+
+	@Test
+	public void testTaxonAwareGeneInfoParallelMatchesSerial() throws IOException {
+		File geneInfoFile = copySampleFile(NcbiGeneInfoFileParserTest.class, "EntrezGene_gene_info");
+		List<?> serial = readAll(new NcbiGeneInfoFileParser(geneInfoFile, CharacterEncoding.US_ASCII,
+				CollectionsUtil.createSet(new NcbiTaxonomyID(10090))));
+		NcbiGeneInfoFileParser parallelReader = new NcbiGeneInfoFileParser(geneInfoFile, CharacterEncoding.US_ASCII,
+				CollectionsUtil.createSet(new NcbiTaxonomyID(10090)));
+		parallelReader.enableParallelParsing(2, 3, true);
+		List<?> parallel = readAll(parallelReader);
+		assertEquals(8, parallel.size());
+		assertEquals(serial, parallel);
+	}
+
+	@Test
+	public void testIRefWebParallelMatchesSerial() throws IOException {
+		File mitabFile = copySampleFile(IRefWebPsiMitab2_6FileParserTest.class, "IRefWeb_10090.mitab.MMDDYYYY.txt");
+		List<?> serial = readAll(new IRefWebPsiMitab2_6FileParser(mitabFile, CharacterEncoding.US_ASCII));
+		IRefWebPsiMitab2_6FileParser parallelReader = new IRefWebPsiMitab2_6FileParser(mitabFile,
+				CharacterEncoding.US_ASCII);
+		parallelReader.enableParallelParsing(4, 2, true);
+		assertEquals(serial, readAll(parallelReader));
+	}
+
+	@Test
+	public void testGafParallelMatchesSerial() throws IOException {
+		File gafFile = copySampleFile(GoaGaf2FileRecordReaderTest.class, GoaGaf2FileRecordReaderTest.SAMPLE_FILE_NAME);
+		List<?> serial = readAll(new GoaGaf2FileRecordReader(gafFile, CharacterEncoding.US_ASCII, null,
+				GoaFileIdResolver.class));
+		assertEquals(8, serial.size());
+		for (int batchSize = 1; batchSize <= 4; batchSize++) {
+			GoaGaf2FileRecordReader parallelReader = new GoaGaf2FileRecordReader(gafFile, CharacterEncoding.US_ASCII,
+					null, GoaFileIdResolver.class);
+			parallelReader.enableParallelParsing(3, batchSize, true);
+			assertEquals("batch size: " + batchSize, serial, readAll(parallelReader));
+		}
+	}
+
+	/**
+	 * Parses many GAF lines with differing dates concurrently so that any state shared between
+	 * worker threads, e.g. a date formatter, is likely to corrupt the parsed records
+	 */
+	@Test
+	public void testLargeGafParallelMatchesSerial() throws IOException {
+		List<String> sampleLines = FileReaderUtil.loadLinesFromFile(
+				copySampleFile(GoaGaf2FileRecordReaderTest.class, GoaGaf2FileRecordReaderTest.SAMPLE_FILE_NAME),
+				CharacterEncoding.US_ASCII);
+		List<String> lines = new ArrayList<String>();
+		for (int i = 0; i < 1000; i++) {
+			for (String line : sampleLines) {
+				if (!line.startsWith("!")) {
+					lines.add(line);
+				}
+			}
+		}
+		File gafFile = folder.newFile("large.gaf");
+		FileWriterUtil.printLines(lines, gafFile, CharacterEncoding.US_ASCII);
+
+		Set<NcbiTaxonomyID> taxa = CollectionsUtil.createSet(new NcbiTaxonomyID(9606), new NcbiTaxonomyID(10090));
+		List<?> serial = readAll(new GoaGaf2FileRecordReader(gafFile, CharacterEncoding.US_ASCII, taxa,
+				GoaFileIdResolver.class));
+		assertEquals(6000, serial.size());
+		GoaGaf2FileRecordReader parallelReader = new GoaGaf2FileRecordReader(gafFile, CharacterEncoding.US_ASCII,
+				taxa, GoaFileIdResolver.class);
+		parallelReader.enableParallelParsing(8, 1, true);
+		assertEquals(serial, readAll(parallelReader));
+	}
+
+	@Test
+	public void testLargeFileOrderedAndUnordered() throws IOException {
+		File testFile = folder.newFile("large.txt");
+		List<String> lines = new ArrayList<String>();
+		for (int i = 0; i < 10000; i++) {
+			lines.add("line " + i);
+		}
+		FileWriterUtil.printLines(lines, testFile, CharacterEncoding.US_ASCII);
+
+		List<SampleRecord> serial = readAll(new SampleRecordReader(testFile));
+		assertEquals(10000, serial.size());
+
+		SampleRecordReader orderedReader = new SampleRecordReader(testFile);
+		orderedReader.enableParallelParsing(4, 17, true);
+		List<SampleRecord> ordered = readAll(orderedReader);
+		assertEquals(serial, ordered);
+
+		SampleRecordReader unorderedReader = new SampleRecordReader(testFile);
+		unorderedReader.enableParallelParsing(4, 17, false);
+		List<SampleRecord> unordered = readAll(unorderedReader);
+		Collections.sort(unordered, new Comparator<SampleRecord>() {
+			@Override
+			public int compare(SampleRecord r1, SampleRecord r2) {
+				return Long.compare(r1.getLineNumber(), r2.getLineNumber());
+			}
+		});
+		assertEquals(serial, unordered);
+	}
+
+	/**
+	 * Readers may return null for lines that they cannot turn into a record; parallel parsing
+	 * must return those nulls just as serial parsing does
+	 */
+	@Test
+	public void testNullRecordsParallelMatchesSerial() throws IOException {
+		File testFile = folder.newFile("nulls.txt");
+		List<String> lines = new ArrayList<String>();
+		for (int i = 0; i < 1000; i++) {
+			lines.add((i % 7 == 0 ? "skip " : "line ") + i);
+		}
+		FileWriterUtil.printLines(lines, testFile, CharacterEncoding.US_ASCII);
+
+		List<SampleRecord> serial = readAll(new SampleRecordReader(testFile));
+		assertEquals(1000, serial.size());
+		assertEquals(143, Collections.frequency(serial, null));
+
+		SampleRecordReader orderedReader = new SampleRecordReader(testFile);
+		orderedReader.enableParallelParsing(4, 17, true);
+		assertEquals(serial, readAll(orderedReader));
+
+		SampleRecordReader unorderedReader = new SampleRecordReader(testFile);
+		unorderedReader.enableParallelParsing(4, 17, false);
+		List<SampleRecord> unordered = readAll(unorderedReader);
+		assertEquals(1000, unordered.size());
+		assertEquals(143, Collections.frequency(unordered, null));
+	}
+
+	@Test
+	public void testParseExceptionReportsLine() throws IOException {
+		File testFile = folder.newFile("bad.txt");
+		FileWriterUtil.printLines(CollectionsUtil.createList("line 1", "line 2", "bad line", "line 4"), testFile,
+				CharacterEncoding.US_ASCII);
+		SampleRecordReader reader = new SampleRecordReader(testFile);
+		reader.enableParallelParsing(2, 1, true);
+		assertTrue(reader.hasNext());
+		assertEquals("line 1", reader.next().getText());
+		assertEquals("line 2", reader.next().getText());
+		try {
+			reader.next();
+			fail("Expected the parse exception to be propagated.");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getMessage(), e.getMessage().endsWith("bad line"));
+			assertEquals("unparseable", e.getCause().getMessage());
+		}
+		assertFalse(reader.hasNext());
+		reader.close();
+	}
+
+	private static class SampleRecordReader extends SingleLineFileRecordReader<SampleRecord> {
+
+		public SampleRecordReader(File dataFile) throws IOException {
+			super(dataFile, CharacterEncoding.US_ASCII, null);
+		}
+
+		@Override
+		protected SampleRecord parseRecordFromLine(Line line) {
+			if (line.getText().startsWith("bad")) {
+				throw new IllegalArgumentException("unparseable");
+			}
+			if (line.getText().startsWith("skip")) {
+				return null;
+			}
+			return new SampleRecord(line.getText(), line.getByteOffset(), line.getLineNumber());
+		}
+
+	}
+
+	private static class SampleRecord extends SingleLineFileRecord {
+
+		private final String text;
+
+		public SampleRecord(String text, long byteOffset, long lineNumber) {
+			super(byteOffset, lineNumber);
+			this.text = text;
+		}
+
+		public String getText() {
+			return text;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof SampleRecord)) {
+				return false;
+			}
+			SampleRecord other = (SampleRecord) obj;
+			return text.equals(other.text) && getByteOffset() == other.getByteOffset()
+					&& getLineNumber() == other.getLineNumber();
+		}
+
+		@Override
+		public int hashCode() {
+			return text.hashCode();
+		}
+
+	}
+
+}
@@ -0,0 +1,306 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.ucdenver.ccp.common.collections.CollectionsUtil;
+import edu.ucdenver.ccp.common.file.CharacterEncoding;
+import edu.ucdenver.ccp.common.io.ClassPathUtil;
+import edu.ucdenver.ccp.common.test.DefaultTestCase;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.SparseUniProtDatFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.SparseUniProtFileRecord;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileData;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileParser;
+import edu.ucdenver.ccp.datasource.fileparsers.taxonaware.TaxonColumnFilter;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
+
+/**
+ * Tests that readers positioned using a {@link RecordOffsetIndex} return the same records as a
+ * full scan of the data file
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class RecordOffsetIndexTest extends DefaultTestCase {
+
+	private File copyResource(Class<?> clazz, String resourceName) throws IOException {
+		File file = folder.newFile(resourceName);
+		ClassPathUtil.copyClasspathResourceToFile(clazz, resourceName, file);
+		return file;
+	}
+
+	private static RecordReaderFactory<NcbiGeneInfoFileParser> geneInfoFactory(final File file) {
+		return new RecordReaderFactory<NcbiGeneInfoFileParser>() {
+			@Override
+			public NcbiGeneInfoFileParser newReader() throws IOException {
+				return new NcbiGeneInfoFileParser(file, CharacterEncoding.US_ASCII);
+			}
+		};
+	}
+
+	private static RecordReaderFactory<SparseUniProtDatFileRecordReader> uniprotFactory(final File file) {
+		return new RecordReaderFactory<SparseUniProtDatFileRecordReader>() {
+			@Override
+			public SparseUniProtDatFileRecordReader newReader() throws IOException {
+				return new SparseUniProtDatFileRecordReader(file, CharacterEncoding.US_ASCII, null);
+			}
+		};
+	}
+
+	private static <T extends DataRecord> List<T> readAll(RecordReader<T> reader) throws IOException {
+		List<T> records = new ArrayList<T>();
+		try {
+			while (reader.hasNext()) {
+				records.add(reader.next());
+			}
+		} finally {
+			reader.close();
+		}
+		return records;
+	}
+
+	@Test
+	public void testSeekToRandomOrdinals_SingleLineRecords() throws IOException {
+		File geneInfoFile = copyResource(NcbiGeneInfoFileParser.class, "EntrezGene_gene_info");
+		RecordReaderFactory<NcbiGeneInfoFileParser> factory = geneInfoFactory(geneInfoFile);
+		List<NcbiGeneInfoFileData> expectedRecords = readAll(factory.newReader());
+
+		RecordOffsetIndex index = RecordOffsetIndex.getIndex(geneInfoFile, factory);
+		assertEquals(expectedRecords.size(), index.getRecordCount());
+		NcbiGeneInfoFileParser geneInfoReader = factory.newReader();
+		try {
+			assertTrue(RecordOffsetIndex.getIndexFile(geneInfoFile, geneInfoReader).exists());
+		} finally {
+			geneInfoReader.close();
+		}
+
+		Random random = new Random(0);
+		for (int i = 0; i < 25; i++) {
+			int ordinal = random.nextInt(expectedRecords.size());
+			NcbiGeneInfoFileParser reader = RecordOffsetIndex.openAtOrdinal(geneInfoFile, factory, ordinal);
+			List<NcbiGeneInfoFileData> records = readAll(reader);
+			assertEquals(expectedRecords.subList(ordinal, expectedRecords.size()), records);
+			NcbiGeneInfoFileData expected = expectedRecords.get(ordinal);
+			assertEquals(expected.getByteOffset(), records.get(0).getByteOffset());
+			assertEquals(expected.getLineNumber(), records.get(0).getLineNumber());
+		}
+	}
+
+	@Test
+	public void testSeekToKeys_MultiLineRecords() throws IOException {
+		File uniprotFile = copyResource(SparseUniProtDatFileRecordReader.class, "UniProt_uniprot_sprot.dat");
+		RecordReaderFactory<SparseUniProtDatFileRecordReader> factory = uniprotFactory(uniprotFile);
+		List<SparseUniProtFileRecord> expectedRecords = readAll(factory.newReader());
+
+		for (int ordinal = expectedRecords.size() - 1; ordinal >= 0; ordinal--) {
+			SparseUniProtFileRecord expected = expectedRecords.get(ordinal);
+			SparseUniProtDatFileRecordReader reader = RecordOffsetIndex.openAtKey(uniprotFile, factory, expected
+					.getPrimaryAccession().getId());
+			List<SparseUniProtFileRecord> records = readAll(reader);
+			assertEquals(expectedRecords.size() - ordinal, records.size());
+			for (int i = 0; i < records.size(); i++) {
+				SparseUniProtFileRecord expectedRecord = expectedRecords.get(ordinal + i);
+				assertEquals(expectedRecord.getPrimaryAccession(), records.get(i).getPrimaryAccession());
+				assertEquals(expectedRecord.getAccession(), records.get(i).getAccession());
+				assertEquals(expectedRecord.getByteOffset(), records.get(i).getByteOffset());
+			}
+		}
+		assertNull(RecordOffsetIndex.openAtKey(uniprotFile, factory, "P99999"));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testSeekBeyondLastRecord() throws IOException {
+		File geneInfoFile = copyResource(NcbiGeneInfoFileParser.class, "EntrezGene_gene_info");
+		RecordReaderFactory<NcbiGeneInfoFileParser> factory = geneInfoFactory(geneInfoFile);
+		RecordOffsetIndex.openAtOrdinal(geneInfoFile, factory, RecordOffsetIndex.getIndex(geneInfoFile, factory)
+				.getRecordCount());
+	}
+
+	@Test
+	public void testIndexIsRebuiltWhenDataFileChanges() throws IOException {
+		File geneInfoFile = copyResource(NcbiGeneInfoFileParser.class, "EntrezGene_gene_info");
+		RecordReaderFactory<NcbiGeneInfoFileParser> factory = geneInfoFactory(geneInfoFile);
+		RecordOffsetIndex index = RecordOffsetIndex.getIndex(geneInfoFile, factory);
+		assertTrue(index.isValidFor(geneInfoFile));
+		List<NcbiGeneInfoFileData> records = readAll(factory.newReader());
+		int recordCount = records.size();
+
+		/*
+		 * append a copy of the first record; the file size changes. The sample file does not end
+		 * with a line terminator.
+		 */
+		long firstRecordOffset = records.get(0).getByteOffset();
+		byte[] firstLine = new byte[(int) (records.get(1).getByteOffset() - firstRecordOffset)];
+		RandomAccessFile raf = new RandomAccessFile(geneInfoFile, "rw");
+		try {
+			raf.seek(firstRecordOffset);
+			raf.readFully(firstLine);
+			raf.seek(raf.length());
+			raf.write('\n');
+			raf.write(firstLine);
+		} finally {
+			raf.close();
+		}
+		assertFalse(index.isValidFor(geneInfoFile));
+		index = RecordOffsetIndex.getIndex(geneInfoFile, factory);
+		assertEquals(recordCount + 1, index.getRecordCount());
+		NcbiGeneInfoFileParser reader = RecordOffsetIndex.openAtOrdinal(geneInfoFile, factory, recordCount);
+		NcbiGeneInfoFileData appendedRecord = readAll(reader).get(0);
+		assertEquals(records.get(0).getGeneID(), appendedRecord.getGeneID());
+
+		/* change the taxon of the appended record, but not the file size or modification time */
+		long lastModified = geneInfoFile.lastModified();
+		raf = new RandomAccessFile(geneInfoFile, "rw");
+		try {
+			raf.seek(geneInfoFile.length() - firstLine.length);
+			raf.write('2');
+		} finally {
+			raf.close();
+		}
+		assertTrue(geneInfoFile.setLastModified(lastModified));
+		assertFalse(index.isValidFor(geneInfoFile));
+		reader = RecordOffsetIndex.openAtOrdinal(geneInfoFile, factory, recordCount);
+		appendedRecord = readAll(reader).get(0);
+		assertEquals(new NcbiTaxonomyID(20090), appendedRecord.getTaxonID());
+	}
+
+	private static RecordReaderFactory<NcbiGeneInfoFileParser> geneInfoFactory(final File file,
+			final Set<NcbiTaxonomyID> taxonIds) {
+		return new RecordReaderFactory<NcbiGeneInfoFileParser>() {
+			@Override
+			public NcbiGeneInfoFileParser newReader() throws IOException {
+				return new NcbiGeneInfoFileParser(file, CharacterEncoding.US_ASCII, taxonIds);
+			}
+		};
+	}
+
+	/**
+	 * Readers that are configured to return different records, or that are of different
+	 * (including anonymous) classes, must not share an index
+	 */
+	@Test
+	public void testIndexDependsOnReaderConfiguration() throws IOException {
+		final File geneInfoFile = copyResource(NcbiGeneInfoFileParser.class, "EntrezGene_gene_info");
+		RecordReaderFactory<NcbiGeneInfoFileParser> allTaxa = geneInfoFactory(geneInfoFile);
+		RecordReaderFactory<NcbiGeneInfoFileParser> mouse = geneInfoFactory(geneInfoFile,
+				CollectionsUtil.createSet(new NcbiTaxonomyID(10090)));
+		RecordReaderFactory<NcbiGeneInfoFileParser> human = geneInfoFactory(geneInfoFile,
+				CollectionsUtil.createSet(new NcbiTaxonomyID(9606)));
+		RecordReaderFactory<NcbiGeneInfoFileParser> anonymous = new RecordReaderFactory<NcbiGeneInfoFileParser>() {
+			@Override
+			public NcbiGeneInfoFileParser newReader() throws IOException {
+				return new NcbiGeneInfoFileParser(geneInfoFile, CharacterEncoding.US_ASCII) {
+					@Override
+					protected TaxonColumnFilter getTaxonColumnFilter() {
+						return null;
+					}
+				};
+			}
+		};
+
+		List<File> indexFiles = new ArrayList<File>();
+		for (int pass = 0; pass < 2; pass++) {
+			for (RecordReaderFactory<NcbiGeneInfoFileParser> factory : CollectionsUtil.createList(allTaxa, mouse,
+					human, anonymous)) {
+				RecordOffsetIndex index = RecordOffsetIndex.getIndex(geneInfoFile, factory);
+				assertEquals(readAll(factory.newReader()).size(), index.getRecordCount());
+				NcbiGeneInfoFileParser reader = factory.newReader();
+				try {
+					File indexFile = RecordOffsetIndex.getIndexFile(geneInfoFile, reader);
+					assertTrue(indexFile.exists());
+					if (pass == 0) {
+						assertFalse(indexFiles.contains(indexFile));
+						indexFiles.add(indexFile);
+					}
+					assertTrue(index.isValidFor(geneInfoFile, reader));
+				} finally {
+					reader.close();
+				}
+			}
+		}
+		assertEquals(8, RecordOffsetIndex.getIndex(geneInfoFile, mouse).getRecordCount());
+		assertEquals(1, RecordOffsetIndex.getIndex(geneInfoFile, human).getRecordCount());
+
+		/* an index built by a differently configured reader is not used */
+		RecordOffsetIndex mouseIndex = RecordOffsetIndex.getIndex(geneInfoFile, mouse);
+		NcbiGeneInfoFileParser humanReader = human.newReader();
+		try {
+			assertFalse(mouseIndex.isValidFor(geneInfoFile, humanReader));
+		} finally {
+			humanReader.close();
+		}
+	}
+
+	/**
+	 * Keys are not limited to the 65535 bytes supported by {@link java.io.DataOutput#writeUTF(String)}
+	 */
+	@Test
+	public void testLongKeys() throws IOException {
+		File geneInfoFile = copyResource(NcbiGeneInfoFileParser.class, "EntrezGene_gene_info");
+		char[] chars = new char[70000];
+		Arrays.fill(chars, '\u00e9');
+		String longKey = new String(chars);
+		Map<String, Integer> keyToOrdinalMap = new HashMap<String, Integer>();
+		keyToOrdinalMap.put("a", 0);
+		keyToOrdinalMap.put(longKey, 1);
+		RecordOffsetIndex index = new RecordOffsetIndex(geneInfoFile, "reader", 2, new long[] { 0, 100 }, new long[] {
+				0, 1 }, keyToOrdinalMap);
+		File indexFile = folder.newFile("long-keys.idx");
+		index.write(indexFile);
+		RecordOffsetIndex readIndex = RecordOffsetIndex.read(indexFile);
+		assertEquals("reader", readIndex.getReaderDescription());
+		assertEquals(0, readIndex.getOrdinal("a"));
+		assertEquals(1, readIndex.getOrdinal(longKey));
+		assertEquals(100, readIndex.getByteOffset(1));
+		assertTrue(readIndex.isValidFor(geneInfoFile));
+	}
+
+}
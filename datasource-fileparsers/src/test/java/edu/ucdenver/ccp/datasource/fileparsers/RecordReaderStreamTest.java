@@ -0,0 +1,306 @@
+package edu.ucdenver.ccp.datasource.fileparsers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ucdenver.ccp.common.file.CharacterEncoding;
+import edu.ucdenver.ccp.common.file.reader.Line;
+import edu.ucdenver.ccp.common.io.ClassPathUtil;
+import edu.ucdenver.ccp.common.test.DefaultTestCase;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.SparseUniProtDatFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.SparseUniProtFileRecord;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileData;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileParser;
+
+/**
+ * Tests for {@link RecordReader#stream()} and
+ * {@link FileSplitter#stream(File, RecordReaderFactory, int)}
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class RecordReaderStreamTest extends DefaultTestCase {
+
+	/* enough copies of the sample records for the stream to be split into several batches */
+	private static final int SAMPLE_COPY_COUNT = 200;
+
+	private File geneInfoFile;
+	private final AtomicInteger openReaderCount = new AtomicInteger();
+
+	@Before
+	public void setUp() throws IOException {
+		File sampleFile = folder.newFile("EntrezGene_gene_info");
+		ClassPathUtil.copyClasspathResourceToFile(NcbiGeneInfoFileParser.class, "EntrezGene_gene_info", sampleFile);
+		List<String> lines = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(sampleFile), "US-ASCII"));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+			}
+		} finally {
+			reader.close();
+		}
+		/* the header followed by many copies of the sample records */
+		StringBuilder content = new StringBuilder(lines.get(0) + "\n");
+		for (int i = 0; i < SAMPLE_COPY_COUNT; i++) {
+			for (String line : lines.subList(1, lines.size())) {
+				content.append(line + "\n");
+			}
+		}
+		geneInfoFile = folder.newFile("gene_info");
+		OutputStream out = new FileOutputStream(geneInfoFile);
+		try {
+			out.write(content.toString().getBytes("US-ASCII"));
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * @return a factory of gene_info readers that keeps count of the readers that have been
+	 *         opened but not closed
+	 */
+	private RecordReaderFactory<NcbiGeneInfoFileParser> geneInfoReaderFactory() {
+		return new RecordReaderFactory<NcbiGeneInfoFileParser>() {
+			@Override
+			public NcbiGeneInfoFileParser newReader() throws IOException {
+				openReaderCount.incrementAndGet();
+				return new NcbiGeneInfoFileParser(geneInfoFile, CharacterEncoding.US_ASCII) {
+					private boolean closed = false;
+
+					@Override
+					public void close() throws IOException {
+						if (!closed) {
+							closed = true;
+							openReaderCount.decrementAndGet();
+						}
+						super.close();
+					}
+				};
+			}
+		};
+	}
+
+	private static List<String> describe(List<? extends FileRecord> records) {
+		List<String> descriptions = new ArrayList<String>();
+		for (FileRecord record : records) {
+			descriptions.add(record.getByteOffset() + " " + record.toString());
+		}
+		return descriptions;
+	}
+
+	private List<String> readSequentially() throws IOException {
+		List<NcbiGeneInfoFileData> records = new ArrayList<NcbiGeneInfoFileData>();
+		NcbiGeneInfoFileParser reader = geneInfoReaderFactory().newReader();
+		try {
+			while (reader.hasNext()) {
+				records.add(reader.next());
+			}
+		} finally {
+			reader.close();
+		}
+		return describe(records);
+	}
+
+	@Test
+	public void testParallelStream() throws IOException {
+		List<String> expectedRecords = readSequentially();
+		List<NcbiGeneInfoFileData> records;
+		Stream<NcbiGeneInfoFileData> stream = geneInfoReaderFactory().newReader().stream();
+		try {
+			records = stream.parallel().collect(Collectors.<NcbiGeneInfoFileData> toList());
+		} finally {
+			stream.close();
+		}
+		/* the stream is ordered, so the parallel stream yields the same sequence of records */
+		assertEquals(expectedRecords, describe(records));
+		assertEquals(0, openReaderCount.get());
+	}
+
+	@Test
+	public void testUnorderedParallelStream() throws IOException {
+		List<String> expectedRecords = readSequentially();
+		final List<NcbiGeneInfoFileData> records = Collections.synchronizedList(new ArrayList<NcbiGeneInfoFileData>());
+		Stream<NcbiGeneInfoFileData> stream = geneInfoReaderFactory().newReader().stream();
+		try {
+			stream.parallel().unordered().forEach(new Consumer<NcbiGeneInfoFileData>() {
+				@Override
+				public void accept(NcbiGeneInfoFileData record) {
+					records.add(record);
+				}
+			});
+		} finally {
+			stream.close();
+		}
+		List<String> recordDescriptions = describe(records);
+		Collections.sort(expectedRecords);
+		Collections.sort(recordDescriptions);
+		assertEquals(expectedRecords, recordDescriptions);
+	}
+
+	@Test
+	public void testReaderClosedOnEarlyTermination() throws IOException {
+		Stream<NcbiGeneInfoFileData> stream = geneInfoReaderFactory().newReader().stream();
+		try {
+			assertEquals(3, stream.parallel().limit(3).count());
+			assertEquals(1, openReaderCount.get());
+		} finally {
+			stream.close();
+		}
+		assertEquals(0, openReaderCount.get());
+	}
+
+	@Test
+	public void testFileSplitStream() throws IOException {
+		List<String> expectedRecords = readSequentially();
+		for (int splitCount = 1; splitCount <= 8; splitCount++) {
+			List<NcbiGeneInfoFileData> records;
+			Stream<NcbiGeneInfoFileData> stream = FileSplitter.stream(geneInfoFile, geneInfoReaderFactory(), splitCount);
+			try {
+				records = stream.parallel().collect(Collectors.<NcbiGeneInfoFileData> toList());
+			} finally {
+				stream.close();
+			}
+			assertEquals("Split count: " + splitCount, expectedRecords, describe(records));
+			assertEquals(0, openReaderCount.get());
+		}
+	}
+
+	/**
+	 * Readers may return null records, e.g. for lines with an unexpected number of columns; streams
+	 * must pass them on just as {@link RecordReader#next()} does
+	 */
+	@Test
+	public void testNullRecords() throws IOException {
+		RecordReaderFactory<NcbiGeneInfoFileParser> readerFactory = new RecordReaderFactory<NcbiGeneInfoFileParser>() {
+			@Override
+			public NcbiGeneInfoFileParser newReader() throws IOException {
+				return new NcbiGeneInfoFileParser(geneInfoFile, CharacterEncoding.US_ASCII) {
+					@Override
+					protected NcbiGeneInfoFileData parseRecordFromLine(Line line) {
+						if (line.getText().startsWith("9606\t")) {
+							return null;
+						}
+						return super.parseRecordFromLine(line);
+					}
+				};
+			}
+		};
+		Stream<NcbiGeneInfoFileData> stream = readerFactory.newReader().stream();
+		List<NcbiGeneInfoFileData> records;
+		try {
+			records = stream.parallel().collect(Collectors.<NcbiGeneInfoFileData> toList());
+		} finally {
+			stream.close();
+		}
+		assertEquals(9 * SAMPLE_COPY_COUNT, records.size());
+		assertEquals(SAMPLE_COPY_COUNT, Collections.frequency(records, null));
+
+		for (int splitCount = 1; splitCount <= 4; splitCount++) {
+			stream = FileSplitter.stream(geneInfoFile, readerFactory, splitCount);
+			try {
+				assertEquals("Split count: " + splitCount, records,
+						stream.parallel().collect(Collectors.<NcbiGeneInfoFileData> toList()));
+			} finally {
+				stream.close();
+			}
+		}
+	}
+
+	@Test
+	public void testFileSplitReadersClosedOnEarlyTermination() throws IOException {
+		Stream<NcbiGeneInfoFileData> stream = FileSplitter.stream(geneInfoFile, geneInfoReaderFactory(), 4);
+		try {
+			assertTrue(stream.parallel().anyMatch(new Predicate<NcbiGeneInfoFileData>() {
+				@Override
+				public boolean test(NcbiGeneInfoFileData record) {
+					return record.getByteOffset() > geneInfoFile.length() / 2;
+				}
+			}));
+		} finally {
+			stream.close();
+		}
+		assertEquals(0, openReaderCount.get());
+	}
+
+	@Test
+	public void testFileSplitStreamOfMultiLineRecords() throws IOException {
+		final File uniprotFile = folder.newFile("UniProt_uniprot_sprot.dat");
+		ClassPathUtil.copyClasspathResourceToFile(SparseUniProtDatFileRecordReader.class, "UniProt_uniprot_sprot.dat",
+				uniprotFile);
+		Stream<SparseUniProtFileRecord> stream = FileSplitter.stream(uniprotFile,
+				new RecordReaderFactory<SparseUniProtDatFileRecordReader>() {
+					@Override
+					public SparseUniProtDatFileRecordReader newReader() throws IOException {
+						return new SparseUniProtDatFileRecordReader(uniprotFile, CharacterEncoding.US_ASCII, null);
+					}
+				}, 3);
+		List<String> accessions = new ArrayList<String>();
+		try {
+			for (SparseUniProtFileRecord record : stream.parallel().collect(
+					Collectors.<SparseUniProtFileRecord> toList())) {
+				accessions.add(record.getPrimaryAccession().getId());
+			}
+		} finally {
+			stream.close();
+		}
+		assertEquals(3, accessions.size());
+		assertEquals("Q197F8", accessions.get(0));
+		assertEquals("Q197F7", accessions.get(1));
+		assertEquals("Q197F5", accessions.get(2));
+	}
+
+}
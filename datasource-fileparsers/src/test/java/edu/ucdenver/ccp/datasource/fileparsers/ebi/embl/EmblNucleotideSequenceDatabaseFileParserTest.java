@@ -37,7 +37,6 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.text.ParseException;
@@ -354,6 +353,43 @@ public class EmblNucleotideSequenceDatabaseFileParserTest extends DefaultTestCas
 
 	}
 
+	/**
+	 * Each record is parsed from its own lines; nothing is carried over from the previous record
+	 */
+	@Test
+	public void testParser_MultipleRecords() throws IOException, ParseException {
+		File sampleFile = folder.newFile("sample-embl.dat");
+		List<String> lines = new ArrayList<String>(SAMPLE_EMBL_FILE_LINES);
+		lines.addAll(SAMPLE_EMBL_FILE_LINES);
+		FileWriterUtil.printLines(lines, sampleFile, CharacterEncoding.UTF_8, WriteMode.OVERWRITE,
+				FileSuffixEnforcement.OFF);
+
+		EmblTestRecordReader parser = new EmblTestRecordReader(sampleFile, CharacterEncoding.UTF_8);
+
+		assertTrue(parser.hasNext());
+		EmblSequenceDatabaseFileData r1 = parser.next();
+		assertTrue(parser.hasNext());
+		EmblSequenceDatabaseFileData r2 = parser.next();
+		assertFalse(parser.hasNext());
+
+		assertTrue(r2.getByteOffset() > r1.getByteOffset());
+		for (EmblSequenceDatabaseFileData r : CollectionsUtil.createList(r1, r2)) {
+			assertEquals(new EmblID("X56734"), r.getPrimaryAccessionNumber());
+			assertEquals(CollectionsUtil.createList(new EmblID("X56734"), new EmblID("S46826")),
+					r.getAccessionNumbers());
+			assertEquals("Trifolium repens mRNA for non-cyanogenic beta-glucosidase description line 2",
+					r.getDescription());
+			assertEquals(2, r.getReferenceCitations().size());
+			assertEquals(CollectionsUtil.createSet(new MgiGeneID("MGI:98599")), r.getDatabaseCrossReferences());
+			assertEquals(3, r.getAssemblyInfo().size());
+			assertEquals(1859, r.getSequenceLength());
+			assertEquals(1859, r.getSequence().length());
+		}
+		assertEquals(r1.getReferenceCitations(), r2.getReferenceCitations());
+		assertEquals(r1.getConstructedSeqInfo(), r2.getConstructedSeqInfo());
+		assertEquals(r1.getSequence(), r2.getSequence());
+	}
+
 	/**
 	 * This is a subclass of the {@link EmblNucleotideSequenceDatabaseFileParser} with the
 	 * parseFeatureTable() method overriden so that parsing of everything but the feature table can
@@ -376,9 +412,8 @@ public class EmblNucleotideSequenceDatabaseFileParserTest extends DefaultTestCas
 		}
 
 		@Override
-		protected Collection<? extends SequenceFeature> parseFeatureTable(String line, BufferedReader br)
-				throws IOException {
-			while ((line = br.readLine()).startsWith("FT")) {
+		protected Collection<? extends SequenceFeature> parseFeatureTable(String line, LineCursor cursor) {
+			while ((line = cursor.readLine()).startsWith("FT")) {
 
 			}
 			return new ArrayList<SequenceFeature>();
@@ -0,0 +1,144 @@
+package edu.ucdenver.ccp.datasource.fileparsers.ebi.goa.gaf;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.ucdenver.ccp.common.collections.CollectionsUtil;
+import edu.ucdenver.ccp.common.file.CharacterEncoding;
+import edu.ucdenver.ccp.datasource.fileparsers.format.gaf2.Gaf2FileRecord.AnnotationExtension;
+import edu.ucdenver.ccp.datasource.fileparsers.test.RecordReaderTester;
+import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.CellTypeOntologyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.GeneOntologyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtIsoformID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.ice.GoRefID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.ice.PubMedID;
+
+/**
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class GoaGaf2FileRecordReaderTest extends RecordReaderTester {
+
+	public static final String SAMPLE_FILE_NAME = "goa_sample.gaf";
+
+	@Override
+	protected String getSampleFileName() {
+		return SAMPLE_FILE_NAME;
+	}
+
+	@Override
+	protected GoaGaf2FileRecordReader initSampleRecordReader() throws IOException {
+		return initSampleRecordReader(null);
+	}
+
+	private GoaGaf2FileRecordReader initSampleRecordReader(Set<NcbiTaxonomyID> taxonIds) throws IOException {
+		return new GoaGaf2FileRecordReader(sampleInputFile, CharacterEncoding.US_ASCII, taxonIds,
+				GoaFileIdResolver.class);
+	}
+
+	private static List<GoaGaf2FileRecord> readAll(GoaGaf2FileRecordReader reader) throws IOException {
+		List<GoaGaf2FileRecord> records = new ArrayList<GoaGaf2FileRecord>();
+		try {
+			while (reader.hasNext()) {
+				records.add(reader.next());
+			}
+		} finally {
+			reader.close();
+		}
+		return records;
+	}
+
+	@Test
+	public void testParser() throws IOException {
+		List<GoaGaf2FileRecord> records = readAll(initSampleRecordReader());
+		assertEquals(8, records.size());
+
+		GoaGaf2FileRecord record = records.get(0);
+		assertEquals("UniProtKB", record.getDatabaseDesignation());
+		assertEquals(new UniProtID("P04637"), record.getDbObjectId());
+		assertEquals("TP53", record.getDbObjectSymbol());
+		assertNull(record.getQualifier());
+		assertEquals(new GeneOntologyID("GO:0005515"), record.getOntologyTermId());
+		assertEquals(CollectionsUtil.createSet(new PubMedID(12345678)), record.getReferenceAccessionIds());
+		assertEquals("IPI", record.getEvidenceCode());
+		assertEquals(CollectionsUtil.createSet(new UniProtID("Q00987")), record.getWithOrFrom());
+		assertEquals(CollectionsUtil.createSet("P53", "TP53"), record.getDbObjectSynonyms());
+		assertEquals(new NcbiTaxonomyID(9606), record.getDbObjectTaxonId());
+		assertNull(record.getInteractingTaxonId());
+		assertEquals(2014, record.getDate().get(Calendar.YEAR));
+		assertEquals(Calendar.JANUARY, record.getDate().get(Calendar.MONTH));
+		assertEquals(18, record.getDate().get(Calendar.DAY_OF_MONTH));
+		assertEquals("IntAct", record.getAssignedBy());
+		assertTrue(record.getAnnotationExtensions().isEmpty());
+		assertNull(record.getGeneProductFormId());
+
+		record = records.get(1);
+		assertEquals(CollectionsUtil.<DataSourceIdentifier<?>> createSet(new PubMedID(11111111), new GoRefID(
+				"GO_REF:0000024")), record.getReferenceAccessionIds());
+		assertTrue(record.getWithOrFrom().isEmpty());
+		assertEquals(CollectionsUtil.createSet(new AnnotationExtension("part_of", new CellTypeOntologyID(
+				"CL:0000084"))), record.getAnnotationExtensions());
+		assertEquals(new UniProtIsoformID("P04637-2"), record.getGeneProductFormId());
+
+		assertEquals("NOT", records.get(3).getQualifier());
+		assertEquals(new NcbiTaxonomyID(9606), records.get(4).getDbObjectTaxonId());
+		assertEquals(new NcbiTaxonomyID(10566), records.get(4).getInteractingTaxonId());
+	}
+
+	@Test
+	public void testTaxonAwareParser() throws IOException {
+		List<GoaGaf2FileRecord> records = readAll(initSampleRecordReader(CollectionsUtil
+				.createSet(new NcbiTaxonomyID(9606))));
+		assertEquals(4, records.size());
+		for (GoaGaf2FileRecord record : records) {
+			assertEquals(new NcbiTaxonomyID(9606), record.getDbObjectTaxonId());
+		}
+		assertEquals(2, readAll(initSampleRecordReader(CollectionsUtil.createSet(new NcbiTaxonomyID(10090)))).size());
+	}
+
+}
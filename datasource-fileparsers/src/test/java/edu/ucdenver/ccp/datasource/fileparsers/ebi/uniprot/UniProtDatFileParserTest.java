@@ -33,19 +33,31 @@ package edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot;
  * #L%
  */
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 
 import edu.ucdenver.ccp.common.collections.CollectionsUtil;
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
+import edu.ucdenver.ccp.common.file.FileWriterUtil;
+import edu.ucdenver.ccp.common.file.FileWriterUtil.FileSuffixEnforcement;
+import edu.ucdenver.ccp.common.file.FileWriterUtil.WriteMode;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtFileRecord.DbReference;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtFileRecord.Organism;
 import edu.ucdenver.ccp.datasource.fileparsers.test.RecordReaderTester;
+import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtEntryName;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtID;
 
 public class UniProtDatFileParserTest extends RecordReaderTester {
 
@@ -106,4 +118,79 @@ public class UniProtDatFileParserTest extends RecordReaderTester {
 
 	}
 
+	@Test
+	public void testParser_RecordContent() throws IOException {
+		SparseUniProtDatFileRecordReader parser = new SparseUniProtDatFileRecordReader(sampleInputFile,
+				CharacterEncoding.US_ASCII, null);
+
+		assertTrue(parser.hasNext());
+		SparseUniProtFileRecord record1 = parser.next();
+		assertEquals(new UniProtID("Q197F8"), record1.getPrimaryAccession());
+		assertEquals(new ArrayList<UniProtID>(), record1.getAccession());
+		assertEquals(CollectionsUtil.createList(new UniProtEntryName("002R_IIV3")), record1.getEntryName());
+		assertEquals(new NcbiTaxonomyID(345201), getTaxonId(record1.getOrganism()));
+		assertEquals(CollectionsUtil.createList(new NcbiTaxonomyID(7163), new NcbiTaxonomyID(42431),
+				new NcbiTaxonomyID(332058), new NcbiTaxonomyID(310513), new NcbiTaxonomyID(329105),
+				new NcbiTaxonomyID(7183)), getTaxonIds(record1.getOrganismHost()));
+
+		assertTrue(parser.hasNext());
+		SparseUniProtFileRecord record2 = parser.next();
+		assertEquals(new UniProtID("Q197F7"), record2.getPrimaryAccession());
+		assertEquals(CollectionsUtil.createList(new UniProtEntryName("003L_IIV3")), record2.getEntryName());
+		assertEquals(new NcbiTaxonomyID(345201), getTaxonId(record2.getOrganism()));
+
+		/* the accession numbers of this record span two AC lines */
+		assertTrue(parser.hasNext());
+		SparseUniProtFileRecord record3 = parser.next();
+		assertEquals(new UniProtID("Q197F5"), record3.getPrimaryAccession());
+		assertEquals(CollectionsUtil.createList(new UniProtID("Q197F6"), new UniProtID("Q197F7"), new UniProtID(
+				"Q197F8"), new UniProtID("Q197F9"), new UniProtID("Q197F0")), record3.getAccession());
+		assertEquals(CollectionsUtil.createList(new UniProtEntryName("005L_IIV3")), record3.getEntryName());
+		assertEquals(new NcbiTaxonomyID(54321), getTaxonId(record3.getOrganism()));
+		assertEquals(6, record3.getOrganismHost().size());
+
+		assertFalse(parser.hasNext());
+	}
+
+	/**
+	 * The line following a block of GN lines used to be consumed while parsing the GN block and
+	 * was therefore ignored; here it is the OX line, without which no record can be created
+	 */
+	@Test
+	public void testParser_LineFollowingGnBlock() throws IOException {
+		File datFile = folder.newFile("uniprot_gn.dat");
+		FileWriterUtil.printLines(CollectionsUtil.createList("ID   GNTEST_HUMAN            Reviewed;          10 AA.",
+				"AC   P00001;", "DE   RecName: Full=Test protein;", "GN   Name=ABC1;", "GN   Synonyms=XYZ1;",
+				"OX   NCBI_TaxID=9606;", "SQ   SEQUENCE   10 AA;  1111 MW;  0000000000000000 CRC64;",
+				"     MASNTVSAQG", "//"), datFile, CharacterEncoding.US_ASCII, WriteMode.OVERWRITE,
+				FileSuffixEnforcement.OFF);
+
+		SparseUniProtDatFileRecordReader parser = new SparseUniProtDatFileRecordReader(datFile,
+				CharacterEncoding.US_ASCII, CollectionsUtil.createSet(new NcbiTaxonomyID(9606)));
+
+		assertTrue(parser.hasNext());
+		SparseUniProtFileRecord record = parser.next();
+		assertEquals(new UniProtID("P00001"), record.getPrimaryAccession());
+		assertEquals(new NcbiTaxonomyID(9606), getTaxonId(record.getOrganism()));
+		assertFalse(parser.hasNext());
+	}
+
+	private static List<NcbiTaxonomyID> getTaxonIds(List<Organism> organisms) {
+		List<NcbiTaxonomyID> taxonIds = new ArrayList<NcbiTaxonomyID>();
+		for (Organism organism : organisms) {
+			taxonIds.add(getTaxonId(organism));
+		}
+		return taxonIds;
+	}
+
+	private static NcbiTaxonomyID getTaxonId(Organism organism) {
+		for (DbReference dbRef : organism.getDbReference()) {
+			DataSourceIdentifier<?> id = dbRef.getId();
+			if (id instanceof NcbiTaxonomyID) {
+				return (NcbiTaxonomyID) id;
+			}
+		}
+		return null;
+	}
+
 }
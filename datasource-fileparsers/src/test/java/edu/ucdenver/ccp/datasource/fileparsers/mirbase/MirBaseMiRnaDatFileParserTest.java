@@ -34,11 +34,13 @@ package edu.ucdenver.ccp.datasource.fileparsers.mirbase;
  */
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -51,6 +53,8 @@ import edu.ucdenver.ccp.common.file.FileWriterUtil.FileSuffixEnforcement;
 import edu.ucdenver.ccp.common.file.FileWriterUtil.WriteMode;
 import edu.ucdenver.ccp.common.test.DefaultTestCase;
 import edu.ucdenver.ccp.datasource.fileparsers.ebi.embl.SequenceFeature;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.embl.SequenceFeatureLocation;
+import edu.ucdenver.ccp.datasource.fileparsers.mirbase.MirBaseMiRnaSequenceFeature.MirBaseMiRnaSequenceFeatureQualifierSet;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.MiRBaseID;
 
 /**
@@ -169,4 +173,65 @@ public class MirBaseMiRnaDatFileParserTest extends DefaultTestCase {
 
 	}
 
+	@Test
+	public void testParser_RecordContent() throws IOException {
+		File sampleFile = folder.newFile("sample-miRNA.dat");
+		FileWriterUtil.printLines(SAMPLE_MIRNA_DAT_FILE_LINES, sampleFile, CharacterEncoding.UTF_8,
+				WriteMode.OVERWRITE, FileSuffixEnforcement.OFF);
+
+		MirBaseMiRnaDatFileParser parser = new MirBaseMiRnaDatFileParser(sampleFile, CharacterEncoding.UTF_8);
+
+		assertTrue(parser.hasNext());
+		MirBaseMiRnaDatFileData r = parser.next();
+		assertRecordContent(r);
+		assertFalse(parser.hasNext());
+	}
+
+	/**
+	 * Each record is parsed from its own lines; nothing is carried over from the previous record
+	 */
+	@Test
+	public void testParser_MultipleRecords() throws IOException {
+		File sampleFile = folder.newFile("sample-miRNA.dat");
+		List<String> lines = new ArrayList<String>(SAMPLE_MIRNA_DAT_FILE_LINES);
+		lines.addAll(SAMPLE_MIRNA_DAT_FILE_LINES);
+		FileWriterUtil.printLines(lines, sampleFile, CharacterEncoding.UTF_8, WriteMode.OVERWRITE,
+				FileSuffixEnforcement.OFF);
+
+		MirBaseMiRnaDatFileParser parser = new MirBaseMiRnaDatFileParser(sampleFile, CharacterEncoding.UTF_8);
+
+		assertTrue(parser.hasNext());
+		MirBaseMiRnaDatFileData r1 = parser.next();
+		assertRecordContent(r1);
+		assertTrue(parser.hasNext());
+		MirBaseMiRnaDatFileData r2 = parser.next();
+		assertRecordContent(r2);
+		assertTrue(r2.getByteOffset() > r1.getByteOffset());
+		assertFalse(parser.hasNext());
+	}
+
+	private static void assertRecordContent(MirBaseMiRnaDatFileData r) {
+		assertEquals(new MiRBaseID("cel-let-7"), r.getPrimaryAccessionNumber());
+		assertEquals(CollectionsUtil.createList(new MiRBaseID("MI0000001")), r.getAccessionNumbers());
+		assertEquals("Caenorhabditis elegans let-7 stem-loop", r.getDescription());
+		assertEquals(7, r.getReferenceCitations().size());
+		assertEquals(2, r.getDatabaseCrossReferences().size());
+		assertEquals("let-7 is found on chromosome X in Caenorhabditis elegans [1] and pairs to "
+				+ "sites within the 3' untranslated region (UTR) of target mRNAs, specifying "
+				+ "the translational repression of these mRNAs and triggering the transition "
+				+ "to late-larval and adult stages [2].", r.getComments());
+
+		MirBaseMiRnaSequenceFeature feature1 = new MirBaseMiRnaSequenceFeature(new SequenceFeatureLocation(17, 38),
+				new MirBaseMiRnaSequenceFeatureQualifierSet("MIMAT0000001", "cel-let-7-5p", "experimental",
+						"cloned [1-3,5], Northern [1], PCR [4], Solexa[6], CLIPseq [7]", null));
+		MirBaseMiRnaSequenceFeature feature2 = new MirBaseMiRnaSequenceFeature(new SequenceFeatureLocation(56, 80),
+				new MirBaseMiRnaSequenceFeatureQualifierSet("MIMAT0015091", "cel-let-7-3p", "experimental",
+						"CLIPseq [7]", null));
+		assertEquals(CollectionsUtil.createSet(feature1, feature2), r.getSequenceFeatures());
+
+		assertEquals(99, r.getSequenceLength());
+		assertEquals("uacacuguggauccggugagguaguagguuguauaguuuggaauauuaccaccggugaac"
+				+ "uaugcaauuuucuaccuuaccggagacagaacucuucga", r.getSequence());
+	}
+
 }
@@ -35,6 +35,7 @@ package edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
 import java.io.File;
@@ -48,6 +49,7 @@ import org.junit.Test;
 import edu.ucdenver.ccp.common.collections.CollectionsUtil;
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
 import edu.ucdenver.ccp.common.file.FileUtil;
+import edu.ucdenver.ccp.common.file.reader.Line;
 import edu.ucdenver.ccp.datasource.fileparsers.test.RecordReaderTester;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiGeneId;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
@@ -86,6 +88,19 @@ public class NcbiGene2PubmedFileParserTest extends RecordReaderTester {
 		assertFalse(parser.hasNext());
 	}
 
+	/**
+	 * Trailing empty columns are ignored when checking the number of columns on a line
+	 */
+	@Test
+	public void testTrailingEmptyColumns() {
+		NcbiGene2PubmedFileData record = NcbiGene2PubmedFileData.parseGene2PubmedLine(new Line("9\t1246500\t9873079\t",
+				Line.LineTerminator.LF, 0, 0, 0, 0));
+		checkGene2PubmedRecord(record, "9", "1246500", "9873079");
+
+		assertNull(NcbiGene2PubmedFileData.parseGene2PubmedLine(new Line("9\t1246500\t", Line.LineTerminator.LF, 0,
+				0, 0, 0)));
+	}
+
 	private void checkGene2PubmedRecord(NcbiGene2PubmedFileData record, String expectedTaxonomyId,
 			String expectedEntrezGeneID, String expectedPubMedId) {
 		assertEquals(String.format("Taxonomy ID not as expected."), new NcbiTaxonomyID(expectedTaxonomyId),
@@ -51,6 +51,7 @@ import org.junit.Test;
 import edu.ucdenver.ccp.common.collections.CollectionsUtil;
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
 import edu.ucdenver.ccp.common.file.FileUtil;
+import edu.ucdenver.ccp.common.file.reader.Line;
 import edu.ucdenver.ccp.datasource.fileparsers.test.RecordReaderTester;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EnsemblGeneID;
@@ -602,6 +603,25 @@ public class NcbiGeneInfoFileParserTest extends RecordReaderTester {
 				entrezGeneID2TaxonomyIDMap);
 	}
 
+	/**
+	 * Trailing empty columns are ignored when checking the number of columns on a line
+	 */
+	@Test
+	public void testTrailingEmptyColumn() {
+		NcbiGeneInfoFileData record = NcbiGeneInfoFileParser.parseGeneInfoLine(new Line(
+				"10090\t12780\tAbcc2\t-\t-\t-\t19\t-\t-\tprotein-coding\t-\t-\t-\t-\t20080827\treg\t",
+				Line.LineTerminator.LF, 0, 0, 0, 0));
+		assertEquals(new NcbiGeneId(12780), record.getGeneID());
+		assertEquals(CollectionsUtil.createSet("reg"), record.getFeatureTypes());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEmptyLastColumn() {
+		NcbiGeneInfoFileParser.parseGeneInfoLine(new Line(
+				"10090\t12780\tAbcc2\t-\t-\t-\t19\t-\t-\tprotein-coding\t-\t-\t-\t-\t20080827\t",
+				Line.LineTerminator.LF, 0, 0, 0, 0));
+	}
+
 	protected Map<File, List<String>> getExpectedOutputFile2LinesMap() {
 		final String NS = "<http://kabob.ucdenver.edu/ice/eg/";
 		List<String> lines = CollectionsUtil
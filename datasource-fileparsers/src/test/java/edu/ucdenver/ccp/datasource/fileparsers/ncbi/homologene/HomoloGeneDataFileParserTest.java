@@ -48,6 +48,7 @@ import org.junit.Test;
 import edu.ucdenver.ccp.common.collections.CollectionsUtil;
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
 import edu.ucdenver.ccp.common.file.FileUtil;
+import edu.ucdenver.ccp.common.file.reader.Line;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordReader;
 import edu.ucdenver.ccp.datasource.fileparsers.test.RecordReaderTester;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.GiNumberID;
@@ -200,4 +201,20 @@ public class HomoloGeneDataFileParserTest extends RecordReaderTester {
 		return counts;
 	}
 
+	/**
+	 * Trailing empty columns are ignored when checking the number of columns on a line
+	 */
+	@Test
+	public void testTrailingEmptyColumn() {
+		HomoloGeneDataFileData record = HomoloGeneDataFileData.parseHomologeneDataLine(new Line(
+				"3\t6239\t181758\tacdh-7\t17570075\tNP_510789.1\t", Line.LineTerminator.LF, 0, 0, 0, 0));
+		assertEquals(new HomologeneGroupID("3"), record.getHomologeneGroupID());
+		assertEquals(new RefSeqID("NP_510789.1"), record.getProteinAccession());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEmptyLastColumn() {
+		HomoloGeneDataFileData.parseHomologeneDataLine(new Line("3\t6239\t181758\tacdh-7\t17570075\t",
+				Line.LineTerminator.LF, 0, 0, 0, 0));
+	}
 }
@@ -35,8 +35,10 @@ package edu.ucdenver.ccp.datasource.fileparsers.ncbi.omim;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -46,6 +48,9 @@ import org.junit.Test;
 
 import edu.ucdenver.ccp.common.collections.CollectionsUtil;
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
+import edu.ucdenver.ccp.common.file.FileWriterUtil;
+import edu.ucdenver.ccp.common.file.FileWriterUtil.FileSuffixEnforcement;
+import edu.ucdenver.ccp.common.file.FileWriterUtil.WriteMode;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordReader;
 import edu.ucdenver.ccp.datasource.fileparsers.test.RecordReaderTester;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.OmimID;
@@ -117,6 +122,34 @@ public class OmimTxtFileParserTest extends RecordReaderTester {
 
 	}
 
+	/**
+	 * A field with no text is followed directly by the next field tag
+	 */
+	@Test
+	public void testParser_EmptyField() throws IOException {
+		File omimFile = folder.newFile("omim-empty-field.txt");
+		FileWriterUtil.printLines(CollectionsUtil.createList("*RECORD*", "*FIELD* NO", "100200", "*FIELD* TI",
+				"100200 ABDUCENS PALSY", "*FIELD* MN", "*FIELD* TX", "Abducens palsy was reported in a family.",
+				"*FIELD* CD", "Victor A. McKusick: 6/4/1986", "*RECORD*", "*FIELD* NO", "100300", "*FIELD* TI",
+				"100300 ADAMS-OLIVER SYNDROME", "*FIELD* TX", "*FIELD* CD", "Victor A. McKusick: 6/4/1986",
+				"*THEEND*"), omimFile, CharacterEncoding.US_ASCII, WriteMode.OVERWRITE, FileSuffixEnforcement.OFF);
+
+		OmimTxtFileParser parser = new OmimTxtFileParser(omimFile, CharacterEncoding.US_ASCII);
+
+		assertTrue(parser.hasNext());
+		OmimTxtFileData record1 = parser.next();
+		assertEquals(new OmimID(100200), record1.getMimNumber());
+		assertEquals("ABDUCENS PALSY", record1.getTitle());
+		assertEquals(new HashSet<String>(), record1.getAlternativeTitles());
+
+		assertTrue(parser.hasNext());
+		OmimTxtFileData record2 = parser.next();
+		assertEquals(new OmimID(100300), record2.getMimNumber());
+		assertEquals("ADAMS-OLIVER SYNDROME", record2.getTitle());
+
+		assertFalse(parser.hasNext());
+	}
+
 	@Test
 	public void testGetOmimID2NameMap() throws Exception {
 		Map<OmimID, String> omimID2NameMap = OmimTxtFileParser.getOmimID2NameMap(sampleInputFile, CharacterEncoding.US_ASCII);
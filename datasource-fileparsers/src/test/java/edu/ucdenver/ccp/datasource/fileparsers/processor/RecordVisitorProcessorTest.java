@@ -0,0 +1,204 @@
+package edu.ucdenver.ccp.datasource.fileparsers.processor;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import lombok.Getter;
+
+import org.junit.Test;
+
+import edu.ucdenver.ccp.datasource.fileparsers.DataRecord;
+import edu.ucdenver.ccp.datasource.fileparsers.Record;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordField;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordFieldVisitor;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordUtil;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordVisitor;
+import edu.ucdenver.ccp.datasource.fileparsers.drugbank.DrugBankDrugRecord;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileData;
+import edu.ucdenver.ccp.datasource.identifiers.DataSource;
+
+/**
+ * Tests the {@link RecordVisitor} implementations generated by the {@link RecordVisitorProcessor}
+ * for the record classes in this test and in the main source tree
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class RecordVisitorProcessorTest {
+
+	public static class BaseRecord implements DataRecord {
+		@RecordField
+		int inheritedField = 7;
+	}
+
+	@Record(dataSource = DataSource.KEGG)
+	public static class TestRecord extends BaseRecord {
+		@RecordField
+		private final String explicitGetterField = "a";
+		@RecordField
+		@Getter
+		private final List<String> lombokGetterField = Arrays.asList("b", null, "c");
+		@RecordField
+		@Getter
+		private final boolean booleanField = true;
+		@RecordField
+		Object objectField = new LinkedHashSet<String>(Arrays.asList("d", "e"));
+		@RecordField
+		String nullField = null;
+		@RecordField
+		final SubRecord subRecordField = new SubRecord("f");
+		@RecordField
+		final Set<SubRecord> subRecordSetField = Collections.singleton(new SubRecord("g"));
+
+		public String getExplicitGetterField() {
+			return explicitGetterField;
+		}
+	}
+
+	@Record(dataSource = DataSource.KEGG)
+	public static class SubRecord implements DataRecord {
+		@RecordField
+		final String value;
+
+		public SubRecord(String value) {
+			this.value = value;
+		}
+
+		@Override
+		public String toString() {
+			return "SubRecord(" + value + ")";
+		}
+	}
+
+	@Record(dataSource = DataSource.KEGG)
+	private static class PrivateRecord implements DataRecord {
+		@RecordField
+		String value;
+	}
+
+	@Record(dataSource = DataSource.KEGG)
+	public static class RecordWithoutGetter implements DataRecord {
+		@RecordField
+		private String value;
+	}
+
+	/**
+	 * Records the visited values as strings of the form [field index]:[value or sub-record]
+	 */
+	private static class RecordingFieldVisitor implements RecordFieldVisitor {
+		private final List<String> visits = new ArrayList<String>();
+
+		@Override
+		public void visitValue(int fieldIndex, Object value) {
+			visits.add(fieldIndex + ":" + value);
+		}
+
+		@Override
+		public void visitSubRecord(int fieldIndex, Object subRecord) {
+			visits.add(fieldIndex + ":sub:" + subRecord);
+		}
+	}
+
+	@Test
+	public void testGetVisitorClassName() {
+		assertEquals("a.b.Record_RecordVisitor", RecordVisitorProcessor.getVisitorClassName("a.b.Record"));
+		assertEquals("a.b.Outer_Inner_RecordVisitor", RecordVisitorProcessor.getVisitorClassName("a.b.Outer$Inner"));
+	}
+
+	@Test
+	public void testFieldNames() {
+		RecordVisitor<TestRecord> visitor = RecordUtil.getRecordVisitor(TestRecord.class);
+		assertNotNull(visitor);
+		assertEquals(Arrays.asList("booleanField", "explicitGetterField", "inheritedField", "lombokGetterField",
+				"nullField", "objectField", "subRecordField", "subRecordSetField"), visitor.getFieldNames());
+	}
+
+	@Test
+	public void testVisit() {
+		RecordVisitor<TestRecord> visitor = RecordUtil.getRecordVisitor(TestRecord.class);
+		RecordingFieldVisitor fieldVisitor = new RecordingFieldVisitor();
+		visitor.visit(new TestRecord(), fieldVisitor);
+		assertEquals(Arrays.asList("0:true", "1:a", "2:7", "3:b", "3:null", "3:c", "5:d", "5:e",
+				"6:sub:SubRecord(f)", "7:sub:SubRecord(g)"), fieldVisitor.visits);
+	}
+
+	@Test
+	public void testGetFieldValue() {
+		TestRecord record = new TestRecord();
+		RecordVisitor<TestRecord> visitor = RecordUtil.getRecordVisitor(TestRecord.class);
+		assertEquals(Boolean.TRUE, visitor.getFieldValue(record, 0));
+		assertEquals(Integer.valueOf(7), visitor.getFieldValue(record, 2));
+		assertEquals(record.lombokGetterField, visitor.getFieldValue(record, 3));
+		assertNull(visitor.getFieldValue(record, 4));
+		assertEquals(record.subRecordField, visitor.getFieldValue(record, 6));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetFieldValueInvalidIndex() {
+		RecordUtil.getRecordVisitor(TestRecord.class).getFieldValue(new TestRecord(), 8);
+	}
+
+	@Test
+	public void testNoVisitorGenerated() {
+		assertNull(RecordUtil.getRecordVisitor(PrivateRecord.class));
+		assertNull(RecordUtil.getRecordVisitor(RecordWithoutGetter.class));
+		assertNull(RecordUtil.getRecordVisitor(BaseRecord.class));
+	}
+
+	@Test
+	public void testVisitorsGeneratedForRecordClasses() {
+		for (Class<?> recordClass : Arrays.<Class<?>> asList(NcbiGeneInfoFileData.class, DrugBankDrugRecord.class)) {
+			RecordVisitor<?> visitor = RecordUtil.getRecordVisitor(recordClass);
+			assertNotNull(recordClass.getName(), visitor);
+			List<String> fieldNames = new ArrayList<String>();
+			for (Field field : RecordUtil.getFieldToRecordFieldAnnotationsMap(recordClass).keySet()) {
+				fieldNames.add(field.getName());
+			}
+			Collections.sort(fieldNames);
+			assertEquals(recordClass.getName(), fieldNames, visitor.getFieldNames());
+		}
+	}
+
+}
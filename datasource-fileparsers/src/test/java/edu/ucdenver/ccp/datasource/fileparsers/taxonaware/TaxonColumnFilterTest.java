@@ -0,0 +1,351 @@
+package edu.ucdenver.ccp.datasource.fileparsers.taxonaware;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.ucdenver.ccp.common.collections.CollectionsUtil;
+import edu.ucdenver.ccp.common.file.CharacterEncoding;
+import edu.ucdenver.ccp.common.file.FileWriterUtil;
+import edu.ucdenver.ccp.common.file.reader.Line;
+import edu.ucdenver.ccp.common.io.ClassPathUtil;
+import edu.ucdenver.ccp.common.test.DefaultTestCase;
+import edu.ucdenver.ccp.datasource.fileparsers.ColumnValuePredicate;
+import edu.ucdenver.ccp.datasource.fileparsers.RawLinePredicate;
+import edu.ucdenver.ccp.datasource.fileparsers.DataRecord;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.bioplex.BioPlexInteractionListFileData;
+import edu.ucdenver.ccp.datasource.fileparsers.bioplex.BioPlexInteractionListRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.goa.gaf.GoaFileIdResolver;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.goa.gaf.GoaGaf2FileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.goa.gaf.GoaGaf2FileRecordReaderTest;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtIDMappingFileData;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtIDMappingFileParserTest;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtIDMappingFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.idlist.IdListFileFactory;
+import edu.ucdenver.ccp.datasource.fileparsers.irefweb.IRefWebPsiMitab2_6FileParser;
+import edu.ucdenver.ccp.datasource.fileparsers.irefweb.IRefWebPsiMitab2_6FileParserTest;
+import edu.ucdenver.ccp.datasource.fileparsers.kegg.KeggMapTitleTabFileData;
+import edu.ucdenver.ccp.datasource.fileparsers.kegg.KeggMapTitleTabFileParser;
+import edu.ucdenver.ccp.datasource.fileparsers.kegg.KeggMapTitleTabFileParserTest;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileData;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileParser;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileParserTest;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.homologene.HomoloGeneDataFileData;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.homologene.HomoloGeneDataFileParser;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.homologene.HomoloGeneDataFileParserTest;
+import edu.ucdenver.ccp.datasource.fileparsers.taxonaware.TaxonColumnFilter.Decision;
+import edu.ucdenver.ccp.datasource.identifiers.DataSource;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.KeggPathwayID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtID;
+
+/**
+ * Tests for {@link TaxonColumnFilter} and for the equivalence of taxon filtering using a
+ * {@link TaxonColumnFilter} and using
+ * {@link TaxonAwareSingleLineFileRecordReader#getLineTaxon(edu.ucdenver.ccp.common.file.reader.Line)}
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class TaxonColumnFilterTest extends DefaultTestCase {
+
+	private static final Set<Integer> HUMAN_AND_MOUSE = CollectionsUtil.createSet(9606, 10090);
+
+	@Test
+	public void testSingleColumn() {
+		TaxonColumnFilter filter = new TaxonColumnFilter('\t', 1);
+		assertEquals(Decision.ACCEPT, filter.evaluate("a\t9606\tb", HUMAN_AND_MOUSE));
+		assertEquals(Decision.ACCEPT, filter.evaluate("a\t10090", HUMAN_AND_MOUSE));
+		assertEquals(Decision.REJECT, filter.evaluate("a\t9615\tb", HUMAN_AND_MOUSE));
+		assertEquals(Decision.REJECT, filter.evaluate("a\t960\tb", HUMAN_AND_MOUSE));
+		assertEquals(Decision.UNDECIDED, filter.evaluate("a\t 9606\tb", HUMAN_AND_MOUSE));
+		assertEquals(Decision.UNDECIDED, filter.evaluate("a\ttaxon:9606\tb", HUMAN_AND_MOUSE));
+		assertEquals(Decision.UNDECIDED, filter.evaluate("a\t\tb", HUMAN_AND_MOUSE));
+		assertEquals(Decision.UNDECIDED, filter.evaluate("a", HUMAN_AND_MOUSE));
+		assertEquals(Decision.UNDECIDED, filter.evaluate("a\t99999999999\tb", HUMAN_AND_MOUSE));
+	}
+
+	@Test
+	public void testMitabColumns() {
+		TaxonColumnFilter filter = new TaxonColumnFilter('\t', new int[] { 1, 2 }, "taxid:", '(', true, "-");
+		assertEquals(Decision.ACCEPT,
+				filter.evaluate("a\ttaxid:9606(Homo sapiens)\ttaxid:10090(Mus musculus)", HUMAN_AND_MOUSE));
+		assertEquals(Decision.ACCEPT, filter.evaluate("a\t-\ttaxid:10090(Mus musculus)", HUMAN_AND_MOUSE));
+		assertEquals(Decision.ACCEPT, filter.evaluate("a\t-\t-", HUMAN_AND_MOUSE));
+		assertEquals(Decision.REJECT,
+				filter.evaluate("a\ttaxid:9796(Equus caballus)\ttaxid:10090(Mus musculus)", HUMAN_AND_MOUSE));
+		assertEquals(Decision.UNDECIDED, filter.evaluate("a\ttaxid:-4(in vivo)\ttaxid:10090(x)", HUMAN_AND_MOUSE));
+		assertEquals(Decision.UNDECIDED, filter.evaluate("a\ttaxid:9606\ttaxid:10090(x)", HUMAN_AND_MOUSE));
+		assertEquals(Decision.UNDECIDED, filter.evaluate("a\t9606(x)\ttaxid:10090(x)", HUMAN_AND_MOUSE));
+	}
+
+	@Test
+	public void testMultiValuedColumn() {
+		TaxonColumnFilter filter = new TaxonColumnFilter('\t', new int[] { 0 }, "taxon:", '|', false, null);
+		assertEquals(Decision.ACCEPT, filter.evaluate("taxon:9606", HUMAN_AND_MOUSE));
+		assertEquals(Decision.ACCEPT, filter.evaluate("taxon:9606|taxon:11676\tx", HUMAN_AND_MOUSE));
+		assertEquals(Decision.REJECT, filter.evaluate("taxon:11676|taxon:9606\tx", HUMAN_AND_MOUSE));
+	}
+
+	@Test
+	public void testColumnValuePredicate() {
+		ColumnValuePredicate predicate = new ColumnValuePredicate('\t', 2, CollectionsUtil.createList("IDA", "IMP"),
+				false);
+		assertTrue(predicate.accept("a\tb\tIDA\tc"));
+		assertTrue(predicate.accept("a\tb\tIMP"));
+		assertFalse(predicate.accept("a\tb\tIEA\tc"));
+		assertFalse(predicate.accept("a\tb\tIDAX\tc"));
+		assertFalse(predicate.accept("a\tb"));
+	}
+
+	private File copySampleFile(Class<?> testClass, String fileName) throws IOException {
+		File file = folder.newFile(fileName);
+		ClassPathUtil.copyClasspathResourceToFile(testClass, fileName, file);
+		return file;
+	}
+
+	private static <T extends DataRecord> List<T> readAll(RecordReader<T> reader) throws IOException {
+		List<T> records = new ArrayList<T>();
+		try {
+			while (reader.hasNext()) {
+				records.add(reader.next());
+			}
+		} finally {
+			reader.close();
+		}
+		return records;
+	}
+
+	@Test
+	public void testGeneInfoFilterMatchesGetLineTaxon() throws IOException {
+		File file = copySampleFile(NcbiGeneInfoFileParserTest.class, "EntrezGene_gene_info");
+		for (Set<NcbiTaxonomyID> taxa : CollectionsUtil.createList(CollectionsUtil.createSet(new NcbiTaxonomyID(10090)),
+				CollectionsUtil.createSet(new NcbiTaxonomyID(9606)),
+				CollectionsUtil.createSet(new NcbiTaxonomyID(9606), new NcbiTaxonomyID(10090)),
+				CollectionsUtil.createSet(new NcbiTaxonomyID(7227)))) {
+			List<?> expected = readAll(new NcbiGeneInfoFileParser(file, CharacterEncoding.US_ASCII, taxa) {
+				@Override
+				protected TaxonColumnFilter getTaxonColumnFilter() {
+					return null;
+				}
+			});
+			List<?> actual = readAll(new NcbiGeneInfoFileParser(file, CharacterEncoding.US_ASCII, taxa));
+			assertEquals(taxa.toString(), expected, actual);
+		}
+	}
+
+	@Test
+	public void testHomoloGeneFilterMatchesGetLineTaxon() throws IOException {
+		File file = copySampleFile(HomoloGeneDataFileParserTest.class, "homologene.data");
+		for (Set<NcbiTaxonomyID> taxa : CollectionsUtil.createList(CollectionsUtil.createSet(new NcbiTaxonomyID(10090)),
+				CollectionsUtil.createSet(new NcbiTaxonomyID(9606), new NcbiTaxonomyID(6239)),
+				CollectionsUtil.createSet(new NcbiTaxonomyID(7227)))) {
+			List<?> expected = readAll(new HomoloGeneDataFileParser(file, CharacterEncoding.US_ASCII, taxa) {
+				@Override
+				protected TaxonColumnFilter getTaxonColumnFilter() {
+					return null;
+				}
+			});
+			List<?> actual = readAll(new HomoloGeneDataFileParser(file, CharacterEncoding.US_ASCII, taxa));
+			assertEquals(taxa.toString(), expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(((HomoloGeneDataFileData) expected.get(i)).getLineNumber(),
+						((HomoloGeneDataFileData) actual.get(i)).getLineNumber());
+			}
+		}
+	}
+
+	@Test
+	public void testIRefWebFilterMatchesGetLineTaxon() throws IOException {
+		File file = copySampleFile(IRefWebPsiMitab2_6FileParserTest.class, "IRefWeb_10090.mitab.MMDDYYYY.txt");
+		for (Set<NcbiTaxonomyID> taxa : CollectionsUtil.createList(
+				CollectionsUtil.createSet(new NcbiTaxonomyID(559292)),
+				CollectionsUtil.createSet(new NcbiTaxonomyID(9796), new NcbiTaxonomyID(10090)),
+				CollectionsUtil.createSet(new NcbiTaxonomyID(10090)))) {
+			List<?> expected = readAll(new IRefWebPsiMitab2_6FileParser(file, CharacterEncoding.US_ASCII, taxa) {
+				@Override
+				protected TaxonColumnFilter getTaxonColumnFilter() {
+					return null;
+				}
+			});
+			List<?> actual = readAll(new IRefWebPsiMitab2_6FileParser(file, CharacterEncoding.US_ASCII, taxa));
+			assertEquals(taxa.toString(), expected, actual);
+		}
+	}
+
+	@Test
+	public void testUniProtIdMappingFilterMatchesGetLineTaxon() throws IOException {
+		File file = copySampleFile(UniProtIDMappingFileParserTest.class, "UniProt_idmapping_selected.tab");
+		for (Set<NcbiTaxonomyID> taxa : CollectionsUtil.createList(CollectionsUtil.createSet(new NcbiTaxonomyID(5874)),
+				CollectionsUtil.createSet(new NcbiTaxonomyID(5875), new NcbiTaxonomyID(4081)),
+				CollectionsUtil.createSet(new NcbiTaxonomyID(9606)))) {
+			List<UniProtIDMappingFileData> expected = readAll(new UniProtIDMappingFileRecordReader(file,
+					CharacterEncoding.US_ASCII, taxa) {
+				@Override
+				protected TaxonColumnFilter getTaxonColumnFilter() {
+					return null;
+				}
+			});
+			List<UniProtIDMappingFileData> actual = readAll(new UniProtIDMappingFileRecordReader(file,
+					CharacterEncoding.US_ASCII, taxa));
+			assertEquals(taxa.toString(), expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).getLineNumber(), actual.get(i).getLineNumber());
+				assertEquals(expected.get(i).getUniProtAccessionID(), actual.get(i).getUniProtAccessionID());
+			}
+		}
+	}
+
+	@Test
+	public void testGaf2FilterMatchesGetLineTaxon() throws IOException {
+		File file = copySampleFile(GoaGaf2FileRecordReaderTest.class, GoaGaf2FileRecordReaderTest.SAMPLE_FILE_NAME);
+		for (Set<NcbiTaxonomyID> taxa : CollectionsUtil.createList(CollectionsUtil.createSet(new NcbiTaxonomyID(9606)),
+				CollectionsUtil.createSet(new NcbiTaxonomyID(10090), new NcbiTaxonomyID(10116)),
+				CollectionsUtil.createSet(new NcbiTaxonomyID(9606), new NcbiTaxonomyID(10566)),
+				CollectionsUtil.createSet(new NcbiTaxonomyID(7227)))) {
+			List<?> expected = readAll(new GoaGaf2FileRecordReader(file, CharacterEncoding.US_ASCII, taxa,
+					GoaFileIdResolver.class) {
+				@Override
+				protected TaxonColumnFilter getTaxonColumnFilter() {
+					return null;
+				}
+			});
+			List<?> actual = readAll(new GoaGaf2FileRecordReader(file, CharacterEncoding.US_ASCII, taxa,
+					GoaFileIdResolver.class));
+			assertEquals(taxa.toString(), expected, actual);
+		}
+	}
+
+	/**
+	 * Compares the column-based BioPlex getLineTaxon() against the original implementation,
+	 * which parsed the entire line in order to look up the two UniProt identifiers
+	 */
+	@Test
+	public void testBioPlexGetLineTaxonMatchesFullParse() throws IOException {
+		File file = folder.newFile("BioPlex_interactionList.tsv");
+		FileWriterUtil.printLines(CollectionsUtil.createList(
+				"GeneA\tGeneB\tUniprotA\tUniprotB\tSymbolA\tSymbolB\tp(Wrong)\tp(No Interaction)\tp(Interaction)",
+				"7157\t8517\tP04637\tQ9Y6K9\tTP53\tIKBKG\t2.7e-09\t0.0003\t0.9997",
+				"7157\t100\tP04637\tP00813\tTP53\tADA\t1.1e-05\t0.0121\t0.9879",
+				"672\t7157\tP38398\tP04637\tBRCA1\tTP53\t3.2e-07\t0.0011\t0.9989",
+				"672\t7157\tP38398-2\tP04637\tBRCA1\tTP53\t3.2e-07\t0.0011\t0.9989",
+				"8517\t672\tUNKNOWN\tP38398\tIKBKG\tBRCA1\t6.4e-06\t0.0542\t0.9458"), file,
+				CharacterEncoding.US_ASCII);
+		File idListDirectory = folder.newFolder("id-lists");
+		FileWriterUtil.printLines(CollectionsUtil.createList("P04637", "Q9Y6K9", "P38398"), new File(idListDirectory,
+				"UNIPROT.ixJNsZVcfKFuXrgmTw2kKOorPq4.utf8"), CharacterEncoding.UTF_8);
+		final Set<NcbiTaxonomyID> taxa = CollectionsUtil.createSet(new NcbiTaxonomyID(9606));
+		final Set<UniProtID> taxonSpecificIds = IdListFileFactory.getIdListFromFile(idListDirectory, null,
+				DataSource.UNIPROT, taxa, UniProtID.class, false);
+
+		List<BioPlexInteractionListFileData> expected = readAll(new BioPlexInteractionListRecordReader(file,
+				CharacterEncoding.US_ASCII, taxa, idListDirectory, null, false) {
+			@Override
+			protected Set<NcbiTaxonomyID> getLineTaxon(Line line) {
+				BioPlexInteractionListFileData record = BioPlexInteractionListFileData.parseLine(line);
+				if (taxonSpecificIds.contains(record.getUniprotIdA())
+						&& taxonSpecificIds.contains(record.getUniprotIdB())) {
+					return taxa;
+				}
+				return CollectionsUtil.createSet(new NcbiTaxonomyID(0));
+			}
+		});
+		List<BioPlexInteractionListFileData> actual = readAll(new BioPlexInteractionListRecordReader(file,
+				CharacterEncoding.US_ASCII, taxa, idListDirectory, null, false));
+		assertEquals(2, expected.size());
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getLineNumber(), actual.get(i).getLineNumber());
+			assertEquals(expected.get(i).getUniprotIdA(), actual.get(i).getUniprotIdA());
+			assertEquals(expected.get(i).getUniprotIdB(), actual.get(i).getUniprotIdB());
+		}
+	}
+
+	@Test
+	public void testRawLinePredicate() throws IOException {
+		File file = copySampleFile(NcbiGeneInfoFileParserTest.class, "EntrezGene_gene_info");
+		NcbiGeneInfoFileParser parser = new NcbiGeneInfoFileParser(file, CharacterEncoding.US_ASCII, null);
+		parser.addRawLinePredicate(new ColumnValuePredicate('\t', 0, CollectionsUtil.createList("9606"), false));
+		List<NcbiGeneInfoFileData> records = readAll(parser);
+		assertEquals(1, records.size());
+		assertEquals(new NcbiTaxonomyID(9606), records.get(0).getTaxonID());
+	}
+
+	@Test
+	public void testRawLinePredicateWithoutTaxonFilter() throws IOException {
+		File file = copySampleFile(KeggMapTitleTabFileParserTest.class, "KEGG_map_title.tab");
+		KeggMapTitleTabFileParser parser = new KeggMapTitleTabFileParser(file, CharacterEncoding.US_ASCII);
+		parser.addRawLinePredicate(new ColumnValuePredicate('\t', 0, CollectionsUtil.createList("00020", "00030"),
+				false));
+		List<KeggMapTitleTabFileData> records = readAll(parser);
+		assertEquals(2, records.size());
+		assertEquals(new KeggPathwayID("00020"), records.get(0).getKeggPathwayID());
+		assertEquals(new KeggPathwayID("00030"), records.get(1).getKeggPathwayID());
+
+		parser = new KeggMapTitleTabFileParser(file, CharacterEncoding.US_ASCII);
+		parser.addRawLinePredicate(new ColumnValuePredicate('\t', 0, CollectionsUtil.createList("00020", "00030"),
+				false));
+		parser.enableParallelParsing(2, 1, true);
+		assertEquals(records.size(), readAll(parser).size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRawLinePredicateRequiresDescription() throws IOException {
+		File file = copySampleFile(NcbiGeneInfoFileParserTest.class, "EntrezGene_gene_info");
+		NcbiGeneInfoFileParser parser = new NcbiGeneInfoFileParser(file, CharacterEncoding.US_ASCII, null);
+		parser.addRawLinePredicate(new RawLinePredicate() {
+			@Override
+			public boolean accept(String lineText) {
+				return true;
+			}
+
+			@Override
+			public String getDescription() {
+				return null;
+			}
+		});
+	}
+
+}
@@ -1,10 +1,15 @@
 package edu.ucdenver.ccp.datasource.fileparsers.test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.apache.commons.lang.builder.EqualsBuilder;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -44,10 +49,16 @@ import org.junit.Test;
 import edu.ucdenver.ccp.common.file.FileUtil;
 import edu.ucdenver.ccp.common.io.ClassPathUtil;
 import edu.ucdenver.ccp.common.test.DefaultTestCase;
+import edu.ucdenver.ccp.datasource.fileparsers.DataRecord;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordReader;
 
 public abstract class RecordReaderTester extends DefaultTestCase {
 
+	/**
+	 * Batch sizes used when reading records using {@link RecordReader#nextBatch(List, int)}
+	 */
+	private static final int[] BATCH_SIZES = { 1, 2, 3, 7, 1000 };
+
 	protected File sampleInputFile;
 	protected File outputDirectory;
 
@@ -92,4 +103,50 @@ public abstract class RecordReaderTester extends DefaultTestCase {
 			assertTrue("Repeated calls to parser.hasNext() should not advance the iterator.", recordReader.hasNext());
 	}
 
+	@Test
+	public void testBatchIterationMatchesSingleRecordIteration() throws Exception {
+		List<DataRecord> expectedRecords = new ArrayList<DataRecord>();
+		RecordReader<?> recordReader = initSampleRecordReader();
+		try {
+			while (recordReader.hasNext()) {
+				expectedRecords.add(recordReader.next());
+			}
+		} finally {
+			recordReader.close();
+		}
+
+		for (int batchSize : BATCH_SIZES) {
+			List<DataRecord> records = new ArrayList<DataRecord>();
+			recordReader = initSampleRecordReader();
+			try {
+				int count;
+				while ((count = recordReader.nextBatch(records, batchSize)) > 0) {
+					assertTrue(count <= batchSize);
+				}
+				assertFalse(recordReader.hasNext());
+			} finally {
+				recordReader.close();
+			}
+			assertEquals("Batch size: " + batchSize, expectedRecords.size(), records.size());
+			for (int i = 0; i < records.size(); i++) {
+				assertTrue("Batch size: " + batchSize + ", record: " + i,
+						recordsEqual(expectedRecords.get(i), records.get(i)));
+			}
+		}
+	}
+
+	/**
+	 * @return true if the records are equal, comparing their fields if the record class does not
+	 *         implement equals()
+	 */
+	private static boolean recordsEqual(DataRecord expected, DataRecord actual) throws NoSuchMethodException {
+		if (expected == null || actual == null) {
+			return expected == actual;
+		}
+		if (expected.getClass().getMethod("equals", Object.class).getDeclaringClass() != Object.class) {
+			return expected.equals(actual);
+		}
+		return EqualsBuilder.reflectionEquals(expected, actual);
+	}
+
 }
@@ -0,0 +1,356 @@
+package edu.ucdenver.ccp.datasource.identifiers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.AnimalQtlDbID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.AphidBaseID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.ApiDbCryptoDbID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.BeeBaseID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.BeetleBaseID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.BindingDbId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.CellTypeOntologyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.CgncID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.ChebiOntologyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.ChemSpiderId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.ChemicalAbstractsServiceId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.ClinicalTrialsGovId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.DailyMedId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.DbjID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.DictyBaseID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.DipInteractionID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.DipInteractorID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.DrugBankID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.DrugCodeDirectoryID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.DrugsProductDatabaseID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EcoCycID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EcoGeneID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EmbID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EmblID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EnsemblGeneID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.FlyBaseID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.GenBankID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.GeneOntologyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.GiNumberID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.HgncID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.HomologeneGroupID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.HprdID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.ImgtID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.IntActID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.InterProID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.IpiID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.IupharLigandId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.KeggCompoundID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.KeggDrugID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.KeggGeneID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.MaizeGdbID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.MammalianPhenotypeID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.MgiGeneID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.MiRBaseID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.MintID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NasoniaBaseID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NationalDrugCodeDirectoryId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiGeneId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.OmimID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.PathemaID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.PbrID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.PdbID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.PdbLigandId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.PharmGkbGenericId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.PirID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.ProteinOntologyId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.PseudoCapID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.PsiModId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.PubChemCompoundId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.PubChemSubstanceId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.RatMapID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.ReactomeReactionID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.RefSeqID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.RgdID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.SequenceOntologyId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.SgdID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.SnpRsId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.TairID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.TherapeuticTargetsDatabaseId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.TigrFamsID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniParcID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtIsoformID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.VbrcID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.VectorBaseID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.VegaID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.WormBaseID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.XenBaseID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.ZfinID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.ice.PubMedID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.ice.WikipediaId;
+
+/**
+ * @author Center for Computational Pharmacology; ccpsupport@ucdenver.edu
+ * 
+ */
+public class DataSourceIdResolverTest {
+
+	/**
+	 * database name, database object id, expected identifier
+	 */
+	private static final Object[][] DATABASE_NAME_CASES = new Object[][] {
+			{ "MGI", "MGI:97490", new MgiGeneID("MGI:97490") },
+			{ "Chemical Abstracts Service", "50-00-0", new ChemicalAbstractsServiceId("50-00-0") },
+			{ "ClinicalTrials.gov", "NCT00000102", new ClinicalTrialsGovId("NCT00000102") },
+			{ "RGD", "2004", new RgdID("2004") },
+			{ "UniProtKB", "P04637", new UniProtID("P04637") },
+			{ "chebi", "15377", new ChebiOntologyID("CHEBI:15377") },
+			{ "DIP", "DIP-123N", new DipInteractorID("DIP-123N") },
+			{ "drugbank", "DB00001", new DrugBankID("DB00001") },
+			{ "DrugBank", "DB00001", new DrugBankID("DB00001") },
+			{ "keggdrug", "D00001", new KeggDrugID("D00001") },
+			{ "KEGG Drug", "D00001", new KeggDrugID("D00001") },
+			{ "keggcompound", "C00001", new KeggCompoundID("C00001") },
+			{ "KEGG Compound", "C00001", new KeggCompoundID("C00001") },
+			{ "pubchemcompound", "2244", new PubChemCompoundId("2244") },
+			{ "PubChem Compound", "2244", new PubChemCompoundId("2244") },
+			{ "pubchemsubstance", "12345", new PubChemSubstanceId("12345") },
+			{ "PubChem Substance", "12345", new PubChemSubstanceId("12345") },
+			{ "EG", "7157", new NcbiGeneId("7157") },
+			{ "Ensembl", "ENSG00000141510", new EnsemblGeneID("ENSG00000141510") },
+			{ "EMBL", "AB000001", new EmblID("AB000001") },
+			{ "RefSeq", "NM_000546", new RefSeqID("NM_000546") },
+			{ "VEGA", "OTTHUMG00000162125", new VegaID("OTTHUMG00000162125") },
+			{ "NCBI-GI", "120407068", new GiNumberID("120407068") },
+			{ "NCBI-GeneID", "7157", new NcbiGeneId("7157") },
+			{ "OMIM", "191170", new OmimID("191170") },
+			{ "HGNC", "HGNC:11998", new HgncID("HGNC:11998") },
+			{ "HPRD", "01859", new HprdID("01859") },
+			{ "UniProt", "P04637", new UniProtID("P04637") },
+			{ "PharmGKB", "PA36679", new PharmGkbGenericId("PA36679") },
+			{ "TTD", "TTDS00001", new TherapeuticTargetsDatabaseId("TTDS00001") },
+			{ "Therapeutic Targets Database", "TTDS00001", new TherapeuticTargetsDatabaseId("TTDS00001") },
+			{ "bindingDb", "50000001", new BindingDbId("50000001") },
+			{ "chemSpider", "2157", new ChemSpiderId("2157") },
+			{ "dpd", "12345", new DrugsProductDatabaseID("12345") },
+			{ "DailyMed", "1c4a1b9a-1f3a-4b3c-9b4a-1a2b3c4d5e6f", new DailyMedId("1c4a1b9a-1f3a-4b3c-9b4a-1a2b3c4d5e6f") },
+			{ "FDA Drug Label at DailyMed", "1c4a1b9a-1f3a-4b3c-9b4a-1a2b3c4d5e6f",
+					new DailyMedId("1c4a1b9a-1f3a-4b3c-9b4a-1a2b3c4d5e6f") },
+			{ "HET", "ATP", new PdbLigandId("ATP") },
+			{ "iupharLigand", "1234", new IupharLigandId("1234") },
+			{ "IUPHAR Ligand", "1234", new IupharLigandId("1234") },
+			{ "ndc", "0002-1234", new NationalDrugCodeDirectoryId("0002-1234") },
+			{ "VectorBase", "AGAP000001", new VectorBaseID("AGAP000001") },
+			{ "pdb", "ATP", new PdbLigandId("ATP") },
+			{ "pdb", "1TUP", new PdbID("1TUP") },
+			{ "Drugs Product Database (DPD)", "12345", new DrugsProductDatabaseID("12345") },
+			{ "DPD", "12345", new DrugsProductDatabaseID("12345") },
+			{ "National Drug Code Directory", "0002-1234", new DrugCodeDirectoryID("0002-1234") },
+			{ "url", "http://en.wikipedia.org/wiki/Aspirin", new WikipediaId("Aspirin") },
+			{ "Web Resource", "http://en.wikipedia.org/wiki/Aspirin", new WikipediaId("Aspirin") },
+			{ "url", "http://www.example.org/Aspirin", new UnknownDataSourceIdentifier("original") },
+			{ "GenBank", "AAA12345", new GenBankID("AAA12345") },
+			{ "GenBank Gene Database", "AAA12345", new GenBankID("AAA12345") },
+			{ "GenBank Protein Database", "AAA12345", new GenBankID("AAA12345") },
+			{ "FlyBase", "FBgn0000001", new FlyBaseID("FBgn0000001") },
+			{ "uniprotkb", "P04637", new UniProtID("P04637") },
+			{ "PDB", "1TUP", new PdbID("1TUP") },
+			{ "No Such Database", "12345", new UnknownDataSourceIdentifier("original") } };
+
+	/**
+	 * id string, expected identifier
+	 */
+	private static final Object[][] PREFIX_CASES = new Object[][] {
+			{ "MGI:97490", new MgiGeneID("MGI:97490") },
+			{ "MGI:MGI:97490", new MgiGeneID("MGI:97490") },
+			{ "ncbi-geneid:7157", new NcbiGeneId("7157") },
+			{ "entrezgene/locuslink:7157", new NcbiGeneId("7157") },
+			{ "Ensembl:ENSG00000141510", new EnsemblGeneID("ENSG00000141510") },
+			{ "refseq:NM_000546", new RefSeqID("NM_000546") },
+			{ "uniprotkb:P04637", new UniProtID("P04637") },
+			{ "UniProtKB:p04637", new UniProtID("P04637") },
+			{ "uniprotkb:P04637-2", new UniProtIsoformID("P04637-2") },
+			{ "UniProtKB/Swiss-Prot:P04637", new UniProtID("P04637") },
+			{ "Swiss-Prot:P04637", new UniProtID("P04637") },
+			{ "TREMBL:P04637", new UniProtID("P04637") },
+			{ "TAIR:locus:2031476", new TairID("locus:2031476") },
+			{ "MaizeGDB:12345", new MaizeGdbID("12345") },
+			{ "WormBase:WBGene00000001", new WormBaseID("WBGene00000001") },
+			{ "BEEBASE:GB10001", new BeeBaseID("GB10001") },
+			{ "NASONIABASE:NV10001", new NasoniaBaseID("NV10001") },
+			{ "VectorBase:AGAP000001", new VectorBaseID("AGAP000001") },
+			{ "APHIDBASE:ACYPI000001", new AphidBaseID("ACYPI000001") },
+			{ "BEETLEBASE:TC000001", new BeetleBaseID("TC000001") },
+			{ "FLYBASE:FBgn0000001", new FlyBaseID("FBGN0000001") },
+			{ "FlyBase:FBgn0000001", new FlyBaseID("FBGN0000001") },
+			{ "ZFIN:ZDB-GENE-000000-1", new ZfinID("ZDB-GENE-000000-1") },
+			{ "AnimalQTLdb:12345", new AnimalQtlDbID("12345") },
+			{ "RGD:2004", new RgdID("2004") },
+			{ "PBR:12345", new PbrID("12345") },
+			{ "VBRC:12345", new VbrcID("12345") },
+			{ "Pathema:12345", new PathemaID("12345") },
+			{ "PseudoCap:PA0001", new PseudoCapID("PA0001") },
+			{ "ApiDB_CryptoDB:cgd1_10", new ApiDbCryptoDbID("cgd1_10") },
+			{ "dictyBase:DDB_G0267178", new DictyBaseID("DDB_G0267178") },
+			{ "InterPro:IPR000001", new InterProID("IPR000001") },
+			{ "EcoGene:EG10001", new EcoGeneID("EG10001") },
+			{ "EcoCyc:EG10001", new EcoCycID("EG10001") },
+			{ "SGD:S000000001", new SgdID("S000000001") },
+			{ "RATMAP:12345", new RatMapID("12345") },
+			{ "Xenbase:XB-GENE-12345", new XenBaseID("XB-GENE-12345") },
+			{ "CGNC:12345", new CgncID("12345") },
+			{ "HGNC:11998", new HgncID("HGNC:11998") },
+			{ "HGNC:HGNC:11998", new HgncID("HGNC:11998") },
+			{ "MIM:191170", new OmimID("191170") },
+			{ "HPRD:01859", new HprdID("01859") },
+			{ "IMGT/GENE-DB:IGHV1-2", new ImgtID("IGHV1-2") },
+			{ "PDB:1TUP", new PdbID("1TUP") },
+			{ "gb:aaa12345", new GenBankID("AAA12345") },
+			{ "GB:AAA12345", new GenBankID("AAA12345") },
+			{ "emb:CAA12345", new EmbID("CAA12345") },
+			{ "dbj:BAA12345", new DbjID("BAA12345") },
+			{ "intact:EBI-366083", new IntActID("EBI-366083") },
+			{ "RefSeq:NP_000537", new RefSeqID("NP_000537") },
+			{ "uniparc:UPI000002ED67", new UniParcID("UPI000002ED67") },
+			{ "genbank_protein_gi:120407068", new GiNumberID("120407068") },
+			{ "pir:a12345", new PirID("A12345") },
+			{ "PIR:A12345", new PirID("A12345") },
+			{ "pubmed:12345678", new PubMedID("12345678") },
+			{ "dip:DIP-123N", new DipInteractorID("DIP-123N") },
+			{ "dip:DIP-45E", new DipInteractionID("DIP-45E") },
+			{ "TIGR:TIGR00001", new TigrFamsID("TIGR00001") },
+			{ "ipi:IPI00000001", new IpiID("IPI00000001") },
+			{ "mint:MINT-12345", new MintID("MINT-12345") },
+			{ "Reactome:R-HSA-12345", new ReactomeReactionID("R-HSA-12345") },
+			{ "miRBase:MI0000001", new MiRBaseID("MI0000001") },
+			{ "PR:000001", new ProteinOntologyId("PR:000001") },
+			{ "SO:0000704", new SequenceOntologyId("SO:0000704") },
+			{ "GO:0005515", new GeneOntologyID("GO:0005515") },
+			{ "CHEBI:15377", new ChebiOntologyID("CHEBI:15377") },
+			{ "MP:0000001", new MammalianPhenotypeID("MP:0000001") },
+			{ "MOD:00001", new PsiModId("MOD:00001") },
+			{ "KEGG_hsa:7157", new KeggGeneID("KEGG_hsa:7157") },
+			{ "KEGG_PATHWAY_hsa00010", new KeggGeneID("KEGG_PATHWAY_hsa00010") },
+			{ "EG_7157", new NcbiGeneId("7157") },
+			{ "HOMOLOGENE_GROUP_460", new HomologeneGroupID("460") },
+			{ "IPR000001", new InterProID("IPR000001") },
+			{ "rs12345", new SnpRsId("rs12345") },
+			{ "CL:0000001", new CellTypeOntologyID("CL:0000001") },
+			{ "Vega:OTTHUMG00000162125", new VegaID("OTTHUMG00000162125") },
+			{ "NCBITaxon:9606", new NcbiTaxonomyID("9606") },
+			{ "dip:DIP-123", new UnknownDataSourceIdentifier("dip:DIP-123") },
+			{ "IPR000001a", new UnknownDataSourceIdentifier("IPR000001a") },
+			{ "mgi:97490", new UnknownDataSourceIdentifier("mgi:97490") },
+			{ "xyz:12345", new UnknownDataSourceIdentifier("xyz:12345") },
+			{ "", new UnknownDataSourceIdentifier("") } };
+
+	@Test
+	public void testResolveIdByDatabaseName() {
+		for (Object[] testCase : DATABASE_NAME_CASES) {
+			String databaseName = (String) testCase[0];
+			String databaseObjectId = (String) testCase[1];
+			assertEquals(databaseName + " " + databaseObjectId, testCase[2],
+					DataSourceIdResolver.resolveId(databaseName, databaseObjectId, "original"));
+		}
+	}
+
+	@Test
+	public void testResolveIdByPrefix() {
+		for (Object[] testCase : PREFIX_CASES) {
+			assertEquals((String) testCase[0], testCase[1], DataSourceIdResolver.resolveId((String) testCase[0]));
+		}
+	}
+
+	@Test
+	public void testResolveIdByPrefix_InvalidIds() {
+		assertProbableError("NCBITaxon:human", "NCBITaxon:human", DataSourceIdResolver.resolveId("NCBITaxon:human"));
+		assertProbableError("pubmed:abc", "pubmed:abc", DataSourceIdResolver.resolveId("pubmed:abc"));
+		/* the UniProt rule reports the lower-cased id without its prefix */
+		assertProbableError("uniprotkb:12345", "12345", DataSourceIdResolver.resolveId("uniprotkb:12345"));
+		assertProbableError("UniProtKB:NotAnId", "notanid", DataSourceIdResolver.resolveId("UniProtKB:NotAnId"));
+	}
+
+	@Test
+	public void testTryResolveIdByDataSource() {
+		/* roughly a third of these ids are rejected by their identifier classes */
+		Object[][] cases = new Object[][] { { DataSource.NCBI_GENE, "12345" }, { DataSource.NCBI_GENE, "abc" },
+				{ DataSource.UNIPROT, "P12345" }, { DataSource.UNIPROT, "P12345-2" }, { DataSource.UNIPROT, "12345" },
+				{ DataSource.REFSEQ, "NM_000546.5" }, { DataSource.REFSEQ, "NM000546" },
+				{ DataSource.MGI, "MGI:97490" }, { DataSource.DIP, "DIP-123N" }, { DataSource.DIP, "DIP-123X" },
+				{ DataSource.KEGG, "hsa:7157" } };
+		for (Object[] testCase : cases) {
+			DataSource dataSource = (DataSource) testCase[0];
+			String id = (String) testCase[1];
+			String message = dataSource + " " + id;
+			IdentifierResult<? extends DataSourceIdentifier<?>> result = DataSourceIdResolver.tryResolveId(dataSource,
+					id);
+			try {
+				DataSourceIdentifier<?> expected = DataSourceIdResolver.resolveId(dataSource, id);
+				assertTrue(message, result.isValid());
+				assertEquals(message, expected, result.getIdentifier());
+			} catch (IllegalArgumentException e) {
+				assertFalse(message, result.isValid());
+				assertEquals(message, e.getMessage(), result.getErrorMessage());
+			}
+		}
+		assertFalse(DataSourceIdResolver.tryResolveId(DataSource.UNIPROT, "12345").isValid());
+		assertFalse(DataSourceIdResolver.tryResolveId(DataSource.KEGG, "hsa:7157").isValid());
+	}
+
+	@Test
+	public void testTryResolveIdByDatabaseName() {
+		for (Object[] testCase : DATABASE_NAME_CASES) {
+			String databaseName = (String) testCase[0];
+			String databaseObjectId = (String) testCase[1];
+			IdentifierResult<? extends DataSourceIdentifier<?>> result = DataSourceIdResolver.tryResolveId(
+					databaseName, databaseObjectId, "original");
+			assertTrue(databaseName + " " + databaseObjectId, result.isValid());
+			assertEquals(databaseName + " " + databaseObjectId, testCase[2], result.getIdentifier());
+		}
+		IdentifierResult<? extends DataSourceIdentifier<?>> result = DataSourceIdResolver.tryResolveId("UniProtKB",
+				"12345", "UniProtKB:12345");
+		assertFalse(result.isValid());
+		assertEquals("12345", result.getInvalidId());
+	}
+
+	private static void assertProbableError(String message, String expectedIdStr, DataSourceIdentifier<?> id) {
+		assertEquals(message, ProbableErrorDataSourceIdentifier.class, id.getClass());
+		assertEquals(message, expectedIdStr, id.getId());
+		assertNull(message, ((ProbableErrorDataSourceIdentifier) id).getDataSourceStr());
+	}
+
+}
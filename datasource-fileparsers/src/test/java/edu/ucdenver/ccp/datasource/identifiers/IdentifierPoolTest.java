@@ -0,0 +1,181 @@
+package edu.ucdenver.ccp.datasource.identifiers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.GiNumberID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtID;
+
+/**
+ * @author Center for Computational Pharmacology; ccpsupport@ucdenver.edu
+ * 
+ */
+public class IdentifierPoolTest {
+
+	@Before
+	public void setUp() {
+		IdentifierPool.setEnabled(true);
+		IdentifierPool.setMaxSizePerType(IdentifierPool.DEFAULT_MAX_SIZE_PER_TYPE);
+	}
+
+	@After
+	public void tearDown() {
+		IdentifierPool.setEnabled(false);
+		IdentifierPool.setMaxSizePerType(IdentifierPool.DEFAULT_MAX_SIZE_PER_TYPE);
+	}
+
+	@Test
+	public void testInternReturnsCanonicalInstance() {
+		UniProtID id1 = IdentifierPool.intern(UniProtID.class, "P12345");
+		UniProtID id2 = IdentifierPool.intern(UniProtID.class, new String("P12345"));
+		assertSame(id1, id2);
+		assertEquals(1, IdentifierPool.size(UniProtID.class));
+	}
+
+	@Test
+	public void testEqualitySemanticsUnchanged() {
+		NcbiTaxonomyID interned = IdentifierPool.intern(NcbiTaxonomyID.class, "taxon:9606");
+		assertEquals(NcbiTaxonomyID.HUMAN, interned);
+		assertEquals(NcbiTaxonomyID.HUMAN.hashCode(), interned.hashCode());
+		assertEquals(new NcbiTaxonomyID("9606"), IdentifierPool.intern(NcbiTaxonomyID.class, "9606"));
+		assertEquals(new UniProtID("p12345"), IdentifierPool.intern(UniProtID.class, "p12345"));
+		assertEquals(new GiNumberID("42"), IdentifierPool.intern(GiNumberID.class, "42"));
+		assertFalse(IdentifierPool.intern(GiNumberID.class, "42").equals(
+				IdentifierPool.intern(NcbiTaxonomyID.class, "42")));
+	}
+
+	@Test
+	public void testDisabledPoolCreatesNewInstances() {
+		IdentifierPool.setEnabled(false);
+		UniProtID id1 = IdentifierPool.intern(UniProtID.class, "P12345");
+		UniProtID id2 = IdentifierPool.intern(UniProtID.class, "P12345");
+		assertNotSame(id1, id2);
+		assertEquals(id1, id2);
+		assertEquals(0, IdentifierPool.size(UniProtID.class));
+	}
+
+	@Test
+	public void testInvalidIdsAreRejectedAndNotCached() {
+		try {
+			IdentifierPool.intern(UniProtID.class, "not-a-uniprot-id");
+			fail("Invalid id should have been rejected");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		assertEquals(0, IdentifierPool.size(UniProtID.class));
+	}
+
+	@Test
+	public void testDisabledPoolRejectsInvalidIds() {
+		IdentifierPool.setEnabled(false);
+		try {
+			IdentifierPool.intern(UniProtID.class, "not-a-uniprot-id");
+			fail("Invalid id should have been rejected");
+		} catch (IllegalArgumentException e) {
+			assertEquals(UniProtID.getValidationError("not-a-uniprot-id"), e.getMessage());
+		}
+		IdentifierResult<UniProtID> result = IdentifierPool.tryIntern(UniProtID.class, "not-a-uniprot-id");
+		assertFalse(result.isValid());
+		assertEquals("not-a-uniprot-id", result.getInvalidId());
+		assertFalse(IdentifierPool.tryIntern(GiNumberID.class, "not-a-number").isValid());
+		assertEquals(new GiNumberID("42"), IdentifierPool.tryIntern(GiNumberID.class, "42").getIdentifier());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnresolvedIdentifiersCannotBePooled() {
+		IdentifierPool.intern(UnknownDataSourceIdentifier.class, "xyz:123");
+	}
+
+	@Test
+	public void testPoolIsBounded() {
+		IdentifierPool.setMaxSizePerType(10);
+		for (int i = 0; i < 1000; i++) {
+			IdentifierPool.intern(GiNumberID.class, Integer.toString(i));
+			assertTrue(IdentifierPool.size(GiNumberID.class) <= 10);
+		}
+		assertEquals(new GiNumberID(999), IdentifierPool.intern(GiNumberID.class, "999"));
+	}
+
+	@Test
+	public void testConcurrentIntern() throws Exception {
+		final int idCount = 500;
+		int threadCount = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			List<Future<List<GiNumberID>>> futures = new ArrayList<Future<List<GiNumberID>>>();
+			for (int t = 0; t < threadCount; t++) {
+				futures.add(executor.submit(new Callable<List<GiNumberID>>() {
+					@Override
+					public List<GiNumberID> call() {
+						List<GiNumberID> ids = new ArrayList<GiNumberID>(idCount);
+						for (int i = 0; i < idCount; i++) {
+							ids.add(IdentifierPool.intern(GiNumberID.class, Integer.toString(i)));
+						}
+						return ids;
+					}
+				}));
+			}
+			List<GiNumberID> expected = futures.get(0).get();
+			for (Future<List<GiNumberID>> future : futures) {
+				List<GiNumberID> ids = future.get();
+				for (int i = 0; i < idCount; i++) {
+					assertSame(expected.get(i), ids.get(i));
+					assertEquals(new GiNumberID(i), ids.get(i));
+				}
+			}
+			assertEquals(idCount, IdentifierPool.size(GiNumberID.class));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
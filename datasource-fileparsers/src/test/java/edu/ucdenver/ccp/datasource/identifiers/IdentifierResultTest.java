@@ -0,0 +1,204 @@
+package edu.ucdenver.ccp.datasource.identifiers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.CellTypeOntologyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.ChebiOntologyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EcoGeneID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EmblID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EnsemblGeneID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EnsemblProteinID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EnsemblTranscriptID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EnzymeCommissionID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.FlyBaseID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.GenBankID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.GeneOntologyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.GiNumberID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.HAMAPId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.HgncID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.IntActID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.InterProID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.MammalianPhenotypeID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.MgiGeneID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NboId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiGeneId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.OmimID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.PantherID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.PomBaseId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.ProteinOntologyId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.PubChemCompoundId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.PubChemSubstanceId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.PwId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.RdoId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.ReactomeReactionID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.RefSeqID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.RgdID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.RnaCentralId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.SequenceOntologyId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.SgdID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.SnpRsId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.TairID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UberonID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniPathwayId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtIsoformID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.WormBaseID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.ZfinID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.ice.DOI;
+import edu.ucdenver.ccp.datasource.identifiers.impl.ice.GoRefID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.ice.PubMedID;
+
+/**
+ * @author Center for Computational Pharmacology; ccpsupport@ucdenver.edu
+ * 
+ */
+public class IdentifierResultTest {
+
+	private static final String[] INPUTS = new String[] { "P12345", "p12345", "A0A023GPI8", "P12345-2", "P12345-x",
+			"12345-2", "P12345-2-3", "NM_000546", "NM_000546.5", "XP_123", "HGNC:5", "5", "HGNC:x", "MGI:97490",
+			"97490", "MGI:abc", "IPR000001", "IPR00000a", "rs123", "rs", "123", "ENSG00000139618",
+			"ENSMUSG00000017167", "ENST00000380152", "ENSP00000369497", "ENSX00000369497", "taxon:9606", "PMID:42",
+			"2147483648", "abc", "", " ", "-", "GO:0005737", " GO:0005737 ", "GO:abc", "R-HSA-2173788",
+			"R-hsa-2173788", "AB123456.1", ".1", ".1.2", "1.2.3.-", "ZDB-GENE-000112-47", "DOI:10.1000/182" };
+
+	@SuppressWarnings("unchecked")
+	private static final Class<? extends DataSourceIdentifier<?>>[] CLASSES = new Class[] { UniProtID.class,
+			UniProtIsoformID.class, RefSeqID.class, HgncID.class, MgiGeneID.class, InterProID.class, SnpRsId.class,
+			EnsemblGeneID.class, EnsemblTranscriptID.class, EnsemblProteinID.class, GiNumberID.class,
+			NcbiGeneId.class, NcbiTaxonomyID.class, PubMedID.class, CellTypeOntologyID.class,
+			ChebiOntologyID.class, DOI.class, EcoGeneID.class, EmblID.class, EnzymeCommissionID.class,
+			FlyBaseID.class, GenBankID.class, GeneOntologyID.class, GoRefID.class, HAMAPId.class, IntActID.class,
+			MammalianPhenotypeID.class, NboId.class, OmimID.class, PantherID.class, PomBaseId.class,
+			ProteinOntologyId.class, PubChemCompoundId.class, PubChemSubstanceId.class, PwId.class, RdoId.class,
+			ReactomeReactionID.class, RgdID.class, RnaCentralId.class, SequenceOntologyId.class, SgdID.class,
+			TairID.class, UberonID.class, UniPathwayId.class, WormBaseID.class, ZfinID.class };
+
+	@Before
+	public void setUp() {
+		IdentifierPool.setEnabled(true);
+	}
+
+	@After
+	public void tearDown() {
+		IdentifierPool.setEnabled(false);
+	}
+
+	@Test
+	public void testValidResult() {
+		IdentifierResult<UniProtID> result = IdentifierPool.tryIntern(UniProtID.class, "P12345");
+		assertTrue(result.isValid());
+		assertEquals(new UniProtID("P12345"), result.getIdentifier());
+		assertSame(result.getIdentifier(), IdentifierPool.intern(UniProtID.class, "P12345"));
+		assertSame(result.getIdentifier(), result.getIdentifierOrProbableError("UniProt"));
+		assertNull(result.getInvalidId());
+		assertNull(result.getErrorMessage());
+	}
+
+	@Test
+	public void testInvalidResult() {
+		IdentifierResult<UniProtID> result = IdentifierPool.tryIntern(UniProtID.class, "12345");
+		assertFalse(result.isValid());
+		assertEquals("12345", result.getInvalidId());
+		assertEquals(0, IdentifierPool.size(UniProtID.class));
+
+		DataSourceIdentifier<?> probableError = result.getIdentifierOrProbableError("UniProt");
+		assertEquals(new ProbableErrorDataSourceIdentifier("12345", "UniProt", result.getErrorMessage()),
+				probableError);
+
+		try {
+			result.getIdentifier();
+			fail("An invalid result should not return an identifier");
+		} catch (IllegalArgumentException e) {
+			assertEquals(result.getErrorMessage(), e.getMessage());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidResultRequiresMessage() {
+		IdentifierResult.invalid("12345", null);
+	}
+
+	/**
+	 * The identifier types checked here, which include every type returned by the GOA and RGD
+	 * annotation file resolvers, reject invalid ids without constructing an exception
+	 */
+	@Test
+	public void testClassesDeclareValidationMethods() throws Exception {
+		for (Class<? extends DataSourceIdentifier<?>> idClass : CLASSES) {
+			idClass.getDeclaredMethod("getValidationError", String.class);
+		}
+	}
+
+	/**
+	 * tryIntern must accept exactly the ids the identifier constructors accept, and report the
+	 * message the constructor would have thrown, regardless of whether the class provides a
+	 * getValidationError method.
+	 */
+	@Test
+	public void testTryInternMatchesConstructors() throws Exception {
+		for (Class<? extends DataSourceIdentifier<?>> idClass : CLASSES) {
+			for (String input : INPUTS) {
+				String message = idClass.getSimpleName() + " '" + input + "'";
+				IdentifierResult<? extends DataSourceIdentifier<?>> result = IdentifierPool.tryIntern(idClass, input);
+				try {
+					DataSourceIdentifier<?> expected = idClass.getConstructor(String.class).newInstance(input);
+					assertTrue(message, result.isValid());
+					assertEquals(message, expected, result.getIdentifier());
+				} catch (InvocationTargetException e) {
+					if (!(e.getCause() instanceof IllegalArgumentException)) {
+						throw e;
+					}
+					assertFalse(message, result.isValid());
+					assertEquals(message, input, result.getInvalidId());
+					assertEquals(message, e.getCause().getMessage(), result.getErrorMessage());
+				}
+			}
+		}
+	}
+
+}
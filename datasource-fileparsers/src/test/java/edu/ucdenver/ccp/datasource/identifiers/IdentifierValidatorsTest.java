@@ -0,0 +1,213 @@
+package edu.ucdenver.ccp.datasource.identifiers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import edu.ucdenver.ccp.common.string.RegExPatterns;
+
+/**
+ * Compares each validator in {@link IdentifierValidators} against the regular expression it
+ * replaced, using real identifiers, mutations of real identifiers and random strings.
+ * 
+ * @author Center for Computational Pharmacology; ccpsupport@ucdenver.edu
+ * 
+ */
+public class IdentifierValidatorsTest {
+
+	private static final List<String> REAL_IDS = Arrays.asList("P12345", "Q9H0H5", "O00123", "A0A022YWF9",
+			"A2BC19", "B7ZC32", "NP_047184", "NP_047184.1", "NM_000546.5", "NZ_ABCD12345678", "NZ_AAAAAAA1234",
+			"WP_012345678", "XM_123", "YP_0001", "ZP_99", "NS_000001", "AB_123456.", "ENSG00000141510",
+			"ENST00000269305", "ENSP00000269305", "ENSMUSG00000059552", "ENSRNOT00000012345", "ENSDARP00000000001",
+			"GO:0005515", "GO:", "MI:0326", "rs12345", "DIP-12345N", "DIP-678E", "DIP-N", "pmid:12345",
+			"pubmed:67890", "pmid:-1", "TI12345678", "TI1234567", "12345", "00001", "BAC39464.1", "BAC39464.",
+			"HPRD_:00001", "HPRD:12345", "PIRSF000001", "MGI:97490", "HGNC:11998", "", "ENS", "ENSG", "NZ_",
+			"\u0663\u0664", "NP_\u0663");
+
+	private static final char[] ALPHABET = "ABEGIMNOPQRSTUVWXYZ_:.-0123456789 abegmprsu\u0663\u00e9".toCharArray();
+
+	private static final Random RANDOM = new Random(20161017L);
+
+	private static final int SAMPLE_COUNT = 200000;
+
+	private static List<String> getSampleIds(String... prefixes) {
+		List<String> ids = new ArrayList<String>(REAL_IDS);
+		for (int i = 0; i < SAMPLE_COUNT; i++) {
+			switch (RANDOM.nextInt(3)) {
+			case 0:
+				ids.add(mutate(REAL_IDS.get(RANDOM.nextInt(REAL_IDS.size()))));
+				break;
+			case 1:
+				ids.add(prefixes[RANDOM.nextInt(prefixes.length)] + randomString(RANDOM.nextInt(12)));
+				break;
+			default:
+				ids.add(randomString(RANDOM.nextInt(14)));
+				break;
+			}
+		}
+		return ids;
+	}
+
+	private static String mutate(String id) {
+		StringBuilder sb = new StringBuilder(id);
+		int mutationCount = 1 + RANDOM.nextInt(3);
+		for (int i = 0; i < mutationCount; i++) {
+			int index = sb.length() == 0 ? 0 : RANDOM.nextInt(sb.length());
+			switch (RANDOM.nextInt(3)) {
+			case 0:
+				sb.insert(index, randomChar());
+				break;
+			case 1:
+				if (sb.length() > 0)
+					sb.deleteCharAt(index);
+				break;
+			default:
+				if (sb.length() > 0)
+					sb.setCharAt(index, randomChar());
+				break;
+			}
+		}
+		return sb.toString();
+	}
+
+	private static String randomString(int length) {
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			/* favor digits so that the tails of the formats are exercised */
+			sb.append(RANDOM.nextBoolean() ? (char) ('0' + RANDOM.nextInt(10)) : randomChar());
+		}
+		return sb.toString();
+	}
+
+	private static char randomChar() {
+		return ALPHABET[RANDOM.nextInt(ALPHABET.length)];
+	}
+
+	@Test
+	public void testIsUniProtAccession() {
+		Pattern pattern = Pattern.compile("[OPQ][0-9][A-Z0-9]{3}[0-9]|[A-NR-Z][0-9]([A-Z][A-Z0-9]{2}[0-9]){1,2}");
+		for (String id : getSampleIds("A0", "O0", "P1", "Q9", "A0A0", "B7Z")) {
+			assertEquals(id, pattern.matcher(id).matches(), IdentifierValidators.isUniProtAccession(id));
+		}
+	}
+
+	@Test
+	public void testIsRefSeqAccession() {
+		Pattern pattern = Pattern
+				.compile("((AC_)|(AP_)|(NC_)|(NG_)|(NM_)|(NP_)|(NR_)|(NT_)|(NW_)|(NZ_[A-Z]{1,6})|(XM_)|(XP_)|(XR_)|(YP_)|(ZP_)|(NS_)|(WP_))\\d+");
+		for (String id : getSampleIds("AC_", "AP_", "NC_", "NG_", "NM_", "NP_", "NR_", "NT_", "NW_", "NZ_", "NZ_ABCDEF",
+				"XM_", "XP_", "XR_", "YP_", "ZP_", "NS_", "WP_", "NA_", "AB_")) {
+			assertEquals(id, pattern.matcher(id).matches(), IdentifierValidators.isRefSeqAccession(id));
+		}
+	}
+
+	@Test
+	public void testIsRefSeqStyleAccession() {
+		Pattern pattern = Pattern.compile("[A-Z][A-Z]_\\d+\\.?\\d*");
+		for (String id : getSampleIds("NP_", "XM_", "AB_", "NP_1.", "N_")) {
+			assertEquals(id, pattern.matcher(id).matches(), IdentifierValidators.isRefSeqStyleAccession(id));
+		}
+	}
+
+	@Test
+	public void testIsEnsemblId() {
+		for (char typeCode : new char[] { 'G', 'T', 'P' }) {
+			Pattern pattern = Pattern.compile("ENS[^\\d]*" + typeCode + "\\d+");
+			for (String id : getSampleIds("ENS", "ENSG", "ENST", "ENSP", "ENSMUSG", "ENSGP", "ENS-", "ENSE")) {
+				assertEquals(id, pattern.matcher(id).matches(), IdentifierValidators.isEnsemblId(id, typeCode));
+			}
+		}
+	}
+
+	@Test
+	public void testIsPrefixedNumber() {
+		for (String prefix : new String[] { "GO:", "MI:", "rs", "pmid:", "pubmed:", "TI" }) {
+			Pattern pattern = Pattern.compile(Pattern.quote(prefix) + "\\d+");
+			for (String id : getSampleIds(prefix, prefix.substring(1), prefix + "-")) {
+				assertEquals(id, pattern.matcher(id).matches(), IdentifierValidators.isPrefixedNumber(id, prefix));
+			}
+		}
+	}
+
+	@Test
+	public void testIsPrefixedNumberWithSuffix() {
+		for (char suffix : new char[] { 'N', 'E' }) {
+			Pattern pattern = Pattern.compile("DIP-\\d+" + suffix);
+			for (String id : getSampleIds("DIP-", "DIP", "DIP-N", "DIP-E")) {
+				assertEquals(id, pattern.matcher(id).matches(), IdentifierValidators.isPrefixedNumber(id, "DIP-", suffix));
+			}
+		}
+	}
+
+	@Test
+	public void testGetVersionSuffixStart() {
+		Pattern pattern = Pattern.compile("\\.\\d+\\z");
+		for (String id : getSampleIds("NP_047184.", "BAC39464.", ".")) {
+			Matcher m = pattern.matcher(id);
+			int expectedStart = m.find() ? m.start() : -1;
+			assertEquals(id, expectedStart, IdentifierValidators.getVersionSuffixStart(id));
+		}
+	}
+
+	@Test
+	public void testHasNumbersOnly() {
+		for (String id : getSampleIds("MGI:", "HGNC:", "PIRSF")) {
+			boolean expected = id.matches(RegExPatterns.HAS_NUMBERS_ONLY);
+			assertEquals(id, expected, IdentifierValidators.hasNumbersOnly(id));
+			for (int start = 0; start <= id.length(); start++) {
+				assertEquals(id, id.substring(start).matches(RegExPatterns.HAS_NUMBERS_ONLY),
+						IdentifierValidators.hasNumbersOnly(id, start));
+			}
+		}
+	}
+
+	@Test
+	public void testNonAsciiDigitsAreRejected() {
+		assertFalse(IdentifierValidators.isPrefixedNumber("GO:\u0663", "GO:"));
+		assertFalse(IdentifierValidators.isRefSeqAccession("NP_\u0663"));
+		assertFalse(IdentifierValidators.isUniProtAccession("P\u06632345"));
+		assertTrue(IdentifierValidators.isPrefixedNumber("GO:0005515", "GO:"));
+	}
+}
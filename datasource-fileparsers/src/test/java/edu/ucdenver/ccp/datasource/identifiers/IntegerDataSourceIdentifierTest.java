@@ -0,0 +1,133 @@
+package edu.ucdenver.ccp.datasource.identifiers;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2014 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.GiNumberID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiGeneId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
+import edu.ucdenver.ccp.datasource.identifiers.impl.ice.PubMedID;
+
+/**
+ * @author Center for Computational Pharmacology; ccpsupport@ucdenver.edu
+ * 
+ */
+public class IntegerDataSourceIdentifierTest {
+
+	@Test
+	public void testPrefixVariants() {
+		for (String id : new String[] { "9606", "taxon:9606", "TAXON:9606", "TaxId:9606", "taxid:9606",
+				" taxon:9606\t", "009606" }) {
+			assertEquals(id, NcbiTaxonomyID.HUMAN, new NcbiTaxonomyID(id));
+			assertNull(id, NcbiTaxonomyID.getValidationError(id));
+		}
+		for (String id : new String[] { "12345", "PMID:12345", "pmid:12345", "PmId:12345", " PMID:12345 " }) {
+			assertEquals(id, new PubMedID(12345), new PubMedID(id));
+			assertNull(id, PubMedID.getValidationError(id));
+		}
+		assertEquals(Integer.valueOf(12), IntegerDataSourceIdentifier.validate("ABC:12", Arrays.asList(" abc: ", "")));
+	}
+
+	@Test
+	public void testPrefixMustBeFollowedByDigits() {
+		assertInvalid(new String[] { "taxon:", "taxon: 9606", "taxon:taxon:9606", "9606taxon:", "ncbitaxon:9606",
+				"PMID:12345" }, NcbiTaxonomyID.class);
+		assertInvalid(new String[] { "PMID:", "PMID 12345", "taxon:12345" }, PubMedID.class);
+		assertInvalid(new String[] { "PMID:12345", "taxon:9606" }, NcbiGeneId.class);
+	}
+
+	@Test
+	public void testOverflow() {
+		assertEquals(NcbiTaxonomyID.ALL, new NcbiTaxonomyID("2147483647"));
+		assertEquals(NcbiTaxonomyID.ALL, new NcbiTaxonomyID("taxon:2147483647"));
+		assertInvalid(new String[] { "2147483648", "taxon:2147483648", "4294967296", "21474836470",
+				"99999999999999999999" }, NcbiTaxonomyID.class);
+	}
+
+	@Test
+	public void testInvalidInput() {
+		assertInvalid(new String[] { "", " ", "-1", "+1", "1.0", "12a", "1 2", "0x1F", "\u0661\u0662" },
+				NcbiGeneId.class);
+		assertEquals("Invalid ID: abc. Must be a non-negative integer.", NcbiGeneId.getValidationError(" ABC "));
+		assertEquals("Resource ID must be non-null.", NcbiGeneId.getValidationError(null));
+		try {
+			new NcbiGeneId(" ABC ");
+			fail("Invalid id should have been rejected");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid ID: abc. Must be a non-negative integer.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testGetIdIsCompatible() {
+		NcbiGeneId fromString = new NcbiGeneId("12345");
+		NcbiGeneId fromInteger = new NcbiGeneId(12345);
+		assertEquals(Integer.valueOf(12345), fromString.getId());
+		assertEquals(12345, fromString.getIntId());
+		assertEquals(fromInteger, fromString);
+		assertEquals(fromInteger.hashCode(), fromString.hashCode());
+		assertEquals(fromString.hashCode(), fromString.hashCode());
+		assertEquals(DataSource.NCBI_GENE, fromString.getDataSource());
+		assertNull(fromString.getVersion());
+		assertEquals(fromInteger.toString(), fromString.toString());
+		assertFalse(fromString.equals(new GiNumberID(12345)));
+		assertFalse(fromString.equals(new NcbiGeneId(12346)));
+	}
+
+	private static void assertInvalid(String[] ids, Class<? extends IntegerDataSourceIdentifier> idClass) {
+		for (String id : ids) {
+			try {
+				idClass.getConstructor(String.class).newInstance(id);
+				fail(idClass.getSimpleName() + " should have rejected: " + id);
+			} catch (java.lang.reflect.InvocationTargetException e) {
+				assertEquals(id, IllegalArgumentException.class, e.getCause().getClass());
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException(e);
+			}
+			if (idClass == NcbiGeneId.class) {
+				assertEquals(id, "Invalid ID: " + id.toLowerCase().trim() + ". Must be a non-negative integer.",
+						NcbiGeneId.getValidationError(id));
+			}
+		}
+	}
+
+}
@@ -35,10 +35,13 @@ package edu.ucdenver.ccp.datasource.identifiers.factories;
  */
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierResult;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EnsemblGeneID;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EnsemblProteinID;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.EnsemblTranscriptID;
@@ -57,4 +60,22 @@ public class EnsemblIdentifierFactoryTest {
 		assertEquals(EnsemblProteinID.class, id.getClass());
 	}
 
+	@Test
+	public void testTryCreate() {
+		IdentifierResult<? extends DataSourceIdentifier<?>> result = EnsemblIdentifierFactory
+				.tryCreateEnsemblIdentifier("ENSG000000001234");
+		assertTrue(result.isValid());
+		assertEquals(new EnsemblGeneID("ENSG000000001234"), result.getIdentifier());
+
+		result = EnsemblIdentifierFactory.tryCreateEnsemblIdentifier("ENSX00000001234");
+		assertFalse(result.isValid());
+		assertEquals("ENSX00000001234", result.getInvalidId());
+		assertEquals("Unknown Ensembl identifier format: ENSX00000001234", result.getErrorMessage());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCreateInvalid() {
+		EnsemblIdentifierFactory.createEnsemblIdentifier("ENSX00000001234");
+	}
+
 }
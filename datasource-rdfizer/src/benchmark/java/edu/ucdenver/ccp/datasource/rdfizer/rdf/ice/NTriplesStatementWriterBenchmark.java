@@ -0,0 +1,150 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.impl.LiteralImpl;
+import org.openrdf.model.impl.StatementImpl;
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.model.vocabulary.RDF;
+import org.openrdf.model.vocabulary.XMLSchema;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFWriter;
+import org.openrdf.rio.ntriples.NTriplesWriter;
+
+/**
+ * Measures writing a batch of statements as N-Triples with {@link NTriplesStatementWriter} and
+ * with the Sesame {@link NTriplesWriter} it replaces, and the duplicate check of the
+ * {@link RollingStatementWindow} that precedes each write. The output is discarded so that only
+ * serialization is measured.
+ *
+ * @author Colorado Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NTriplesStatementWriterBenchmark {
+
+	private static final int RECORD_COUNT = 1000;
+
+	private static final String NS = "http://ccp.ucdenver.edu/obo/ext/";
+
+	private static final OutputStream NULL_OUTPUT_STREAM = new OutputStream() {
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	};
+
+	private final List<Statement> statements = new ArrayList<Statement>();
+
+	/**
+	 * Creates the statements of a record with a few fields per record: a type statement, links
+	 * between record, field and value, and plain, language-tagged and typed literals
+	 */
+	@Setup
+	public void setUp() {
+		URI recordType = new URIImpl(NS + "IAO_EXT_0000001");
+		URI fieldType = new URIImpl(NS + "IAO_EXT_0000002");
+		URI hasPart = new URIImpl("http://purl.obolibrary.org/obo/BFO_0000051");
+		URI denotes = new URIImpl("http://purl.obolibrary.org/obo/IAO_0000219");
+		for (int i = 0; i < RECORD_COUNT; i++) {
+			URI record = new URIImpl(NS + "R_" + i + "Xq2_7bZk");
+			URI field = new URIImpl(NS + "F_" + i + "aZ-9yQw3");
+			statements.add(new StatementImpl(record, RDF.TYPE, recordType));
+			statements.add(new StatementImpl(record, hasPart, field));
+			statements.add(new StatementImpl(field, RDF.TYPE, fieldType));
+			statements.add(new StatementImpl(field, denotes, new URIImpl("http://www.ncbi.nlm.nih.gov/gene/" + i)));
+			statements.add(new StatementImpl(field, RDF.VALUE, new LiteralImpl("BRCA" + i)));
+			statements.add(new StatementImpl(field, RDF.VALUE, new LiteralImpl("breast cancer " + i, "en")));
+			statements.add(new StatementImpl(field, RDF.VALUE, new LiteralImpl(Integer.toString(i), XMLSchema.INT)));
+		}
+	}
+
+	@Benchmark
+	public void writeWithNTriplesStatementWriter() throws IOException {
+		NTriplesStatementWriter writer = new NTriplesStatementWriter(NULL_OUTPUT_STREAM);
+		for (Statement stmt : statements) {
+			writer.write(stmt);
+		}
+		writer.flush();
+	}
+
+	@Benchmark
+	public void writeWithSesameNTriplesWriter() throws RDFHandlerException {
+		RDFWriter writer = new NTriplesWriter(NULL_OUTPUT_STREAM);
+		writer.startRDF();
+		for (Statement stmt : statements) {
+			writer.handleStatement(stmt);
+		}
+		writer.endRDF();
+	}
+
+	@Benchmark
+	public int filterWithRollingStatementWindow() {
+		RollingStatementWindow window = new RollingStatementWindow(statements.size());
+		int duplicateCount = 0;
+		for (Statement stmt : statements) {
+			if (window.containsOrAdd(stmt)) {
+				duplicateCount++;
+			}
+		}
+		return duplicateCount;
+	}
+
+}
@@ -0,0 +1,156 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openrdf.model.Statement;
+import org.openrdf.model.impl.URIImpl;
+
+import edu.ucdenver.ccp.common.digest.DigestUtil;
+import edu.ucdenver.ccp.common.string.StringConstants;
+import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
+import edu.ucdenver.ccp.datasource.fileparsers.DataRecord;
+import edu.ucdenver.ccp.datasource.fileparsers.Record;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordField;
+import edu.ucdenver.ccp.datasource.identifiers.DataSource;
+import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiGeneId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtID;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.DuplicateStatementFilter;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.NoOpDuplicateStatementFilter;
+
+/**
+ * Measures the digests behind record and field URIs and the generation of record statements: the
+ * {@link UriDigester} against hashing the concatenated string with {@link DigestUtil}, record URI
+ * creation, and statement generation with and without a {@link FieldValueCache}.
+ *
+ * @author Colorado Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordUriBenchmark {
+
+	private static final long CREATED_TIME = 0L;
+
+	/**
+	 * the kind of strings that are digested for a record URI: prefix, field names and serialized
+	 * field values
+	 */
+	private static final String[] FIELD_STRINGS = { "R_", "symbolField", "\"BRCA2\"@en", "geneIdField",
+			"<http://www.ncbi.nlm.nih.gov/gene/675>", "synonymsField", "\"FACD\"@en", "\"FANCD1\"@en", "\"GLM3\"@en",
+			"uniprotIdsField", "<http://purl.uniprot.org/uniprot/P51587>" };
+
+	@Record(dataSource = DataSource.KEGG, ontClass = CcpExtensionOntology.HGNC_GENE_RECORD)
+	private static class GeneRecord implements DataRecord {
+		@RecordField(ontClass = CcpExtensionOntology.SYMBOL_FIELD_VALUE, isKeyField = true)
+		private String symbol = "BRCA2";
+		@RecordField(ontClass = CcpExtensionOntology.BIOMART_IDENTIFIER_MAPPING_RECORD___NCBI_GENE_IDENTIFIER_FIELD_VALUE)
+		private NcbiGeneId geneId = new NcbiGeneId(675);
+		@RecordField(ontClass = CcpExtensionOntology.SYNONYMS_FIELD_VALUE)
+		private Collection<String> synonyms = Arrays.asList("FACD", "FANCD1", "GLM3");
+		@RecordField(ontClass = CcpExtensionOntology.BIOMART_IDENTIFIER_MAPPING_RECORD___UNIPROT_SWISSPROT_IDENTIFIER_FIELD_VALUE)
+		private Collection<DataSourceIdentifier<?>> uniprotIds = Arrays
+				.<DataSourceIdentifier<?>> asList(new UniProtID("P51587"));
+	}
+
+	private GeneRecord record;
+
+	private URIImpl recordUri;
+
+	private FieldValueCache fieldValueCache;
+
+	private final DuplicateStatementFilter filter = new NoOpDuplicateStatementFilter();
+
+	@Setup
+	public void setUp() {
+		record = new GeneRecord();
+		recordUri = RdfRecordUriFactory.createRecordUri(record);
+		fieldValueCache = new FieldValueCache();
+	}
+
+	@Benchmark
+	public String digestFieldsWithUriDigester() {
+		UriDigester digester = UriDigester.forCurrentThread();
+		for (String s : FIELD_STRINGS) {
+			digester.update(s);
+		}
+		return digester.digest();
+	}
+
+	@Benchmark
+	public String digestConcatenatedFields() {
+		StringBuilder sb = new StringBuilder();
+		for (String s : FIELD_STRINGS) {
+			sb.append(s);
+		}
+		return DigestUtil.getBase64Sha1Digest(sb.toString());
+	}
+
+	@Benchmark
+	public URIImpl createRecordUri() {
+		return RdfRecordUriFactory.createRecordUri(record);
+	}
+
+	@Benchmark
+	public List<Statement> createRecordStatements() {
+		return RdfRecordUtil.createRecordStatements(record, CREATED_TIME, recordUri, null, StringConstants.BLANK,
+				null).resolve(filter);
+	}
+
+	@Benchmark
+	public List<Statement> createRecordStatementsWithFieldValueCache() {
+		return RdfRecordUtil.createRecordStatements(record, CREATED_TIME, recordUri, null, StringConstants.BLANK,
+				fieldValueCache).resolve(filter);
+	}
+
+}
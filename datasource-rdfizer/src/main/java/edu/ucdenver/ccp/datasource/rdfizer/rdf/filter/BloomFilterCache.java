@@ -0,0 +1,373 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.filter;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.log4j.Logger;
+
+/**
+ * A {@link DiskBasedHash} that keeps a scalable Bloom filter of the keys in
+ * memory in front of another {@link DiskBasedHash}. Most keys checked by the
+ * duplicate filters have never been seen before, and the Bloom filter answers
+ * those without a lookup in the backing store. The backing store is only
+ * consulted if the Bloom filter reports a possible hit.
+ * <p>
+ * The Bloom filter starts with a single partitioned Bloom filter sized for the
+ * expected number of keys. Whenever the most recent one is full, another one
+ * with twice the capacity and half the false positive rate is added, so the
+ * overall false positive rate stays below the target however many keys are
+ * added.
+ * <p>
+ * Keys can be added and looked up concurrently. Additions are serialized, and
+ * the bits of the Bloom filter are held in {@link AtomicLongArray}s so that a
+ * lookup sees every key whose addition has completed.
+ * <p>
+ * On {@link #shutdown()} the Bloom filter is written to a file alongside the
+ * backing store so that it can be reopened together with the store. The file
+ * is deleted when it is read, so a store that is not shut down cleanly cannot
+ * be reopened with an out-of-date Bloom filter.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class BloomFilterCache implements DiskBasedHash {
+
+	private static final Logger logger = Logger.getLogger(BloomFilterCache.class);
+
+	public static final long DEFAULT_EXPECTED_KEY_COUNT = 1000000;
+
+	public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+	private static final long MAGIC = 0x4343504246494c31L;
+
+	/**
+	 * Limits the size of a single partitioned Bloom filter so that it can be
+	 * stored in a long
+	 * array
+	 */
+	private static final long MAX_STAGE_BITS = (long) Integer.MAX_VALUE * 64;
+
+	private final DiskBasedHash store;
+	private final File bloomFilterFile;
+	private final long expectedKeyCount;
+	private final double falsePositiveRate;
+	private volatile Stage[] stages;
+
+	private final AtomicLong containsCount = new AtomicLong();
+	private final AtomicLong storeContainsCount = new AtomicLong();
+
+	/**
+	 * Creates an empty Bloom filter in front of an empty backing store
+	 * 
+	 * @param store
+	 *            the backing store
+	 * @param bloomFilterFile
+	 *            the file the Bloom filter is written to on shutdown
+	 * @throws IOException
+	 */
+	public BloomFilterCache(DiskBasedHash store, File bloomFilterFile) throws IOException {
+		this(store, bloomFilterFile, DEFAULT_EXPECTED_KEY_COUNT, DEFAULT_FALSE_POSITIVE_RATE, false);
+	}
+
+	/**
+	 * @param store
+	 *            the backing store
+	 * @param bloomFilterFile
+	 *            the file the Bloom filter is written to on shutdown
+	 * @param expectedKeyCount
+	 *            the capacity of the first partitioned Bloom filter
+	 * @param falsePositiveRate
+	 *            the target rate of keys that are reported as possibly present
+	 *            by the Bloom filter although they have not been added
+	 * @param append
+	 *            if true, the Bloom filter written by a previous shutdown is
+	 *            read, which requires the backing store to have been reopened
+	 *            as well. If false, the backing store is expected to be empty.
+	 * @throws IOException
+	 *             if the Bloom filter cannot be read
+	 */
+	public BloomFilterCache(DiskBasedHash store, File bloomFilterFile, long expectedKeyCount,
+			double falsePositiveRate, boolean append) throws IOException {
+		if (expectedKeyCount < 1) {
+			throw new IllegalArgumentException("Expected key count must be >= 1: " + expectedKeyCount);
+		}
+		if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+		}
+		this.store = store;
+		this.bloomFilterFile = bloomFilterFile;
+		if (append) {
+			if (!bloomFilterFile.exists()) {
+				throw new IOException("Unable to reopen the duplicate filter cache. The Bloom filter file is missing, "
+						+ "possibly because the cache was not shut down cleanly: "
+						+ bloomFilterFile.getAbsolutePath());
+			}
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(bloomFilterFile)));
+			try {
+				if (in.readLong() != MAGIC) {
+					throw new IOException("Not a Bloom filter file: " + bloomFilterFile.getAbsolutePath());
+				}
+				this.expectedKeyCount = in.readLong();
+				this.falsePositiveRate = in.readDouble();
+				Stage[] readStages = new Stage[in.readInt()];
+				for (int i = 0; i < readStages.length; i++) {
+					readStages[i] = Stage.read(in);
+				}
+				this.stages = readStages;
+			} finally {
+				in.close();
+			}
+			if (!bloomFilterFile.delete()) {
+				throw new IOException("Unable to delete Bloom filter file: " + bloomFilterFile.getAbsolutePath());
+			}
+		} else {
+			if (bloomFilterFile.exists() && !bloomFilterFile.delete()) {
+				throw new IOException("Unable to delete Bloom filter file: " + bloomFilterFile.getAbsolutePath());
+			}
+			this.expectedKeyCount = expectedKeyCount;
+			this.falsePositiveRate = falsePositiveRate;
+			this.stages = new Stage[] { new Stage(expectedKeyCount, getStageFalsePositiveRate(0)) };
+		}
+	}
+
+	/**
+	 * @return the false positive rate of the i-th partitioned Bloom filter. The
+	 *         rates form a geometric series that adds up to the target rate.
+	 */
+	private double getStageFalsePositiveRate(int stageIndex) {
+		return falsePositiveRate / Math.pow(2, stageIndex + 1);
+	}
+
+	@Override
+	public void add(Object o) throws IOException {
+		store.add(o);
+		long h1 = hash(o.toString());
+		long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+		synchronized (this) {
+			Stage[] currentStages = stages;
+			for (Stage stage : currentStages) {
+				if (stage.mightContain(h1, h2)) {
+					return;
+				}
+			}
+			Stage stage = currentStages[currentStages.length - 1];
+			if (stage.count >= stage.capacity) {
+				stage = new Stage(stage.capacity * 2, getStageFalsePositiveRate(currentStages.length));
+				Stage[] newStages = new Stage[currentStages.length + 1];
+				System.arraycopy(currentStages, 0, newStages, 0, currentStages.length);
+				newStages[currentStages.length] = stage;
+				stages = newStages;
+				logger.info("Added Bloom filter with capacity " + stage.capacity + " (" + stage.bits.length() / 128
+						+ "KB)");
+			}
+			stage.put(h1, h2);
+		}
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		containsCount.incrementAndGet();
+		long h1 = hash(o.toString());
+		long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+		for (Stage stage : stages) {
+			if (stage.mightContain(h1, h2)) {
+				storeContainsCount.incrementAndGet();
+				return store.contains(o);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Writes the Bloom filter to its file and shuts down the backing store
+	 */
+	@Override
+	public void shutdown() throws IOException {
+		logger.info("shutting down BloomFilterCache... " + storeContainsCount.get() + " of " + containsCount.get()
+				+ " lookups were passed to the backing store");
+		synchronized (this) {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(
+					bloomFilterFile)));
+			try {
+				out.writeLong(MAGIC);
+				out.writeLong(expectedKeyCount);
+				out.writeDouble(falsePositiveRate);
+				out.writeInt(stages.length);
+				for (Stage stage : stages) {
+					stage.write(out);
+				}
+			} finally {
+				out.close();
+			}
+		}
+		store.shutdown();
+	}
+
+	/**
+	 * @return the number of calls to {@link #contains(Object)}
+	 */
+	public long getContainsCount() {
+		return containsCount.get();
+	}
+
+	/**
+	 * @return the number of calls to {@link #contains(Object)} that were passed
+	 *         to the backing store
+	 */
+	public long getStoreContainsCount() {
+		return storeContainsCount.get();
+	}
+
+	/**
+	 * @return the 64-bit FNV-1a hash of the characters of the string, mixed
+	 */
+	private static long hash(String s) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < s.length(); i++) {
+			h ^= s.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		return mix(h);
+	}
+
+	/**
+	 * The MurmurHash3 64-bit finalizer
+	 */
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * A partitioned Bloom filter: each of the k hash functions sets a bit in
+	 * its own partition of the bit array. {@link #put(long, long)} must only
+	 * be called while holding the lock of the {@link BloomFilterCache}.
+	 */
+	private static class Stage {
+		private final long capacity;
+		private final int hashCount;
+		private final long partitionBits;
+		private final AtomicLongArray bits;
+		private long count;
+
+		Stage(long capacity, double falsePositiveRate) {
+			this(capacity, getHashCount(falsePositiveRate), getPartitionBits(capacity, falsePositiveRate), 0);
+		}
+
+		private Stage(long capacity, int hashCount, long partitionBits, long count) {
+			this.capacity = capacity;
+			this.hashCount = hashCount;
+			this.partitionBits = partitionBits;
+			long totalBits = hashCount * partitionBits;
+			if (totalBits > MAX_STAGE_BITS) {
+				throw new IllegalStateException("Bloom filter is too large: " + totalBits + " bits");
+			}
+			this.bits = new AtomicLongArray((int) ((totalBits + 63) / 64));
+			this.count = count;
+		}
+
+		/**
+		 * @return k = log2(1/p), the optimal number of hash functions
+		 */
+		private static int getHashCount(double falsePositiveRate) {
+			return Math.max(1, (int) Math.ceil(Math.log(1 / falsePositiveRate) / Math.log(2)));
+		}
+
+		/**
+		 * @return m/k where m = -n ln(p) / ln(2)^2 is the optimal number of bits
+		 */
+		private static long getPartitionBits(long capacity, double falsePositiveRate) {
+			double totalBits = -capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+			return Math.max(64, (long) Math.ceil(totalBits / getHashCount(falsePositiveRate)));
+		}
+
+		private long getBitIndex(int i, long h1, long h2) {
+			long h = (h1 + i * h2) & Long.MAX_VALUE;
+			return i * partitionBits + h % partitionBits;
+		}
+
+		boolean mightContain(long h1, long h2) {
+			for (int i = 0; i < hashCount; i++) {
+				long bitIndex = getBitIndex(i, h1, h2);
+				if ((bits.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		void put(long h1, long h2) {
+			for (int i = 0; i < hashCount; i++) {
+				long bitIndex = getBitIndex(i, h1, h2);
+				int wordIndex = (int) (bitIndex >>> 6);
+				/* writers are serialized, so the word cannot change between get and set */
+				bits.set(wordIndex, bits.get(wordIndex) | (1L << bitIndex));
+			}
+			count++;
+		}
+
+		void write(DataOutputStream out) throws IOException {
+			out.writeLong(capacity);
+			out.writeInt(hashCount);
+			out.writeLong(partitionBits);
+			out.writeLong(count);
+			for (int i = 0; i < bits.length(); i++) {
+				out.writeLong(bits.get(i));
+			}
+		}
+
+		static Stage read(DataInputStream in) throws IOException {
+			Stage stage = new Stage(in.readLong(), in.readInt(), in.readLong(), in.readLong());
+			for (int i = 0; i < stage.bits.length(); i++) {
+				stage.bits.set(i, in.readLong());
+			}
+			return stage;
+		}
+	}
+
+}
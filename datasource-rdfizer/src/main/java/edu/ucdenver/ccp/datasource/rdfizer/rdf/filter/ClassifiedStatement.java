@@ -0,0 +1,112 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.filter;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import org.openrdf.model.Resource;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.impl.StatementImpl;
+
+/**
+ * A statement that records, at the time it is generated, what kind of
+ * statement it is and the key under which a {@link DuplicateFieldValueFilter}
+ * tracks its subject. Filters and writers can use these instead of inspecting
+ * the subject URI of each statement they see. Equality and hashing are those
+ * of {@link StatementImpl}, i.e. a classified statement is equal to an
+ * unclassified statement with the same subject, predicate and object.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class ClassifiedStatement extends StatementImpl {
+
+	private static final long serialVersionUID = 1L;
+
+	public enum Kind {
+		/**
+		 * a statement about a record, e.g. its type or one of its fields
+		 */
+		RECORD_INSTANCE,
+		/**
+		 * a statement about the value of a field that is not a key field
+		 */
+		FIELD_VALUE,
+		/**
+		 * a statement about the value of a key field
+		 */
+		KEY_FIELD,
+		/**
+		 * a statement declaring the type of an identifier denoted by a field
+		 * value
+		 */
+		IDENTIFIER_TYPE,
+		/**
+		 * a statement linking a sub-record to its parent record or declaring
+		 * the type of the sub-record
+		 */
+		SUB_RECORD
+	}
+
+	private final Kind kind;
+	private final String filterKey;
+
+	/**
+	 * @param subject
+	 * @param predicate
+	 * @param object
+	 * @param kind
+	 * @param filterKey
+	 *            the value of {@link DuplicateFieldValueFilter#getFilterKey(Resource)}
+	 *            for the subject
+	 */
+	public ClassifiedStatement(Resource subject, URI predicate, Value object, Kind kind, String filterKey) {
+		super(subject, predicate, object);
+		this.kind = kind;
+		this.filterKey = filterKey;
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * @return the key under which a {@link DuplicateFieldValueFilter} tracks
+	 *         the subject of this statement, or null if the filter does not
+	 *         track the subject
+	 */
+	public String getFilterKey() {
+		return filterKey;
+	}
+
+}
@@ -37,7 +37,9 @@ import java.io.File;
 import java.io.IOException;
 
 /**
- * Uses the JDBMS cache to store previously observed field values on disk
+ * Uses a {@link MappedDigestCache} to store previously observed field values on disk. A
+ * {@link BloomFilterCache} in front of it answers most lookups of field values that have not been
+ * observed without accessing the disk.
  * 
  * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
  * 
@@ -46,12 +48,13 @@ public class DefaultDuplicateStatementFilter extends DuplicateFieldValueFilter {
 
 	/**
 	 * @param cacheFilePrefix
-	 *            the file prefix where the JDBMS will catch information
+	 *            the file prefix of the files where the digest cache stores information
 	 * 
 	 * @throws IOException
 	 */
 	public DefaultDuplicateStatementFilter(File cacheFilePrefix) throws IOException {
-		super(new Jdbm2Cache(cacheFilePrefix));
+		super(new BloomFilterCache(new MappedDigestCache(cacheFilePrefix), new File(cacheFilePrefix.getAbsolutePath()
+				+ ".bloom")));
 
 	}
 
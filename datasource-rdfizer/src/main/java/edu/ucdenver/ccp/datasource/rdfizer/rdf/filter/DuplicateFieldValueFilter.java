@@ -41,10 +41,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import org.apache.log4j.Logger;
+import org.openrdf.model.Resource;
 import org.openrdf.model.Statement;
 import org.openrdf.model.impl.URIImpl;
 
@@ -63,6 +65,8 @@ public abstract class DuplicateFieldValueFilter implements DuplicateStatementFil
 
 	private static final Logger logger = Logger.getLogger(DuplicateFieldValueFilter.class);
 
+	private static final Pattern FIELD_URI_PATTERN = Pattern.compile("^<?http://kabob.ucdenver.edu/iao/[^/]+/F_.*$");
+
 	private final DiskBasedHash hash;
 	private List<File> noDupsFiles;
 	private String previousFieldValueKey = null;
@@ -80,9 +84,13 @@ public abstract class DuplicateFieldValueFilter implements DuplicateStatementFil
 	 */
 	@Override
 	public boolean alreadyObservedStatement(Statement stmt) {
-		String subject = stmt.getSubject().toString();
-		if (isFieldRdfLine(subject)) {
-			String fieldValueKey = getFieldValueKey(subject);
+		/*
+		 * statements generated from records carry the key of their subject, so
+		 * only other statements need to have their subject inspected
+		 */
+		String fieldValueKey = (stmt instanceof ClassifiedStatement) ? ((ClassifiedStatement) stmt).getFilterKey()
+				: getFilterKey(stmt.getSubject());
+		if (fieldValueKey != null) {
 			if (!fieldValueKey.equals(previousFieldValueKey)) {
 				/* Handling of unknown and probable error identifiers seems to break the 3 in a row count*/
 //				if (previousFieldValueKey != null && ((_3inARowCount % 3) != 0)) {
@@ -201,16 +209,32 @@ public abstract class DuplicateFieldValueFilter implements DuplicateStatementFil
 
 	}
 
+	/**
+	 * @param subject
+	 * @return the key under which statements about the subject are tracked by
+	 *         this filter, or null if the subject is not a field value URI and
+	 *         statements about it are not tracked
+	 */
+	public static String getFilterKey(Resource subject) {
+		String subjectStr = subject.toString();
+		if (isFieldRdfLine(subjectStr)) {
+			return getFieldValueKey(subjectStr);
+		}
+		return null;
+	}
+
 	/**
 	 * @param lineText
 	 * @return
 	 */
-	private String getFieldValueKey(String lineText) {
+	private static String getFieldValueKey(String lineText) {
 		int secondUnderscoreIndex = lineText.indexOf("_", lineText.indexOf("_") + 1) + 1;
 		// int angleBracketCloseIndex = lineText.indexOf(">");
 		// String key = lineText.substring(secondUnderscoreIndex, angleBracketCloseIndex);
 		String key = lineText.substring(secondUnderscoreIndex);
-		logger.debug("field value key: " + key);
+		if (logger.isDebugEnabled()) {
+			logger.debug("field value key: " + key);
+		}
 		return key;
 	}
 
@@ -218,9 +242,11 @@ public abstract class DuplicateFieldValueFilter implements DuplicateStatementFil
 	 * @param lineText
 	 * @return
 	 */
-	private boolean isFieldRdfLine(String lineText) {
-		boolean isFieldLine = lineText.matches("^<?http://kabob.ucdenver.edu/iao/[^/]+/F_.*$");
-		logger.debug("is field line: " + isFieldLine + " " + lineText);
+	private static boolean isFieldRdfLine(String lineText) {
+		boolean isFieldLine = FIELD_URI_PATTERN.matcher(lineText).matches();
+		if (logger.isDebugEnabled()) {
+			logger.debug("is field line: " + isFieldLine + " " + lineText);
+		}
 		return isFieldLine;
 	}
 
@@ -0,0 +1,674 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.filter;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.log4j.Logger;
+
+import edu.ucdenver.ccp.common.file.FileUtil;
+
+/**
+ * A {@link DiskBasedHash} that stores a 128-bit MD5 digest of each key in an
+ * open-addressing (linear probing) table held in a memory-mapped file. When
+ * the table becomes 70% full, a table of twice the size is built in a new file
+ * (named {@code <storage file>.digests.<generation>}) and the old file is
+ * deleted. The table file is created as a sparse file, so unused slots do not
+ * take up disk space on file systems that support sparse files.
+ * <p>
+ * {@link #contains(Object)} and {@link #add(Object)} share a read lock that
+ * only excludes growing the table, as the old table is unmapped once it has
+ * been copied. {@link #add(Object)} also locks the stripe of the slot it
+ * writes to. A slot is published by incrementing the volatile entry count
+ * after it has been written, and {@link #contains(Object)} reads the count
+ * before it probes the table, so a key whose {@link #add(Object)} has returned
+ * is always seen. A call to {@link #contains(Object)} that is concurrent with
+ * the {@link #add(Object)} of the same key may or may not see the key.
+ * <p>
+ * {@link #shutdown()} forces the table to disk and marks it as cleanly closed.
+ * A table can be reopened to add more keys in a later run. If a table was not
+ * shut down cleanly, its entries are counted when it is reopened.
+ * <p>
+ * As only digests are stored, two keys with the same digest cannot be told
+ * apart; with 128-bit digests this is not expected to happen in practice.
+ * 
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class MappedDigestCache implements DiskBasedHash {
+
+	private static final Logger logger = Logger.getLogger(MappedDigestCache.class);
+
+	/**
+	 * The number of slots in a new table, 16MB of (sparse) disk space
+	 */
+	public static final long DEFAULT_INITIAL_CAPACITY = 1L << 20;
+
+	/**
+	 * Tables are mapped in segments of 2^26 slots (1GB) as a single
+	 * {@link MappedByteBuffer} cannot exceed 2GB
+	 */
+	static final int DEFAULT_SEGMENT_SHIFT = 26;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final String FILE_INFIX = ".digests.";
+	private static final long MAGIC = 0x4343504447535431L;
+	private static final int HEADER_BYTES = 4096;
+	private static final int SLOT_BYTES = 16;
+	private static final double MAX_LOAD_FACTOR = 0.7;
+	private static final int LOCK_STRIPE_COUNT = 1024;
+
+	private static final int MAGIC_OFFSET = 0;
+	private static final int CAPACITY_OFFSET = 8;
+	private static final int COUNT_OFFSET = 16;
+	private static final int STATE_OFFSET = 24;
+
+	/** the table is being filled while the table is grown */
+	private static final int STATE_BUILDING = 0;
+	/** the table is in use */
+	private static final int STATE_OPEN = 1;
+	/** the table was shut down cleanly */
+	private static final int STATE_CLOSED = 2;
+
+	/**
+	 * sun.misc.Unsafe and its invokeCleaner(ByteBuffer) method, available from
+	 * Java 9. On Java 8 the buffer's cleaner is called directly.
+	 */
+	private static final Object UNSAFE;
+	private static final Method INVOKE_CLEANER;
+
+	static {
+		Object unsafe = null;
+		Method invokeCleaner = null;
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			unsafe = theUnsafe.get(null);
+		} catch (Exception e) {
+			invokeCleaner = null;
+		}
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = invokeCleaner;
+	}
+
+	private static final ThreadLocal<MessageDigest> MD5 = new ThreadLocal<MessageDigest>() {
+		@Override
+		protected MessageDigest initialValue() {
+			try {
+				return MessageDigest.getInstance("MD5");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException("MD5 digest is not available.", e);
+			}
+		}
+	};
+
+	private final File storageFile;
+	private final int segmentShift;
+	private final ReentrantReadWriteLock resizeLock = new ReentrantReadWriteLock();
+	private final Object[] lockStripes = new Object[LOCK_STRIPE_COUNT];
+	private volatile Table table;
+
+	/**
+	 * Creates a new, empty cache. Any table previously stored for the storage
+	 * file is deleted.
+	 * 
+	 * @param storageFile
+	 *            the prefix of the table files
+	 * @throws IOException
+	 */
+	public MappedDigestCache(File storageFile) throws IOException {
+		this(storageFile, false);
+	}
+
+	/**
+	 * @param storageFile
+	 *            the prefix of the table files
+	 * @param append
+	 *            if true and a table was previously stored for the storage
+	 *            file, the table is reopened and keys are added to it;
+	 *            otherwise a new, empty table is created
+	 * @throws IOException
+	 */
+	public MappedDigestCache(File storageFile, boolean append) throws IOException {
+		this(storageFile, append, DEFAULT_INITIAL_CAPACITY);
+	}
+
+	/**
+	 * @param storageFile
+	 *            the prefix of the table files
+	 * @param append
+	 *            if true and a table was previously stored for the storage
+	 *            file, the table is reopened and keys are added to it;
+	 *            otherwise a new, empty table is created
+	 * @param initialCapacity
+	 *            the number of slots in a new table, rounded up to a power of
+	 *            two
+	 * @throws IOException
+	 */
+	public MappedDigestCache(File storageFile, boolean append, long initialCapacity) throws IOException {
+		this(storageFile, append, initialCapacity, DEFAULT_SEGMENT_SHIFT);
+	}
+
+	MappedDigestCache(File storageFile, boolean append, long initialCapacity, int segmentShift) throws IOException {
+		if (initialCapacity < 1) {
+			throw new IllegalArgumentException("Initial capacity must be >= 1: " + initialCapacity);
+		}
+		this.storageFile = storageFile;
+		this.segmentShift = segmentShift;
+		for (int i = 0; i < LOCK_STRIPE_COUNT; i++) {
+			lockStripes[i] = new Object();
+		}
+		File storageDir = storageFile.getAbsoluteFile().getParentFile();
+		logger.info("DIGEST CACHE STORAGE: " + storageDir.getAbsolutePath());
+		if (!storageDir.exists()) {
+			logger.info("Creating directory to store duplicate filter cache files: " + storageDir);
+			FileUtil.mkdir(storageDir);
+		}
+		Table existingTable = append ? openLatestTable() : null;
+		if (existingTable == null) {
+			deleteTableFiles(-1);
+			long capacity = Long.highestOneBit(Math.max(initialCapacity, 2L) - 1) << 1;
+			existingTable = Table.create(getTableFile(0), 0, capacity, segmentShift);
+		}
+		existingTable.setState(STATE_OPEN);
+		table = existingTable;
+	}
+
+	/**
+	 * @return the most recent complete table stored for the storage file, or
+	 *         null if there is none. Other table files are deleted.
+	 * @throws IOException
+	 */
+	private Table openLatestTable() throws IOException {
+		for (int generation = getLatestGeneration(); generation >= 0; generation--) {
+			File file = getTableFile(generation);
+			if (file.exists()) {
+				Table t = Table.open(file, generation, segmentShift);
+				if (t != null) {
+					deleteTableFiles(generation);
+					if (t.getState() != STATE_CLOSED) {
+						logger.info("Digest cache was not shut down cleanly. Counting entries: " + file);
+						t.recount();
+					}
+					logger.info("Reopened digest cache with " + t.count.get() + " entries: " + file);
+					return t;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the highest generation of the table files stored for the storage
+	 *         file, or -1 if there are none
+	 */
+	private int getLatestGeneration() {
+		int latest = -1;
+		String prefix = storageFile.getName() + FILE_INFIX;
+		File[] files = storageFile.getAbsoluteFile().getParentFile().listFiles();
+		if (files != null) {
+			for (File file : files) {
+				String name = file.getName();
+				if (name.startsWith(prefix)) {
+					try {
+						latest = Math.max(latest, Integer.parseInt(name.substring(prefix.length())));
+					} catch (NumberFormatException e) {
+						// not a table file
+					}
+				}
+			}
+		}
+		return latest;
+	}
+
+	/**
+	 * Deletes the table files stored for the storage file
+	 * 
+	 * @param keepGeneration
+	 *            the generation of the table file that is kept
+	 */
+	private void deleteTableFiles(int keepGeneration) {
+		for (int generation = getLatestGeneration(); generation >= 0; generation--) {
+			if (generation != keepGeneration) {
+				deleteFile(getTableFile(generation));
+			}
+		}
+	}
+
+	private static void deleteFile(File file) {
+		if (file.exists() && !file.delete()) {
+			logger.warn("Unable to delete digest cache file: " + file.getAbsolutePath());
+			file.deleteOnExit();
+		}
+	}
+
+	private File getTableFile(int generation) {
+		return new File(storageFile.getAbsolutePath() + FILE_INFIX + generation);
+	}
+
+	@Override
+	public void add(Object o) throws IOException {
+		byte[] digest = digest(o);
+		long hi = getHi(digest);
+		long lo = getLo(digest);
+		boolean grow;
+		resizeLock.readLock().lock();
+		try {
+			Table t = getTable();
+			grow = t.insert(hi, lo, lockStripes) && t.count.get() > t.maxCount;
+		} finally {
+			resizeLock.readLock().unlock();
+		}
+		if (grow) {
+			grow();
+		}
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		byte[] digest = digest(o);
+		long hi = getHi(digest);
+		long lo = getLo(digest);
+		resizeLock.readLock().lock();
+		try {
+			return getTable().contains(hi, lo);
+		} finally {
+			resizeLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of keys in the cache
+	 */
+	public long size() {
+		return getTable().count.get();
+	}
+
+	/**
+	 * @return the number of slots in the current table
+	 */
+	long getCapacity() {
+		return getTable().capacity;
+	}
+
+	/**
+	 * @return the file holding the current table
+	 */
+	File getTableFile() {
+		return getTable().file;
+	}
+
+	private Table getTable() {
+		Table t = table;
+		if (t == null) {
+			throw new IllegalStateException("The digest cache has been shut down: " + storageFile.getAbsolutePath());
+		}
+		return t;
+	}
+
+	/**
+	 * Copies the entries into a table of twice the size stored in a new file,
+	 * then deletes the old file
+	 * 
+	 * @throws IOException
+	 */
+	private void grow() throws IOException {
+		resizeLock.writeLock().lock();
+		try {
+			Table oldTable = getTable();
+			if (oldTable.count.get() <= oldTable.maxCount) {
+				/* another thread has already grown the table */
+				return;
+			}
+			long startTime = System.currentTimeMillis();
+			Table newTable = Table.create(getTableFile(oldTable.generation + 1), oldTable.generation + 1,
+					oldTable.capacity << 1, segmentShift);
+			for (long slot = 0; slot < oldTable.capacity; slot++) {
+				long hi = oldTable.getHi(slot);
+				if (hi != 0) {
+					newTable.insert(hi, oldTable.getLo(slot), null);
+				}
+			}
+			newTable.force();
+			newTable.setState(STATE_OPEN);
+			table = newTable;
+			oldTable.close();
+			deleteFile(oldTable.file);
+			logger.info("Grew digest cache to " + newTable.capacity + " slots (" + newTable.count.get()
+					+ " entries) in " + (System.currentTimeMillis() - startTime) / 1000 + "s");
+		} finally {
+			resizeLock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void shutdown() throws IOException {
+		logger.info("shutting down MappedDigestCache...");
+		resizeLock.writeLock().lock();
+		try {
+			Table t = table;
+			if (t != null) {
+				t.force();
+				t.setState(STATE_CLOSED);
+				t.close();
+				table = null;
+			}
+		} finally {
+			resizeLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Releases the mapping of the buffer now rather than when the buffer is
+	 * garbage collected, so that the address space and the file of an old
+	 * table are released as soon as the table has been grown. If the JVM does
+	 * not allow this, the mapping is released by the garbage collector.
+	 */
+	private static void unmap(MappedByteBuffer buffer) {
+		try {
+			if (INVOKE_CLEANER != null) {
+				INVOKE_CLEANER.invoke(UNSAFE, buffer);
+			} else {
+				Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+				cleanerMethod.setAccessible(true);
+				Object cleaner = cleanerMethod.invoke(buffer);
+				if (cleaner != null) {
+					cleaner.getClass().getMethod("clean").invoke(cleaner);
+				}
+			}
+		} catch (Exception e) {
+			logger.debug("Unable to unmap digest cache buffer, leaving it to the garbage collector.", e);
+		}
+	}
+
+	private static byte[] digest(Object o) {
+		return MD5.get().digest(o.toString().getBytes(UTF_8));
+	}
+
+	/**
+	 * @return the first 8 bytes of the digest. The lowest bit is always set so
+	 *         that an empty slot can be recognized by a zero value.
+	 */
+	private static long getHi(byte[] digest) {
+		return toLong(digest, 0) | 1L;
+	}
+
+	private static long getLo(byte[] digest) {
+		return toLong(digest, 8);
+	}
+
+	private static long toLong(byte[] bytes, int offset) {
+		long value = 0;
+		for (int i = offset; i < offset + 8; i++) {
+			value = (value << 8) | (bytes[i] & 0xFF);
+		}
+		return value;
+	}
+
+	/**
+	 * A table of slots stored in a memory-mapped file. The file starts with a
+	 * header followed by the slots, each holding the two halves of a digest.
+	 */
+	private static class Table {
+		private final File file;
+		private final int generation;
+		private final long capacity;
+		private final long mask;
+		private final long maxCount;
+		private final int segmentShift;
+		private final long segmentMask;
+		private final RandomAccessFile raf;
+		private final MappedByteBuffer header;
+		private final MappedByteBuffer[] segments;
+		private final AtomicLong count = new AtomicLong();
+
+		private Table(File file, int generation, long capacity, int segmentShift, RandomAccessFile raf)
+				throws IOException {
+			this.file = file;
+			this.generation = generation;
+			this.capacity = capacity;
+			this.mask = capacity - 1;
+			this.maxCount = (long) (capacity * MAX_LOAD_FACTOR);
+			this.raf = raf;
+			FileChannel channel = raf.getChannel();
+			this.header = channel.map(MapMode.READ_WRITE, 0, HEADER_BYTES);
+			this.segmentShift = (int) Math.min(segmentShift, Long.numberOfTrailingZeros(capacity));
+			this.segmentMask = (1L << this.segmentShift) - 1;
+			long segmentBytes = (1L << this.segmentShift) * SLOT_BYTES;
+			this.segments = new MappedByteBuffer[(int) (capacity >>> this.segmentShift)];
+			for (int i = 0; i < segments.length; i++) {
+				segments[i] = channel.map(MapMode.READ_WRITE, HEADER_BYTES + i * segmentBytes, segmentBytes);
+			}
+		}
+
+		/**
+		 * Creates a new sparse table file
+		 */
+		static Table create(File file, int generation, long capacity, int segmentShift) throws IOException {
+			RandomAccessFile raf = new RandomAccessFile(file, "rw");
+			try {
+				raf.setLength(0);
+				raf.setLength(HEADER_BYTES + capacity * SLOT_BYTES);
+				Table t = new Table(file, generation, capacity, segmentShift, raf);
+				t.header.putLong(MAGIC_OFFSET, MAGIC);
+				t.header.putLong(CAPACITY_OFFSET, capacity);
+				t.header.putLong(COUNT_OFFSET, 0);
+				t.setState(STATE_BUILDING);
+				return t;
+			} catch (IOException e) {
+				raf.close();
+				throw e;
+			}
+		}
+
+		/**
+		 * @return the table stored in the file, or null if the file does not
+		 *         hold a complete table
+		 */
+		static Table open(File file, int generation, int segmentShift) throws IOException {
+			RandomAccessFile raf = new RandomAccessFile(file, "rw");
+			try {
+				if (raf.length() < HEADER_BYTES) {
+					raf.close();
+					return null;
+				}
+				raf.seek(MAGIC_OFFSET);
+				long magic = raf.readLong();
+				long capacity = raf.readLong();
+				raf.seek(STATE_OFFSET);
+				int state = raf.readInt();
+				if (magic != MAGIC || state == STATE_BUILDING || Long.bitCount(capacity) != 1
+						|| raf.length() != HEADER_BYTES + capacity * SLOT_BYTES) {
+					logger.warn("Ignoring incomplete digest cache file: " + file.getAbsolutePath());
+					raf.close();
+					return null;
+				}
+				Table t = new Table(file, generation, capacity, segmentShift, raf);
+				t.count.set(t.header.getLong(COUNT_OFFSET));
+				return t;
+			} catch (IOException e) {
+				raf.close();
+				throw e;
+			}
+		}
+
+		private MappedByteBuffer getSegment(long slot) {
+			return segments[(int) (slot >>> segmentShift)];
+		}
+
+		private int getOffset(long slot) {
+			return (int) ((slot & segmentMask) * SLOT_BYTES);
+		}
+
+		long getHi(long slot) {
+			return getSegment(slot).getLong(getOffset(slot));
+		}
+
+		long getLo(long slot) {
+			return getSegment(slot).getLong(getOffset(slot) + 8);
+		}
+
+		/**
+		 * The low half is written first, so a slot is never seen as empty
+		 * once its high half has been written. Callers publish the slot by
+		 * incrementing {@link #count} afterwards.
+		 */
+		private void put(long slot, long hi, long lo) {
+			MappedByteBuffer segment = getSegment(slot);
+			int offset = getOffset(slot);
+			segment.putLong(offset + 8, lo);
+			segment.putLong(offset, hi);
+		}
+
+		/**
+		 * Reads the entry count before probing so that the slots written by
+		 * completed {@link #insert(long, long, Object[])} calls are visible
+		 */
+		boolean contains(long hi, long lo) {
+			if (count.get() == 0) {
+				return false;
+			}
+			for (long slot = lo & mask;; slot = (slot + 1) & mask) {
+				long slotHi = getHi(slot);
+				if (slotHi == 0) {
+					return false;
+				}
+				if (slotHi == hi && getLo(slot) == lo) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * @param lockStripes
+		 *            if null, the table is assumed not to be shared with other
+		 *            threads
+		 * @return true if the digest was added, false if it was already
+		 *         present
+		 */
+		boolean insert(long hi, long lo, Object[] lockStripes) {
+			for (long slot = lo & mask;; slot = (slot + 1) & mask) {
+				long slotHi = getHi(slot);
+				if (slotHi == 0 || slotHi == hi) {
+					if (lockStripes == null) {
+						if (slotHi == 0) {
+							put(slot, hi, lo);
+							count.incrementAndGet();
+							return true;
+						}
+						if (getLo(slot) == lo) {
+							return false;
+						}
+					} else {
+						synchronized (lockStripes[(int) (slot & (lockStripes.length - 1))]) {
+							slotHi = getHi(slot);
+							if (slotHi == 0) {
+								put(slot, hi, lo);
+								count.incrementAndGet();
+								return true;
+							}
+							if (slotHi == hi && getLo(slot) == lo) {
+								return false;
+							}
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Counts the occupied slots
+		 */
+		void recount() {
+			long occupied = 0;
+			for (long slot = 0; slot < capacity; slot++) {
+				if (getHi(slot) != 0) {
+					occupied++;
+				}
+			}
+			count.set(occupied);
+		}
+
+		int getState() {
+			return header.getInt(STATE_OFFSET);
+		}
+
+		/**
+		 * Records the state and the number of entries in the header and forces
+		 * the header to disk
+		 */
+		void setState(int state) {
+			header.putLong(COUNT_OFFSET, count.get());
+			header.putInt(STATE_OFFSET, state);
+			header.force();
+		}
+
+		/**
+		 * Forces the slots to disk
+		 */
+		void force() {
+			for (MappedByteBuffer segment : segments) {
+				segment.force();
+			}
+		}
+
+		/**
+		 * Unmaps the table and closes its file. The table must not be used
+		 * afterwards.
+		 */
+		void close() throws IOException {
+			unmap(header);
+			for (MappedByteBuffer segment : segments) {
+				unmap(segment);
+			}
+			raf.close();
+		}
+	}
+
+}
@@ -0,0 +1,294 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.openrdf.model.Statement;
+import org.openrdf.model.impl.URIImpl;
+
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.DuplicateStatementFilter;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.ice.RecordSchema.SchemaField;
+
+/**
+ * A size-bounded cache of the field URIs and field statements computed for
+ * field values. Many field values, e.g. evidence codes, taxon identifiers and
+ * gene types, recur in a large number of records. On a cache hit the field URI
+ * does not need to be hashed and the field statements do not need to be
+ * generated again. Each cached field value also records whether its field
+ * statements have already been written during the current run, in which case
+ * they are not handed to the {@link DuplicateStatementFilter} again.
+ * <p>
+ * The cache is bounded both by the number of entries and by an estimate of the
+ * number of bytes used by the entries. The least recently used entries are
+ * evicted first. The cache may be used by multiple threads concurrently.
+ * 
+ * @author Colorado Computational Pharmacology, UC Denver;
+ *         ccpsupport@ucdenver.edu
+ */
+public class FieldValueCache {
+
+	public static final int DEFAULT_MAX_ENTRY_COUNT = 100000;
+
+	public static final long DEFAULT_MAX_BYTE_COUNT = 64L * 1024 * 1024;
+
+	/**
+	 * Rough per-entry overhead of the key, the map entry and the
+	 * {@link CachedFieldValue}
+	 */
+	private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+	/**
+	 * Rough overhead of a {@link Statement} whose subject and predicate are
+	 * shared with other statements
+	 */
+	private static final int STATEMENT_OVERHEAD_BYTES = 48;
+
+	private final int maxEntryCount;
+	private final long maxByteCount;
+	private final LinkedHashMap<Key, CachedFieldValue> cache = new LinkedHashMap<Key, CachedFieldValue>(16, 0.75f,
+			true);
+	private long byteCount = 0;
+	private long hitCount = 0;
+	private long missCount = 0;
+
+	public FieldValueCache() {
+		this(DEFAULT_MAX_ENTRY_COUNT, DEFAULT_MAX_BYTE_COUNT);
+	}
+
+	/**
+	 * @param maxEntryCount
+	 *            the maximum number of cached field values
+	 * @param maxByteCount
+	 *            the maximum (estimated) number of bytes used by the cached
+	 *            field values
+	 */
+	public FieldValueCache(int maxEntryCount, long maxByteCount) {
+		if (maxEntryCount < 1) {
+			throw new IllegalArgumentException("Max entry count must be >= 1: " + maxEntryCount);
+		}
+		if (maxByteCount < 1) {
+			throw new IllegalArgumentException("Max byte count must be >= 1: " + maxByteCount);
+		}
+		this.maxEntryCount = maxEntryCount;
+		this.maxByteCount = maxByteCount;
+	}
+
+	/**
+	 * Field values are identified by their class and by the serialized form
+	 * that is hashed to create the field URI (see
+	 * {@link RdfRecordUriFactory#serializeFieldValue(Object)}) rather than by
+	 * {@link Object#equals(Object)}, which for some identifier classes ignores
+	 * the identifier itself.
+	 * 
+	 * @param field
+	 * @param value
+	 *            a single (non-collection) field value
+	 * @param serializedValue
+	 *            the serialized form of the field value
+	 * @return the cached field value, or null if the field value is not in the
+	 *         cache
+	 */
+	public synchronized CachedFieldValue get(SchemaField field, Object value, String serializedValue) {
+		CachedFieldValue cached = cache.get(new Key(field, value, serializedValue));
+		if (cached == null) {
+			missCount++;
+		} else {
+			hitCount++;
+		}
+		return cached;
+	}
+
+	/**
+	 * Adds a field value to the cache. If another thread has added the same
+	 * field value in the meantime, that field value is kept and returned.
+	 * 
+	 * @param field
+	 * @param value
+	 *            a single (non-collection) field value
+	 * @param serializedValue
+	 *            the serialized form of the field value
+	 * @param fieldUri
+	 *            the field URI for the field value
+	 * @param fieldStatements
+	 *            the statements whose subject is the field URI
+	 * @return the cached field value
+	 */
+	public synchronized CachedFieldValue put(SchemaField field, Object value, String serializedValue,
+			URIImpl fieldUri, List<Statement> fieldStatements) {
+		Key key = new Key(field, value, serializedValue);
+		CachedFieldValue cached = cache.get(key);
+		if (cached != null) {
+			return cached;
+		}
+		cached = new CachedFieldValue(fieldUri, fieldStatements);
+		cache.put(key, cached);
+		byteCount += cached.byteCount;
+		evict();
+		return cached;
+	}
+
+	/**
+	 * Removes the least recently used entries until the cache is within its
+	 * bounds
+	 */
+	private void evict() {
+		Iterator<CachedFieldValue> iter = cache.values().iterator();
+		while ((cache.size() > maxEntryCount || byteCount > maxByteCount) && iter.hasNext()) {
+			byteCount -= iter.next().byteCount;
+			iter.remove();
+		}
+	}
+
+	/**
+	 * @return the number of lookups that found the field value in the cache
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return the number of lookups that did not find the field value in the
+	 *         cache
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * @return the number of field values currently in the cache
+	 */
+	public synchronized int size() {
+		return cache.size();
+	}
+
+	/**
+	 * @return the estimated number of bytes used by the field values currently
+	 *         in the cache
+	 */
+	public synchronized long getByteCount() {
+		return byteCount;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "FieldValueCache [size=" + cache.size() + ", bytes=" + byteCount + ", hits=" + hitCount + ", misses="
+				+ missCount + "]";
+	}
+
+	/**
+	 * The field URI and field statements of a field value. Whether the field
+	 * statements have been emitted is only read and updated by the thread that
+	 * writes the statements.
+	 */
+	public static class CachedFieldValue {
+		private final URIImpl fieldUri;
+		private final List<Statement> fieldStatements;
+		private final long byteCount;
+		private boolean emitted = false;
+
+		private CachedFieldValue(URIImpl fieldUri, List<Statement> fieldStatements) {
+			this.fieldUri = fieldUri;
+			this.fieldStatements = Collections.unmodifiableList(new ArrayList<Statement>(fieldStatements));
+			this.byteCount = estimateByteCount(fieldUri, fieldStatements);
+		}
+
+		private static long estimateByteCount(URIImpl fieldUri, List<Statement> fieldStatements) {
+			long bytes = ENTRY_OVERHEAD_BYTES + 2L * fieldUri.stringValue().length();
+			for (Statement stmt : fieldStatements) {
+				bytes += STATEMENT_OVERHEAD_BYTES + 2L * stmt.getObject().stringValue().length();
+			}
+			return bytes;
+		}
+
+		public URIImpl getFieldUri() {
+			return fieldUri;
+		}
+
+		/**
+		 * @return the statements whose subject is the field URI
+		 */
+		public List<Statement> getFieldStatements() {
+			return fieldStatements;
+		}
+
+		boolean isEmitted() {
+			return emitted;
+		}
+
+		void setEmitted(boolean emitted) {
+			this.emitted = emitted;
+		}
+	}
+
+	/**
+	 * A field paired with the class and serialized form of a field value.
+	 * Values of different classes are never considered equal as they may
+	 * result in different statements.
+	 */
+	private static class Key {
+		private final SchemaField field;
+		private final Class<?> valueClass;
+		private final String serializedValue;
+
+		public Key(SchemaField field, Object value, String serializedValue) {
+			this.field = field;
+			this.valueClass = value.getClass();
+			this.serializedValue = serializedValue;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * field.hashCode() + valueClass.hashCode()) + serializedValue.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return field == other.field && valueClass == other.valueClass
+					&& serializedValue.equals(other.serializedValue);
+		}
+	}
+
+}
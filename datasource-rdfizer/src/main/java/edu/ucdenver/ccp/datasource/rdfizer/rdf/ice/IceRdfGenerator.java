@@ -51,6 +51,7 @@ import edu.ucdenver.ccp.common.file.FileUtil;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordReader;
 import edu.ucdenver.ccp.datasource.fileparsers.idlist.IdListFileFactory;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
+import edu.ucdenver.ccp.datasource.identifiers.IdentifierPool;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiTaxonomyID;
 import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.DefaultDuplicateStatementFilter;
 import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.DuplicateStatementFilter;
@@ -96,13 +97,15 @@ public class IceRdfGenerator {
 	 *            re-downloaded
 	 * @param compress
 	 * @param outputRecordLimit
+	 * @param workerThreadCount
+	 *            the number of threads used to generate the RDF for each record reader
 	 * @throws IOException
 	 * @throws ParseException
 	 */
 	public static void generateIceRdf(Split split, long currentTime, int stageStartNumber, int stagesToProcessCount,
 			File baseSourceFileDirectory, File baseRdfOutputDirectory, boolean cleanSourceFiles,
-			boolean cleanIdListFiles, boolean compress, long outputRecordLimit, Set<NcbiTaxonomyID> taxonIds)
-			throws IOException, ParseException {
+			boolean cleanIdListFiles, boolean compress, long outputRecordLimit, Set<NcbiTaxonomyID> taxonIds,
+			int workerThreadCount) throws IOException, ParseException {
 		int globalStageIndex = 1;
 		if (split.equals(Split.BY_STAGES)) {
 			for (FileDataSource rdfSource : FileDataSource.values()) {
@@ -128,7 +131,8 @@ public class IceRdfGenerator {
 								&& globalStageIndex < (stageStartNumber + stagesToProcessCount)) {
 							DuplicateStatementFilter filter = new NoOpDuplicateStatementFilter();
 							generateRdfStage(rdfOutputDirectory, currentTime, compress, outputRecordLimit, stageIndex,
-									rr, filter, rdfSource.blockRecordCount(), rdfSource.getNumberOfStages(), metadata);
+									rr, filter, rdfSource.blockRecordCount(), rdfSource.getNumberOfStages(), metadata,
+									workerThreadCount);
 						}
 						globalStageIndex++;
 					}
@@ -152,7 +156,8 @@ public class IceRdfGenerator {
 					DuplicateStatementFilter filter = new DefaultDuplicateStatementFilter(cacheFilePrefix);
 					Set<DownloadMetadata> metadata = rdfSource.getDownloadMetadata(rdfSource.getRecordReaderClass(),
 							sourceFileDirectory, taxonIds);
-					generateRdf(currentTime, rr, rdfOutputDirectory, compress, outputRecordLimit, filter, metadata);
+					generateRdf(currentTime, rr, rdfOutputDirectory, compress, outputRecordLimit, filter, metadata,
+							workerThreadCount);
 				}
 				globalStageIndex++;
 			}
@@ -169,12 +174,15 @@ public class IceRdfGenerator {
 	 * @param cleanSourceFiles
 	 * @param compress
 	 * @param outputRecordLimit
+	 * @param workerThreadCount
+	 *            the number of threads used to generate the RDF
 	 * @throws IOException
 	 * @throws ParseException
 	 */
 	public static void generateIceRdf(FileDataSource fileDataSource, long currentTime, File baseSourceFileDirectory,
 			File baseRdfOutputDirectory, boolean cleanSourceFiles, boolean cleanIdListFiles, boolean compress,
-			long outputRecordLimit, Set<NcbiTaxonomyID> taxonIds) throws IOException, ParseException {
+			long outputRecordLimit, Set<NcbiTaxonomyID> taxonIds, int workerThreadCount) throws IOException,
+			ParseException {
 		File sourceFileDirectory = getSourceFileDirectory(baseSourceFileDirectory, fileDataSource.dataSource());
 		File rdfOutputDirectory = getOutputDirectory(baseRdfOutputDirectory, fileDataSource);
 		File idListFileDirectory = IdListFileFactory.getIdListFileDirectory(baseRdfOutputDirectory);
@@ -191,7 +199,8 @@ public class IceRdfGenerator {
 			DuplicateStatementFilter filter = new DefaultDuplicateStatementFilter(cacheFilePrefix);
 			Set<DownloadMetadata> metadata = fileDataSource.getDownloadMetadata(fileDataSource.getRecordReaderClass(),
 					sourceFileDirectory, taxonIds);
-			generateRdf(currentTime, rr, rdfOutputDirectory, compress, outputRecordLimit, filter, metadata);
+			generateRdf(currentTime, rr, rdfOutputDirectory, compress, outputRecordLimit, filter, metadata,
+					workerThreadCount);
 		}
 	}
 
@@ -231,7 +240,7 @@ public class IceRdfGenerator {
 	 */
 	private static void generateRdfStage(File rdfOutputDirectory, long createdTime, boolean compress,
 			long outputRecordLimit, int stageNum, RecordReader<?> recordReader, DuplicateStatementFilter filter,
-			Long blockRecordCount, int numStages, Set<DownloadMetadata> metadata) {
+			Long blockRecordCount, int numStages, Set<DownloadMetadata> metadata, int workerThreadCount) {
 
 		long blockCount = (blockRecordCount == null) ? BLOCK_RECORD_COUNT : blockRecordCount;
 		long skip = 0;
@@ -247,7 +256,7 @@ public class IceRdfGenerator {
 			recordsToProcess = outputRecordLimit;
 		}
 		generateRdf(createdTime, recordReader, rdfOutputDirectory, compress, skip, recordsToProcess, stageNum, filter,
-				metadata);
+				metadata, workerThreadCount);
 	}
 
 	/**
@@ -263,11 +272,12 @@ public class IceRdfGenerator {
 	 * @return
 	 */
 	private static void generateRdf(long createdTime, RecordReader<?> recordReader, File outputDirectory,
-			boolean compress, long outputRecordLimit, DuplicateStatementFilter filter, Set<DownloadMetadata> metadata) {
+			boolean compress, long outputRecordLimit, DuplicateStatementFilter filter, Set<DownloadMetadata> metadata,
+			int workerThreadCount) {
 		long skip = 0;
 		int batchNum = 0;
 		generateRdf(createdTime, recordReader, outputDirectory, compress, skip, outputRecordLimit, batchNum, filter,
-				metadata);
+				metadata, workerThreadCount);
 	}
 
 	/**
@@ -288,18 +298,22 @@ public class IceRdfGenerator {
 	 * @param batchNumber
 	 *            this number will be appended to the output file name to allow multiple stages to
 	 *            process a single file but output the RDF into distinct files.
+	 * @param workerThreadCount
+	 *            the number of threads used to generate RDF statements; the output does not
+	 *            depend on the number of threads
 	 * @return returns references to the RDF files that are created
 	 */
 	public static void generateRdf(final long createdTime, final RecordReader<?> recordReader,
 			final File outputDirectory, boolean compress, long skip, long outputRecordLimit, int batchNumber,
-			DuplicateStatementFilter filter, Set<DownloadMetadata> metadata) {
+			DuplicateStatementFilter filter, Set<DownloadMetadata> metadata, int workerThreadCount) {
 		RdfRecordWriter<?> recordWriter = null;
 		logger.info("Creating RDF for Record Reader: " + recordReader.getClass().getName() + " SKIP=" + skip
 				+ " COMPRESS=" + compress + " OUTPUT_RECORD_LIMIT=" + outputRecordLimit + " BATCH_NUMBER=" + batchNumber
-				+ " OUTPUT_DIRECTORY=" + outputDirectory.getAbsolutePath());
+				+ " OUTPUT_DIRECTORY=" + outputDirectory.getAbsolutePath() + " WORKER_THREADS=" + workerThreadCount);
 		long startTime = System.currentTimeMillis();
 		try {
 			recordWriter = new RdfRecordWriter(outputDirectory, RdfFormat.NTRIPLES, compress, -1, batchNumber, filter);
+			recordWriter.setWorkerThreadCount(workerThreadCount);
 			Collection<File> generatedRdfFiles = recordWriter.processRecordReader(recordReader, createdTime, skip,
 					outputRecordLimit, metadata);
 			createMd5CheckSumsForGeneratedRdfFiles(generatedRdfFiles);
@@ -358,6 +372,9 @@ public class IceRdfGenerator {
 	 *            args[7]: comma-delimited list of FileDataSource names to process <br>
 	 *            args[8]: [OPTIONAL] date to use in the form yyyy-mm-dd. If not included or if
 	 *            "null" then the current date will be used<br>
+	 *            args[9]: [OPTIONAL] the number of threads used to generate RDF. Defaults to 1.<br>
+	 *            args[10]: [OPTIONAL] (true/false) if true, identifiers are shared using the
+	 *            {@link IdentifierPool}. Defaults to false.<br>
 	 *            <br>
 	 *            if INDEX: <br>
 	 *            args[7]: start stage args<br>
@@ -372,7 +389,10 @@ public class IceRdfGenerator {
 	 *            in longer execution times for the larger files, however duplicate triple removal
 	 *            can be done concurrently.<br>
 	 *            args[10]: [OPTIONAL] date to use in the form yyyy-mm-dd. If not included or if
-	 *            "null" then the current date will be used
+	 *            "null" then the current date will be used<br>
+	 *            args[11]: [OPTIONAL] the number of threads used to generate RDF. Defaults to 1.<br>
+	 *            args[12]: [OPTIONAL] (true/false) if true, identifiers are shared using the
+	 *            {@link IdentifierPool}. Defaults to false.
 	 * 
 	 */
 	public static void main(String[] args) {
@@ -416,13 +436,16 @@ public class IceRdfGenerator {
 				int stagesToProcessCount = Integer.valueOf(args[index++]);
 				Split split = Split.valueOf(args[index++]);
 				long time = getTime(args, index);
+				int workerThreadCount = getWorkerThreadCount(args, index + 1);
+				IdentifierPool.setEnabled(getInternIdentifiers(args, index + 2));
 				generateIceRdf(split, time, stageStartNumber, stagesToProcessCount, baseSourceFileDirectory,
 						baseRdfOutputDirectory, cleanSourceFiles, cleanIdListFiles, compress, outputRecordLimit,
-						taxonIds);
+						taxonIds, workerThreadCount);
 				break;
 
 			case NAME:
 				String datasourceStr = args[index++].toUpperCase();
+				IdentifierPool.setEnabled(getInternIdentifiers(args, index + 2));
 				for (String ds : datasourceStr.split(",")) {
 					FileDataSource source = null;
 					try {
@@ -436,8 +459,10 @@ public class IceRdfGenerator {
 							logger.info("Processing data source: " + source.name());
 							logger.info("clean source files flag = " + cleanSourceFiles);
 							time = getTime(args, index);
+							workerThreadCount = getWorkerThreadCount(args, index + 1);
 							generateIceRdf(source, time, baseSourceFileDirectory, baseRdfOutputDirectory,
-									cleanSourceFiles, cleanIdListFiles, compress, outputRecordLimit, taxonIds);
+									cleanSourceFiles, cleanIdListFiles, compress, outputRecordLimit, taxonIds,
+									workerThreadCount);
 						}
 					} catch (Exception e) {
 						if (e.getMessage().equals("Connection reset")) {
@@ -471,4 +496,30 @@ public class IceRdfGenerator {
 		return System.currentTimeMillis();
 	}
 
+	/**
+	 * @param args
+	 * @param index
+	 * @return the number of worker threads specified by the argument at the specified index, or 1
+	 *         if there is no such argument
+	 */
+	private static int getWorkerThreadCount(String[] args, int index) {
+		if (args.length > index && !args[index].equals("null")) {
+			return Integer.valueOf(args[index]);
+		}
+		return 1;
+	}
+
+	/**
+	 * @param args
+	 * @param index
+	 * @return true if the argument at the specified index enables the {@link IdentifierPool}, false
+	 *         if it does not or if there is no such argument
+	 */
+	private static boolean getInternIdentifiers(String[] args, int index) {
+		if (args.length > index && !args[index].equals("null")) {
+			return Boolean.valueOf(args[index]);
+		}
+		return false;
+	}
+
 }
@@ -0,0 +1,264 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openrdf.model.BNode;
+import org.openrdf.model.Literal;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.vocabulary.RDF;
+import org.openrdf.model.vocabulary.RDFS;
+import org.openrdf.rio.ntriples.NTriplesUtil;
+
+/**
+ * Writes {@link Statement}s as N-Triples directly to an {@link OutputStream}
+ * without going through a Sesame {@link org.openrdf.rio.RDFWriter} and a
+ * character {@link java.io.Writer}. Terms are escaped straight into a reusable
+ * byte buffer, and the encoded form of predicates, datatypes and class URIs
+ * (objects of rdf:type and rdfs:subClassOf) is cached since the same handful
+ * of them recurs in nearly every statement.
+ * <p>
+ * The output is byte-for-byte identical to that of the Sesame N-Triples writer
+ * encoding to UTF-8. Only printable ASCII characters are written directly; any
+ * term containing a character that requires escaping is handed to
+ * {@link NTriplesUtil} so that the escaping rules are shared with Sesame.
+ * <p>
+ * Instances are not thread-safe.
+ * 
+ * @author Colorado Computational Pharmacology, UC Denver;
+ *         ccpsupport@ucdenver.edu
+ * 
+ */
+public class NTriplesStatementWriter implements Closeable {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * upper bound on the number of encoded terms that are cached
+	 */
+	private static final int MAX_CACHED_TERMS = 10000;
+
+	private static final byte[] STATEMENT_END = " .\n".getBytes(UTF_8);
+
+	private final OutputStream outputStream;
+
+	private final byte[] buffer;
+
+	private int position = 0;
+
+	private final Map<String, byte[]> uriToEncodedBytesMap = new HashMap<String, byte[]>();
+
+	private final Map<String, byte[]> languageToEncodedBytesMap = new HashMap<String, byte[]>();
+
+	public NTriplesStatementWriter(OutputStream outputStream) {
+		this(outputStream, DEFAULT_BUFFER_SIZE);
+	}
+
+	public NTriplesStatementWriter(OutputStream outputStream, int bufferSize) {
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("Buffer size must be greater than zero: " + bufferSize);
+		}
+		this.outputStream = outputStream;
+		this.buffer = new byte[bufferSize];
+	}
+
+	/**
+	 * Appends the statement to the output as a single N-Triples line
+	 * 
+	 * @param stmt
+	 * @throws IOException
+	 */
+	public void write(Statement stmt) throws IOException {
+		writeResource(stmt.getSubject());
+		writeByte(' ');
+		URI predicate = stmt.getPredicate();
+		writeCachedUri(predicate);
+		writeByte(' ');
+		Value object = stmt.getObject();
+		if (object instanceof URI && (RDF.TYPE.equals(predicate) || RDFS.SUBCLASSOF.equals(predicate))) {
+			writeCachedUri((URI) object);
+		} else {
+			writeValue(object);
+		}
+		writeBytes(STATEMENT_END);
+	}
+
+	/**
+	 * Writes any buffered bytes to the underlying stream and flushes it
+	 * 
+	 * @throws IOException
+	 */
+	public void flush() throws IOException {
+		flushBuffer();
+		outputStream.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flushBuffer();
+		} finally {
+			outputStream.close();
+		}
+	}
+
+	private void writeValue(Value value) throws IOException {
+		if (value instanceof Literal) {
+			writeLiteral((Literal) value);
+		} else {
+			writeResource((Resource) value);
+		}
+	}
+
+	private void writeResource(Resource resource) throws IOException {
+		if (resource instanceof URI) {
+			writeUri(resource.stringValue());
+		} else {
+			writeBytes(NTriplesUtil.toNTriplesString((BNode) resource).getBytes(UTF_8));
+		}
+	}
+
+	private void writeUri(String uri) throws IOException {
+		writeByte('<');
+		writeEscaped(uri);
+		writeByte('>');
+	}
+
+	private void writeCachedUri(URI uri) throws IOException {
+		String uriStr = uri.stringValue();
+		byte[] encoded = uriToEncodedBytesMap.get(uriStr);
+		if (encoded == null) {
+			encoded = NTriplesUtil.toNTriplesString(uri).getBytes(UTF_8);
+			if (uriToEncodedBytesMap.size() < MAX_CACHED_TERMS) {
+				uriToEncodedBytesMap.put(uriStr, encoded);
+			}
+		}
+		writeBytes(encoded);
+	}
+
+	private void writeLiteral(Literal literal) throws IOException {
+		URI datatype = literal.getDatatype();
+		String language = literal.getLanguage();
+		if (datatype != null && language != null) {
+			/* not expected, but leave it to Sesame to decide how this is serialized */
+			writeBytes(NTriplesUtil.toNTriplesString(literal).getBytes(UTF_8));
+			return;
+		}
+		writeByte('"');
+		writeEscaped(literal.getLabel());
+		writeByte('"');
+		if (datatype != null) {
+			writeByte('^');
+			writeByte('^');
+			writeCachedUri(datatype);
+		} else if (language != null) {
+			byte[] encoded = languageToEncodedBytesMap.get(language);
+			if (encoded == null) {
+				encoded = ("@" + language).getBytes(UTF_8);
+				if (languageToEncodedBytesMap.size() < MAX_CACHED_TERMS) {
+					languageToEncodedBytesMap.put(language, encoded);
+				}
+			}
+			writeBytes(encoded);
+		}
+	}
+
+	/**
+	 * Copies the string into the buffer as long as it consists only of
+	 * characters that are written verbatim. As soon as a character that needs
+	 * escaping is encountered, the partially copied bytes are discarded and the
+	 * whole string is escaped by {@link NTriplesUtil#escapeString(String)}.
+	 * 
+	 * @param s
+	 * @throws IOException
+	 */
+	private void writeEscaped(String s) throws IOException {
+		int length = s.length();
+		if (length > buffer.length - position) {
+			flushBuffer();
+			if (length > buffer.length) {
+				writeBytes(NTriplesUtil.escapeString(s).getBytes(UTF_8));
+				return;
+			}
+		}
+		int start = position;
+		for (int i = 0; i < length; i++) {
+			char c = s.charAt(i);
+			if (c < 0x20 || c > 0x7E || c == '"' || c == '\\') {
+				position = start;
+				writeBytes(NTriplesUtil.escapeString(s).getBytes(UTF_8));
+				return;
+			}
+			buffer[position++] = (byte) c;
+		}
+	}
+
+	private void writeByte(char c) throws IOException {
+		if (position == buffer.length) {
+			flushBuffer();
+		}
+		buffer[position++] = (byte) c;
+	}
+
+	private void writeBytes(byte[] bytes) throws IOException {
+		if (bytes.length > buffer.length - position) {
+			flushBuffer();
+			if (bytes.length > buffer.length) {
+				outputStream.write(bytes);
+				return;
+			}
+		}
+		System.arraycopy(bytes, 0, buffer, position, bytes.length);
+		position += bytes.length;
+	}
+
+	private void flushBuffer() throws IOException {
+		if (position > 0) {
+			outputStream.write(buffer, 0, position);
+			position = 0;
+		}
+	}
+
+}
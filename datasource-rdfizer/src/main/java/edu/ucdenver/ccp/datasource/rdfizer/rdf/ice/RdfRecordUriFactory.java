@@ -38,24 +38,21 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map.Entry;
-import java.util.Set;
 
 import org.openrdf.model.Value;
 import org.openrdf.model.impl.URIImpl;
 import org.openrdf.rio.ntriples.NTriplesUtil;
 
-import edu.ucdenver.ccp.common.digest.DigestUtil;
-import edu.ucdenver.ccp.common.reflection.PrivateAccessor;
+import edu.ucdenver.ccp.common.string.StringConstants;
 import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordField;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordUtil;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordVisitor;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.ProbableErrorDataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.UnknownDataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.ice.RecordSchema.SchemaField;
 
 /**
  * @author Colorado Computational Pharmacology, UC Denver;
@@ -102,7 +99,7 @@ public class RdfRecordUriFactory {
 	 *         {@link CcpExtensionOntology}
 	 */
 	public static URIImpl getRecordTypeUri(Class<?> recordClass) {
-		return RdfUtil.getUri(RecordUtil.getRecordType(recordClass));
+		return RecordSchema.forClass(recordClass).getRecordTypeUri();
 	}
 
 	/**
@@ -117,13 +114,59 @@ public class RdfRecordUriFactory {
 		if (value == null) {
 			return null;
 		}
-		String sha1Str = RdfRecordUriFactory.getSha1DigestForFieldValuePairing(record, field, value);
-		if (sha1Str == null) {
+		URIImpl recordFieldTypeUri = getRecordFieldTypeUri(record.getClass(), field.getName());
+		return createFieldUri("<" + recordFieldTypeUri + ">", value);
+	}
+
+	/**
+	 * @param field
+	 * @param value
+	 * @return a unique URI for this particular field/value pairing, see
+	 *         {@link #createFieldUri(Object, Field, Object)}
+	 */
+	static URIImpl createFieldUri(SchemaField field, Object value) {
+		if (value == null) {
 			return null;
 		}
+		return createFieldUri(field.getBracketedFieldTypeUri(), value);
+	}
+
+	/**
+	 * @param field
+	 * @param serializedValue
+	 *            a field value serialized using {@link #serializeFieldValue(Object)}
+	 * @return the URI that {@link #createFieldUri(SchemaField, Object)} returns for the field value
+	 */
+	static URIImpl createFieldUriForSerializedValue(SchemaField field, String serializedValue) {
+		return createFieldUriForSerializedValue(field.getBracketedFieldTypeUri(), serializedValue);
+	}
+
+	private static URIImpl createFieldUri(String bracketedFieldTypeUri, Object value) {
+		if (value instanceof Collection) {
+			throw new IllegalArgumentException("Collection input argument not allowed");
+		}
+		String serializedValue = serializeFieldValue(value);
+		if (serializedValue == null) {
+			return null;
+		}
+		return createFieldUriForSerializedValue(bracketedFieldTypeUri, serializedValue);
+	}
+
+	private static URIImpl createFieldUriForSerializedValue(String bracketedFieldTypeUri, String serializedValue) {
+		String sha1Str = getSha1DigestForFieldValuePairing(bracketedFieldTypeUri, serializedValue);
 		return RdfUtil.createUriImpl(DataSource.KABOB_ICE, UriPrefix.RECORD_FIELD.prefix() + sha1Str);
 	}
 
+	/**
+	 * @param fieldValue
+	 *            a single (non-collection) field value
+	 * @return the string that represents the field value in the digests used
+	 *         to create field and record URIs
+	 */
+	static String serializeFieldValue(Object fieldValue) {
+		return getFieldValueUri(fieldValue);
+	}
+
 	/**
 	 * @param recordClass
 	 * @param fieldName
@@ -135,45 +178,18 @@ public class RdfRecordUriFactory {
 		return RdfUtil.getUri(RecordUtil.getRecordFieldType(recordClass, fieldName));
 	}
 
-	/**
-	 * @param record
-	 * @param rdfSource
-	 * @param inputFileType
-	 * @return a sorted {@link LinkedHashMap} containing mappings from field
-	 *         names to field values sorted as strings. Only record fields that
-	 *         are annotated with {@link RecordField} are included in the
-	 *         mapping.
-	 */
-	private static LinkedHashMap<String, List<String>> getSortedFieldAndValueUriStrs(Object record) {
-		LinkedHashMap<String, List<String>> sortedFieldsAndValues = new LinkedHashMap<String, List<String>>();
-		Set<Field> fields = RecordUtil.getFieldToRecordFieldAnnotationsMap(record.getClass()).keySet();
-		if (fields.isEmpty()) {
-			throw new IllegalArgumentException(
-					"Detected DataRecord with no fields annotated with RecordField annotations. Please add RecordField annotations to class: "
-							+ record.getClass().getName());
-		}
-		List<Field> sortedFields = new ArrayList<Field>(fields);
-		Collections.sort(sortedFields, new FieldNameComparator());
-		for (Field field : sortedFields) {
-			Collection<Object> fieldValues = getFieldValues(record, field);
-			if (fieldValues != null) {
-				URIImpl recordFieldTypeUri = getRecordFieldTypeUri(record.getClass(), field.getName());
-				List<String> fieldValueUriStrs = getSortedFieldValueUriStrs(fieldValues);
-				sortedFieldsAndValues.put("<" + recordFieldTypeUri.toString() + ">", fieldValueUriStrs);
-			}
-		}
-		return sortedFieldsAndValues;
-	}
-
 	/**
 	 * @param fieldValues
+	 *            the non-null elements of a collection field value
 	 * @return a sorted list of String representations for the input field
 	 *         values
 	 */
-	private static List<String> getSortedFieldValueUriStrs(Collection<Object> fieldValues) {
-		List<String> fieldValueUriStrs = new ArrayList<String>();
+	private static List<String> getSortedFieldValueUriStrs(Collection<?> fieldValues) {
+		List<String> fieldValueUriStrs = new ArrayList<String>(fieldValues.size());
 		for (Object fieldValue : fieldValues) {
-			fieldValueUriStrs.add(getFieldValueUri(fieldValue));
+			if (fieldValue != null) {
+				fieldValueUriStrs.add(getFieldValueUri(getNonCollectionFieldValue(fieldValue)));
+			}
 		}
 		Collections.sort(fieldValueUriStrs);
 		return fieldValueUriStrs;
@@ -202,83 +218,66 @@ public class RdfRecordUriFactory {
 		return NTriplesUtil.toNTriplesString(value);
 	}
 
-	private static String getSortedFieldsAndValuesStr(Object record) {
-		LinkedHashMap<String, List<String>> sortedFieldsAndValues = getSortedFieldAndValueUriStrs(record);
-		StringBuffer buffer = new StringBuffer();
-		for (Entry<String, List<String>> entry : sortedFieldsAndValues.entrySet()) {
-			for (String value : entry.getValue()) {
-				buffer.append(entry.getKey() + value);
+	/**
+	 * @param prefix
+	 *            prepended to the field and value URIs
+	 * @param record
+	 * @return the SHA-1 digest of the prefix followed by each field type URI
+	 *         and value URI pair. Fields are visited in schema order and the
+	 *         values of collection fields are sorted as strings. Only record
+	 *         fields that are annotated with {@link RecordField} are included.
+	 */
+	private static String sha1DigestForSortedFieldsAndValues(String prefix, Object record) {
+		RecordSchema schema = RecordSchema.forClass(record.getClass());
+		List<SchemaField> fields = schema.getFields();
+		if (fields.isEmpty()) {
+			throw new IllegalArgumentException(
+					"Detected DataRecord with no fields annotated with RecordField annotations. Please add RecordField annotations to class: "
+							+ record.getClass().getName());
+		}
+		RecordVisitor<Object> visitor = schema.getVisitor();
+		UriDigester digester = UriDigester.forCurrentThread().update(prefix);
+		for (SchemaField field : fields) {
+			Object fieldValue = visitor.getFieldValue(record, field.getIndex());
+			if (fieldValue == null) {
+				continue;
+			}
+			String bracketedFieldTypeUri = field.getBracketedFieldTypeUri();
+			if (fieldValue instanceof Collection) {
+				for (String fieldValueUri : getSortedFieldValueUriStrs((Collection<?>) fieldValue)) {
+					digester.update(bracketedFieldTypeUri).update(fieldValueUri);
+				}
+			} else {
+				digester.update(bracketedFieldTypeUri).update(getFieldValueUri(fieldValue));
 			}
 		}
-		return buffer.toString();
+		return digester.digest();
 	}
 
 	static String sha1DigestForSortedFieldsAndValues(Object record, String fieldName) {
-		String sortedStr = getSortedFieldsAndValuesStr(record);
-		if (sortedStr == null) {
-			return null;
-		}
-		return DigestUtil.getBase64Sha1Digest(fieldName + sortedStr);
+		return sha1DigestForSortedFieldsAndValues(fieldName, record);
 	}
-	
+
 	static String sha1DigestForSortedFieldsAndValues(Object record) {
-		String sortedStr = getSortedFieldsAndValuesStr(record);
-		if (sortedStr == null) {
-			return null;
-		}
-		return DigestUtil.getBase64Sha1Digest(sortedStr);
+		return sha1DigestForSortedFieldsAndValues(StringConstants.BLANK, record);
 	}
 
 	/**
-	 * @param record
-	 * @param field
-	 * @param fieldValue
+	 * @param bracketedFieldTypeUri
+	 *            the field type URI surrounded by angle brackets
+	 * @param fieldValueUri
+	 *            the serialized field value
 	 * @return a hash of the field type + field value strings
 	 */
-	private static String getSha1DigestForFieldValuePairing(Object record, Field field, Object fieldValue) {
-		if (fieldValue instanceof Collection) {
-			throw new IllegalArgumentException("Collection input argument not allowed");
-		}
-		URIImpl recordFieldTypeUri = getRecordFieldTypeUri(record.getClass(), field.getName());
-		String fieldValueUri = getFieldValueUri(fieldValue);
-		if (fieldValueUri == null) {
-			return null;
-		}
-		String fieldValueStr = "<" + recordFieldTypeUri + ">" + fieldValueUri;
-		return DigestUtil.getBase64Sha1Digest(fieldValueStr);
-	}
-
-	/**
-	 * @param field
-	 * @return
-	 */
-	private static Collection<Object> getFieldValues(Object record, Field field) {
-		Object fieldValue = PrivateAccessor.getFieldValue(record, field.getName());
-		if (fieldValue == null) {
-			return null;
-		}
-
-		Collection<Object> fieldValues = new ArrayList<Object>();
-
-		if (!(fieldValue instanceof Collection)) {
-			fieldValues.add(getNonCollectionFieldValues(fieldValue));
-		} else {
-			Collection<?> coll = (Collection<?>) fieldValue;
-			for (Object object : coll) {
-				if (object != null) {
-					fieldValues.add(getNonCollectionFieldValues(object));
-				}
-			}
-		}
-
-		return fieldValues;
+	private static String getSha1DigestForFieldValuePairing(String bracketedFieldTypeUri, String fieldValueUri) {
+		return UriDigester.forCurrentThread().update(bracketedFieldTypeUri).update(fieldValueUri).digest();
 	}
 
 	/**
 	 * @param fieldValue
 	 * @return
 	 */
-	private static Object getNonCollectionFieldValues(Object fieldValue) {
+	private static Object getNonCollectionFieldValue(Object fieldValue) {
 		if (fieldValue instanceof Collection) {
 			throw new IllegalArgumentException("Collection fieldValue is not supported");
 		}
@@ -288,19 +287,4 @@ public class RdfRecordUriFactory {
 		return fieldValue;
 	}
 
-	/**
-	 * Comparator that uses {@link Field#getName()} for comparison.
-	 */
-	private static class FieldNameComparator implements Comparator<Field> {
-		/**
-		 * Compare using fields' names
-		 * 
-		 * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
-		 */
-		@Override
-		public int compare(Field o1, Field o2) {
-			return o1.getName().compareTo(o2.getName());
-		}
-	}
-
 }
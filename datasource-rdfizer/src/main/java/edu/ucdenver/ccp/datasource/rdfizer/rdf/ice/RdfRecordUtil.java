@@ -33,18 +33,12 @@ package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
  * #L%
  */
 
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
-import java.util.Set;
 
 import org.apache.log4j.Logger;
 import org.openrdf.model.Statement;
@@ -55,17 +49,21 @@ import org.openrdf.model.impl.URIImpl;
 import org.openrdf.model.vocabulary.RDF;
 import org.openrdf.model.vocabulary.RDFS;
 
-import edu.ucdenver.ccp.common.reflection.PrivateAccessor;
 import edu.ucdenver.ccp.common.string.StringConstants;
 import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 import edu.ucdenver.ccp.datasource.fileparsers.DataRecord;
-import edu.ucdenver.ccp.datasource.fileparsers.Record;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordFieldVisitor;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordUtil;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.ProbableErrorDataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.UnknownDataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.ClassifiedStatement;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.ClassifiedStatement.Kind;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.DuplicateFieldValueFilter;
 import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.DuplicateStatementFilter;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.ice.FieldValueCache.CachedFieldValue;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.ice.RecordSchema.SchemaField;
 import edu.ucdenver.ccp.datasource.rdfizer.rdf.vocabulary.RO;
 
 /**
@@ -428,41 +426,6 @@ public class RdfRecordUtil {
 	// return field.getType();
 	// }
 
-	/**
-	 * Determine whether class should be treated as sub-record definition. If
-	 * field type is collection, it's generic type is used.
-	 * 
-	 * @param field
-	 *            to check
-	 * @return true if sub-record; otherwise, false.
-	 */
-	private static boolean isFieldSubRecord(Field field) {
-		Class<?> klass = field.getType();
-
-		if (Collection.class.isAssignableFrom(klass)) {
-			Type gt = field.getGenericType();
-			if (gt instanceof ParameterizedType) {
-				Type[] genericTypes = ((ParameterizedType) gt).getActualTypeArguments();
-				if (genericTypes.length > 0 && (genericTypes[0] instanceof Class)) {
-					return isFieldSubRecord((Class<?>) genericTypes[0]);
-				}
-			}
-		}
-
-		return isFieldSubRecord(klass);
-	}
-
-	/**
-	 * Determine whether class should be treated as sub-record definition.
-	 * 
-	 * @param klass
-	 *            to check
-	 * @return true if sub-record; otherwise, false.
-	 */
-	private static boolean isFieldSubRecord(Class<?> klass) {
-		return klass.isAnnotationPresent(Record.class);
-	}
-
 	// /**
 	// * Get collection of statements that instance datasource, records and
 	// fields
@@ -580,7 +543,55 @@ public class RdfRecordUtil {
 	 */
 	public static List<Statement> getRecordInstanceStatements(Object record, long createdTime, URIImpl recordUri,
 			URIImpl parentRecordUri, String readerKey, DuplicateStatementFilter filter) {
-		List<Statement> statements = new ArrayList<Statement>();
+		return createRecordStatements(record, createdTime, recordUri, parentRecordUri, readerKey, null).resolve(
+				filter);
+	}
+
+	/**
+	 * Generates the same statements as
+	 * {@link #getRecordInstanceStatements(Object, long, URIImpl, URIImpl, String, DuplicateStatementFilter)}
+	 * without consulting a {@link DuplicateStatementFilter}. The filter is
+	 * applied when the returned {@link RecordStatements} are resolved, which
+	 * allows the statements of different records to be generated concurrently.
+	 * The statements are {@link ClassifiedStatement}s so that the writer and
+	 * the filter do not need to inspect their subjects.
+	 * 
+	 * @param record
+	 * @param createdTime
+	 * @param recordUri
+	 * @param parentRecordUri
+	 * @param readerKey
+	 * @param fieldValueCache
+	 *            if not null, used to look up the field URIs and field
+	 *            statements of field values that have been seen before
+	 * @return
+	 */
+	static RecordStatements createRecordStatements(Object record, long createdTime, URIImpl recordUri,
+			URIImpl parentRecordUri, String readerKey, FieldValueCache fieldValueCache) {
+		/* the record URIs are supplied by the caller, so they may carry a filter key */
+		String recordFilterKey = DuplicateFieldValueFilter.getFilterKey(recordUri);
+		String parentRecordFilterKey = (parentRecordUri == null) ? null : DuplicateFieldValueFilter
+				.getFilterKey(parentRecordUri);
+		return createRecordStatements(record, createdTime, recordUri, recordFilterKey, parentRecordUri,
+				parentRecordFilterKey, readerKey, fieldValueCache);
+	}
+
+	/**
+	 * URIs created by {@link RdfRecordUriFactory} and {@link RdfUtil}, i.e. the
+	 * record set, sub-record, field and identifier URIs, are in the
+	 * {@link DataSource#KABOB_ICE} namespace and never have a
+	 * {@link DuplicateFieldValueFilter} key, so keys are only computed for the
+	 * record URIs passed in by the caller
+	 * 
+	 * @param recordFilterKey
+	 *            the filter key of the record URI
+	 * @param parentRecordFilterKey
+	 *            the filter key of the parent record URI
+	 */
+	private static RecordStatements createRecordStatements(Object record, long createdTime, URIImpl recordUri,
+			String recordFilterKey, URIImpl parentRecordUri, String parentRecordFilterKey, String readerKey,
+			FieldValueCache fieldValueCache) {
+		RecordStatements statements = new RecordStatements();
 		readerKey = readerKey == null ? StringConstants.BLANK : readerKey;
 
 		if (record.getClass().isAnonymousClass()) {
@@ -594,84 +605,109 @@ public class RdfRecordUtil {
 
 		if (isSubRecord) {
 			// record part of parent record
-			statements.add(new StatementImpl(parentRecordUri, RO.HAS_PART.uri(), recordUri));
+			statements.add(new ClassifiedStatement(parentRecordUri, RO.HAS_PART.uri(), recordUri, Kind.SUB_RECORD,
+					parentRecordFilterKey));
 		} else {
 			// record part of dataset
 			URIImpl recordSetInstanceUri = getRecordSetInstanceUri((DataRecord) record, readerKey, createdTime);
-			statements.add(new StatementImpl(recordSetInstanceUri, RO.HAS_PART.uri(), recordUri));
+			statements.add(new ClassifiedStatement(recordSetInstanceUri, RO.HAS_PART.uri(), recordUri,
+					Kind.RECORD_INSTANCE, null));
 		}
 
+		RecordSchema schema = RecordSchema.forClass(record.getClass());
+
 		// record instance type record class
-		URIImpl recordClassUri = RdfRecordUriFactory.getRecordTypeUri(record.getClass());
-		statements.add(new StatementImpl(recordUri, RDF.TYPE, recordClassUri));
-
-		Set<Field> fields = RecordUtil.getFieldToRecordFieldAnnotationsMap(record.getClass()).keySet();
-		List<Field> sortedFields = new ArrayList<Field>(fields);
-		Collections.sort(sortedFields, new FieldNameComparator());
-
-		for (Field field : sortedFields) {
-			if (isFieldSubRecord(field)) {
-				Object subRecord = null;
-				try {
-					subRecord = field.get(record);
-				} catch (IllegalArgumentException e) {
-					throw new RuntimeException(e);
-				} catch (IllegalAccessException e) {
-					throw new RuntimeException(e);
-				}
+		statements.add(new ClassifiedStatement(recordUri, RDF.TYPE, schema.getRecordTypeUri(), Kind.RECORD_INSTANCE,
+				recordFilterKey));
 
-				if (subRecord == null) {
-					continue;
-				}
+		schema.getVisitor().visit(record, new FieldStatementGenerator(schema.getFields(), recordUri, recordFilterKey,
+				createdTime, readerKey, fieldValueCache, statements));
+
+		return statements;
+	}
+
+	/**
+	 * Adds the statements for each visited field value of a record to the
+	 * {@link RecordStatements} of the record
+	 */
+	private static class FieldStatementGenerator implements RecordFieldVisitor {
+		private final List<SchemaField> fields;
+		private final URIImpl recordUri;
+		private final String recordFilterKey;
+		private final long createdTime;
+		private final String readerKey;
+		private final FieldValueCache fieldValueCache;
+		private final RecordStatements statements;
+
+		public FieldStatementGenerator(List<SchemaField> fields, URIImpl recordUri, String recordFilterKey,
+				long createdTime, String readerKey, FieldValueCache fieldValueCache, RecordStatements statements) {
+			this.fields = fields;
+			this.recordUri = recordUri;
+			this.recordFilterKey = recordFilterKey;
+			this.createdTime = createdTime;
+			this.readerKey = readerKey;
+			this.fieldValueCache = fieldValueCache;
+			this.statements = statements;
+		}
 
-				if (subRecord instanceof Collection) {
-					for (Object subrecord : (Collection<?>) subRecord) {
-						statements.addAll(getSubrecordStatements(field, createdTime, recordUri, readerKey, filter,
-								subrecord, record));
-					}
-				} else {
-					statements.addAll(getSubrecordStatements(field, createdTime, recordUri, readerKey, filter,
-							subRecord, record));
+		@Override
+		public void visitValue(int fieldIndex, Object value) {
+			SchemaField field = fields.get(fieldIndex);
+			/*
+			 * key field values are unique to a record, so there is no point in
+			 * caching them
+			 */
+			/*
+			 * the statements for a probable error identifier include its error
+			 * message, which is not part of the field URI digest, so such values
+			 * are not cached
+			 */
+			if (fieldValueCache != null && !field.isKeyField()
+					&& !(value instanceof ProbableErrorDataSourceIdentifier)) {
+				String serializedValue = RdfRecordUriFactory.serializeFieldValue(value);
+				if (serializedValue == null) {
+					return;
 				}
-			} else {
-				Collection<Statement> fieldValueStmts = getRdfFieldValueStatements(recordUri, record, field,
-						createdTime, filter);
-				if (fieldValueStmts.isEmpty()) {
-					continue;
+				CachedFieldValue cached = fieldValueCache.get(field, value, serializedValue);
+				if (cached == null) {
+					URIImpl fieldUri = RdfRecordUriFactory.createFieldUriForSerializedValue(field, serializedValue);
+					cached = fieldValueCache.put(field, value, serializedValue, fieldUri, getFieldStatements(field,
+							fieldUri, value));
 				}
-
-				statements.addAll(fieldValueStmts);
+				statements.add(new ClassifiedStatement(recordUri, RO.HAS_PART.uri(), cached.getFieldUri(),
+						Kind.RECORD_INSTANCE, recordFilterKey));
+				statements.addFieldValue(cached);
+				return;
+			}
+			/* a new field instance URI is generated for each member of a collection field */
+			URIImpl fieldUri = RdfRecordUriFactory.createFieldUri(field, value);
+			if (fieldUri != null) {
+				statements.add(new ClassifiedStatement(recordUri, RO.HAS_PART.uri(), fieldUri, Kind.RECORD_INSTANCE,
+						recordFilterKey));
+				statements.addAll(getFieldStatements(field, fieldUri, value));
 			}
-
 		}
 
-		return statements;
-	}
+		/**
+		 * @return the statements whose subject is the field URI
+		 */
+		private List<Statement> getFieldStatements(SchemaField field, URIImpl fieldUri, Object value) {
+			Kind kind = field.isKeyField() ? Kind.KEY_FIELD : Kind.FIELD_VALUE;
+			List<Statement> fieldStatements = new ArrayList<Statement>();
+			fieldStatements.add(new ClassifiedStatement(fieldUri, RDF.TYPE, field.getFieldTypeUri(), kind, null));
+			fieldStatements.addAll(getFieldDenotesValueStatement(fieldUri, value, kind, null));
+			return fieldStatements;
+		}
 
-	/**
-	 * @param createdTime
-	 * @param recordUri
-	 * @param readerKey
-	 * @param filter
-	 * @param statements
-	 * @param subRecord
-	 */
-	private static List<Statement> getSubrecordStatements(Field field, long createdTime, URIImpl recordUri,
-			String readerKey, DuplicateStatementFilter filter, Object subRecord, Object parentRecord) {
-		List<Statement> statements = new ArrayList<Statement>();
-		URIImpl subRecordUri = RdfRecordUriFactory.createRecordUri(subRecord, field.getName());
-		List<Statement> subRecordStmts = getRecordInstanceStatements(subRecord, createdTime, subRecordUri, recordUri,
-				readerKey, filter);
-		if (!filter.alreadyObservedRecordUri(subRecordUri)) {
-			statements.addAll(subRecordStmts);
-			filter.logRecordUri(subRecordUri);
-		} else {
-			// logger.info("already seen subrecord");
-			statements.add(subRecordStmts.get(0));
+		@Override
+		public void visitSubRecord(int fieldIndex, Object subRecord) {
+			SchemaField field = fields.get(fieldIndex);
+			URIImpl subRecordUri = RdfRecordUriFactory.createRecordUri(subRecord, field.getName());
+			RecordStatements subRecordStmts = createRecordStatements(subRecord, createdTime, subRecordUri, null,
+					recordUri, recordFilterKey, readerKey, fieldValueCache);
+			statements.addSubRecord(subRecordUri, subRecordStmts, new ClassifiedStatement(subRecordUri, RDF.TYPE,
+					field.getFieldTypeUri(), Kind.SUB_RECORD, null));
 		}
-		statements.add(new StatementImpl(subRecordUri, RDF.TYPE,
-				RdfUtil.getUri(RecordUtil.getRecordFieldType(parentRecord.getClass(), field.getName()))));
-		return statements;
 	}
 
 	// /**
@@ -716,55 +752,6 @@ public class RdfRecordUtil {
 	// return commonFieldStatements;
 	// }
 
-	/**
-	 * Generate statements about record's field.
-	 * 
-	 * @param fieldInstanceUri
-	 *            initial field instance URI; template re-used if field type is
-	 *            a {@link Collection}
-	 * @param record
-	 *            instance with specified field
-	 * @param filter
-	 * @param fieldName
-	 *            field name
-	 * @param commonFieldStatements
-	 *            shared template statements to be asserted about every field
-	 * @return statements
-	 */
-	private static Collection<Statement> getRdfFieldValueStatements(URIImpl recordUri, Object record, Field field,
-			long createdTime, DuplicateStatementFilter filter) {
-		Object fieldValue = PrivateAccessor.getFieldValue(record, field.getName());
-		if (fieldValue == null) {
-			return new ArrayList<Statement>();
-		}
-		Collection<Statement> statements = new ArrayList<Statement>();
-
-		if (!(fieldValue instanceof Collection)) {
-			URIImpl fieldUri = RdfRecordUriFactory.createFieldUri(record, field, fieldValue);
-			statements.add(new StatementImpl(recordUri, RO.HAS_PART.uri(), fieldUri));
-			statements.add(new StatementImpl(fieldUri, RDF.TYPE,
-					RdfUtil.getUri(RecordUtil.getRecordFieldType(record.getClass(), field.getName()))));
-			statements.addAll(getFieldDenotesValueStatement(fieldUri, fieldValue, createdTime, filter));
-		} else {
-			/*
-			 * for each element in the collection a new fieldInstanceUri is
-			 * generated
-			 */
-			Collection<?> coll = (Collection<?>) fieldValue;
-			for (Object object : coll) {
-				URIImpl fieldUri = RdfRecordUriFactory.createFieldUri(record, field, object);
-				if (fieldUri != null) {
-					statements.add(new StatementImpl(recordUri, RO.HAS_PART.uri(), fieldUri));
-					statements.add(new StatementImpl(fieldUri, RDF.TYPE,
-							RdfUtil.getUri(RecordUtil.getRecordFieldType(record.getClass(), field.getName()))));
-					statements.addAll(getFieldDenotesValueStatement(fieldUri, object, createdTime, filter));
-				}
-			}
-		}
-
-		return statements;
-	}
-
 	/**
 	 * Generate statements about field (represented by {@code fieldInstanceUri},
 	 * and also a Subject in RDF statement) and field's value. Statements
@@ -785,6 +772,26 @@ public class RdfRecordUtil {
 	 */
 	public static List<Statement> getFieldDenotesValueStatement(URIImpl fieldInstanceUri, Object fieldValue,
 			long createdTime, DuplicateStatementFilter filter) {
+		return getFieldDenotesValueStatement(fieldInstanceUri, fieldValue, Kind.FIELD_VALUE,
+				DuplicateFieldValueFilter.getFilterKey(fieldInstanceUri));
+	}
+
+	/**
+	 * Generates the statements described in
+	 * {@link #getFieldDenotesValueStatement(URIImpl, Object, long, DuplicateStatementFilter)}
+	 * as {@link ClassifiedStatement}s
+	 * 
+	 * @param fieldInstanceUri
+	 * @param fieldValue
+	 * @param kind
+	 *            the kind of the statements whose subject is the field instance
+	 *            URI
+	 * @param filterKey
+	 *            the filter key of the field instance URI
+	 * @return statements
+	 */
+	static List<Statement> getFieldDenotesValueStatement(URIImpl fieldInstanceUri, Object fieldValue, Kind kind,
+			String filterKey) {
 		if (fieldValue instanceof Collection) {
 			throw new IllegalArgumentException("Collection fieldValue is not supported");
 		}
@@ -805,50 +812,40 @@ public class RdfRecordUtil {
 		if (fieldValue instanceof UnknownDataSourceIdentifier) {
 			UnknownDataSourceIdentifier id = (UnknownDataSourceIdentifier) fieldValue;
 			LiteralImpl literalValue = RdfUtil.createLiteral(id.getId());
-			stmts.add(new StatementImpl(fieldInstanceUri, RDF.TYPE, RdfUtil.getUri(CcpExtensionOntology.IDENTIFIER_OF_UNKNOWN_ORIGIN)));
-			stmts.add(new StatementImpl(fieldInstanceUri, RDFS.LABEL, literalValue));
+			stmts.add(new ClassifiedStatement(fieldInstanceUri, RDF.TYPE,
+					RdfUtil.getUri(CcpExtensionOntology.IDENTIFIER_OF_UNKNOWN_ORIGIN), kind, filterKey));
+			stmts.add(new ClassifiedStatement(fieldInstanceUri, RDFS.LABEL, literalValue, kind, filterKey));
 		} else if (fieldValue instanceof ProbableErrorDataSourceIdentifier) {
 			ProbableErrorDataSourceIdentifier id = (ProbableErrorDataSourceIdentifier) fieldValue;
 			LiteralImpl literalValue = RdfUtil.createLiteral(id.getId());
-			stmts.add(new StatementImpl(fieldInstanceUri, RDF.TYPE, RdfUtil.getUri(CcpExtensionOntology.INVALID_IDENTIFIER)));
+			stmts.add(new ClassifiedStatement(fieldInstanceUri, RDF.TYPE,
+					RdfUtil.getUri(CcpExtensionOntology.INVALID_IDENTIFIER), kind, filterKey));
 			CcpExtensionOntology identifierType = RdfIdentifierUtil.getIdentifierType(id.getClass());
-			stmts.add(new StatementImpl(fieldInstanceUri, RDF.TYPE, RdfUtil.getUri(identifierType)));
-			stmts.add(new StatementImpl(fieldInstanceUri, RDFS.LABEL, literalValue));
+			stmts.add(new ClassifiedStatement(fieldInstanceUri, RDF.TYPE, RdfUtil.getUri(identifierType), kind,
+					filterKey));
+			stmts.add(new ClassifiedStatement(fieldInstanceUri, RDFS.LABEL, literalValue, kind, filterKey));
 			if (id.getErrorMessage()!= null && !id.getErrorMessage().isEmpty()) {
-				stmts.add(new StatementImpl(fieldInstanceUri, RDFS.COMMENT, RdfUtil.createLiteral(id.getErrorMessage())));
+				stmts.add(new ClassifiedStatement(fieldInstanceUri, RDFS.COMMENT,
+						RdfUtil.createLiteral(id.getErrorMessage()), kind, filterKey));
 			}
 		} else if (fieldValue instanceof DataSourceIdentifier) {
 			Value value = RdfUtil.getValue(fieldValue);
 			DataSourceIdentifier<?> id = (DataSourceIdentifier<?>) fieldValue;
 			LiteralImpl literalValue = RdfUtil.createLiteral(id.getId());
-			stmts.add(new StatementImpl(fieldInstanceUri, RDF.TYPE, value));
-			stmts.add(new StatementImpl(fieldInstanceUri, RDFS.LABEL, literalValue));
+			stmts.add(new ClassifiedStatement(fieldInstanceUri, RDF.TYPE, value, kind, filterKey));
+			stmts.add(new ClassifiedStatement(fieldInstanceUri, RDFS.LABEL, literalValue, kind, filterKey));
 			URIImpl idUri = RdfUtil.createCcpUri(id);
 			CcpExtensionOntology identifierType = RdfIdentifierUtil.getIdentifierType(id.getClass());
-			stmts.add(new StatementImpl(idUri, RDFS.SUBCLASSOF, RdfUtil.getUri(identifierType)));
+			stmts.add(new ClassifiedStatement(idUri, RDFS.SUBCLASSOF, RdfUtil.getUri(identifierType),
+					Kind.IDENTIFIER_TYPE, null));
 		} else {
 			Value value = RdfUtil.getValue(fieldValue);
-			stmts.add(new StatementImpl(fieldInstanceUri, RDFS.LABEL, value));
+			stmts.add(new ClassifiedStatement(fieldInstanceUri, RDFS.LABEL, value, kind, filterKey));
 		}
 		return stmts;
 
 	}
 
-	/**
-	 * Comparator that uses {@link Field#getName()} for comparison.
-	 */
-	private static class FieldNameComparator implements Comparator<Field> {
-		/**
-		 * Compare using fields' names
-		 * 
-		 * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
-		 */
-		@Override
-		public int compare(Field o1, Field o2) {
-			return o1.getName().compareTo(o2.getName());
-		}
-	}
-
 	/**
 	 * private constructor to prevent instantiation
 	 */
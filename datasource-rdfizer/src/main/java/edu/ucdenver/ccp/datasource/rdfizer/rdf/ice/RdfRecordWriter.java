@@ -46,16 +46,22 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.log4j.Logger;
-import org.openrdf.model.Resource;
 import org.openrdf.model.Statement;
 import org.openrdf.model.impl.StatementImpl;
 import org.openrdf.model.impl.URIImpl;
@@ -73,6 +79,7 @@ import edu.ucdenver.ccp.datasource.fileparsers.DataRecord;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordReader;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordUtil;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.ClassifiedStatement;
 import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.DuplicateStatementFilter;
 import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.InMemoryDuplicateStatementFilter;
 import edu.ucdenver.ccp.datasource.rdfizer.rdf.ice.RdfUtil.RdfFormat;
@@ -92,6 +99,8 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 	 */
 	private static final Logger logger = Logger.getLogger(RdfRecordWriter.class);
 
+	private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
 	/** output directory */
 	private final File outputDirectory;
 
@@ -141,6 +150,13 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 	 */
 	private CharacterEncoding encoding = CharacterEncoding.UTF_8;
 
+	/**
+	 * If true (the default), N-Triples output encoded as UTF-8 is written
+	 * using the {@link NTriplesStatementWriter} instead of the Sesame
+	 * {@link RDFWriter}. The two produce identical output.
+	 */
+	private boolean useNativeNTriplesWriter = true;
+
 	/**
 	 * A reference to the {@link RecordReader} being processed is stored b/c it
 	 * is used during the output file name creation process. See
@@ -156,11 +172,41 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 
 	private final DuplicateStatementFilter filter;
 
-	private final Set<String> rollingCacheSet = new HashSet<String>();
-	private final LinkedList<String> rollingCacheList = new LinkedList<String>();
+	/**
+	 * The windows of recently written statements, one per data source. A
+	 * statement found in the window of its data source is not written again.
+	 */
+	private final Map<DataSource, RollingStatementWindow> rollingWindows = new HashMap<DataSource, RollingStatementWindow>();
+
+	/**
+	 * The number of recently written statements remembered for data sources
+	 * that have no size of their own in {@link #rollingWindowSizes}
+	 */
+	private int rollingWindowSize = RollingStatementWindow.DEFAULT_SIZE;
+	private final Map<DataSource, Integer> rollingWindowSizes = new HashMap<DataSource, Integer>();
 
 	private Set<String> primaryKeyFieldNames = null;
-	private static final int ROLLING_CACHE_MAX_SIZE = 1000;
+
+	/**
+	 * The maximum number of records retrieved from the record reader at a time
+	 */
+	private static final int RECORD_BATCH_SIZE = 1000;
+
+	/**
+	 * The number of threads used to generate record statements. If greater
+	 * than one, records are read on a dedicated thread, their statements are
+	 * generated by a pool of worker threads, and the statements are filtered
+	 * and written in record order on the calling thread. Defaults to 1, i.e.
+	 * all processing takes place on the calling thread.
+	 */
+	private int workerThreadCount = 1;
+
+	/**
+	 * Caches the field URIs and field statements of recurring field values.
+	 * Field statements that have already been written are not generated or
+	 * written again. If null, no caching takes place.
+	 */
+	private FieldValueCache fieldValueCache = new FieldValueCache();
 
 	/**
 	 * @param outputDirectory
@@ -285,50 +331,219 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 		setCreatedTime(createdTime);
 		setReaderKey(recordReader.getDataSpecificKey());
 
+		List<E> batch = new ArrayList<E>(RECORD_BATCH_SIZE);
 		long instanceCount = 0;
 		/* skip the recordSkipCount */
-		while (recordReader.hasNext() && instanceCount < recordSkipCount) {
-			DataRecord record = recordReader.next();
-			if (record != null) {
-				if (instanceCount % 100000 == 0) {
-					logger.info("SKIP PROGRESS: " + instanceCount);
+		while (instanceCount < recordSkipCount) {
+			batch.clear();
+			if (recordReader.nextBatch(batch, (int) Math.min(RECORD_BATCH_SIZE, recordSkipCount - instanceCount)) == 0) {
+				break;
+			}
+			for (DataRecord record : batch) {
+				if (record != null) {
+					if (instanceCount % 100000 == 0) {
+						logger.info("SKIP PROGRESS: " + instanceCount);
+					}
+					instanceCount++;
 				}
-				instanceCount++;
 			}
 		}
-		while (recordReader.hasNext()) {
-			DataRecord record = recordReader.next();
-			if (record != null) {
-				if ((instanceCount - recordSkipCount) % 100000 == 0) {
-					logger.info("RDF GENERATION PROGRESS: " + (instanceCount - recordSkipCount));
+		if (workerThreadCount > 1) {
+			processRecordsConcurrently(recordReader, instanceCount, recordSkipCount, outputRecordLimit, metadata);
+		} else {
+			boolean outputRecordLimitReached = false;
+			while (!outputRecordLimitReached) {
+				batch.clear();
+				if (recordReader.nextBatch(batch, getBatchSize(instanceCount, recordSkipCount, outputRecordLimit)) == 0) {
+					break;
 				}
-				instanceCount++;
-				if (instanceCount == 1) {
-					primaryKeyFieldNames = RecordUtil.getKeyFieldNames(record.getClass());
-					DataSource ns = DataSource.getNamespace(RecordUtil.getRecordDataSource(record.getClass()));
-					writeDataSourceInstanceStatements(
-							RdfRecordUtil.getRecordSetInstanceStatements(record, readerKey, createdTime), ns);
-					writeDownloadMetadataStatements(metadata,
-							RdfRecordUtil.getRecordSetInstanceUri(record, readerKey, createdTime), ns);
+				for (DataRecord record : batch) {
+					if (record != null) {
+						if ((instanceCount - recordSkipCount) % 100000 == 0) {
+							logger.info("RDF GENERATION PROGRESS: " + (instanceCount - recordSkipCount));
+						}
+						instanceCount++;
+						if (instanceCount == 1) {
+							writeRecordSetStatements(record, metadata);
+						}
+
+						URIImpl recordUri = RdfRecordUriFactory.createRecordUri(record);
+						processRecord(record, recordReader.getDataSpecificKey(), recordUri);
+					}
+					/*
+					 * if the outputRecordLimit is > -1 then cap the number or
+					 * records that are output to file
+					 */
+					if (outputRecordLimit > -1 && instanceCount >= (outputRecordLimit + recordSkipCount)) {
+						outputRecordLimitReached = true;
+						break;
+					}
 				}
-
-				URIImpl recordUri = RdfRecordUriFactory.createRecordUri(record);
-				processRecord(record, recordReader.getDataSpecificKey(), recordUri);
-			}
-			/*
-			 * if the outputRecordLimit is > -1 then cap the number or records
-			 * that are output to file
-			 */
-			if (outputRecordLimit > -1 && instanceCount >= (outputRecordLimit + recordSkipCount)) {
-				break;
 			}
 		}
 		closeFiles();
 		filter.shutdown();
 		logger.info("DUPLICATE TRIPLE FILTER WAS LEAK-PROOF = " + filter.isLeakProof());
+		if (fieldValueCache != null) {
+			logger.info("FIELD VALUE CACHE HITS = " + fieldValueCache.getHitCount() + " MISSES = "
+					+ fieldValueCache.getMissCount());
+		}
 		return generatedRdfFiles;
 	}
 
+	/**
+	 * @param instanceCount
+	 *            the number of records read so far, including skipped records
+	 * @param recordSkipCount
+	 * @param outputRecordLimit
+	 * @return the number of records to read in the next batch. If there is an
+	 *         output record limit, the batch does not extend past it; each batch
+	 *         contains at least one record so that the limit is checked after
+	 *         every record as before
+	 */
+	private static int getBatchSize(long instanceCount, long recordSkipCount, long outputRecordLimit) {
+		if (outputRecordLimit > -1) {
+			return (int) Math.max(1, Math.min(RECORD_BATCH_SIZE, outputRecordLimit + recordSkipCount - instanceCount));
+		}
+		return RECORD_BATCH_SIZE;
+	}
+
+	/**
+	 * Writes the statements describing the record set and its download
+	 * metadata. Called for the first record that is processed.
+	 * 
+	 * @param record
+	 * @param metadata
+	 * @throws IOException
+	 */
+	private void writeRecordSetStatements(DataRecord record, Set<DownloadMetadata> metadata) throws IOException {
+		primaryKeyFieldNames = RecordUtil.getKeyFieldNames(record.getClass());
+		DataSource ns = DataSource.getNamespace(RecordUtil.getRecordDataSource(record.getClass()));
+		writeDataSourceInstanceStatements(RdfRecordUtil.getRecordSetInstanceStatements(record, readerKey, createdTime),
+				ns);
+		writeDownloadMetadataStatements(metadata, RdfRecordUtil.getRecordSetInstanceUri(record, readerKey, createdTime),
+				ns);
+	}
+
+	/**
+	 * Processes the records using a pipeline: a reader thread reads batches of
+	 * records from the {@link RecordReader} and submits each batch to a pool of
+	 * {@link #workerThreadCount} worker threads that compute the record URIs
+	 * and statements. The calling thread takes the batches in the order they
+	 * were read, applies the {@link DuplicateStatementFilter} and writes the
+	 * statements, so the output is identical to that of serial processing. The
+	 * number of batches in flight is bounded so that the reader cannot run
+	 * arbitrarily far ahead of the writer.
+	 * 
+	 * @param recordReader
+	 * @param instanceCount
+	 *            the number of records that have been skipped
+	 * @param recordSkipCount
+	 * @param outputRecordLimit
+	 * @param metadata
+	 * @throws IOException
+	 */
+	private <E extends DataRecord> void processRecordsConcurrently(final RecordReader<E> recordReader,
+			final long instanceCount, final long recordSkipCount, final long outputRecordLimit,
+			Set<DownloadMetadata> metadata) throws IOException {
+		final String poolName = "rdf-generator-" + POOL_COUNT.incrementAndGet();
+		final ExecutorService workers = Executors.newFixedThreadPool(workerThreadCount,
+				new DaemonThreadFactory(poolName + "-worker-"));
+		final BlockingQueue<RecordBatchTask> batches = new ArrayBlockingQueue<RecordBatchTask>(workerThreadCount * 4);
+		final RecordBatchTask endOfInput = new RecordBatchTask(new ArrayList<DataRecord>());
+		final String recordReaderKey = getReaderKey();
+		Thread readerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					long readCount = instanceCount;
+					boolean outputRecordLimitReached = false;
+					while (!outputRecordLimitReached) {
+						List<DataRecord> batch = new ArrayList<DataRecord>(RECORD_BATCH_SIZE);
+						if (recordReader.nextBatch(batch,
+								getBatchSize(readCount, recordSkipCount, outputRecordLimit)) == 0) {
+							break;
+						}
+						for (DataRecord record : batch) {
+							if (record != null) {
+								readCount++;
+							}
+						}
+						RecordBatchTask task = new RecordBatchTask(batch, recordReaderKey);
+						batches.put(task);
+						workers.execute(task);
+						outputRecordLimitReached = outputRecordLimit > -1
+								&& readCount >= (outputRecordLimit + recordSkipCount);
+					}
+					batches.put(endOfInput);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (Throwable t) {
+					RecordBatchTask failedTask = new RecordBatchTask(new ArrayList<DataRecord>());
+					failedTask.fail(t);
+					try {
+						batches.put(failedTask);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+		}, poolName + "-reader");
+		readerThread.setDaemon(true);
+		readerThread.start();
+
+		long processedCount = instanceCount;
+		try {
+			RecordBatchTask task;
+			while ((task = batches.take()) != endOfInput) {
+				for (ProcessedRecord processed : getProcessedRecords(task)) {
+					if ((processedCount - recordSkipCount) % 100000 == 0) {
+						logger.info("RDF GENERATION PROGRESS: " + (processedCount - recordSkipCount));
+					}
+					processedCount++;
+					if (processedCount == 1) {
+						writeRecordSetStatements(processed.record, metadata);
+					}
+					for (Statement stmt : processed.statements.resolve(filter)) {
+						write(stmt, processed.ns);
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for record statements.", e);
+		} finally {
+			readerThread.interrupt();
+			workers.shutdownNow();
+		}
+	}
+
+	/**
+	 * @param task
+	 * @return the processed records of the batch, waiting for the batch to be
+	 *         completed if necessary
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	private static List<ProcessedRecord> getProcessedRecords(RecordBatchTask task) throws IOException,
+			InterruptedException {
+		try {
+			return task.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
 	private void writeDownloadMetadataStatements(Set<DownloadMetadata> metadata, URIImpl dataSetInstanceUri,
 			DataSource ns) throws IOException {
 		if (metadata != null) {
@@ -527,8 +742,8 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 	 */
 	private void processRecord(DataRecord record, String readerKey, URIImpl recordUri) {
 		setReaderKey(readerKey);
-		Collection<? extends Statement> stmts = RdfRecordUtil.getRecordInstanceStatements(record, createdTime,
-				recordUri, null, getReaderKey(), filter);
+		Collection<? extends Statement> stmts = RdfRecordUtil.createRecordStatements(record, createdTime, recordUri,
+				null, getReaderKey(), fieldValueCache).resolve(filter);
 		DataSource ns = DataSource.getNamespace(RecordUtil.getRecordDataSource(record.getClass()));
 		for (Statement stmt : stmts) {
 			write(stmt, ns);
@@ -781,17 +996,17 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 	 *            to output
 	 */
 	private void write(Statement stmt, DataSource ns) {
-		RDFWriter rdfWriter = getWriter(ns);
+		RdfWriterResource rdfWriterResource = getWriter(ns);
 		// primary key field values will always be printed, so there's no reason
 		// to check and store
 		// them in the filter. This saves some memory and also the time needed
 		// to check for
 		// something that is guaranteed to not be already observed
-		boolean checkFilter = needToCheckFilter(stmt.getSubject());
+		boolean checkFilter = needToCheckFilter(stmt);
 		try {
 			if (!checkFilter || (checkFilter && !filter.alreadyObservedStatement(stmt))) {
-				if (!rollingCacheContains(stmt)) {
-					write(stmt, rdfWriter);
+				if (!getRollingWindow(ns).containsOrAdd(stmt)) {
+					write(stmt, rdfWriterResource);
 					writtenStatementCount++;
 				}
 			}
@@ -812,15 +1027,23 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 	 * has been previously observed. Aside from saving time, this will also save
 	 * on memory b/c there's no point in caching this field since it should not
 	 * be observed again given its "primary key" status
+	 * <p>
+	 * Statements generated from records are {@link ClassifiedStatement}s. Their
+	 * subjects are record set, record, field and identifier URIs; record and
+	 * field URIs consist of a prefix and a digest. None of these contain a key
+	 * field name, so only the subjects of other statements are inspected.
 	 * 
-	 * @param subject
+	 * @param stmt
 	 * @param primaryKeyFieldValues
 	 *            will contain things like:
 	 *            F_SparseUniProtDatFileRecord_accession_
 	 * @return true if the filter should be checked, false otherwise
 	 */
-	private boolean needToCheckFilter(Resource subject) {
-		String sub = subject.toString();
+	private boolean needToCheckFilter(Statement stmt) {
+		if (stmt instanceof ClassifiedStatement) {
+			return true;
+		}
+		String sub = stmt.getSubject().toString();
 		for (String key : primaryKeyFieldNames) {
 			if (sub.contains(key)) {
 				return false;
@@ -830,25 +1053,18 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 	}
 
 	/**
-	 * keeps track of the most recent 1000 statements and returns true if the
-	 * input statement is in the cache
-	 * 
-	 * @param stmt
-	 * @return
+	 * @param ns
+	 * @return the window of recently written statements for the data source,
+	 *         created on first use
 	 */
-	private boolean rollingCacheContains(Statement stmt) {
-		String stmtStr = stmt.toString();
-		if (rollingCacheSet.contains(stmtStr)) {
-			return true;
-		}
-		int currentSize = rollingCacheList.size();
-		if (currentSize >= ROLLING_CACHE_MAX_SIZE) {
-			String removed = rollingCacheList.removeLast();
-			rollingCacheSet.remove(removed);
+	private RollingStatementWindow getRollingWindow(DataSource ns) {
+		RollingStatementWindow window = rollingWindows.get(ns);
+		if (window == null) {
+			Integer size = rollingWindowSizes.get(ns);
+			window = new RollingStatementWindow(size == null ? rollingWindowSize : size);
+			rollingWindows.put(ns, window);
 		}
-		rollingCacheSet.add(stmtStr);
-		rollingCacheList.addFirst(stmtStr);
-		return false;
+		return window;
 	}
 
 	/**
@@ -856,14 +1072,20 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 	 * 
 	 * @param s
 	 *            statement
-	 * @param rdfWriter
+	 * @param rdfWriterResource
 	 *            writer
 	 */
-	private static void write(Statement s, RDFWriter rdfWriter) {
+	private static void write(Statement s, RdfWriterResource rdfWriterResource) {
 		try {
-			rdfWriter.handleStatement(s);
+			if (rdfWriterResource.ntw != null) {
+				rdfWriterResource.ntw.write(s);
+			} else {
+				rdfWriterResource.rw.handleStatement(s);
+			}
 		} catch (RDFHandlerException e) {
 			throw new RuntimeException(e);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
 		}
 	}
 
@@ -878,7 +1100,7 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 	 * @throws FileNotFoundException
 	 * @throws RDFHandlerException
 	 */
-	private RDFWriter getWriter(DataSource ns) {
+	private RdfWriterResource getWriter(DataSource ns) {
 		File outputFile = getOutputFile(ns);
 		if (!file2RdfWriterMap.containsKey(outputFile)) {
 			generatedRdfFiles.add(outputFile);
@@ -890,6 +1112,10 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 				if (compress) {
 					os = new GZIPOutputStream(os);
 				}
+				if (isNativeNTriplesOutput()) {
+					file2RdfWriterMap.put(outputFile, new RdfWriterResource(new NTriplesStatementWriter(os)));
+					return file2RdfWriterMap.get(outputFile);
+				}
 				writer = new BufferedWriter(
 						new OutputStreamWriter(os, Charset.forName(encoding.getCharacterSetName()).newEncoder()));
 			} catch (IOException e) {
@@ -910,7 +1136,16 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 			}
 
 		}
-		return file2RdfWriterMap.get(outputFile).rw;
+		return file2RdfWriterMap.get(outputFile);
+	}
+
+	/**
+	 * @return true if output should be written using the
+	 *         {@link NTriplesStatementWriter}, i.e. if N-Triples are being
+	 *         written in UTF-8 and the native writer has not been disabled
+	 */
+	private boolean isNativeNTriplesOutput() {
+		return useNativeNTriplesWriter && rdfFormat == RdfFormat.NTRIPLES && encoding == CharacterEncoding.UTF_8;
 	}
 
 	/**
@@ -985,8 +1220,12 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 	private void closeFiles() throws IOException {
 		try {
 			for (RdfWriterResource rdfWriterResource : file2RdfWriterMap.values()) {
-				rdfWriterResource.rw.endRDF();
-				rdfWriterResource.w.close();
+				if (rdfWriterResource.ntw != null) {
+					rdfWriterResource.ntw.close();
+				} else {
+					rdfWriterResource.rw.endRDF();
+					rdfWriterResource.w.close();
+				}
 			}
 		} catch (RDFHandlerException e) {
 			throw new IOException("Exception while closing RDF Writers.", e);
@@ -1070,9 +1309,174 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 		this.encoding = encoding;
 	}
 
+	/**
+	 * @return true if the {@link NTriplesStatementWriter} is used for UTF-8
+	 *         N-Triples output
+	 */
+	public boolean isUseNativeNTriplesWriter() {
+		return useNativeNTriplesWriter;
+	}
+
+	/**
+	 * @param useNativeNTriplesWriter
+	 *            if false, N-Triples output is always written using the Sesame
+	 *            {@link RDFWriter}
+	 */
+	public void setUseNativeNTriplesWriter(boolean useNativeNTriplesWriter) {
+		this.useNativeNTriplesWriter = useNativeNTriplesWriter;
+	}
+
+	/**
+	 * @return the number of threads used to generate record statements
+	 */
+	public int getWorkerThreadCount() {
+		return workerThreadCount;
+	}
+
+	/**
+	 * @param workerThreadCount
+	 *            the number of threads used to generate record statements; if
+	 *            greater than one, statements are generated concurrently. The
+	 *            output is the same regardless of the number of threads.
+	 */
+	public void setWorkerThreadCount(int workerThreadCount) {
+		if (workerThreadCount < 1) {
+			throw new IllegalArgumentException("Worker thread count must be >= 1: " + workerThreadCount);
+		}
+		this.workerThreadCount = workerThreadCount;
+	}
+
+	/**
+	 * @param rollingWindowSize
+	 *            the number of recently written statements remembered in
+	 *            order to discard repeated statements before they reach the
+	 *            {@link DuplicateStatementFilter}; applies to data sources
+	 *            without a size of their own. Defaults to
+	 *            {@link RollingStatementWindow#DEFAULT_SIZE}. If zero, no
+	 *            statements are remembered.
+	 */
+	public void setRollingWindowSize(int rollingWindowSize) {
+		if (rollingWindowSize < 0) {
+			throw new IllegalArgumentException("Rolling window size must be >= 0: " + rollingWindowSize);
+		}
+		this.rollingWindowSize = rollingWindowSize;
+		rollingWindows.clear();
+	}
+
+	/**
+	 * @param ns
+	 * @param rollingWindowSize
+	 *            the number of recently written statements remembered for the
+	 *            specified data source
+	 */
+	public void setRollingWindowSize(DataSource ns, int rollingWindowSize) {
+		if (rollingWindowSize < 0) {
+			throw new IllegalArgumentException("Rolling window size must be >= 0: " + rollingWindowSize);
+		}
+		rollingWindowSizes.put(ns, rollingWindowSize);
+		rollingWindows.remove(ns);
+	}
+
+	/**
+	 * @param ns
+	 * @return the number of recently written statements remembered for the
+	 *         specified data source
+	 */
+	public int getRollingWindowSize(DataSource ns) {
+		Integer size = rollingWindowSizes.get(ns);
+		return size == null ? rollingWindowSize : size;
+	}
+
+	/**
+	 * @return the cache of field URIs and field statements, or null if field
+	 *         values are not cached
+	 */
+	public FieldValueCache getFieldValueCache() {
+		return fieldValueCache;
+	}
+
+	/**
+	 * @param fieldValueCache
+	 *            the cache of field URIs and field statements to use; if null,
+	 *            the field URI and field statements are generated for every
+	 *            field value and left to the {@link DuplicateStatementFilter}
+	 */
+	public void setFieldValueCache(FieldValueCache fieldValueCache) {
+		this.fieldValueCache = fieldValueCache;
+	}
+
+	/**
+	 * A record along with its statements, which have not yet been filtered
+	 */
+	private static class ProcessedRecord {
+		private final DataRecord record;
+		private final RecordStatements statements;
+		private final DataSource ns;
+
+		public ProcessedRecord(DataRecord record, RecordStatements statements, DataSource ns) {
+			this.record = record;
+			this.statements = statements;
+			this.ns = ns;
+		}
+	}
+
+	/**
+	 * Computes the URIs and statements for a batch of records. Runs on a
+	 * worker thread.
+	 */
+	private class RecordBatchTask extends FutureTask<List<ProcessedRecord>> {
+
+		RecordBatchTask(final List<DataRecord> records, final String recordReaderKey) {
+			super(new Callable<List<ProcessedRecord>>() {
+				@Override
+				public List<ProcessedRecord> call() {
+					List<ProcessedRecord> processedRecords = new ArrayList<ProcessedRecord>(records.size());
+					for (DataRecord record : records) {
+						if (record != null) {
+							URIImpl recordUri = RdfRecordUriFactory.createRecordUri(record);
+							RecordStatements statements = RdfRecordUtil.createRecordStatements(record, createdTime,
+									recordUri, null, recordReaderKey, fieldValueCache);
+							DataSource ns = DataSource.getNamespace(RecordUtil.getRecordDataSource(record.getClass()));
+							processedRecords.add(new ProcessedRecord(record, statements, ns));
+						}
+					}
+					return processedRecords;
+				}
+			});
+		}
+
+		RecordBatchTask(List<DataRecord> records) {
+			this(records, StringConstants.BLANK);
+		}
+
+		/**
+		 * Used to hand an error encountered by the reader thread to the writer
+		 */
+		void fail(Throwable t) {
+			setException(t);
+		}
+	}
+
+	private static class DaemonThreadFactory implements ThreadFactory {
+		private final String namePrefix;
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		DaemonThreadFactory(String namePrefix) {
+			this.namePrefix = namePrefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, namePrefix + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		}
+	}
+
 	/**
 	 * Wrapper that captures {@link RDFWriter} and underlying {@link Writer} for
-	 * post processing.
+	 * post processing. If N-Triples are written natively, only the
+	 * {@link NTriplesStatementWriter} is set.
 	 */
 	private static class RdfWriterResource {
 		/** rdf writer */
@@ -1081,6 +1485,9 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 		/** underlying writer used by rdf writer */
 		private final Writer w;
 
+		/** native n-triples writer */
+		private final NTriplesStatementWriter ntw;
+
 		/**
 		 * Constructor .
 		 * 
@@ -1092,6 +1499,19 @@ public class RdfRecordWriter<T extends RecordReader<?>> {
 		public RdfWriterResource(RDFWriter rw, Writer w) {
 			this.rw = rw;
 			this.w = w;
+			this.ntw = null;
+		}
+
+		/**
+		 * Constructor .
+		 * 
+		 * @param ntw
+		 *            native n-triples writer
+		 */
+		public RdfWriterResource(NTriplesStatementWriter ntw) {
+			this.rw = null;
+			this.w = null;
+			this.ntw = ntw;
 		}
 	}
 
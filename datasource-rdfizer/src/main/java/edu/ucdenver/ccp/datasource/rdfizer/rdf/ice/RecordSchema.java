@@ -0,0 +1,361 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.openrdf.model.impl.URIImpl;
+
+import edu.ucdenver.ccp.datasource.fileparsers.Record;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordField;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordFieldVisitor;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordUtil;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordVisitor;
+
+/**
+ * The RDF-relevant structure of a record class: its {@link RecordField}-annotated fields sorted by
+ * name, with their annotations, field type URIs, and accessors. A schema is computed once per
+ * record class (see {@link #forClass(Class)}) so that generating the RDF for a record does not
+ * require the record class to be inspected using reflection. Record field values are read using
+ * the {@link RecordVisitor} generated for the record class if there is one.
+ * 
+ * @author Colorado Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class RecordSchema {
+
+	private static final ClassValue<RecordSchema> SCHEMAS = new ClassValue<RecordSchema>() {
+		@Override
+		protected RecordSchema computeValue(Class<?> recordClass) {
+			return new RecordSchema(recordClass);
+		}
+	};
+
+	private static final Logger logger = Logger.getLogger(RecordSchema.class);
+
+	/**
+	 * can be disabled to force the use of reflection, e.g. when testing that generated visitors
+	 * produce the same output
+	 */
+	private static volatile boolean generatedVisitorsEnabled = true;
+
+	private final Class<?> recordClass;
+	private final URIImpl recordTypeUri;
+	private final List<SchemaField> fields;
+	private final RecordVisitor<Object> reflectiveVisitor;
+	private final RecordVisitor<Object> generatedVisitor;
+
+	private RecordSchema(Class<?> recordClass) {
+		this.recordClass = recordClass;
+		this.recordTypeUri = recordClass.isAnnotationPresent(Record.class)
+				? RdfUtil.getUri(RecordUtil.getRecordType(recordClass)) : null;
+		Map<Field, RecordField> fieldToAnnotationMap = RecordUtil.getFieldToRecordFieldAnnotationsMap(recordClass);
+		List<Field> sortedFields = new ArrayList<Field>(fieldToAnnotationMap.keySet());
+		Collections.sort(sortedFields, new Comparator<Field>() {
+			@Override
+			public int compare(Field f1, Field f2) {
+				return f1.getName().compareTo(f2.getName());
+			}
+		});
+		List<SchemaField> schemaFields = new ArrayList<SchemaField>(sortedFields.size());
+		List<String> fieldNames = new ArrayList<String>(sortedFields.size());
+		for (Field field : sortedFields) {
+			schemaFields.add(new SchemaField(schemaFields.size(), field, fieldToAnnotationMap.get(field)));
+			fieldNames.add(field.getName());
+		}
+		this.fields = Collections.unmodifiableList(schemaFields);
+		this.reflectiveVisitor = new ReflectiveRecordVisitor(fields, Collections.unmodifiableList(fieldNames));
+		this.generatedVisitor = getGeneratedVisitor(recordClass, fieldNames);
+	}
+
+	/**
+	 * @return the visitor generated for the record class, or null if there is no generated visitor
+	 *         or if the generated visitor does not visit the fields of the schema
+	 */
+	@SuppressWarnings("unchecked")
+	private static RecordVisitor<Object> getGeneratedVisitor(Class<?> recordClass, List<String> fieldNames) {
+		RecordVisitor<?> visitor = RecordUtil.getRecordVisitor(recordClass);
+		if (visitor == null) {
+			return null;
+		}
+		if (!visitor.getFieldNames().equals(fieldNames)) {
+			logger.warn("Ignoring out-of-date record visitor for " + recordClass.getName() + ". Visitor fields: "
+					+ visitor.getFieldNames() + " Record fields: " + fieldNames);
+			return null;
+		}
+		return (RecordVisitor<Object>) visitor;
+	}
+
+	/**
+	 * @param enabled
+	 *            if false, records are visited using reflection even if a generated visitor is
+	 *            available
+	 */
+	static void setGeneratedVisitorsEnabled(boolean enabled) {
+		generatedVisitorsEnabled = enabled;
+	}
+
+	/**
+	 * @param recordClass
+	 * @return the schema for the record class, computed on first use
+	 */
+	public static RecordSchema forClass(Class<?> recordClass) {
+		return SCHEMAS.get(recordClass);
+	}
+
+	public Class<?> getRecordClass() {
+		return recordClass;
+	}
+
+	/**
+	 * @return the URI of the record type specified by the {@link Record} annotation
+	 * @throws IllegalArgumentException
+	 *             if the record class is not annotated with {@link Record}
+	 */
+	public URIImpl getRecordTypeUri() {
+		if (recordTypeUri == null) {
+			/* throws an exception reporting the missing annotation */
+			RecordUtil.getRecordType(recordClass);
+		}
+		return recordTypeUri;
+	}
+
+	/**
+	 * @return the fields annotated with {@link RecordField}, sorted by name
+	 */
+	public List<SchemaField> getFields() {
+		return fields;
+	}
+
+	/**
+	 * @return true if a {@link RecordVisitor} was generated for the record class at compile time
+	 */
+	public boolean hasGeneratedVisitor() {
+		return generatedVisitor != null;
+	}
+
+	/**
+	 * @return a visitor for records of this class. The visitor generated for the record class is
+	 *         returned if there is one, otherwise the returned visitor uses reflection. The field
+	 *         indexes used by the visitor are the indexes of the fields in {@link #getFields()}.
+	 */
+	public RecordVisitor<Object> getVisitor() {
+		if (generatedVisitor != null && generatedVisitorsEnabled) {
+			return generatedVisitor;
+		}
+		return reflectiveVisitor;
+	}
+
+	/**
+	 * Visits records using the accessors of the schema fields
+	 */
+	private static class ReflectiveRecordVisitor implements RecordVisitor<Object> {
+		private final List<SchemaField> fields;
+		private final List<String> fieldNames;
+
+		public ReflectiveRecordVisitor(List<SchemaField> fields, List<String> fieldNames) {
+			this.fields = fields;
+			this.fieldNames = fieldNames;
+		}
+
+		@Override
+		public List<String> getFieldNames() {
+			return fieldNames;
+		}
+
+		@Override
+		public void visit(Object record, RecordFieldVisitor fieldVisitor) {
+			for (SchemaField field : fields) {
+				Object value = field.getValue(record);
+				if (value instanceof Collection) {
+					for (Object member : (Collection<?>) value) {
+						visit(field, member, fieldVisitor);
+					}
+				} else if (value != null) {
+					visit(field, value, fieldVisitor);
+				}
+			}
+		}
+
+		private static void visit(SchemaField field, Object value, RecordFieldVisitor fieldVisitor) {
+			if (field.isSubRecord()) {
+				fieldVisitor.visitSubRecord(field.getIndex(), value);
+			} else {
+				fieldVisitor.visitValue(field.getIndex(), value);
+			}
+		}
+
+		@Override
+		public Object getFieldValue(Object record, int fieldIndex) {
+			return fields.get(fieldIndex).getValue(record);
+		}
+	}
+
+	/**
+	 * A field of a record class that is annotated with {@link RecordField}
+	 */
+	public static class SchemaField {
+		private final int index;
+		private final Field field;
+		private final RecordField recordField;
+		private final URIImpl fieldTypeUri;
+		private final String bracketedFieldTypeUri;
+		private final boolean isSubRecord;
+		private final MethodHandle getter;
+
+		private SchemaField(int index, Field field, RecordField recordField) {
+			this.index = index;
+			this.field = field;
+			this.recordField = recordField;
+			this.fieldTypeUri = RdfUtil.getUri(recordField.ontClass());
+			this.bracketedFieldTypeUri = "<" + fieldTypeUri.toString() + ">";
+			this.isSubRecord = isSubRecord(field);
+			this.getter = createGetter(field);
+		}
+
+		/**
+		 * @return a getter with type (Object)Object for the field
+		 */
+		private static MethodHandle createGetter(Field field) {
+			field.setAccessible(true);
+			try {
+				MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+				if (Modifier.isStatic(field.getModifiers())) {
+					getter = MethodHandles.dropArguments(getter, 0, Object.class);
+				}
+				return getter.asType(MethodType.methodType(Object.class, Object.class));
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("Unable to access field: " + field, e);
+			}
+		}
+
+		/**
+		 * @return true if the field type, or the element type of a parameterized collection field,
+		 *         is annotated with {@link Record}
+		 */
+		private static boolean isSubRecord(Field field) {
+			Class<?> type = field.getType();
+			if (Collection.class.isAssignableFrom(type)) {
+				Type genericType = field.getGenericType();
+				if (genericType instanceof ParameterizedType) {
+					Type[] typeArguments = ((ParameterizedType) genericType).getActualTypeArguments();
+					if (typeArguments.length > 0 && (typeArguments[0] instanceof Class)) {
+						return ((Class<?>) typeArguments[0]).isAnnotationPresent(Record.class);
+					}
+				}
+			}
+			return type.isAnnotationPresent(Record.class);
+		}
+
+		/**
+		 * @return the index of this field in {@link RecordSchema#getFields()}
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		public Field getField() {
+			return field;
+		}
+
+		public String getName() {
+			return field.getName();
+		}
+
+		public RecordField getRecordField() {
+			return recordField;
+		}
+
+		public boolean isKeyField() {
+			return recordField.isKeyField();
+		}
+
+		/**
+		 * @return the URI of the field type specified by the {@link RecordField} annotation
+		 */
+		public URIImpl getFieldTypeUri() {
+			return fieldTypeUri;
+		}
+
+		/**
+		 * @return the field type URI surrounded by angle brackets, as used when computing record
+		 *         and field URIs
+		 */
+		public String getBracketedFieldTypeUri() {
+			return bracketedFieldTypeUri;
+		}
+
+		/**
+		 * @return true if the field holds a sub-record, or a collection of sub-records
+		 */
+		public boolean isSubRecord() {
+			return isSubRecord;
+		}
+
+		/**
+		 * @param record
+		 * @return the value of this field in the input record
+		 */
+		public Object getValue(Object record) {
+			try {
+				return (Object) getter.invokeExact(record);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new RuntimeException(t);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "SchemaField [" + field + "]";
+		}
+	}
+
+}
@@ -0,0 +1,161 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openrdf.model.Statement;
+import org.openrdf.model.impl.URIImpl;
+
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.DuplicateStatementFilter;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.ice.FieldValueCache.CachedFieldValue;
+
+/**
+ * The statements generated for a record instance before the
+ * {@link DuplicateStatementFilter} has been consulted. Sub-record statements
+ * are kept as nested {@link RecordStatements} so that the decision whether a
+ * sub-record has already been observed can be made later, e.g. on a different
+ * thread than the one that generated the statements. {@link #resolve} consults
+ * the filter in the same order as the statements would have been generated.
+ * Field statements taken from the {@link FieldValueCache} are likewise only
+ * included if they have not yet been emitted.
+ * 
+ * @author Colorado Computational Pharmacology, UC Denver;
+ *         ccpsupport@ucdenver.edu
+ */
+class RecordStatements {
+
+	/**
+	 * {@link Statement}, {@link CachedFieldValue} and
+	 * {@link SubRecordStatements} instances in the order they were generated
+	 */
+	private final List<Object> parts = new ArrayList<Object>();
+
+	void add(Statement stmt) {
+		parts.add(stmt);
+	}
+
+	void addAll(List<Statement> stmts) {
+		parts.addAll(stmts);
+	}
+
+	/**
+	 * @param fieldValue
+	 *            its field statements are included the first time they are
+	 *            resolved
+	 */
+	void addFieldValue(CachedFieldValue fieldValue) {
+		parts.add(fieldValue);
+	}
+
+	/**
+	 * @param subRecordUri
+	 * @param subRecordStatements
+	 *            the statements of the sub-record; if the sub-record has
+	 *            already been observed, only the first of them (linking the
+	 *            sub-record to its parent) is kept
+	 * @param subRecordTypeStatement
+	 *            always kept
+	 */
+	void addSubRecord(URIImpl subRecordUri, RecordStatements subRecordStatements, Statement subRecordTypeStatement) {
+		parts.add(new SubRecordStatements(subRecordUri, subRecordStatements, subRecordTypeStatement));
+	}
+
+	/**
+	 * @param filter
+	 * @return the statements, omitting those of sub-records that the filter
+	 *         reports as already observed and the field statements of cached
+	 *         field values that have already been emitted. Sub-records that
+	 *         are not yet observed are logged with the filter.
+	 */
+	List<Statement> resolve(DuplicateStatementFilter filter) {
+		List<Statement> statements = new ArrayList<Statement>();
+		resolve(filter, statements, new ArrayList<CachedFieldValue>());
+		return statements;
+	}
+
+	/**
+	 * @param filter
+	 * @param statements
+	 * @param emittedFieldValues
+	 *            collects the cached field values marked as emitted, so that
+	 *            they can be unmarked if the statements of a sub-record are
+	 *            discarded
+	 */
+	private void resolve(DuplicateStatementFilter filter, List<Statement> statements,
+			List<CachedFieldValue> emittedFieldValues) {
+		for (Object part : parts) {
+			if (part instanceof Statement) {
+				statements.add((Statement) part);
+			} else if (part instanceof CachedFieldValue) {
+				CachedFieldValue fieldValue = (CachedFieldValue) part;
+				if (!fieldValue.isEmitted()) {
+					statements.addAll(fieldValue.getFieldStatements());
+					fieldValue.setEmitted(true);
+					emittedFieldValues.add(fieldValue);
+				}
+			} else {
+				SubRecordStatements subRecord = (SubRecordStatements) part;
+				List<Statement> subRecordStmts = new ArrayList<Statement>();
+				List<CachedFieldValue> subRecordFieldValues = new ArrayList<CachedFieldValue>();
+				subRecord.statements.resolve(filter, subRecordStmts, subRecordFieldValues);
+				if (!filter.alreadyObservedRecordUri(subRecord.uri)) {
+					statements.addAll(subRecordStmts);
+					emittedFieldValues.addAll(subRecordFieldValues);
+					filter.logRecordUri(subRecord.uri);
+				} else {
+					statements.add(subRecordStmts.get(0));
+					for (CachedFieldValue fieldValue : subRecordFieldValues) {
+						fieldValue.setEmitted(false);
+					}
+				}
+				statements.add(subRecord.typeStatement);
+			}
+		}
+	}
+
+	private static class SubRecordStatements {
+		private final URIImpl uri;
+		private final RecordStatements statements;
+		private final Statement typeStatement;
+
+		public SubRecordStatements(URIImpl uri, RecordStatements statements, Statement typeStatement) {
+			this.uri = uri;
+			this.statements = statements;
+			this.typeStatement = typeStatement;
+		}
+	}
+
+}
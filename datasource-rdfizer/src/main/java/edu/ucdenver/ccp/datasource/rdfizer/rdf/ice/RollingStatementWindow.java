@@ -0,0 +1,290 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import org.openrdf.model.BNode;
+import org.openrdf.model.Literal;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+
+/**
+ * Keeps track of the most recently written statements so that statements
+ * repeated within a short distance of each other, e.g. those generated for the
+ * field values shared by consecutive records, can be discarded before they
+ * reach the {@link edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.DuplicateStatementFilter}.
+ * <p>
+ * The window is a fixed-capacity ring buffer of 64-bit statement fingerprints
+ * with an open-addressing index. Fingerprints are computed from the subject,
+ * predicate and object terms directly so no strings are built and, once the
+ * window has been created, no objects are allocated per statement.
+ * <p>
+ * A fingerprint match alone never causes a statement to be treated as a
+ * duplicate; the statement held in the matching slot must also consist of the
+ * same terms. Two statements whose fingerprints collide are therefore both
+ * written and both occupy a slot in the window. Terms are compared the way
+ * their {@link Object#toString()} representations would be, i.e. statements
+ * that the previous string-based window treated as equal are treated as equal
+ * here.
+ * <p>
+ * Instances are not thread-safe.
+ * 
+ * @author Colorado Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+class RollingStatementWindow {
+
+	/**
+	 * The number of statements remembered by default
+	 */
+	public static final int DEFAULT_SIZE = 1000;
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private static final long URI_TAG = 0x5bd1e9955bd1e995L;
+	private static final long BNODE_TAG = 0x27d4eb2f165667c5L;
+	private static final long LITERAL_TAG = 0x165667b19e3779f9L;
+	private static final long NO_LANGUAGE = 0x85ebca6bc2b2ae35L;
+
+	private final int capacity;
+
+	/**
+	 * The fingerprints and statements of the remembered statements, in ring
+	 * order; {@link #next} is the slot overwritten by the next statement added
+	 */
+	private final long[] fingerprints;
+	private final Statement[] statements;
+	private int next = 0;
+	private int size = 0;
+
+	/**
+	 * Open-addressing (linear probing) index from fingerprint to ring slot.
+	 * Each entry holds the ring slot + 1 so that zero marks an empty entry.
+	 */
+	private final int[] index;
+	private final int indexMask;
+
+	/**
+	 * @param capacity
+	 *            the number of statements to remember; if zero, no statements
+	 *            are remembered
+	 */
+	RollingStatementWindow(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Rolling window size must be >= 0: " + capacity);
+		}
+		this.capacity = capacity;
+		this.fingerprints = new long[capacity];
+		this.statements = new Statement[capacity];
+		int indexSize = 2;
+		while (indexSize < capacity * 2) {
+			indexSize <<= 1;
+		}
+		this.index = new int[indexSize];
+		this.indexMask = indexSize - 1;
+	}
+
+	/**
+	 * @param stmt
+	 * @return true if the statement is one of the statements remembered by this
+	 *         window. Otherwise the statement is remembered, replacing the
+	 *         oldest statement if the window is full, and false is returned.
+	 */
+	boolean containsOrAdd(Statement stmt) {
+		return containsOrAdd(stmt, fingerprint(stmt));
+	}
+
+	/**
+	 * Checks the window for the statement using the specified fingerprint.
+	 * Exposed separately so that the handling of fingerprint collisions can be
+	 * tested.
+	 */
+	boolean containsOrAdd(Statement stmt, long fingerprint) {
+		if (capacity == 0) {
+			return false;
+		}
+		int i = home(fingerprint);
+		int entry;
+		while ((entry = index[i]) != 0) {
+			int slot = entry - 1;
+			if (fingerprints[slot] == fingerprint && sameStatement(statements[slot], stmt)) {
+				return true;
+			}
+			i = (i + 1) & indexMask;
+		}
+		if (size == capacity) {
+			removeFromIndex(next);
+		} else {
+			size++;
+		}
+		fingerprints[next] = fingerprint;
+		statements[next] = stmt;
+		/* the removal above may have shifted entries, so probe again */
+		i = home(fingerprint);
+		while (index[i] != 0) {
+			i = (i + 1) & indexMask;
+		}
+		index[i] = next + 1;
+		next = (next + 1) % capacity;
+		return false;
+	}
+
+	/**
+	 * @return the number of statements currently remembered
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return the maximum number of statements remembered
+	 */
+	int getCapacity() {
+		return capacity;
+	}
+
+	private int home(long fingerprint) {
+		return (int) (fingerprint ^ (fingerprint >>> 32)) & indexMask;
+	}
+
+	/**
+	 * Removes the index entry pointing at the specified ring slot, shifting
+	 * later entries of the same probe sequence back so that no lookup is cut
+	 * short by the resulting gap
+	 */
+	private void removeFromIndex(int slot) {
+		int i = home(fingerprints[slot]);
+		while (index[i] != slot + 1) {
+			i = (i + 1) & indexMask;
+		}
+		int j = i;
+		while (true) {
+			j = (j + 1) & indexMask;
+			int entry = index[j];
+			if (entry == 0) {
+				break;
+			}
+			int k = home(fingerprints[entry - 1]);
+			/* move the entry at j into the gap at i unless its home lies cyclically in (i, j] */
+			boolean homeBetween = (i <= j) ? (i < k && k <= j) : (i < k || k <= j);
+			if (!homeBetween) {
+				index[i] = entry;
+				i = j;
+			}
+		}
+		index[i] = 0;
+		statements[slot] = null;
+	}
+
+	/**
+	 * @param stmt
+	 * @return a 64-bit fingerprint of the subject, predicate and object of the
+	 *         statement
+	 */
+	static long fingerprint(Statement stmt) {
+		long h = mix(fingerprint(stmt.getSubject()));
+		h = mix(h ^ fingerprint(stmt.getPredicate()));
+		return mix(h ^ fingerprint(stmt.getObject()));
+	}
+
+	private static long fingerprint(Value value) {
+		if (value instanceof Literal) {
+			Literal literal = (Literal) value;
+			long h = hash(LITERAL_TAG, literal.getLabel());
+			URI datatype = literal.getDatatype();
+			if (datatype != null) {
+				h = hash(mix(h), datatype.stringValue());
+			}
+			String language = literal.getLanguage();
+			return language == null ? h ^ NO_LANGUAGE : hash(mix(h), language);
+		}
+		return hash(value instanceof BNode ? BNODE_TAG : URI_TAG, value.stringValue());
+	}
+
+	/**
+	 * FNV-1a over the UTF-16 code units of the string
+	 */
+	private static long hash(long seed, String s) {
+		long h = seed ^ FNV_OFFSET_BASIS;
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			h = (h ^ (c & 0xff)) * FNV_PRIME;
+			h = (h ^ (c >>> 8)) * FNV_PRIME;
+		}
+		return h;
+	}
+
+	/**
+	 * The MurmurHash3 64-bit finalizer
+	 */
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	private static boolean sameStatement(Statement s1, Statement s2) {
+		return s1 == s2
+				|| (sameTerm(s1.getSubject(), s2.getSubject()) && sameTerm(s1.getPredicate(), s2.getPredicate()) && sameTerm(
+						s1.getObject(), s2.getObject()));
+	}
+
+	private static boolean sameTerm(Value v1, Value v2) {
+		if (v1 == v2) {
+			return true;
+		}
+		if (v1 instanceof Literal) {
+			if (!(v2 instanceof Literal)) {
+				return false;
+			}
+			Literal l1 = (Literal) v1;
+			Literal l2 = (Literal) v2;
+			return l1.getLabel().equals(l2.getLabel()) && equal(l1.getDatatype(), l2.getDatatype())
+					&& equal(l1.getLanguage(), l2.getLanguage());
+		}
+		if (v2 instanceof Literal || (v1 instanceof BNode) != (v2 instanceof BNode)) {
+			return false;
+		}
+		return v1.stringValue().equals(v2.stringValue());
+	}
+
+	private static boolean equal(Object o1, Object o2) {
+		return o1 == null ? o2 == null : o1.equals(o2);
+	}
+
+}
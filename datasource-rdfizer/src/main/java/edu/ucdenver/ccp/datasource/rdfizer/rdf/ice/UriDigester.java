@@ -0,0 +1,220 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import edu.ucdenver.ccp.common.digest.DigestUtil;
+
+/**
+ * Computes the URL-safe, unpadded Base64 encoded SHA-1 digests used in record
+ * and field URIs. Strings are encoded as UTF-8 and fed to the digest piece by
+ * piece, so the string that is hashed never has to be assembled. The result is
+ * the same as passing the concatenation of the strings to
+ * {@link DigestUtil#getBase64Sha1Digest(String)}.
+ * <p>
+ * Each thread has its own instance, see {@link #forCurrentThread()}.
+ * 
+ * @author Colorado Computational Pharmacology, UC Denver;
+ *         ccpsupport@ucdenver.edu
+ */
+final class UriDigester {
+
+	private static final char[] BASE64_URL_SAFE_ALPHABET = ("ABCDEFGHIJKLMNOPQRSTUVWXYZ"
+			+ "abcdefghijklmnopqrstuvwxyz0123456789-_").toCharArray();
+
+	/**
+	 * The byte that {@link String#getBytes(java.nio.charset.Charset)} writes
+	 * for an unpaired surrogate
+	 */
+	private static final byte REPLACEMENT_BYTE = '?';
+
+	private static final ThreadLocal<UriDigester> DIGESTERS = new ThreadLocal<UriDigester>() {
+		@Override
+		protected UriDigester initialValue() {
+			return new UriDigester();
+		}
+	};
+
+	private final MessageDigest sha1;
+
+	private final byte[] buffer = new byte[1024];
+
+	private int position = 0;
+
+	/**
+	 * A high surrogate that ended the previous string; it is encoded once the
+	 * next character is known
+	 */
+	private char pendingHighSurrogate = 0;
+
+	private final byte[] digest;
+
+	private final char[] encodedDigest;
+
+	private UriDigester() {
+		try {
+			sha1 = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-1 is not available.", e);
+		}
+		digest = new byte[sha1.getDigestLength()];
+		encodedDigest = new char[(digest.length * 4 + 2) / 3];
+	}
+
+	/**
+	 * @return the digester of the current thread, reset so that a new digest
+	 *         can be computed
+	 */
+	static UriDigester forCurrentThread() {
+		UriDigester digester = DIGESTERS.get();
+		digester.reset();
+		return digester;
+	}
+
+	private void reset() {
+		sha1.reset();
+		position = 0;
+		pendingHighSurrogate = 0;
+	}
+
+	/**
+	 * Appends the UTF-8 encoded characters of the string to the digest input
+	 * 
+	 * @param s
+	 * @return this digester
+	 */
+	UriDigester update(String s) {
+		int length = s.length();
+		for (int i = 0; i < length; i++) {
+			char c = s.charAt(i);
+			if (pendingHighSurrogate != 0) {
+				char high = pendingHighSurrogate;
+				pendingHighSurrogate = 0;
+				if (Character.isLowSurrogate(c)) {
+					writeCodePoint(Character.toCodePoint(high, c));
+					continue;
+				}
+				writeByte(REPLACEMENT_BYTE);
+			}
+			if (c < 0x80) {
+				writeByte((byte) c);
+			} else if (c < 0x800) {
+				ensureCapacity(2);
+				buffer[position++] = (byte) (0xc0 | (c >> 6));
+				buffer[position++] = (byte) (0x80 | (c & 0x3f));
+			} else if (Character.isHighSurrogate(c)) {
+				pendingHighSurrogate = c;
+			} else if (Character.isLowSurrogate(c)) {
+				writeByte(REPLACEMENT_BYTE);
+			} else {
+				writeCodePoint(c);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * @param codePoint
+	 *            a code point of at least 0x800 that is not a surrogate
+	 */
+	private void writeCodePoint(int codePoint) {
+		if (codePoint < 0x10000) {
+			ensureCapacity(3);
+			buffer[position++] = (byte) (0xe0 | (codePoint >> 12));
+		} else {
+			ensureCapacity(4);
+			buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+			buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+		}
+		buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+		buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+	}
+
+	private void writeByte(byte b) {
+		ensureCapacity(1);
+		buffer[position++] = b;
+	}
+
+	private void ensureCapacity(int byteCount) {
+		if (position + byteCount > buffer.length) {
+			sha1.update(buffer, 0, position);
+			position = 0;
+		}
+	}
+
+	/**
+	 * @return the Base64 (URL-safe alphabet, no padding) encoded SHA-1 digest
+	 *         of the characters passed to {@link #update(String)}
+	 */
+	String digest() {
+		if (pendingHighSurrogate != 0) {
+			pendingHighSurrogate = 0;
+			writeByte(REPLACEMENT_BYTE);
+		}
+		sha1.update(buffer, 0, position);
+		position = 0;
+		try {
+			sha1.digest(digest, 0, digest.length);
+		} catch (DigestException e) {
+			throw new IllegalStateException(e);
+		}
+		return encodeDigest();
+	}
+
+	private String encodeDigest() {
+		int length = 0;
+		int i = 0;
+		for (; i + 2 < digest.length; i += 3) {
+			int bits = (digest[i] & 0xff) << 16 | (digest[i + 1] & 0xff) << 8 | (digest[i + 2] & 0xff);
+			encodedDigest[length++] = BASE64_URL_SAFE_ALPHABET[bits >>> 18];
+			encodedDigest[length++] = BASE64_URL_SAFE_ALPHABET[(bits >>> 12) & 0x3f];
+			encodedDigest[length++] = BASE64_URL_SAFE_ALPHABET[(bits >>> 6) & 0x3f];
+			encodedDigest[length++] = BASE64_URL_SAFE_ALPHABET[bits & 0x3f];
+		}
+		int remaining = digest.length - i;
+		if (remaining > 0) {
+			int bits = (digest[i] & 0xff) << 16 | (remaining == 2 ? (digest[i + 1] & 0xff) << 8 : 0);
+			encodedDigest[length++] = BASE64_URL_SAFE_ALPHABET[bits >>> 18];
+			encodedDigest[length++] = BASE64_URL_SAFE_ALPHABET[(bits >>> 12) & 0x3f];
+			if (remaining == 2) {
+				encodedDigest[length++] = BASE64_URL_SAFE_ALPHABET[(bits >>> 6) & 0x3f];
+			}
+		}
+		return new String(encodedDigest, 0, length);
+	}
+
+}
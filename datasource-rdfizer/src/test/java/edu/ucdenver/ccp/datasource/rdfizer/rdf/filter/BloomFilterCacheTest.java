@@ -0,0 +1,262 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.filter;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.openrdf.model.impl.StatementImpl;
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.model.vocabulary.RDFS;
+
+import edu.ucdenver.ccp.common.test.DefaultTestCase;
+
+/**
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class BloomFilterCacheTest extends DefaultTestCase {
+
+	private static final Logger logger = Logger.getLogger(BloomFilterCacheTest.class);
+
+	/**
+	 * An in-memory {@link DiskBasedHash} that counts lookups
+	 */
+	private static class CountingHash implements DiskBasedHash {
+		private final Set<String> keys = new HashSet<String>();
+		private long containsCount = 0;
+
+		@Override
+		public void add(Object o) {
+			keys.add(o.toString());
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			containsCount++;
+			return keys.contains(o.toString());
+		}
+
+		@Override
+		public void shutdown() {
+			// nothing to do
+		}
+	}
+
+	private static DuplicateFieldValueFilter createFilter(DiskBasedHash hash) throws IOException {
+		return new DuplicateFieldValueFilter(hash) {
+			@Override
+			public boolean isLeakProof() {
+				return true;
+			}
+		};
+	}
+
+	private static String getKey(int i) {
+		return "/F_" + i + "_field_value_key";
+	}
+
+	/**
+	 * The first Bloom filter only holds 1000 keys, so several more are added.
+	 * All added keys must be found, and the overall false positive rate should
+	 * remain near the target.
+	 */
+	@Test
+	public void testGrowingBloomFilter() throws IOException {
+		CountingHash store = new CountingHash();
+		BloomFilterCache cache = new BloomFilterCache(store, folder.newFile("filter.bloom"), 1000, 0.01, false);
+		for (int i = 0; i < 100000; i++) {
+			cache.add(getKey(i));
+		}
+		for (int i = 0; i < 100000; i++) {
+			assertTrue(cache.contains(getKey(i)));
+		}
+		assertEquals(100000, store.containsCount);
+
+		for (int i = 100000; i < 200000; i++) {
+			assertFalse(cache.contains(getKey(i)));
+		}
+		long falsePositiveCount = store.containsCount - 100000;
+		assertTrue("False positive count should be near 1000: " + falsePositiveCount, falsePositiveCount < 1500);
+		assertEquals(200000, cache.getContainsCount());
+		assertEquals(store.containsCount, cache.getStoreContainsCount());
+	}
+
+	@Test
+	public void testReopen() throws IOException {
+		CountingHash store = new CountingHash();
+		File bloomFilterFile = new File(folder.newFolder("cache"), "filter.bloom");
+		BloomFilterCache cache = new BloomFilterCache(store, bloomFilterFile, 1000, 0.01, false);
+		for (int i = 0; i < 5000; i++) {
+			cache.add(getKey(i));
+		}
+		cache.shutdown();
+		assertTrue(bloomFilterFile.exists());
+
+		cache = new BloomFilterCache(store, bloomFilterFile, 1000, 0.01, true);
+		assertFalse("The Bloom filter file should be deleted once it has been read", bloomFilterFile.exists());
+		for (int i = 0; i < 5000; i++) {
+			assertTrue(cache.contains(getKey(i)));
+		}
+		for (int i = 5000; i < 10000; i++) {
+			assertFalse(cache.contains(getKey(i)));
+		}
+		assertTrue(cache.getStoreContainsCount() < 5100);
+		cache.shutdown();
+	}
+
+	/**
+	 * Each thread looks up its keys right after adding them, while other
+	 * threads add keys and new Bloom filters are added. No key that has been
+	 * added may be reported as absent.
+	 */
+	@Test
+	public void testConcurrentAddAndContains() throws IOException, InterruptedException, ExecutionException {
+		final Set<String> keys = Collections.synchronizedSet(new HashSet<String>());
+		DiskBasedHash store = new DiskBasedHash() {
+			@Override
+			public void add(Object o) {
+				keys.add(o.toString());
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return keys.contains(o.toString());
+			}
+
+			@Override
+			public void shutdown() {
+				// nothing to do
+			}
+		};
+		final BloomFilterCache cache = new BloomFilterCache(store, folder.newFile("filter.bloom"), 1000, 0.01, false);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (int t = 0; t < 4; t++) {
+				final int from = t * 25000;
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws IOException {
+						for (int i = from; i < from + 25000; i++) {
+							cache.add(getKey(i));
+							assertTrue("Cache should contain key: " + getKey(i), cache.contains(getKey(i)));
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		for (int i = 0; i < 100000; i++) {
+			assertTrue(cache.contains(getKey(i)));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testReopenWithoutBloomFilterFile() throws IOException {
+		new BloomFilterCache(new CountingHash(), new File(folder.newFolder("cache"), "filter.bloom"), 1000, 0.01,
+				true);
+	}
+
+	/**
+	 * Runs a synthetic workload of field value and record statements through a
+	 * {@link DuplicateFieldValueFilter} with and without the Bloom filter. The
+	 * results must be identical, and far fewer lookups should reach the
+	 * backing store with the Bloom filter.
+	 */
+	@Test
+	public void testSameFilteringResults() throws IOException {
+		CountingHash store = new CountingHash();
+		DuplicateFieldValueFilter filter = createFilter(store);
+		CountingHash bloomFilterStore = new CountingHash();
+		DuplicateFieldValueFilter bloomFilter = createFilter(new BloomFilterCache(bloomFilterStore,
+				folder.newFile("filter.bloom"), 10000, 0.01, false));
+
+		Random random = new Random(17);
+		List<Boolean> expectedResults = new ArrayList<Boolean>();
+		List<Boolean> observedResults = new ArrayList<Boolean>();
+		for (int i = 0; i < 200000; i++) {
+			/* most field values are new, some recur */
+			int value = (random.nextInt(10) == 0) ? random.nextInt(i + 1) : i;
+			URIImpl fieldUri = new URIImpl("http://kabob.ucdenver.edu/iao/eg/F_value_" + value);
+			StatementImpl stmt = new StatementImpl(fieldUri, RDFS.LABEL, new URIImpl("http://label/" + value));
+			expectedResults.add(filter.alreadyObservedStatement(stmt));
+			observedResults.add(bloomFilter.alreadyObservedStatement(stmt));
+
+			if (i % 10 == 0) {
+				URIImpl recordUri = new URIImpl("http://kabob.ucdenver.edu/iao/eg/R_" + random.nextInt(i + 1));
+				boolean expectedObserved = filter.alreadyObservedRecordUri(recordUri);
+				expectedResults.add(expectedObserved);
+				boolean observed = bloomFilter.alreadyObservedRecordUri(recordUri);
+				observedResults.add(observed);
+				if (!expectedObserved) {
+					filter.logRecordUri(recordUri);
+				}
+				if (!observed) {
+					bloomFilter.logRecordUri(recordUri);
+				}
+			}
+		}
+		assertEquals(expectedResults, observedResults);
+		assertTrue(expectedResults.contains(true));
+
+		double reduction = 1.0 - ((double) bloomFilterStore.containsCount / store.containsCount);
+		logger.info("Backing store lookups without Bloom filter: " + store.containsCount + " with Bloom filter: "
+				+ bloomFilterStore.containsCount + " reduction: " + Math.round(reduction * 100) + "%");
+		assertTrue("The Bloom filter should avoid most backing store lookups", reduction > 0.5);
+	}
+
+}
@@ -33,14 +33,23 @@ package edu.ucdenver.ccp.datasource.rdfizer.rdf.filter;
  * #L%
  */
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Test;
+import org.openrdf.model.Statement;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFParseException;
+import org.openrdf.rio.RDFParser;
+import org.openrdf.rio.Rio;
+import org.openrdf.rio.helpers.StatementCollector;
 
 import edu.ucdenver.ccp.common.collections.CollectionsUtil;
 import edu.ucdenver.ccp.common.file.CharacterEncoding;
@@ -52,6 +61,7 @@ import edu.ucdenver.ccp.common.file.FileWriterUtil;
 import edu.ucdenver.ccp.common.file.FileWriterUtil.FileSuffixEnforcement;
 import edu.ucdenver.ccp.common.file.FileWriterUtil.WriteMode;
 import edu.ucdenver.ccp.common.test.DefaultTestCase;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.ClassifiedStatement.Kind;
 
 /**
  * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
@@ -162,4 +172,41 @@ public class DuplicateFieldValueFilterTest extends DefaultTestCase {
 
 		assertTrue((a11 && a22) || (a21 && a12));
 	}
+
+	/**
+	 * The filter should make the same decisions for statements that carry
+	 * their filter key as for statements whose subject it has to inspect
+	 */
+	@Test
+	public void testClassifiedStatements() throws IOException, RDFParseException, RDFHandlerException {
+		StatementCollector collector = new StatementCollector();
+		RDFParser parser = Rio.createParser(RDFFormat.NTRIPLES);
+		parser.setRDFHandler(collector);
+		parser.parse(new StringReader(CollectionsUtil.createDelimitedString(rdf, "\n")), "");
+		List<Statement> statements = new ArrayList<Statement>(collector.getStatements());
+		assertEquals(rdf.size(), statements.size());
+
+		DuplicateFieldValueFilter filter = new DefaultDuplicateStatementFilter(new File(
+				folder.newFolder("filter-cache"), "filter"));
+		DuplicateFieldValueFilter classifiedFilter = new DefaultDuplicateStatementFilter(new File(
+				folder.newFolder("classified-filter-cache"), "filter"));
+		int alreadyObservedCount = 0;
+		/* the statements are processed twice, as if they were in two files */
+		for (int i = 0; i < 2; i++) {
+			for (Statement stmt : statements) {
+				String filterKey = DuplicateFieldValueFilter.getFilterKey(stmt.getSubject());
+				ClassifiedStatement classifiedStmt = new ClassifiedStatement(stmt.getSubject(), stmt.getPredicate(),
+						stmt.getObject(), filterKey == null ? Kind.RECORD_INSTANCE : Kind.FIELD_VALUE, filterKey);
+				boolean alreadyObserved = filter.alreadyObservedStatement(stmt);
+				assertEquals(stmt.toString(), alreadyObserved, classifiedFilter.alreadyObservedStatement(classifiedStmt));
+				if (alreadyObserved) {
+					alreadyObservedCount++;
+				}
+			}
+		}
+		filter.shutdown();
+		classifiedFilter.shutdown();
+		/* the repeated gene symbol field in the first pass and all 15 field statements in the second */
+		assertEquals(18, alreadyObservedCount);
+	}
 }
@@ -0,0 +1,227 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.filter;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import edu.ucdenver.ccp.common.test.DefaultTestCase;
+
+/**
+ * @author Center for Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class MappedDigestCacheTest extends DefaultTestCase {
+
+	/**
+	 * Set to true (e.g. mvn test -Dlarge.file.tests=true) to run the tests
+	 * that create multi-gigabyte files
+	 */
+	private static final String LARGE_FILE_TESTS_PROPERTY = "large.file.tests";
+
+	private static String getKey(int i) {
+		return "/F_" + i + "_field_value_key";
+	}
+
+	private static void addKeys(MappedDigestCache cache, int from, int to) throws IOException {
+		for (int i = from; i < to; i++) {
+			cache.add(getKey(i));
+		}
+	}
+
+	private static void assertContainsKeys(MappedDigestCache cache, int from, int to) {
+		for (int i = from; i < to; i++) {
+			assertTrue("Cache should contain key: " + getKey(i), cache.contains(getKey(i)));
+		}
+	}
+
+	private static void assertDoesNotContainKeys(MappedDigestCache cache, int from, int to) {
+		for (int i = from; i < to; i++) {
+			assertFalse("Cache should not contain key: " + getKey(i), cache.contains(getKey(i)));
+		}
+	}
+
+	@Test
+	public void testAddAndContains() throws IOException {
+		MappedDigestCache cache = new MappedDigestCache(new File(folder.newFolder("cache"), "filter"));
+		addKeys(cache, 0, 10000);
+		addKeys(cache, 0, 100);
+		assertEquals(10000, cache.size());
+		assertContainsKeys(cache, 0, 10000);
+		assertDoesNotContainKeys(cache, 10000, 20000);
+		cache.shutdown();
+	}
+
+	/**
+	 * The table starts with 16 slots and is grown many times. Segments of 64
+	 * slots are used so that the table spans multiple mapped segments.
+	 */
+	@Test
+	public void testGrowth() throws IOException {
+		File storageFile = new File(folder.newFolder("cache"), "filter");
+		MappedDigestCache cache = new MappedDigestCache(storageFile, false, 16, 6);
+		addKeys(cache, 0, 50000);
+		assertEquals(50000, cache.size());
+		assertEquals(1L << 17, cache.getCapacity());
+		assertContainsKeys(cache, 0, 50000);
+		assertDoesNotContainKeys(cache, 50000, 60000);
+		assertEquals("Only the current table file should remain", 1,
+				storageFile.getParentFile().listFiles().length);
+		assertEquals(storageFile.getName() + ".digests.13", cache.getTableFile().getName());
+		cache.shutdown();
+	}
+
+	@Test
+	public void testReopen() throws IOException {
+		File storageFile = new File(folder.newFolder("cache"), "filter");
+		MappedDigestCache cache = new MappedDigestCache(storageFile, false, 16, 6);
+		addKeys(cache, 0, 1000);
+		cache.shutdown();
+
+		cache = new MappedDigestCache(storageFile, true, 16, 6);
+		assertEquals(1000, cache.size());
+		assertContainsKeys(cache, 0, 1000);
+		assertDoesNotContainKeys(cache, 1000, 2000);
+		addKeys(cache, 1000, 2000);
+		cache.shutdown();
+
+		cache = new MappedDigestCache(storageFile, true);
+		assertEquals(2000, cache.size());
+		assertContainsKeys(cache, 0, 2000);
+		cache.shutdown();
+
+		/* without append, the stored table is discarded */
+		cache = new MappedDigestCache(storageFile, false);
+		assertEquals(0, cache.size());
+		assertDoesNotContainKeys(cache, 0, 2000);
+		cache.shutdown();
+	}
+
+	/**
+	 * If a cache is not shut down, the entries it has added are still found
+	 * when it is reopened
+	 */
+	@Test
+	public void testReopenWithoutShutdown() throws IOException {
+		File storageFile = new File(folder.newFolder("cache"), "filter");
+		MappedDigestCache cache = new MappedDigestCache(storageFile, false, 16, 6);
+		addKeys(cache, 0, 1000);
+
+		MappedDigestCache reopenedCache = new MappedDigestCache(storageFile, true, 16, 6);
+		assertEquals(1000, reopenedCache.size());
+		assertContainsKeys(reopenedCache, 0, 1000);
+		reopenedCache.shutdown();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testContainsAfterShutdown() throws IOException {
+		MappedDigestCache cache = new MappedDigestCache(new File(folder.newFolder("cache"), "filter"));
+		cache.add(getKey(1));
+		cache.shutdown();
+		cache.contains(getKey(1));
+	}
+
+	/**
+	 * Threads add overlapping ranges of keys while the table grows. Each key
+	 * should be stored exactly once.
+	 */
+	@Test
+	public void testConcurrentAdd() throws IOException, InterruptedException, ExecutionException {
+		final MappedDigestCache cache = new MappedDigestCache(new File(folder.newFolder("cache"), "filter"), false,
+				16, 8);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (int t = 0; t < 4; t++) {
+				final int from = t * 10000;
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws IOException {
+						addKeys(cache, from, from + 20000);
+						assertContainsKeys(cache, from, from + 20000);
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(50000, cache.size());
+		assertContainsKeys(cache, 0, 50000);
+		assertDoesNotContainKeys(cache, 50000, 60000);
+		cache.shutdown();
+	}
+
+	/**
+	 * Uses a table of 2^29 slots stored in an 8GB sparse file, which is mapped
+	 * in 8 segments. Only the pages of the slots that are used take up disk
+	 * space, so few keys are added as each one is likely to touch a new page.
+	 * Not every file system supports sparse files, so this test only runs when
+	 * the {@link #LARGE_FILE_TESTS_PROPERTY} system property is set to true.
+	 */
+	@Test
+	public void testMultiGigabyteSparseTable() throws IOException {
+		assumeTrue(Boolean.getBoolean(LARGE_FILE_TESTS_PROPERTY));
+		File storageFile = new File(folder.newFolder("cache"), "filter");
+		MappedDigestCache cache = new MappedDigestCache(storageFile, false, 1L << 29);
+		addKeys(cache, 0, 2000);
+		assertTrue(cache.getTableFile().length() > (8L << 30));
+		assertContainsKeys(cache, 0, 2000);
+		assertDoesNotContainKeys(cache, 2000, 3000);
+		cache.shutdown();
+
+		cache = new MappedDigestCache(storageFile, true);
+		assertEquals(1L << 29, cache.getCapacity());
+		assertContainsKeys(cache, 0, 2000);
+		cache.shutdown();
+	}
+
+}
@@ -0,0 +1,129 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.openrdf.model.Statement;
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.model.vocabulary.RDFS;
+
+import edu.ucdenver.ccp.common.collections.CollectionsUtil;
+import edu.ucdenver.ccp.common.string.StringConstants;
+import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
+import edu.ucdenver.ccp.datasource.fileparsers.DataRecord;
+import edu.ucdenver.ccp.datasource.fileparsers.Record;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordField;
+import edu.ucdenver.ccp.datasource.identifiers.DataSource;
+import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.identifiers.ProbableErrorDataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.NoOpDuplicateStatementFilter;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.ice.FieldValueCache.CachedFieldValue;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.ice.RecordSchema.SchemaField;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.vocabulary.RO;
+
+/**
+ * Tests for the {@link FieldValueCache}
+ * 
+ * @author Colorado Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class FieldValueCacheTest {
+
+	private static final long CREATED_TIME = new GregorianCalendar(2010, 11, 17).getTimeInMillis();
+
+	/**
+	 * {@link ProbableErrorDataSourceIdentifier#equals(Object)} ignores the identifier, so these
+	 * values are equal although they denote different identifiers
+	 */
+	private static final ProbableErrorDataSourceIdentifier ERROR_ID_1 = new ProbableErrorDataSourceIdentifier("P1",
+			"UniProt", "invalid");
+	private static final ProbableErrorDataSourceIdentifier ERROR_ID_2 = new ProbableErrorDataSourceIdentifier("P2",
+			"UniProt", "invalid");
+
+	@Record(dataSource = DataSource.KEGG, ontClass = CcpExtensionOntology.HGNC_GENE_RECORD)
+	private static class ErrorIdRecord implements DataRecord {
+		@RecordField(ontClass = CcpExtensionOntology.SYMBOL_FIELD_VALUE, isKeyField = true)
+		private String key = "1";
+		@RecordField(ontClass = CcpExtensionOntology.SYNONYMS_FIELD_VALUE)
+		private Set<DataSourceIdentifier<?>> ids = CollectionsUtil.<DataSourceIdentifier<?>> createSet(ERROR_ID_1,
+				ERROR_ID_2);
+	}
+
+	@Test
+	public void testValuesAreIdentifiedBySerializedForm() {
+		assertEquals(ERROR_ID_1, ERROR_ID_2);
+		SchemaField field = RecordSchema.forClass(ErrorIdRecord.class).getFields().get(0);
+		FieldValueCache cache = new FieldValueCache();
+		URIImpl fieldUri = RdfRecordUriFactory.createFieldUri(field, ERROR_ID_1);
+		CachedFieldValue cached = cache.put(field, ERROR_ID_1, RdfRecordUriFactory.serializeFieldValue(ERROR_ID_1),
+				fieldUri, Collections.<Statement> emptyList());
+		assertNull(cache.get(field, ERROR_ID_2, RdfRecordUriFactory.serializeFieldValue(ERROR_ID_2)));
+		assertSame(cached, cache.get(field, new ProbableErrorDataSourceIdentifier("P1", "UniProt", "invalid"),
+				RdfRecordUriFactory.serializeFieldValue(ERROR_ID_1)));
+	}
+
+	@Test
+	public void testProbableErrorIdentifiersThatDifferOnlyInId() {
+		ErrorIdRecord record = new ErrorIdRecord();
+		URIImpl recordUri = RdfRecordUriFactory.createRecordUri(record);
+		FieldValueCache cache = new FieldValueCache();
+		for (int i = 0; i < 2; i++) {
+			List<Statement> statements = RdfRecordUtil.createRecordStatements(record, CREATED_TIME, recordUri, null,
+					StringConstants.BLANK, cache).resolve(new NoOpDuplicateStatementFilter());
+			Set<String> fieldUris = new HashSet<String>();
+			Set<String> labels = new HashSet<String>();
+			for (Statement statement : statements) {
+				if (statement.getSubject().equals(recordUri) && statement.getPredicate().equals(RO.HAS_PART.uri())) {
+					fieldUris.add(statement.getObject().stringValue());
+				} else if (statement.getPredicate().equals(RDFS.LABEL)) {
+					labels.add(statement.getObject().stringValue());
+				}
+			}
+			/* the key field and the two identifiers */
+			assertEquals(3, fieldUris.size());
+			assertEquals(CollectionsUtil.createSet("1", "P1", "P2"), labels);
+		}
+	}
+
+}
@@ -0,0 +1,156 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openrdf.model.Statement;
+import org.openrdf.model.impl.URIImpl;
+
+import edu.ucdenver.ccp.common.collections.CollectionsUtil;
+import edu.ucdenver.ccp.common.file.CharacterEncoding;
+import edu.ucdenver.ccp.common.io.ClassPathUtil;
+import edu.ucdenver.ccp.datasource.fileparsers.DataRecord;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordVisitor;
+import edu.ucdenver.ccp.datasource.fileparsers.drugbank.DrugbankXmlFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.SparseUniProtDatFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtDatFileParserTest;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtXmlFileParserTest;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtXmlFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileParser;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileParserTest;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.NoOpDuplicateStatementFilter;
+
+/**
+ * Tests that the statements and record URIs generated for the sample records are the same whether
+ * the records are visited using the {@link RecordVisitor}s generated at compile time or using
+ * reflection
+ * 
+ * @author Colorado Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class GeneratedRecordVisitorTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final long CREATED_TIME = new GregorianCalendar(2010, 11, 17).getTimeInMillis();
+
+	@After
+	public void tearDown() {
+		RecordSchema.setGeneratedVisitorsEnabled(true);
+	}
+
+	private File copySampleFile(Class<?> cls, String fileName) throws IOException {
+		File file = folder.newFile(fileName);
+		ClassPathUtil.copyClasspathResourceToFile(cls, fileName, file);
+		return file;
+	}
+
+	@Test
+	public void testNcbiGeneInfoRecords() throws IOException {
+		File file = copySampleFile(NcbiGeneInfoFileParserTest.class, "EntrezGene_gene_info");
+		assertSameOutput(new NcbiGeneInfoFileParser(file, CharacterEncoding.US_ASCII));
+	}
+
+	@Test
+	public void testUniProtDatRecords() throws IOException {
+		File file = copySampleFile(UniProtDatFileParserTest.class, "UniProt_uniprot_sprot.dat");
+		assertSameOutput(new SparseUniProtDatFileRecordReader(file, CharacterEncoding.US_ASCII, null));
+	}
+
+	@Test
+	public void testUniProtXmlRecords() throws IOException {
+		File file = copySampleFile(UniProtXmlFileParserTest.class, "sprot_small2.xml");
+		assertSameOutput(new UniProtXmlFileRecordReader(file, null));
+	}
+
+	@Test
+	public void testDrugBankRecords() throws IOException {
+		File file = copySampleFile(DrugbankXmlFileRecordReader.class, "drugbank.xml");
+		assertSameOutput(new DrugbankXmlFileRecordReader(file));
+	}
+
+	/**
+	 * Reads all records from the record reader and checks that each record has a generated visitor
+	 * and that the record URI and statements for each record do not depend on how the record is
+	 * visited
+	 */
+	private static void assertSameOutput(RecordReader<?> recordReader) throws IOException {
+		List<DataRecord> records = new ArrayList<DataRecord>();
+		try {
+			while (recordReader.hasNext()) {
+				records.add(recordReader.next());
+			}
+		} finally {
+			recordReader.close();
+		}
+		assertTrue("Sample file should contain records", records.size() > 0);
+
+		for (DataRecord record : records) {
+			assertTrue("Record class should have a generated visitor: " + record.getClass().getName(), RecordSchema
+					.forClass(record.getClass()).hasGeneratedVisitor());
+
+			RecordSchema.setGeneratedVisitorsEnabled(true);
+			URIImpl generatedRecordUri = RdfRecordUriFactory.createRecordUri(record);
+			List<String> generatedStatements = getStatements(record, generatedRecordUri);
+
+			RecordSchema.setGeneratedVisitorsEnabled(false);
+			URIImpl reflectiveRecordUri = RdfRecordUriFactory.createRecordUri(record);
+			List<String> reflectiveStatements = getStatements(record, reflectiveRecordUri);
+
+			assertEquals(reflectiveRecordUri, generatedRecordUri);
+			assertEquals(reflectiveStatements, generatedStatements);
+		}
+	}
+
+	private static List<String> getStatements(DataRecord record, URIImpl recordUri) {
+		List<Statement> statements = RdfRecordUtil.getRecordInstanceStatements(record, CREATED_TIME, recordUri,
+				new NoOpDuplicateStatementFilter());
+		return new ArrayList<String>(CollectionsUtil.toString(statements));
+	}
+
+}
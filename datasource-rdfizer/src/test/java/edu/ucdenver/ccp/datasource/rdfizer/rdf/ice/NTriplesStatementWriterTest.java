@@ -0,0 +1,174 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.impl.BNodeImpl;
+import org.openrdf.model.impl.LiteralImpl;
+import org.openrdf.model.impl.StatementImpl;
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.model.vocabulary.RDF;
+import org.openrdf.model.vocabulary.RDFS;
+import org.openrdf.model.vocabulary.XMLSchema;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFWriter;
+import org.openrdf.rio.Rio;
+
+/**
+ * Checks that the {@link NTriplesStatementWriter} output is byte-for-byte
+ * identical to that of the Sesame N-Triples writer
+ * 
+ * @author Colorado Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class NTriplesStatementWriterTest {
+
+	private static final URI SUBJECT = new URIImpl("http://kabob.ucdenver.edu/iao/F_record_field_1");
+	private static final URI PREDICATE = new URIImpl("http://purl.obolibrary.org/obo/IAO_0000219");
+
+	@Test
+	public void testUriStatements() throws Exception {
+		List<Statement> stmts = new ArrayList<Statement>();
+		stmts.add(new StatementImpl(SUBJECT, RDF.TYPE, new URIImpl("http://purl.obolibrary.org/obo/IAO_0000030")));
+		stmts.add(new StatementImpl(SUBJECT, RDFS.SUBCLASSOF, new URIImpl("http://example.org/class")));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new URIImpl("http://example.org/café")));
+		stmts.add(new StatementImpl(new URIImpl("http://example.org/中文"), PREDICATE, SUBJECT));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new URIImpl("http://example.org/😀")));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new URIImpl("http://example.org/a%20b?c=d&e=\"f\"")));
+		assertSameOutput(stmts);
+	}
+
+	@Test
+	public void testLiteralStatements() throws Exception {
+		List<Statement> stmts = new ArrayList<Statement>();
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new LiteralImpl("plain")));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new LiteralImpl("")));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new LiteralImpl("with \"quotes\" and \\backslash")));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new LiteralImpl("line1\nline2\r\n\ttabbed")));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new LiteralImpl("control \u0001 \u001f \u007f chars")));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new LiteralImpl("café 中文 😀")));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new LiteralImpl("english", "en")));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new LiteralImpl("français", "fr")));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new LiteralImpl("42", XMLSchema.INT)));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new LiteralImpl("3.14", XMLSchema.DOUBLE)));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new LiteralImpl("a \"string\"", XMLSchema.STRING)));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new LiteralImpl("custom", new URIImpl(
+				"http://example.org/datatype/é"))));
+		assertSameOutput(stmts);
+	}
+
+	@Test
+	public void testBNodeStatements() throws Exception {
+		List<Statement> stmts = new ArrayList<Statement>();
+		stmts.add(new StatementImpl(new BNodeImpl("node1"), PREDICATE, SUBJECT));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new BNodeImpl("node2")));
+		assertSameOutput(stmts);
+	}
+
+	@Test
+	public void testTermsLargerThanBuffer() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			sb.append("MKTAYIAKQRQISFVKSHFSRQ");
+		}
+		List<Statement> stmts = new ArrayList<Statement>();
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new LiteralImpl(sb.toString())));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new LiteralImpl(sb.toString() + "é")));
+		stmts.add(new StatementImpl(SUBJECT, PREDICATE, new LiteralImpl("short")));
+		assertSameOutput(stmts, 16);
+		assertSameOutput(stmts, 100);
+	}
+
+	@Test
+	public void testRepeatedStatements() throws Exception {
+		List<Statement> stmts = new ArrayList<Statement>();
+		for (int i = 0; i < 5000; i++) {
+			URI subject = new URIImpl("http://kabob.ucdenver.edu/iao/R_record_" + i);
+			stmts.add(new StatementImpl(subject, RDF.TYPE, new URIImpl("http://purl.obolibrary.org/obo/IAO_0000030")));
+			stmts.add(new StatementImpl(subject, PREDICATE, new LiteralImpl("value " + i, "en")));
+		}
+		assertSameOutput(stmts, 1000);
+	}
+
+	private static void assertSameOutput(List<Statement> stmts) throws IOException {
+		assertSameOutput(stmts, 64 * 1024);
+	}
+
+	private static void assertSameOutput(List<Statement> stmts, int bufferSize) throws IOException {
+		byte[] expected = writeWithSesame(stmts);
+		byte[] observed = writeNatively(stmts, bufferSize);
+		assertEquals(new String(expected, "UTF-8"), new String(observed, "UTF-8"));
+		assertArrayEquals(expected, observed);
+	}
+
+	private static byte[] writeWithSesame(List<Statement> stmts) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		Writer writer = new OutputStreamWriter(baos, "UTF-8");
+		RDFWriter rdfWriter = Rio.createWriter(RDFFormat.NTRIPLES, writer);
+		try {
+			rdfWriter.startRDF();
+			for (Statement stmt : stmts) {
+				rdfWriter.handleStatement(stmt);
+			}
+			rdfWriter.endRDF();
+		} catch (Exception e) {
+			throw new IOException(e);
+		}
+		writer.close();
+		return baos.toByteArray();
+	}
+
+	private static byte[] writeNatively(List<Statement> stmts, int bufferSize) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		NTriplesStatementWriter writer = new NTriplesStatementWriter(baos, bufferSize);
+		for (Statement stmt : stmts) {
+			writer.write(stmt);
+		}
+		writer.close();
+		return baos.toByteArray();
+	}
+
+}
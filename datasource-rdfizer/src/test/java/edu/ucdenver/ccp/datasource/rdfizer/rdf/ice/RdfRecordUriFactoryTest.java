@@ -34,15 +34,45 @@ package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
  */
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map.Entry;
 
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.openrdf.model.impl.URIImpl;
+import org.openrdf.rio.ntriples.NTriplesUtil;
 
+import edu.ucdenver.ccp.common.digest.DigestUtil;
+import edu.ucdenver.ccp.common.file.CharacterEncoding;
+import edu.ucdenver.ccp.common.io.ClassPathUtil;
+import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 import edu.ucdenver.ccp.datasource.fileparsers.DataRecord;
 import edu.ucdenver.ccp.datasource.fileparsers.Record;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordField;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordFieldVisitor;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.drugbank.DrugbankXmlFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.SparseUniProtDatFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtDatFileParserTest;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtXmlFileParserTest;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtXmlFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileParser;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileParserTest;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
+import edu.ucdenver.ccp.datasource.identifiers.ProbableErrorDataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.identifiers.UnknownDataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.ice.RecordSchema.SchemaField;
 
 /**
  * @author Colorado Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
@@ -50,6 +80,9 @@ import edu.ucdenver.ccp.datasource.identifiers.DataSource;
  */
 public class RdfRecordUriFactoryTest {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Record(dataSource = DataSource.KEGG)
 	public static class TestDataRecord implements DataRecord {
 		@RecordField
@@ -106,4 +139,130 @@ public class RdfRecordUriFactoryTest {
 		assertEquals(testRecordUri, testRecordWithSubRecordUri);
 	}
 
+	@Record(dataSource = DataSource.KEGG, ontClass = CcpExtensionOntology.HGNC_GENE_RECORD)
+	public static class NonAsciiTestDataRecord implements DataRecord {
+		@RecordField(ontClass = CcpExtensionOntology.HGNC_GENE_RECORD___ALIAS_SYMBOL_FIELD_VALUE)
+		private final String stringField;
+		@RecordField(ontClass = CcpExtensionOntology.HGNC_GENE_RECORD___ALIAS_NAME_FIELD_VALUE)
+		private final List<String> stringListField;
+		@RecordField(ontClass = CcpExtensionOntology.HGNC_GENE_RECORD___CYTOGENIC_LOCATION_FIELD_VALUE)
+		private final UnknownDataSourceIdentifier unknownIdField;
+
+		public NonAsciiTestDataRecord(String stringField, List<String> stringListField,
+				UnknownDataSourceIdentifier unknownIdField) {
+			this.stringField = stringField;
+			this.stringListField = stringListField;
+			this.unknownIdField = unknownIdField;
+		}
+	}
+
+	/**
+	 * The URIs of the sample records must not change as the URI computation is
+	 * optimized, so they are compared to URIs computed by hashing the
+	 * concatenated field type and value strings
+	 */
+	@Test
+	public void testRecordUrisAreStable() throws IOException {
+		assertUrisAreStable(new NcbiGeneInfoFileParser(copySampleFile(NcbiGeneInfoFileParserTest.class,
+				"EntrezGene_gene_info"), CharacterEncoding.US_ASCII));
+		assertUrisAreStable(new SparseUniProtDatFileRecordReader(copySampleFile(UniProtDatFileParserTest.class,
+				"UniProt_uniprot_sprot.dat"), CharacterEncoding.US_ASCII, null));
+		assertUrisAreStable(new UniProtXmlFileRecordReader(copySampleFile(UniProtXmlFileParserTest.class,
+				"sprot_small2.xml"), null));
+		assertUrisAreStable(new DrugbankXmlFileRecordReader(copySampleFile(DrugbankXmlFileRecordReader.class,
+				"drugbank.xml")));
+	}
+
+	@Test
+	public void testNonAsciiRecordUrisAreStable() {
+		assertUrisAreStable(new NonAsciiTestDataRecord("caf\u00e9", Arrays.asList("\u03b1", "b", "a"),
+				new UnknownDataSourceIdentifier("na\u00efve")));
+		assertUrisAreStable(new NonAsciiTestDataRecord("plain", Collections.<String> emptyList(),
+				new UnknownDataSourceIdentifier("\u4e2d\u6587")));
+	}
+
+	private File copySampleFile(Class<?> cls, String fileName) throws IOException {
+		File file = folder.newFile(fileName);
+		ClassPathUtil.copyClasspathResourceToFile(cls, fileName, file);
+		return file;
+	}
+
+	private static void assertUrisAreStable(RecordReader<?> recordReader) throws IOException {
+		int recordCount = 0;
+		try {
+			while (recordReader.hasNext()) {
+				assertUrisAreStable(recordReader.next());
+				recordCount++;
+			}
+		} finally {
+			recordReader.close();
+		}
+		assertTrue("Sample file should contain records", recordCount > 0);
+	}
+
+	/**
+	 * Checks the URI of the record and the URIs of its fields and sub-records
+	 */
+	private static void assertUrisAreStable(Object record) {
+		assertEquals(getExpectedRecordUri(record, ""), RdfRecordUriFactory.createRecordUri(record));
+		final RecordSchema schema = RecordSchema.forClass(record.getClass());
+		schema.getVisitor().visit(record, new RecordFieldVisitor() {
+			@Override
+			public void visitValue(int fieldIndex, Object value) {
+				SchemaField field = schema.getFields().get(fieldIndex);
+				assertEquals(getExpectedFieldUri(field, value), RdfRecordUriFactory.createFieldUri(field, value));
+			}
+
+			@Override
+			public void visitSubRecord(int fieldIndex, Object subRecord) {
+				String fieldName = schema.getFields().get(fieldIndex).getName();
+				assertEquals(getExpectedRecordUri(subRecord, fieldName),
+						RdfRecordUriFactory.createRecordUri(subRecord, fieldName));
+				assertUrisAreStable(subRecord);
+			}
+		});
+	}
+
+	private static URIImpl getExpectedRecordUri(Object record, String prefix) {
+		LinkedHashMap<String, List<String>> sortedFieldsAndValues = new LinkedHashMap<String, List<String>>();
+		RecordSchema schema = RecordSchema.forClass(record.getClass());
+		for (SchemaField field : schema.getFields()) {
+			Object fieldValue = schema.getVisitor().getFieldValue(record, field.getIndex());
+			if (fieldValue != null) {
+				Collection<?> fieldValues = (fieldValue instanceof Collection) ? (Collection<?>) fieldValue
+						: Collections.singleton(fieldValue);
+				List<String> fieldValueUriStrs = new ArrayList<String>();
+				for (Object value : fieldValues) {
+					if (value != null) {
+						fieldValueUriStrs.add(getExpectedFieldValueUri(value));
+					}
+				}
+				Collections.sort(fieldValueUriStrs);
+				sortedFieldsAndValues.put(field.getBracketedFieldTypeUri(), fieldValueUriStrs);
+			}
+		}
+		StringBuffer buffer = new StringBuffer(prefix);
+		for (Entry<String, List<String>> entry : sortedFieldsAndValues.entrySet()) {
+			for (String value : entry.getValue()) {
+				buffer.append(entry.getKey() + value);
+			}
+		}
+		return RdfUtil.createUriImpl(DataSource.KABOB_ICE,
+				UriPrefix.RECORD.prefix() + DigestUtil.getBase64Sha1Digest(buffer.toString()));
+	}
+
+	private static URIImpl getExpectedFieldUri(SchemaField field, Object value) {
+		return RdfUtil.createUriImpl(DataSource.KABOB_ICE, UriPrefix.RECORD_FIELD.prefix()
+				+ DigestUtil.getBase64Sha1Digest(field.getBracketedFieldTypeUri() + getExpectedFieldValueUri(value)));
+	}
+
+	private static String getExpectedFieldValueUri(Object fieldValue) {
+		if (fieldValue instanceof UnknownDataSourceIdentifier) {
+			return ((UnknownDataSourceIdentifier) fieldValue).getId();
+		} else if (fieldValue instanceof ProbableErrorDataSourceIdentifier) {
+			return ((ProbableErrorDataSourceIdentifier) fieldValue).getId();
+		}
+		return NTriplesUtil.toNTriplesString(RdfUtil.getValue(fieldValue));
+	}
+
 }
@@ -33,17 +33,22 @@ package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
  * #L%
  */
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.GregorianCalendar;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -53,6 +58,8 @@ import java.util.regex.Pattern;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.openrdf.model.Statement;
+import org.openrdf.model.impl.StatementImpl;
 import org.openrdf.model.impl.URIImpl;
 import org.openrdf.model.vocabulary.DC;
 import org.openrdf.model.vocabulary.DCTERMS;
@@ -71,20 +78,27 @@ import edu.ucdenver.ccp.common.file.FileWriterUtil;
 import edu.ucdenver.ccp.common.file.FileWriterUtil.FileSuffixEnforcement;
 import edu.ucdenver.ccp.common.file.FileWriterUtil.WriteMode;
 import edu.ucdenver.ccp.common.file.reader.Line;
+import edu.ucdenver.ccp.common.io.ClassPathUtil;
 import edu.ucdenver.ccp.common.file.reader.StreamLineIterator;
 import edu.ucdenver.ccp.common.string.StringUtil;
 import edu.ucdenver.ccp.common.test.DefaultTestCase;
 import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
 import edu.ucdenver.ccp.datasource.fileparsers.Record;
 import edu.ucdenver.ccp.datasource.fileparsers.RecordField;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordReader;
 import edu.ucdenver.ccp.datasource.fileparsers.SingleLineFileRecord;
 import edu.ucdenver.ccp.datasource.fileparsers.SingleLineFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.drugbank.DrugbankXmlFileRecordReader;
 import edu.ucdenver.ccp.datasource.fileparsers.ebi.goa.gaf.GoaFileIdResolver;
 import edu.ucdenver.ccp.datasource.fileparsers.ebi.goa.gaf.GoaGaf2FileRecordReader;
 import edu.ucdenver.ccp.datasource.identifiers.DataSource;
 import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.IdResolver;
 import edu.ucdenver.ccp.datasource.identifiers.Identifier;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.DefaultDuplicateStatementFilter;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.DuplicateStatementFilter;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.InMemoryDuplicateStatementFilter;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.NoOpDuplicateStatementFilter;
 import edu.ucdenver.ccp.datasource.rdfizer.rdf.ice.RdfUtil.RdfFormat;
 import edu.ucdenver.ccp.datasource.rdfizer.rdf.vocabulary.IAO;
 import edu.ucdenver.ccp.datasource.rdfizer.rdf.vocabulary.RO;
@@ -224,6 +238,231 @@ public class RdfRecordWriterTest extends DefaultTestCase {
 				CharacterEncoding.UTF_8, expectedLines, null, LineOrder.ANY_ORDER, ColumnOrder.AS_IN_FILE));
 	}
 
+	/**
+	 * Tests that generating statements on multiple threads produces the same
+	 * output files, with the same content, as generating them on a single
+	 * thread
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testWriteRdf_Concurrent() throws IOException {
+		File largeGeneId2NameDatFile = populateLargeGeneId2NameDatFile();
+		Map<String, String> expectedOutput = writeRdf(new GeneId2NameDatFileParser(largeGeneId2NameDatFile), 1, 0,
+				-1);
+		Map<String, String> observedOutput = writeRdf(new GeneId2NameDatFileParser(largeGeneId2NameDatFile), 4, 0,
+				-1);
+		assertTrue("Output should have been split into multiple files.", expectedOutput.size() > 1);
+		assertEquals(expectedOutput, observedOutput);
+	}
+
+	@Test
+	public void testWriteRdf_ConcurrentWithSkipAndOutputRecordLimit() throws IOException {
+		File largeGeneId2NameDatFile = populateLargeGeneId2NameDatFile();
+		Map<String, String> expectedOutput = writeRdf(new GeneId2NameDatFileParser(largeGeneId2NameDatFile), 1, 700,
+				1500);
+		Map<String, String> observedOutput = writeRdf(new GeneId2NameDatFileParser(largeGeneId2NameDatFile), 3, 700,
+				1500);
+		assertEquals(expectedOutput, observedOutput);
+	}
+
+	/**
+	 * DrugBank records contain sub-records, some of which are shared between
+	 * records, so this tests that the duplicate filter is applied to
+	 * sub-records in the same order as when the statements are generated on a
+	 * single thread
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testWriteRdf_ConcurrentWithSubRecords() throws IOException {
+		File drugBankFile = folder.newFile("drugbank.xml");
+		ClassPathUtil.copyClasspathResourceToFile(DrugbankXmlFileRecordReader.class, "drugbank.xml", drugBankFile);
+		Map<String, String> expectedOutput = writeRdf(new DrugbankXmlFileRecordReader(drugBankFile), 1, 0, -1);
+		Map<String, String> observedOutput = writeRdf(new DrugbankXmlFileRecordReader(drugBankFile), 2, 0, -1);
+		assertEquals(expectedOutput, observedOutput);
+	}
+
+	/**
+	 * Field values that have already been written are skipped when the field
+	 * value cache is used, so once duplicate lines are removed the output
+	 * should be the same as without the cache. A small cache is also tested to
+	 * make sure that evicted field values are handled.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testWriteRdf_FieldValueCache() throws IOException {
+		File largeGeneId2NameDatFile = populateLargeGeneId2NameDatFile();
+		List<String> expectedLines = getDistinctLines(writeRdf(new GeneId2NameDatFileParser(largeGeneId2NameDatFile),
+				1, 0, -1, new NoOpDuplicateStatementFilter(), null, "output-no-cache"));
+
+		FieldValueCache fieldValueCache = new FieldValueCache();
+		Map<String, String> observedOutput = writeRdf(new GeneId2NameDatFileParser(largeGeneId2NameDatFile), 1, 0,
+				-1, new NoOpDuplicateStatementFilter(), fieldValueCache, "output-cache");
+		assertEquals(expectedLines, getDistinctLines(observedOutput));
+		assertTrue("Repeated field values should be found in the cache.", fieldValueCache.getHitCount() > 0);
+		assertTrue(fieldValueCache.getMissCount() > 0);
+
+		FieldValueCache smallFieldValueCache = new FieldValueCache(10, 4096);
+		observedOutput = writeRdf(new GeneId2NameDatFileParser(largeGeneId2NameDatFile), 3, 0, -1,
+				new NoOpDuplicateStatementFilter(), smallFieldValueCache, "output-small-cache");
+		assertEquals(expectedLines, getDistinctLines(observedOutput));
+		assertTrue(smallFieldValueCache.size() <= 10);
+		assertTrue(smallFieldValueCache.getByteCount() <= 4096);
+	}
+
+	/**
+	 * The filter used here reports sub-records that have already been
+	 * observed, so the field values of discarded sub-records must not be
+	 * treated as written
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testWriteRdf_FieldValueCacheWithSubRecords() throws IOException {
+		File drugBankFile = folder.newFile("drugbank.xml");
+		ClassPathUtil.copyClasspathResourceToFile(DrugbankXmlFileRecordReader.class, "drugbank.xml", drugBankFile);
+		List<String> expectedLines = getDistinctLines(writeRdf(new DrugbankXmlFileRecordReader(drugBankFile), 1, 0,
+				-1, new DefaultDuplicateStatementFilter(new File(folder.newFolder("filter-cache-1"), "filter")), null,
+				"output-no-cache"));
+		List<String> observedLines = getDistinctLines(writeRdf(new DrugbankXmlFileRecordReader(drugBankFile), 1, 0,
+				-1, new DefaultDuplicateStatementFilter(new File(folder.newFolder("filter-cache-2"), "filter")),
+				new FieldValueCache(), "output-cache"));
+		assertEquals(expectedLines, observedLines);
+	}
+
+	/**
+	 * Generated statements are classified so that the filter does not need to
+	 * inspect their subjects, so handing the filter unclassified copies of the
+	 * statements must not change the output
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testWriteRdf_ClassifiedStatements() throws IOException {
+		File largeGeneId2NameDatFile = populateLargeGeneId2NameDatFile();
+		File drugBankFile = folder.newFile("drugbank.xml");
+		ClassPathUtil.copyClasspathResourceToFile(DrugbankXmlFileRecordReader.class, "drugbank.xml", drugBankFile);
+
+		Map<String, String> expectedOutput = writeRdf(new GeneId2NameDatFileParser(largeGeneId2NameDatFile), 1, 0,
+				-1, new UnclassifiedStatementFilter(new DefaultDuplicateStatementFilter(new File(
+						folder.newFolder("filter-cache-1"), "filter"))), new FieldValueCache(), "output-unclassified-1");
+		Map<String, String> observedOutput = writeRdf(new GeneId2NameDatFileParser(largeGeneId2NameDatFile), 1, 0,
+				-1, new DefaultDuplicateStatementFilter(new File(folder.newFolder("filter-cache-2"), "filter")),
+				new FieldValueCache(), "output-classified-1");
+		assertEquals(expectedOutput, observedOutput);
+
+		expectedOutput = writeRdf(new DrugbankXmlFileRecordReader(drugBankFile), 1, 0, -1,
+				new UnclassifiedStatementFilter(new DefaultDuplicateStatementFilter(new File(
+						folder.newFolder("filter-cache-3"), "filter"))), new FieldValueCache(), "output-unclassified-2");
+		observedOutput = writeRdf(new DrugbankXmlFileRecordReader(drugBankFile), 1, 0, -1,
+				new DefaultDuplicateStatementFilter(new File(folder.newFolder("filter-cache-4"), "filter")),
+				new FieldValueCache(), "output-classified-2");
+		assertEquals(expectedOutput, observedOutput);
+	}
+
+	/**
+	 * Hands unclassified copies of the statements it sees to another filter
+	 */
+	private static class UnclassifiedStatementFilter implements DuplicateStatementFilter {
+		private final DuplicateStatementFilter filter;
+
+		public UnclassifiedStatementFilter(DuplicateStatementFilter filter) {
+			this.filter = filter;
+		}
+
+		@Override
+		public boolean alreadyObservedRecordUri(URIImpl recordUri) {
+			return filter.alreadyObservedRecordUri(recordUri);
+		}
+
+		@Override
+		public boolean alreadyObservedStatement(Statement stmt) {
+			return filter.alreadyObservedStatement(new StatementImpl(stmt.getSubject(), stmt.getPredicate(),
+					stmt.getObject()));
+		}
+
+		@Override
+		public boolean isLeakProof() {
+			return filter.isLeakProof();
+		}
+
+		@Override
+		public void shutdown() throws IOException {
+			filter.shutdown();
+		}
+
+		@Override
+		public void logRecordUri(URIImpl subRecordUri) {
+			filter.logRecordUri(subRecordUri);
+		}
+	}
+
+	/**
+	 * @return a file with enough lines for several record batches. Some lines
+	 *         are repeated so that the duplicate filter comes into play.
+	 * @throws IOException
+	 */
+	private File populateLargeGeneId2NameDatFile() throws IOException {
+		List<String> lines = new ArrayList<String>();
+		for (int i = 0; i < 2500; i++) {
+			int id = i % 2000;
+			lines.add(createGeneId2NameDatLine(id, "GENE-" + id, id % 23,
+					CollectionsUtil.createSet(i % 50, (i * 7) % 97)));
+		}
+		File file = folder.newFile("geneId2Name_large.dat");
+		FileWriterUtil.printLines(lines, file, CharacterEncoding.US_ASCII, WriteMode.OVERWRITE,
+				FileSuffixEnforcement.OFF);
+		return file;
+	}
+
+	/**
+	 * @return a mapping from the name of each generated RDF file to its
+	 *         content, in the order the files were generated
+	 */
+	private Map<String, String> writeRdf(RecordReader<?> recordReader, int workerThreadCount, long skip,
+			long outputRecordLimit) throws IOException {
+		return writeRdf(recordReader, workerThreadCount, skip, outputRecordLimit,
+				new InMemoryDuplicateStatementFilter(), new FieldValueCache(), "output-" + workerThreadCount);
+	}
+
+	/**
+	 * @param fieldValueCache
+	 *            if null, field values are not cached
+	 * @return a mapping from the name of each generated RDF file to its
+	 *         content, in the order the files were generated
+	 */
+	private Map<String, String> writeRdf(RecordReader<?> recordReader, int workerThreadCount, long skip,
+			long outputRecordLimit, DuplicateStatementFilter filter, FieldValueCache fieldValueCache,
+			String outputDirectoryName) throws IOException {
+		File rdfOutputDirectory = folder.newFolder(outputDirectoryName);
+		RdfRecordWriter<RecordReader<?>> recordWriter = new RdfRecordWriter<RecordReader<?>>(rdfOutputDirectory,
+				RdfFormat.NTRIPLES, false, 1000, 0, filter);
+		recordWriter.setWorkerThreadCount(workerThreadCount);
+		recordWriter.setFieldValueCache(fieldValueCache);
+		long createdTimeInMillis20101217 = new GregorianCalendar(2010, 11, 17).getTimeInMillis();
+		Collection<File> rdfFiles = recordWriter.processRecordReader(recordReader, createdTimeInMillis20101217, skip,
+				outputRecordLimit, Collections.<DownloadMetadata> emptySet());
+		Map<String, String> fileNameToContentMap = new LinkedHashMap<String, String>();
+		for (File rdfFile : rdfFiles) {
+			fileNameToContentMap.put(rdfFile.getName(), new String(Files.readAllBytes(rdfFile.toPath()), "UTF-8"));
+		}
+		return fileNameToContentMap;
+	}
+
+	/**
+	 * @return the lines of the RDF output, in order, with repeated lines
+	 *         removed
+	 */
+	private static List<String> getDistinctLines(Map<String, String> fileNameToContentMap) {
+		Set<String> lines = new LinkedHashSet<String>();
+		for (String content : fileNameToContentMap.values()) {
+			lines.addAll(Arrays.asList(content.split("\n")));
+		}
+		return new ArrayList<String>(lines);
+	}
+
 	private List<String> getExpectedMetadatalines(DownloadMetadata dmd) {
 		URIImpl metadataUri = RdfRecordWriter.computeDownloadMetadataUri(dmd);
 		/* @formatter:off */
@@ -0,0 +1,402 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openrdf.model.Statement;
+import org.openrdf.model.impl.StatementImpl;
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.model.vocabulary.RDF;
+
+import edu.ucdenver.ccp.common.collections.CollectionsUtil;
+import edu.ucdenver.ccp.common.file.CharacterEncoding;
+import edu.ucdenver.ccp.common.io.ClassPathUtil;
+import edu.ucdenver.ccp.common.reflection.PrivateAccessor;
+import edu.ucdenver.ccp.common.string.StringConstants;
+import edu.ucdenver.ccp.datasource.fileparsers.CcpExtensionOntology;
+import edu.ucdenver.ccp.datasource.fileparsers.DataRecord;
+import edu.ucdenver.ccp.datasource.fileparsers.Record;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordField;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.RecordUtil;
+import edu.ucdenver.ccp.datasource.fileparsers.drugbank.DrugbankXmlFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtXmlFileParserTest;
+import edu.ucdenver.ccp.datasource.fileparsers.ebi.uniprot.UniProtXmlFileRecordReader;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileParser;
+import edu.ucdenver.ccp.datasource.fileparsers.ncbi.gene.NcbiGeneInfoFileParserTest;
+import edu.ucdenver.ccp.datasource.identifiers.DataSource;
+import edu.ucdenver.ccp.datasource.identifiers.DataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.identifiers.ProbableErrorDataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.identifiers.UnknownDataSourceIdentifier;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.NcbiGeneId;
+import edu.ucdenver.ccp.datasource.identifiers.impl.bio.UniProtID;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.NoOpDuplicateStatementFilter;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.ice.RecordSchema.SchemaField;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.vocabulary.RO;
+
+/**
+ * Tests that a {@link RecordSchema} describes a record class in the same way as the reflection
+ * based methods of {@link RecordUtil} that it replaces
+ * 
+ * @author Colorado Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class RecordSchemaTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final long CREATED_TIME = new GregorianCalendar(2010, 11, 17).getTimeInMillis();
+
+	@Record(dataSource = DataSource.KEGG, ontClass = CcpExtensionOntology.HGNC_GENE_RECORD)
+	private static class TestRecord implements DataRecord {
+		@RecordField(ontClass = CcpExtensionOntology.SYMBOL_FIELD_VALUE, isKeyField = true)
+		private String stringField = "1";
+		@RecordField(ontClass = CcpExtensionOntology.FILE_SIZE_BYTES)
+		private int primitiveIntField = 2;
+		@RecordField(ontClass = CcpExtensionOntology.SYNONYMS_FIELD_VALUE)
+		private Collection<String> collectionField = Arrays.asList("3", "4");
+		@SuppressWarnings("unused")
+		private String unannotatedField = "5";
+	}
+
+	@Record(dataSource = DataSource.KEGG, ontClass = CcpExtensionOntology.GOA_GAF_RECORD)
+	private static class TestRecordWithSubRecords extends TestRecord {
+		@RecordField(ontClass = CcpExtensionOntology.SUBRECORD)
+		private SubRecord subRecordField = new SubRecord();
+		@RecordField(ontClass = CcpExtensionOntology.SUBRECORD)
+		private List<SubRecord> subRecordListField = Collections.singletonList(new SubRecord());
+	}
+
+	@Record(dataSource = DataSource.KEGG, ontClass = CcpExtensionOntology.HPO_ANNOTATION_RECORD)
+	private static class SubRecord implements DataRecord {
+		@RecordField(ontClass = CcpExtensionOntology.NAME_SYNONYMS_FIELD_VALUE)
+		private String subStringField = "AABBCC";
+	}
+
+	@Record(dataSource = DataSource.KEGG, ontClass = CcpExtensionOntology.HGNC_GENE_RECORD)
+	private static class IdentifierRecord implements DataRecord {
+		@RecordField(ontClass = CcpExtensionOntology.SYMBOL_FIELD_VALUE, isKeyField = true)
+		private NcbiGeneId geneId = new NcbiGeneId(12345);
+		@RecordField(ontClass = CcpExtensionOntology.SYNONYMS_FIELD_VALUE)
+		private Set<DataSourceIdentifier<?>> ids = CollectionsUtil.<DataSourceIdentifier<?>> createSet(new UniProtID(
+				"P12345"), new ProbableErrorDataSourceIdentifier("P1", "UniProt", "invalid"),
+				new ProbableErrorDataSourceIdentifier("P2", "UniProt", "invalid"), new UnknownDataSourceIdentifier(
+						"X:1"));
+		@RecordField(ontClass = CcpExtensionOntology.SUBRECORD)
+		private SubRecord subRecordField = new SubRecord();
+	}
+
+	private static class UnannotatedRecord implements DataRecord {
+		@RecordField
+		private String stringField = "1";
+	}
+
+	@Test
+	public void testFieldsAreSortedByName() {
+		List<String> fieldNames = new ArrayList<String>();
+		for (SchemaField field : RecordSchema.forClass(TestRecordWithSubRecords.class).getFields()) {
+			fieldNames.add(field.getName());
+		}
+		assertEquals(Arrays.asList("collectionField", "primitiveIntField", "stringField", "subRecordField",
+				"subRecordListField"), fieldNames);
+	}
+
+	@Test
+	public void testFieldAttributes() {
+		List<SchemaField> fields = RecordSchema.forClass(TestRecordWithSubRecords.class).getFields();
+		SchemaField stringField = fields.get(2);
+		assertTrue(stringField.isKeyField());
+		assertFalse(stringField.isSubRecord());
+		assertEquals(RdfUtil.getUri(CcpExtensionOntology.SYMBOL_FIELD_VALUE), stringField.getFieldTypeUri());
+		assertEquals("<" + CcpExtensionOntology.SYMBOL_FIELD_VALUE.uri() + ">", stringField.getBracketedFieldTypeUri());
+		assertFalse(fields.get(0).isKeyField());
+		assertFalse(fields.get(0).isSubRecord());
+		assertTrue(fields.get(3).isSubRecord());
+		assertTrue(fields.get(4).isSubRecord());
+		assertEquals(RdfUtil.getUri(CcpExtensionOntology.GOA_GAF_RECORD),
+				RecordSchema.forClass(TestRecordWithSubRecords.class).getRecordTypeUri());
+	}
+
+	@Test
+	public void testFieldValues() {
+		TestRecordWithSubRecords record = new TestRecordWithSubRecords();
+		for (SchemaField field : RecordSchema.forClass(record.getClass()).getFields()) {
+			assertEquals(field.getName(), PrivateAccessor.getFieldValue(record, field.getName()), field.getValue(record));
+		}
+		assertEquals(Integer.valueOf(2), RecordSchema.forClass(TestRecord.class).getFields().get(1).getValue(record));
+	}
+
+	@Test
+	public void testSchemaIsComputedOnce() {
+		assertSame(RecordSchema.forClass(TestRecord.class), RecordSchema.forClass(TestRecord.class));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingRecordAnnotation() {
+		RecordSchema.forClass(UnannotatedRecord.class).getRecordTypeUri();
+	}
+
+	/**
+	 * Compares the schema of every {@link Record}-annotated class in the file parsers module with
+	 * the annotations retrieved by {@link RecordUtil}
+	 */
+	@Test
+	public void testSchemasOfAllRecordClasses() throws Exception {
+		List<Class<?>> recordClasses = getRecordClasses();
+		assertTrue("Expected to find the record classes of the file parsers module", recordClasses.size() > 10);
+		for (Class<?> recordClass : recordClasses) {
+			RecordSchema schema = RecordSchema.forClass(recordClass);
+			assertEquals(recordClass.getName(), RdfUtil.getUri(RecordUtil.getRecordType(recordClass)),
+					schema.getRecordTypeUri());
+
+			List<String> expectedFieldNames = new ArrayList<String>();
+			for (Field field : RecordUtil.getFieldToRecordFieldAnnotationsMap(recordClass).keySet()) {
+				expectedFieldNames.add(field.getName());
+			}
+			Collections.sort(expectedFieldNames);
+			assertEquals(recordClass.getName(), expectedFieldNames.size(), schema.getFields().size());
+
+			for (int i = 0; i < expectedFieldNames.size(); i++) {
+				String fieldName = expectedFieldNames.get(i);
+				SchemaField field = schema.getFields().get(i);
+				String message = recordClass.getName() + "." + fieldName;
+				assertEquals(message, fieldName, field.getName());
+				assertEquals(message, RdfRecordUriFactory.getRecordFieldTypeUri(recordClass, fieldName),
+						field.getFieldTypeUri());
+				assertEquals(message, RecordUtil.isKeyRecordField(recordClass, fieldName), field.isKeyField());
+			}
+		}
+	}
+
+	/**
+	 * Compares the statements generated using {@link RecordSchema} with those generated by
+	 * {@link #getReflectiveStatements(Object, URIImpl, URIImpl)}, which follows the reflection based
+	 * implementation that the schema replaced
+	 */
+	@Test
+	public void testSchemaStatementsMatchReflectiveStatements() throws IOException {
+		assertSameStatements(new TestRecordWithSubRecords());
+		assertSameStatements(new IdentifierRecord());
+	}
+
+	@Test
+	public void testSchemaStatementsMatchReflectiveStatementsForSampleFiles() throws IOException {
+		assertSameStatements(new NcbiGeneInfoFileParser(copySampleFile(NcbiGeneInfoFileParserTest.class,
+				"EntrezGene_gene_info"), CharacterEncoding.US_ASCII));
+		assertSameStatements(new UniProtXmlFileRecordReader(copySampleFile(UniProtXmlFileParserTest.class,
+				"sprot_small2.xml"), null));
+		assertSameStatements(new DrugbankXmlFileRecordReader(copySampleFile(DrugbankXmlFileRecordReader.class,
+				"drugbank.xml")));
+	}
+
+	private File copySampleFile(Class<?> cls, String fileName) throws IOException {
+		File file = folder.newFile(fileName);
+		ClassPathUtil.copyClasspathResourceToFile(cls, fileName, file);
+		return file;
+	}
+
+	private static void assertSameStatements(RecordReader<?> recordReader) throws IOException {
+		int recordCount = 0;
+		try {
+			while (recordReader.hasNext()) {
+				assertSameStatements(recordReader.next());
+				recordCount++;
+			}
+		} finally {
+			recordReader.close();
+		}
+		assertTrue("Sample file should contain records", recordCount > 0);
+	}
+
+	/**
+	 * Checks the statements generated with and without a {@link FieldValueCache}
+	 */
+	private static void assertSameStatements(Object record) {
+		URIImpl recordUri = RdfRecordUriFactory.createRecordUri(record);
+		List<Statement> expected = getReflectiveStatements(record, recordUri, null);
+		assertEquals(record.getClass().getName(), new HashSet<Statement>(expected), new HashSet<Statement>(
+				RdfRecordUtil.getRecordInstanceStatements(record, CREATED_TIME, recordUri, null,
+						StringConstants.BLANK, new NoOpDuplicateStatementFilter())));
+		FieldValueCache cache = new FieldValueCache();
+		for (int i = 0; i < 2; i++) {
+			List<Statement> statements = RdfRecordUtil.createRecordStatements(record, CREATED_TIME, recordUri,
+					null, StringConstants.BLANK, cache).resolve(new NoOpDuplicateStatementFilter());
+			assertEquals(record.getClass().getName(), new HashSet<Statement>(expected), new HashSet<Statement>(
+					statements));
+		}
+	}
+
+	/**
+	 * Generates the statements for a record by reflection, as RdfRecordUtil did before record
+	 * schemas were introduced, without filtering duplicate statements
+	 */
+	private static List<Statement> getReflectiveStatements(Object record, URIImpl recordUri, URIImpl parentRecordUri) {
+		List<Statement> statements = new ArrayList<Statement>();
+		if (parentRecordUri != null) {
+			statements.add(new StatementImpl(parentRecordUri, RO.HAS_PART.uri(), recordUri));
+		} else {
+			statements.add(new StatementImpl(RdfRecordUtil.getRecordSetInstanceUri((DataRecord) record,
+					StringConstants.BLANK, CREATED_TIME), RO.HAS_PART.uri(), recordUri));
+		}
+		statements.add(new StatementImpl(recordUri, RDF.TYPE, RdfUtil.getUri(RecordUtil.getRecordType(record
+				.getClass()))));
+
+		List<Field> fields = new ArrayList<Field>(RecordUtil.getFieldToRecordFieldAnnotationsMap(record.getClass())
+				.keySet());
+		Collections.sort(fields, new Comparator<Field>() {
+			@Override
+			public int compare(Field f1, Field f2) {
+				return f1.getName().compareTo(f2.getName());
+			}
+		});
+		for (Field field : fields) {
+			Object fieldValue = PrivateAccessor.getFieldValue(record, field.getName());
+			if (fieldValue == null) {
+				continue;
+			}
+			URIImpl fieldTypeUri = RdfUtil.getUri(RecordUtil.getRecordFieldType(record.getClass(), field.getName()));
+			Collection<?> values = (fieldValue instanceof Collection) ? (Collection<?>) fieldValue : Collections
+					.singleton(fieldValue);
+			for (Object value : values) {
+				if (isSubRecordField(field)) {
+					URIImpl subRecordUri = RdfRecordUriFactory.createRecordUri(value, field.getName());
+					statements.addAll(getReflectiveStatements(value, subRecordUri, recordUri));
+					statements.add(new StatementImpl(subRecordUri, RDF.TYPE, fieldTypeUri));
+				} else {
+					URIImpl fieldUri = RdfRecordUriFactory.createFieldUri(record, field, value);
+					if (fieldUri != null) {
+						statements.add(new StatementImpl(recordUri, RO.HAS_PART.uri(), fieldUri));
+						statements.add(new StatementImpl(fieldUri, RDF.TYPE, fieldTypeUri));
+						statements.addAll(RdfRecordUtil.getFieldDenotesValueStatement(fieldUri, value, CREATED_TIME,
+								null));
+					}
+				}
+			}
+		}
+		return statements;
+	}
+
+	private static boolean isSubRecordField(Field field) {
+		Class<?> cls = field.getType();
+		if (Collection.class.isAssignableFrom(cls)) {
+			Type genericType = field.getGenericType();
+			if (genericType instanceof ParameterizedType) {
+				Type[] typeArguments = ((ParameterizedType) genericType).getActualTypeArguments();
+				if (typeArguments.length > 0 && typeArguments[0] instanceof Class) {
+					cls = (Class<?>) typeArguments[0];
+				}
+			}
+		}
+		return cls.isAnnotationPresent(Record.class);
+	}
+
+	/**
+	 * @return the classes annotated with {@link Record} that are located in the same jar file (or
+	 *         class directory) as {@link RecordUtil}
+	 */
+	private static List<Class<?>> getRecordClasses() throws URISyntaxException, IOException {
+		File location = new File(RecordUtil.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		List<String> classFileNames = new ArrayList<String>();
+		if (location.isDirectory()) {
+			addClassFileNames(location, "", classFileNames);
+		} else {
+			JarFile jarFile = new JarFile(location);
+			try {
+				for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+					String name = entries.nextElement().getName();
+					if (name.endsWith(".class")) {
+						classFileNames.add(name);
+					}
+				}
+			} finally {
+				jarFile.close();
+			}
+		}
+
+		List<Class<?>> recordClasses = new ArrayList<Class<?>>();
+		for (String classFileName : classFileNames) {
+			String className = classFileName.substring(0, classFileName.length() - ".class".length()).replace('/',
+					'.');
+			Class<?> cls;
+			try {
+				cls = Class.forName(className, false, RecordSchemaTest.class.getClassLoader());
+			} catch (Throwable t) {
+				/* classes whose dependencies are not on the test class path are skipped */
+				continue;
+			}
+			if (cls.isAnnotationPresent(Record.class)) {
+				recordClasses.add(cls);
+			}
+		}
+		return recordClasses;
+	}
+
+	private static void addClassFileNames(File directory, String path, List<String> classFileNames) {
+		for (File file : directory.listFiles()) {
+			if (file.isDirectory()) {
+				addClassFileNames(file, path + file.getName() + "/", classFileNames);
+			} else if (file.getName().endsWith(".class")) {
+				classFileNames.add(path + file.getName());
+			}
+		}
+	}
+
+}
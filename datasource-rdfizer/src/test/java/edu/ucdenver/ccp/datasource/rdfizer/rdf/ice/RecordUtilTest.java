@@ -35,6 +35,7 @@ package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.net.URISyntaxException;
@@ -42,7 +43,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.Test;
@@ -67,6 +70,9 @@ import edu.ucdenver.ccp.datasource.identifiers.Identifier;
 import edu.ucdenver.ccp.datasource.identifiers.IntegerDataSourceIdentifier;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.GeneOntologyID;
 import edu.ucdenver.ccp.datasource.identifiers.impl.bio.HgncGeneSymbolID;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.ClassifiedStatement;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.ClassifiedStatement.Kind;
+import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.DuplicateFieldValueFilter;
 import edu.ucdenver.ccp.datasource.rdfizer.rdf.filter.NoOpDuplicateStatementFilter;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -360,4 +366,72 @@ public class RecordUtilTest {
 				LineTrim.OFF, ShowWhiteSpace.OFF));
 	}
 	
+	@Record(dataSource = DataSource.HGNC, ontClass = CcpExtensionOntology.HGNC_GENE_RECORD)
+	private static class TestDataRecordWithKeyField implements DataRecord {
+		@RecordField(ontClass = CcpExtensionOntology.HGNC_GENE_RECORD___HGNC_IDENTIFIER_FIELD_VALUE, isKeyField = true)
+		private HgncGeneSymbolID hgncId = new HgncGeneSymbolID("ABBA");
+		@RecordField(ontClass = CcpExtensionOntology.SYMBOL_FIELD_VALUE)
+		private String stringField = "1";
+		@RecordField(ontClass = CcpExtensionOntology.DATABASE_CROSS_REFERENCE_IDENTIFIER_FIELD_VALUE)
+		private TestDataSubRecord subRecord = new TestDataSubRecord();
+	}
+
+	/**
+	 * Generated statements are classified by kind. None of the generated URIs
+	 * are field value URIs of the form tracked by the
+	 * {@link DuplicateFieldValueFilter}, so none of the statements have a
+	 * filter key.
+	 */
+	@Test
+	public final void testGetRecordInstanceStatementsAreClassified() throws URISyntaxException {
+		long createdTimeInMillis = new GregorianCalendar(2010, 11, 21).getTimeInMillis();
+		Collection<? extends Statement> statements = RdfRecordUtil.getRecordInstanceStatements(
+				new TestDataRecordWithKeyField(), createdTimeInMillis, new URIImpl("http://record.uri"),
+				new NoOpDuplicateStatementFilter());
+
+		Map<Kind, Integer> kindToCountMap = new HashMap<Kind, Integer>();
+		for (Statement stmt : statements) {
+			assertTrue("statement should be classified: " + stmt, stmt instanceof ClassifiedStatement);
+			ClassifiedStatement classifiedStmt = (ClassifiedStatement) stmt;
+			assertNull(classifiedStmt.getFilterKey());
+			assertEquals(DuplicateFieldValueFilter.getFilterKey(stmt.getSubject()), classifiedStmt.getFilterKey());
+			CollectionsUtil.addToCountMap(classifiedStmt.getKind(), kindToCountMap);
+		}
+		assertEquals(16, statements.size());
+		/* record set has_part, record type, has_part of the two fields, sub-record type and has_part of its field */
+		assertEquals(Integer.valueOf(6), kindToCountMap.get(Kind.RECORD_INSTANCE));
+		/* two rdf:type statements and the label of the identifier field */
+		assertEquals(Integer.valueOf(3), kindToCountMap.get(Kind.KEY_FIELD));
+		assertEquals(Integer.valueOf(1), kindToCountMap.get(Kind.IDENTIFIER_TYPE));
+		/* rdf:type and label of the string field and of the sub-record field */
+		assertEquals(Integer.valueOf(4), kindToCountMap.get(Kind.FIELD_VALUE));
+		/* has_part linking the sub-record to the record and the sub-record field type */
+		assertEquals(Integer.valueOf(2), kindToCountMap.get(Kind.SUB_RECORD));
+	}
+
+	/**
+	 * Filter keys are only derived from the record URI supplied by the caller;
+	 * the URIs generated for sub-records, fields and identifiers never carry a
+	 * key
+	 */
+	@Test
+	public final void testGetRecordInstanceStatementsWithKeyedRecordUri() throws URISyntaxException {
+		long createdTimeInMillis = new GregorianCalendar(2010, 11, 21).getTimeInMillis();
+		URIImpl recordUri = new URIImpl("http://kabob.ucdenver.edu/iao/eg/F_record_abc");
+		Collection<? extends Statement> statements = RdfRecordUtil.getRecordInstanceStatements(
+				new TestDataRecordWithKeyField(), createdTimeInMillis, recordUri, new NoOpDuplicateStatementFilter());
+
+		int keyedStatementCount = 0;
+		for (Statement stmt : statements) {
+			ClassifiedStatement classifiedStmt = (ClassifiedStatement) stmt;
+			assertEquals(DuplicateFieldValueFilter.getFilterKey(stmt.getSubject()), classifiedStmt.getFilterKey());
+			if (classifiedStmt.getFilterKey() != null) {
+				assertEquals("abc", classifiedStmt.getFilterKey());
+				keyedStatementCount++;
+			}
+		}
+		/* record type, has_part of the two fields and of the sub-record */
+		assertEquals(4, keyedStatementCount);
+	}
+
 }
@@ -0,0 +1,220 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.impl.BNodeImpl;
+import org.openrdf.model.impl.LiteralImpl;
+import org.openrdf.model.impl.StatementImpl;
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.model.vocabulary.XMLSchema;
+
+/**
+ * @author Colorado Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class RollingStatementWindowTest {
+
+	private static final URI SUBJECT = new URIImpl("http://kabob.ucdenver.edu/iao/hgnc/F_1");
+	private static final URI PREDICATE = new URIImpl("http://purl.obolibrary.org/obo/IAO_0000219");
+
+	@Test
+	public void testContainsOrAdd() {
+		RollingStatementWindow window = new RollingStatementWindow(3);
+		Statement s1 = statement(new LiteralImpl("1"));
+		Statement s2 = statement(new LiteralImpl("2"));
+		Statement s3 = statement(new LiteralImpl("3"));
+		Statement s4 = statement(new LiteralImpl("4"));
+		assertFalse(window.containsOrAdd(s1));
+		assertTrue(window.containsOrAdd(s1));
+		assertTrue("an equal statement instance should be found", window.containsOrAdd(statement(new LiteralImpl("1"))));
+		assertFalse(window.containsOrAdd(s2));
+		assertFalse(window.containsOrAdd(s3));
+		assertEquals(3, window.size());
+		assertFalse("s1 is the oldest statement and should be evicted", window.containsOrAdd(s4));
+		assertEquals(3, window.size());
+		assertTrue(window.containsOrAdd(s2));
+		assertTrue(window.containsOrAdd(s3));
+		assertTrue(window.containsOrAdd(s4));
+		assertFalse(window.containsOrAdd(s1));
+	}
+
+	@Test
+	public void testTermsAreCompared() {
+		RollingStatementWindow window = new RollingStatementWindow(RollingStatementWindow.DEFAULT_SIZE);
+		assertFalse(window.containsOrAdd(statement(new LiteralImpl("1"))));
+		assertFalse(window.containsOrAdd(statement(new LiteralImpl("1", "en"))));
+		assertFalse(window.containsOrAdd(statement(new LiteralImpl("1", XMLSchema.INTEGER))));
+		assertFalse(window.containsOrAdd(statement(new LiteralImpl("http://kabob.ucdenver.edu/iao/hgnc/F_1"))));
+		assertFalse(window.containsOrAdd(statement(SUBJECT)));
+		assertFalse(window.containsOrAdd(statement(new BNodeImpl("http://kabob.ucdenver.edu/iao/hgnc/F_1"))));
+		assertTrue(window.containsOrAdd(statement(new LiteralImpl("1", "en"))));
+		assertTrue(window.containsOrAdd(statement(new URIImpl("http://kabob.ucdenver.edu/iao/hgnc/F_1"))));
+		assertEquals(6, window.size());
+	}
+
+	/**
+	 * Distinct statements with the same fingerprint are never treated as
+	 * duplicates of each other; each is remembered in its own slot
+	 */
+	@Test
+	public void testFingerprintCollision() {
+		RollingStatementWindow window = new RollingStatementWindow(3);
+		Statement s1 = statement(new LiteralImpl("1"));
+		Statement s2 = statement(new LiteralImpl("2"));
+		Statement s3 = statement(new LiteralImpl("3"));
+		long fingerprint = 42;
+		assertFalse(window.containsOrAdd(s1, fingerprint));
+		assertFalse(window.containsOrAdd(s2, fingerprint));
+		assertFalse(window.containsOrAdd(s3, fingerprint));
+		assertTrue(window.containsOrAdd(s1, fingerprint));
+		assertTrue(window.containsOrAdd(s2, fingerprint));
+		assertTrue(window.containsOrAdd(s3, fingerprint));
+		/* evicting s1 must leave s2 and s3 reachable */
+		assertFalse(window.containsOrAdd(statement(new LiteralImpl("4")), fingerprint));
+		assertTrue(window.containsOrAdd(s2, fingerprint));
+		assertTrue(window.containsOrAdd(s3, fingerprint));
+		assertFalse(window.containsOrAdd(s1, fingerprint));
+	}
+
+	@Test
+	public void testZeroSize() {
+		RollingStatementWindow window = new RollingStatementWindow(0);
+		Statement s1 = statement(new LiteralImpl("1"));
+		assertFalse(window.containsOrAdd(s1));
+		assertFalse(window.containsOrAdd(s1));
+		assertEquals(0, window.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeSize() {
+		new RollingStatementWindow(-1);
+	}
+
+	/**
+	 * Compares the window against the string-based window it replaced over a
+	 * stream of statements containing many repeats
+	 */
+	@Test
+	public void testSameSuppressionAsStringWindow() {
+		List<Statement> pool = createStatementPool();
+		for (int size : new int[] { 1, 2, 7, 64, RollingStatementWindow.DEFAULT_SIZE }) {
+			Random random = new Random(size);
+			RollingStatementWindow window = new RollingStatementWindow(size);
+			StringWindow expectedWindow = new StringWindow(size);
+			int suppressedCount = 0;
+			for (int i = 0; i < 200000; i++) {
+				Statement stmt = pool.get(random.nextInt(random.nextBoolean() ? 50 : pool.size()));
+				boolean expected = expectedWindow.containsOrAdd(stmt);
+				assertEquals("window size: " + size + " statement #" + i + ": " + stmt, expected,
+						window.containsOrAdd(stmt));
+				if (expected) {
+					suppressedCount++;
+				}
+			}
+			assertEquals(expectedWindow.list.size(), window.size());
+			assertTrue(suppressedCount > 0);
+		}
+	}
+
+	private static List<Statement> createStatementPool() {
+		List<Statement> pool = new ArrayList<Statement>();
+		for (int i = 0; i < 1000; i++) {
+			Resource subject = (i % 7 == 0) ? new BNodeImpl("b" + i % 100) : new URIImpl(SUBJECT + "_" + i % 100);
+			URI predicate = new URIImpl(PREDICATE + "_" + i % 3);
+			Value object;
+			switch (i % 4) {
+			case 0:
+				object = new LiteralImpl(Integer.toString(i % 10), XMLSchema.INTEGER);
+				break;
+			case 1:
+				object = new LiteralImpl(Integer.toString(i % 10), "en");
+				break;
+			case 2:
+				object = new LiteralImpl(Integer.toString(i % 10));
+				break;
+			default:
+				object = new URIImpl(SUBJECT + "_" + i % 10);
+			}
+			pool.add(new StatementImpl(subject, predicate, object));
+		}
+		return pool;
+	}
+
+	private static Statement statement(Value object) {
+		return new StatementImpl(SUBJECT, PREDICATE, object);
+	}
+
+	/**
+	 * The string-based window previously used by the {@link RdfRecordWriter}
+	 */
+	private static class StringWindow {
+		private final Set<String> set = new HashSet<String>();
+		private final LinkedList<String> list = new LinkedList<String>();
+		private final int maxSize;
+
+		StringWindow(int maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		boolean containsOrAdd(Statement stmt) {
+			String stmtStr = stmt.toString();
+			if (set.contains(stmtStr)) {
+				return true;
+			}
+			if (list.size() >= maxSize) {
+				set.remove(list.removeLast());
+			}
+			set.add(stmtStr);
+			list.addFirst(stmtStr);
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,122 @@
+package edu.ucdenver.ccp.datasource.rdfizer.rdf.ice;
+
+/*
+ * #%L
+ * Colorado Computational Pharmacology's common module
+ * %%
+ * Copyright (C) 2012 - 2015 Regents of the University of Colorado
+ * %%
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the Regents of the University of Colorado nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import org.junit.Test;
+
+import edu.ucdenver.ccp.common.digest.DigestUtil;
+
+/**
+ * @author Colorado Computational Pharmacology, UC Denver; ccpsupport@ucdenver.edu
+ * 
+ */
+public class UriDigesterTest {
+
+	private static final String FIELD_TYPE_URI = "<http://ccp.ucdenver.edu/obo/ext/IAO_EXT_0000039>";
+
+	@Test
+	public void testDigest() {
+		/* digests of field URIs in the expected output of RecordUtilTest */
+		assertEquals("Lz1H_luk2EuSt6cgRPmqsJrQM-c",
+				UriDigester.forCurrentThread().update(FIELD_TYPE_URI)
+						.update("\"2\"^^<http://www.w3.org/2001/XMLSchema#integer>").digest());
+		assertEquals("Y1hjcJI45sdEWqlDHGqW-ZTXRsA",
+				UriDigester.forCurrentThread().update("<http://ccp.ucdenver.edu/obo/ext/IAO_EXT_0000032>")
+						.update("\"1\"@en").digest());
+		assertEquals("rDxk7YubQFdit8u2ZpR1WVKWSDY",
+				UriDigester.forCurrentThread().update(FIELD_TYPE_URI).update("\"gene name\"@en")
+						.update("<http://ccp.ucdenver.edu/obo/ext/IAO_EXT_0000032>").update("\"1\"@en").digest());
+		assertEquals("2jmj7l5rSw0yVb_vlWAYkK_YBwk", UriDigester.forCurrentThread().update("").digest());
+	}
+
+	@Test
+	public void testDigestOfInputLargerThanBuffer() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			sb.append("0123456789");
+		}
+		assertEquals("cgxalNVWUiFl0THJ_Q8ljz1quM4", UriDigester.forCurrentThread().update(sb.toString()).digest());
+	}
+
+	@Test
+	public void testDigestMatchesDigestUtil() {
+		String value = "\"a \\\"quoted\\\" value\\n\"@en";
+		assertEquals(DigestUtil.getBase64Sha1Digest(FIELD_TYPE_URI + value),
+				UriDigester.forCurrentThread().update(FIELD_TYPE_URI).update(value).digest());
+	}
+
+	@Test
+	public void testNonAsciiInput() throws Exception {
+		assertEquals(utf8Digest(FIELD_TYPE_URI + "\"caf\u00e9\"@en"),
+				UriDigester.forCurrentThread().update(FIELD_TYPE_URI).update("\"caf\u00e9\"@en").digest());
+		assertEquals(utf8Digest("\u4e2d\u6587"), UriDigester.forCurrentThread().update("\u4e2d\u6587").digest());
+		assertEquals(utf8Digest("a\uD83D\uDE00b"), UriDigester.forCurrentThread().update("a\uD83D\uDE00b").digest());
+	}
+
+	@Test
+	public void testSurrogatePairSplitAcrossUpdates() throws Exception {
+		assertEquals(utf8Digest("a\uD83D\uDE00b"),
+				UriDigester.forCurrentThread().update("a\uD83D").update("\uDE00b").digest());
+	}
+
+	@Test
+	public void testUnpairedSurrogates() throws Exception {
+		assertEquals(utf8Digest("a\uD83Db"), UriDigester.forCurrentThread().update("a\uD83Db").digest());
+		assertEquals(utf8Digest("a\uDE00b"), UriDigester.forCurrentThread().update("a\uDE00b").digest());
+		assertEquals(utf8Digest("a\uD83D"), UriDigester.forCurrentThread().update("a\uD83D").digest());
+		assertEquals(utf8Digest("a\uD83D\uD83D\uDE00"),
+				UriDigester.forCurrentThread().update("a\uD83D").update("\uD83D\uDE00").digest());
+	}
+
+	@Test
+	public void testNonAsciiInputLargerThanBuffer() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 300; i++) {
+			sb.append("\u00e9\u4e2d\uD83D\uDE00");
+		}
+		assertEquals(utf8Digest(sb.toString()), UriDigester.forCurrentThread().update(sb.toString()).digest());
+	}
+
+	private static String utf8Digest(String s) throws Exception {
+		byte[] sha1 = MessageDigest.getInstance("SHA-1").digest(s.getBytes(StandardCharsets.UTF_8));
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(sha1);
+	}
+
+}